@@ -28,6 +28,7 @@ import java.util.GregorianCalendar;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.nuxeo.ecm.core.api.DocumentModel.DocumentModelRefresh;
 import org.nuxeo.ecm.core.api.event.DocumentEventTypes;
@@ -1094,6 +1095,25 @@ public interface CoreSession {
      */
     IterableQueryResult queryAndFetch(String query, String queryType, boolean distinctDocuments, Object... params);
 
+    /**
+     * Executes the given query and returns a stream of maps containing the requested properties.
+     * <p>
+     * Unlike {@link #queryAndFetch}, results are read from the backend in batches through a cursor as the stream is
+     * consumed, so that very large results can be processed in constant memory. The stream is not sized and cannot be
+     * repositioned.
+     * <p>
+     * The stream holds backend resources and <b>must</b> be closed after use, typically using try-with-resources.
+     *
+     * @param query the query to execute
+     * @param queryType the query type, usually "NXQL"
+     * @param distinctDocuments if {@code true} then a maximum of one row per document will be returned
+     * @param params optional query-type-dependent parameters
+     * @return a stream of maps, which <b>must</b> be closed after use
+     * @since 11.3
+     */
+    Stream<Map<String, Serializable>> queryAndFetchStream(String query, String queryType, boolean distinctDocuments,
+            Object... params);
+
     /**
      * Executes the given NXQL query and returns the result that matches the filter.
      *
@@ -21,6 +21,8 @@ package org.nuxeo.ecm.core.api;
 import java.io.Closeable;
 import java.io.Serializable;
 import java.util.Map;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * An iterable query result based on a cursor.
@@ -82,4 +84,13 @@ public interface IterableQueryResult extends Iterable<Map<String, Serializable>>
      */
     void skipTo(long pos);
 
+    /**
+     * Returns a sequential stream over the remaining results. Closing the stream closes this query result.
+     *
+     * @since 11.3
+     */
+    default Stream<Map<String, Serializable>> stream() {
+        return StreamSupport.stream(spliterator(), false).onClose(this::close);
+    }
+
 }
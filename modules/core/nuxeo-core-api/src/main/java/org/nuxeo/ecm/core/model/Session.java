@@ -23,6 +23,7 @@ import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.nuxeo.ecm.core.api.CoreSession;
 import org.nuxeo.ecm.core.api.DocumentNotFoundException;
@@ -62,6 +63,18 @@ public interface Session<T extends QueryFilter> {
     IterableQueryResult queryAndFetch(String query, String queryType, T queryFilter, boolean distinctDocuments,
             Object[] params);
 
+    /**
+     * Does a query and streams the individual results as maps, without holding the full result in memory when the
+     * backend supports it.
+     *
+     * @return a stream, which <b>must</b> be closed when done
+     * @since 11.3
+     */
+    default Stream<Map<String, Serializable>> queryAndFetchStream(String query, String queryType, T queryFilter,
+            boolean distinctDocuments, Object[] params) {
+        return queryAndFetch(query, queryType, queryFilter, distinctDocuments, params).stream();
+    }
+
     /**
      * Does a query and fetch the individual results as maps.
      *
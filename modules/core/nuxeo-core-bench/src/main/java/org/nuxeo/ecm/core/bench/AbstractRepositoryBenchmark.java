@@ -0,0 +1,68 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.bench;
+
+import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.runtime.transaction.TransactionHelper;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Base class for the benchmarks that need a repository, started once per backend.
+ * <p>
+ * MongoDB and PostgreSQL are not run by default as they need a running server, use the JMH {@code -p backend=...}
+ * option to select them.
+ *
+ * @since 11.3
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractRepositoryBenchmark {
+
+    @Param({ BenchmarkHelper.MEM, BenchmarkHelper.H2 })
+    public String backend;
+
+    protected CoreBenchmarkRunner runner;
+
+    /** An administrator session. */
+    protected CoreSession session;
+
+    @Setup(Level.Trial)
+    public void setupRepository() {
+        runner = BenchmarkHelper.startRepository(backend);
+        session = runner.getCoreFeature().getCoreSession(BenchmarkHelper.getAdministrator());
+        TransactionHelper.runInTransaction(() -> {
+            BenchmarkHelper.createFolder(session);
+            populate();
+            session.save();
+        });
+    }
+
+    /**
+     * Creates the documents needed by the benchmark, called in a transaction.
+     */
+    protected abstract void populate();
+
+    @TearDown(Level.Trial)
+    public void tearDownRepository() {
+        session = null;
+        BenchmarkHelper.stopRepository(runner);
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.bench;
+
+import static org.nuxeo.ecm.core.storage.sql.DatabaseHelper.DB_PROPERTY;
+import static org.nuxeo.ecm.core.test.StorageConfiguration.CORE_MEM;
+import static org.nuxeo.ecm.core.test.StorageConfiguration.CORE_MONGODB;
+import static org.nuxeo.ecm.core.test.StorageConfiguration.CORE_PROPERTY;
+import static org.nuxeo.ecm.core.test.StorageConfiguration.CORE_VCS;
+
+import java.util.List;
+
+import org.junit.runners.model.InitializationError;
+import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.NuxeoException;
+import org.nuxeo.ecm.core.api.NuxeoPrincipal;
+import org.nuxeo.ecm.core.api.impl.UserPrincipal;
+import org.nuxeo.ecm.core.api.security.ACE;
+import org.nuxeo.ecm.core.api.security.ACL;
+import org.nuxeo.ecm.core.api.security.ACP;
+import org.nuxeo.ecm.core.api.security.SecurityConstants;
+
+/**
+ * Starts the repositories and creates the documents used by the benchmarks.
+ * <p>
+ * The MongoDB backend uses the server defined by the {@code nuxeo.test.mongodb.server} system property, the
+ * PostgreSQL backend the one defined by the {@code nuxeo.test.vcs.server} and related system properties.
+ *
+ * @since 11.3
+ */
+public class BenchmarkHelper {
+
+    /** VCS on an embedded H2 database. */
+    public static final String H2 = "h2";
+
+    /** VCS on a PostgreSQL database. */
+    public static final String POSTGRESQL = "postgresql";
+
+    /** DBS in memory. */
+    public static final String MEM = "mem";
+
+    /** DBS on MongoDB. */
+    public static final String MONGODB = "mongodb";
+
+    public static final String ADMINISTRATOR = "Administrator";
+
+    /** A user that is not an administrator, having only Read access on the benchmark folder. */
+    public static final String USER = "bench-user";
+
+    public static final String FOLDER_PATH = "/bench";
+
+    private BenchmarkHelper() {
+        // utility class
+    }
+
+    /**
+     * Sets the system properties used by the {@link org.nuxeo.ecm.core.test.CoreFeature} to choose the backend. This
+     * must be done before the repository is started, JMH forks a new JVM for each backend.
+     */
+    public static void configureBackend(String backend) {
+        switch (backend) {
+        case H2:
+            System.setProperty(CORE_PROPERTY, CORE_VCS);
+            System.setProperty(DB_PROPERTY, "H2");
+            break;
+        case POSTGRESQL:
+            System.setProperty(CORE_PROPERTY, CORE_VCS);
+            System.setProperty(DB_PROPERTY, "PostgreSQL");
+            break;
+        case MEM:
+            System.setProperty(CORE_PROPERTY, CORE_MEM);
+            break;
+        case MONGODB:
+            System.setProperty(CORE_PROPERTY, CORE_MONGODB);
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown backend: " + backend);
+        }
+    }
+
+    /**
+     * Starts a repository on the given backend.
+     */
+    public static CoreBenchmarkRunner startRepository(String backend) {
+        configureBackend(backend);
+        CoreBenchmarkRunner runner;
+        try {
+            runner = new CoreBenchmarkRunner();
+        } catch (InitializationError e) {
+            throw new NuxeoException(e);
+        }
+        runner.startRepository();
+        return runner;
+    }
+
+    public static void stopRepository(CoreBenchmarkRunner runner) {
+        if (runner != null) {
+            runner.stopRepository();
+        }
+    }
+
+    public static NuxeoPrincipal getAdministrator() {
+        return new UserPrincipal(ADMINISTRATOR, List.of(), false, true);
+    }
+
+    public static NuxeoPrincipal getUser() {
+        return new UserPrincipal(USER, List.of(), false, false);
+    }
+
+    /**
+     * Creates the benchmark folder, readable by {@link #USER}.
+     */
+    public static DocumentModel createFolder(CoreSession session) {
+        DocumentModel folder = session.createDocumentModel("/", FOLDER_PATH.substring(1), "Folder");
+        folder.setPropertyValue("dc:title", "Benchmark");
+        folder = session.createDocument(folder);
+        ACP acp = folder.getACP();
+        ACL acl = acp.getOrCreateACL();
+        acl.add(new ACE(USER, SecurityConstants.READ, true));
+        folder.setACP(acp, true);
+        return folder;
+    }
+
+    /**
+     * Creates a file in the benchmark folder, with a few properties set.
+     */
+    public static DocumentModel createFile(CoreSession session, int i) {
+        DocumentModel doc = session.createDocumentModel(FOLDER_PATH, "file" + i, "File");
+        doc.setPropertyValue("dc:title", getTitle(i));
+        doc.setPropertyValue("dc:description", "Description of benchmark file " + i);
+        doc.setPropertyValue("dc:subjects", new String[] { "bench", "subject" + i % 10 });
+        return session.createDocument(doc);
+    }
+
+    public static String getTitle(int i) {
+        return "File " + i;
+    }
+
+}
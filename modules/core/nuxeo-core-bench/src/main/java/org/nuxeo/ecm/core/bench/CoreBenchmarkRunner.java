@@ -0,0 +1,86 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.bench;
+
+import org.junit.Test;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.model.InitializationError;
+import org.nuxeo.ecm.core.api.NuxeoException;
+import org.nuxeo.ecm.core.test.CoreFeature;
+import org.nuxeo.ecm.core.test.annotations.Granularity;
+import org.nuxeo.ecm.core.test.annotations.RepositoryConfig;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+
+/**
+ * Boots a repository using the {@link CoreFeature} outside of JUnit, so that it can be used from a JMH state.
+ * <p>
+ * The storage backend is chosen by the usual {@code nuxeo.test.core} and {@code nuxeo.test.vcs.db} system properties,
+ * see {@link BenchmarkHelper#configureBackend}.
+ *
+ * @since 11.3
+ */
+public class CoreBenchmarkRunner extends FeaturesRunner {
+
+    /**
+     * The features deployed for the benchmarks, the repository is cleaned up when it is stopped.
+     */
+    @Features(CoreFeature.class)
+    @RepositoryConfig(cleanup = Granularity.CLASS)
+    public static class Setup {
+
+        @Test
+        public void noop() {
+            // never run, a test method is required by the JUnit runner
+        }
+    }
+
+    public CoreBenchmarkRunner() throws InitializationError {
+        super(Setup.class);
+    }
+
+    /**
+     * Starts the runtime and the features, as done by the runner before running the test class.
+     */
+    public void startRepository() {
+        injector = onInjector(new RunNotifier());
+        try {
+            initialize();
+        } catch (Exception e) {
+            throw new NuxeoException(e);
+        }
+        start();
+        beforeRun();
+    }
+
+    /**
+     * Cleans up the repository and stops the runtime, as done by the runner after running the test class.
+     */
+    public void stopRepository() {
+        try {
+            evaluateRunnable(this::afterRun, this::stop);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) { // NOSONAR
+            throw new NuxeoException(t);
+        }
+    }
+
+    public CoreFeature getCoreFeature() {
+        return getFeature(CoreFeature.class);
+    }
+
+}
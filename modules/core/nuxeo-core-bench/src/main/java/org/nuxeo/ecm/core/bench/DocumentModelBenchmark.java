@@ -0,0 +1,96 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.bench;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.DocumentRef;
+import org.nuxeo.runtime.transaction.TransactionHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@code DocumentModelImpl} property access: on an already loaded document, and when the document and
+ * its data models are fetched from the repository.
+ *
+ * @since 11.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DocumentModelBenchmark extends AbstractRepositoryBenchmark {
+
+    protected DocumentRef docRef;
+
+    protected DocumentModel doc;
+
+    protected int counter;
+
+    @Override
+    protected void populate() {
+        docRef = BenchmarkHelper.createFile(session, 0).getRef();
+    }
+
+    @Setup(Level.Iteration)
+    public void loadDocument() {
+        TransactionHelper.startTransaction();
+        doc = session.getDocument(docRef);
+        // load the data models
+        doc.getPropertyValue("dc:title");
+    }
+
+    @TearDown(Level.Iteration)
+    public void commitTransaction() {
+        TransactionHelper.commitOrRollbackTransaction();
+    }
+
+    @Benchmark
+    public Serializable getPropertyValue() {
+        return doc.getPropertyValue("dc:title");
+    }
+
+    @Benchmark
+    public Serializable getListPropertyValue() {
+        return doc.getPropertyValue("dc:subjects");
+    }
+
+    @Benchmark
+    public DocumentModel setPropertyValue() {
+        doc.setPropertyValue("dc:description", "Description " + counter++);
+        return doc;
+    }
+
+    @Benchmark
+    public Serializable getDocumentAndPropertyValue() {
+        return session.getDocument(docRef).getPropertyValue("dc:title");
+    }
+
+}
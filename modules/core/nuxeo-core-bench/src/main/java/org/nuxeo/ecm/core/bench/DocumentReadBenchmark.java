@@ -0,0 +1,120 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.bench;
+
+import static org.nuxeo.ecm.core.api.security.SecurityConstants.READ;
+
+import java.util.concurrent.TimeUnit;
+
+import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.ecm.core.api.DocumentModelList;
+import org.nuxeo.ecm.core.api.DocumentRef;
+import org.nuxeo.ecm.core.api.PathRef;
+import org.nuxeo.runtime.transaction.TransactionHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the read operations on a folder of a given size: {@code getChildren}, NXQL queries as an
+ * administrator and as a user subject to security checks, and {@code hasPermission}.
+ * <p>
+ * A transaction is started for each iteration, use a single thread (the default) as transactions are bound to it.
+ *
+ * @since 11.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DocumentReadBenchmark extends AbstractRepositoryBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int children;
+
+    protected DocumentRef folderRef;
+
+    protected DocumentRef fileRef;
+
+    protected String titleQuery;
+
+    protected String folderQuery;
+
+    /** A session for a user that is not an administrator. */
+    protected CoreSession userSession;
+
+    @Override
+    protected void populate() {
+        for (int i = 0; i < children; i++) {
+            BenchmarkHelper.createFile(session, i);
+        }
+        folderRef = new PathRef(BenchmarkHelper.FOLDER_PATH);
+        fileRef = new PathRef(BenchmarkHelper.FOLDER_PATH + "/file" + children / 2);
+        String folderId = session.getDocument(folderRef).getId();
+        folderQuery = String.format("SELECT * FROM File WHERE ecm:parentId = '%s' ORDER BY dc:title", folderId);
+        titleQuery = String.format("SELECT * FROM File WHERE ecm:parentId = '%s' AND dc:title = '%s'", folderId,
+                BenchmarkHelper.getTitle(children / 2));
+        userSession = runner.getCoreFeature().getCoreSession(BenchmarkHelper.getUser());
+    }
+
+    @Setup(Level.Iteration)
+    public void startTransaction() {
+        TransactionHelper.startTransaction();
+    }
+
+    @TearDown(Level.Iteration)
+    public void commitTransaction() {
+        TransactionHelper.commitOrRollbackTransaction();
+    }
+
+    @Benchmark
+    public DocumentModelList getChildren() {
+        return session.getChildren(folderRef);
+    }
+
+    @Benchmark
+    public DocumentModelList queryChildren() {
+        return session.query(folderQuery);
+    }
+
+    @Benchmark
+    public DocumentModelList queryByTitle() {
+        return session.query(titleQuery);
+    }
+
+    @Benchmark
+    public DocumentModelList queryByTitleAsUser() {
+        return userSession.query(titleQuery);
+    }
+
+    @Benchmark
+    public boolean hasPermissionAsUser() {
+        return userSession.hasPermission(fileRef, READ);
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.DocumentRef;
+import org.nuxeo.runtime.transaction.TransactionHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of {@code CoreSession.createDocument} and {@code CoreSession.saveDocument}.
+ * <p>
+ * Each operation is done and saved in its own transaction, so that the cost of the flush to the backend is included.
+ *
+ * @since 11.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class DocumentWriteBenchmark extends AbstractRepositoryBenchmark {
+
+    protected final AtomicInteger counter = new AtomicInteger();
+
+    protected DocumentRef updatedRef;
+
+    @Override
+    protected void populate() {
+        updatedRef = BenchmarkHelper.createFile(session, counter.incrementAndGet()).getRef();
+    }
+
+    @Benchmark
+    public DocumentModel createDocument() {
+        return TransactionHelper.runInTransaction(() -> {
+            DocumentModel doc = BenchmarkHelper.createFile(session, counter.incrementAndGet());
+            session.save();
+            return doc;
+        });
+    }
+
+    @Benchmark
+    public DocumentModel saveDocument() {
+        return TransactionHelper.runInTransaction(() -> {
+            DocumentModel doc = session.getDocument(updatedRef);
+            doc.setPropertyValue("dc:title", BenchmarkHelper.getTitle(counter.incrementAndGet()));
+            doc = session.saveDocument(doc);
+            session.save();
+            return doc;
+        });
+    }
+
+}
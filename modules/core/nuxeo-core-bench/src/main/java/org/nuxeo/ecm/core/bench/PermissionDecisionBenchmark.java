@@ -0,0 +1,97 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.bench;
+
+import static org.nuxeo.ecm.core.api.security.SecurityConstants.EVERYONE;
+import static org.nuxeo.ecm.core.api.security.SecurityConstants.EVERYTHING;
+import static org.nuxeo.ecm.core.api.security.SecurityConstants.READ;
+import static org.nuxeo.ecm.core.api.security.SecurityConstants.READ_WRITE;
+import static org.nuxeo.ecm.core.api.security.SecurityConstants.WRITE;
+
+import java.util.concurrent.TimeUnit;
+
+import org.nuxeo.ecm.core.api.security.ACE;
+import org.nuxeo.ecm.core.api.security.ACL;
+import org.nuxeo.ecm.core.api.security.ACP;
+import org.nuxeo.ecm.core.api.security.Access;
+import org.nuxeo.ecm.core.api.security.impl.ACLImpl;
+import org.nuxeo.ecm.core.api.security.impl.ACPImpl;
+import org.nuxeo.ecm.core.security.PermissionDecisionCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares a permission check on a merged ACP done by {@link ACP#getAccess(String[], String[])} with the same check
+ * through the {@link PermissionDecisionCache}, which computes the ACP fingerprint on each check.
+ * <p>
+ * No repository is needed, the ACP has local ACEs for users and inherited ACEs for groups.
+ *
+ * @since 11.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PermissionDecisionBenchmark {
+
+    protected static final String[] PRINCIPALS = { "bob", "members", EVERYONE };
+
+    protected static final String[] READ_PERMISSIONS = { READ, READ_WRITE, EVERYTHING };
+
+    @Param({ "10", "100" })
+    public int nbAces;
+
+    protected ACP acp;
+
+    protected PermissionDecisionCache cache;
+
+    @Setup
+    public void setup() {
+        acp = new ACPImpl();
+        ACL local = acp.getOrCreateACL();
+        ACL inherited = new ACLImpl(ACL.INHERITED_ACL);
+        for (int i = 0; i < nbAces / 2; i++) {
+            local.add(new ACE("user" + i, WRITE, true));
+            inherited.add(new ACE("group" + i, READ_WRITE, true));
+        }
+        // matched last
+        inherited.add(new ACE(EVERYONE, READ, true));
+        acp.addACL(inherited);
+        cache = new PermissionDecisionCache(1000);
+    }
+
+    @Benchmark
+    public Access acpGetAccess() {
+        return acp.getAccess(PRINCIPALS, READ_PERMISSIONS);
+    }
+
+    @Benchmark
+    public Access cacheGetAccess() {
+        return cache.getAccess(acp, PRINCIPALS, READ, READ_PERMISSIONS);
+    }
+
+}
@@ -21,6 +21,7 @@ package org.nuxeo.ecm.core.cache;
 
 import java.io.Serializable;
 import java.util.Set;
+import java.util.function.Function;
 
 /**
  * The nuxeo cache interface that define generic methods to use cache technologies
@@ -46,6 +47,30 @@ public interface Cache {
      */
     Serializable get(String key);
 
+    /**
+     * Get method to retrieve value from cache, computing it with the loader and storing it if there is no value for the
+     * key. The default implementation stores the loaded value with {@link #put}, which may propagate invalidations to
+     * other nodes. Implementations may use the loader again later to refresh the value.
+     *
+     * @param key the string key
+     * @param loader the function computing the value for the key, may return null in which case nothing is stored
+     * @return the {@link Serializable} value, return null if the key is null or if the loader returned null
+     * @since 11.3
+     */
+    default Serializable get(String key, Function<String, ? extends Serializable> loader) {
+        if (key == null) {
+            return null;
+        }
+        Serializable value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
     /**
      * Returns the set of all keys stored in the cache.
      *
@@ -55,6 +55,28 @@ public class CacheDescriptor implements Descriptor {
     /** @since 9.3 */
     public static final String OPTION_CONCURRENCY_LEVEL = "concurrencyLevel";
 
+    /**
+     * Maximum estimated memory size of the entries the cache may contain, for instance {@code 64MB}. Takes precedence
+     * over {@link #OPTION_MAX_SIZE}.
+     *
+     * @since 11.3
+     */
+    public static final String OPTION_MAX_MEMORY = "maxMemory";
+
+    /**
+     * If {@code true}, the TTL is counted from the last access to an entry instead of from its last write.
+     *
+     * @since 11.3
+     */
+    public static final String OPTION_EXPIRE_AFTER_ACCESS = "expireAfterAccess";
+
+    /**
+     * Time in minutes after a write after which a loaded entry is refreshed in the background on its next access.
+     *
+     * @since 11.3
+     */
+    public static final String OPTION_REFRESH_AFTER_WRITE = "refreshAfterWrite";
+
     @XNode("@name")
     public String name;
 
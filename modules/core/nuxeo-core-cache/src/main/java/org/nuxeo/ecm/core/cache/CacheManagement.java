@@ -46,6 +46,28 @@ public interface CacheManagement extends Cache {
      */
     long getSize();
 
+    /**
+     * Returns the number of entries evicted from this cache because of its size or memory bound, or {@code -1} if the
+     * number of evictions is unknown.
+     *
+     * @return the number of evicted entries, or {@code -1}
+     * @since 11.3
+     */
+    default long getEvictionCount() {
+        return -1;
+    }
+
+    /**
+     * Returns the approximate memory size in bytes of the entries of this cache, or {@code -1} if it is unknown or too
+     * expensive to compute.
+     *
+     * @return the approximate memory size in bytes, or {@code -1}
+     * @since 11.3
+     */
+    default long getWeightedSize() {
+        return -1;
+    }
+
     /**
      * Stores a {@link Serializable} value into the cache locally. Does not propagate invalidations.
      *
@@ -17,6 +17,7 @@
 package org.nuxeo.ecm.core.cache;
 
 import java.io.Serializable;
+import java.util.function.Function;
 
 import org.nuxeo.runtime.metrics.MetricsService;
 
@@ -26,6 +27,7 @@ import io.dropwizard.metrics5.MetricName;
 import io.dropwizard.metrics5.MetricRegistry;
 import io.dropwizard.metrics5.RatioGauge;
 import io.dropwizard.metrics5.SharedMetricRegistries;
+import io.dropwizard.metrics5.Timer;
 
 public class CacheMetrics extends CacheWrapper {
 
@@ -45,6 +47,15 @@ public class CacheMetrics extends CacheWrapper {
 
     protected Gauge<Long> size;
 
+    // @since 11.3
+    protected Timer load;
+
+    // @since 11.3
+    protected Gauge<Long> eviction;
+
+    // @since 11.3
+    protected Gauge<Long> weight;
+
     protected final MetricName READ_HIT_NAME = nameOf("hit");
 
     protected final MetricName READ_HIT_RATIO_NAME = nameOf("hit.ratio");
@@ -59,6 +70,15 @@ public class CacheMetrics extends CacheWrapper {
 
     protected final MetricName SIZE_NAME = nameOf("size");
 
+    // @since 11.3
+    protected final MetricName LOAD_NAME = nameOf("load");
+
+    // @since 11.3
+    protected final MetricName EVICTION_NAME = nameOf("eviction");
+
+    // @since 11.3
+    protected final MetricName WEIGHT_NAME = nameOf("weight");
+
     protected MetricName nameOf(String name) {
         return MetricName.build("nuxeo", "cache", name).tagged("cache", getName());
     }
@@ -90,6 +110,9 @@ public class CacheMetrics extends CacheWrapper {
                 return Long.valueOf(getSize());
             }
         });
+        load = registry.timer(LOAD_NAME);
+        registry.register(EVICTION_NAME, eviction = () -> Long.valueOf(getEvictionCount()));
+        registry.register(WEIGHT_NAME, weight = () -> Long.valueOf(getWeightedSize()));
     }
 
     @Override
@@ -101,6 +124,9 @@ public class CacheMetrics extends CacheWrapper {
         registry.remove(WRITE_NAME);
         registry.remove(INVALIDATE_ALL_NAME);
         registry.remove(SIZE_NAME);
+        registry.remove(LOAD_NAME);
+        registry.remove(EVICTION_NAME);
+        registry.remove(WEIGHT_NAME);
     }
 
     @Override
@@ -115,6 +141,25 @@ public class CacheMetrics extends CacheWrapper {
         return value;
     }
 
+    @Override
+    public Serializable get(String key, Function<String, ? extends Serializable> loader) {
+        boolean[] loaded = new boolean[1];
+        // the wrapped loader is also the one used for refreshes, which are timed as well
+        Serializable value = super.get(key, k -> {
+            loaded[0] = true;
+            try (Timer.Context context = load.time()) {
+                return loader.apply(k);
+            }
+        });
+        read.inc();
+        if (loaded[0]) {
+            read_miss.inc();
+        } else {
+            read_hit.inc();
+        }
+        return value;
+    }
+
     @Override
     public void put(String key, Serializable value) {
         try {
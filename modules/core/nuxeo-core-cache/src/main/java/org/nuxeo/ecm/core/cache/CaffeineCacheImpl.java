@@ -0,0 +1,234 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.cache;
+
+import static org.nuxeo.ecm.core.cache.CacheDescriptor.OPTION_EXPIRE_AFTER_ACCESS;
+import static org.nuxeo.ecm.core.cache.CacheDescriptor.OPTION_MAX_MEMORY;
+import static org.nuxeo.ecm.core.cache.CacheDescriptor.OPTION_MAX_SIZE;
+import static org.nuxeo.ecm.core.cache.CacheDescriptor.OPTION_REFRESH_AFTER_WRITE;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.nuxeo.common.utils.SizeUtils;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+/**
+ * In memory implementation for cache management based on Caffeine.
+ * <p>
+ * Compared to {@link InMemoryCacheImpl}, eviction uses a W-TinyLFU admission policy which keeps frequently used entries
+ * instead of the most recent ones, and the cache can be bounded by the estimated memory size of its entries using the
+ * {@value CacheDescriptor#OPTION_MAX_MEMORY} option. The TTL can be counted from the last access, and entries loaded
+ * through {@link #get(String, Function)} can be refreshed in the background before they expire.
+ *
+ * @since 11.3
+ */
+public class CaffeineCacheImpl extends AbstractCache {
+
+    private static final Logger log = LogManager.getLogger(CaffeineCacheImpl.class);
+
+    // rough JVM overheads used to estimate the memory size of entries
+    protected static final int OBJECT_OVERHEAD = 16;
+
+    protected static final int STRING_OVERHEAD = 40;
+
+    protected static final int ENTRY_OVERHEAD = 64;
+
+    /**
+     * A cache entry, holding the loader used to refresh it if any.
+     */
+    protected static class Entry {
+
+        protected final Serializable value;
+
+        protected final Function<String, ? extends Serializable> loader;
+
+        protected Entry(Serializable value, Function<String, ? extends Serializable> loader) {
+            this.value = value;
+            this.loader = loader;
+        }
+    }
+
+    /**
+     * Reloads entries using their loader, the initial load is always done by {@link #get(String, Function)}.
+     */
+    protected static class EntryLoader implements CacheLoader<String, Entry> {
+
+        @Override
+        public Entry load(String key) {
+            return null;
+        }
+
+        @Override
+        public Entry reload(String key, Entry oldEntry) {
+            if (oldEntry.loader == null) {
+                return oldEntry;
+            }
+            Serializable value = oldEntry.loader.apply(key);
+            return value == null ? null : new Entry(value, oldEntry.loader);
+        }
+    }
+
+    protected final LoadingCache<String, Entry> cache;
+
+    public CaffeineCacheImpl(CacheDescriptor desc) {
+        super(desc);
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        Map<String, String> options = desc.options;
+        if (Boolean.parseBoolean(options.get(OPTION_EXPIRE_AFTER_ACCESS))) {
+            builder = builder.expireAfterAccess(desc.getTTL(), TimeUnit.MINUTES);
+        } else {
+            builder = builder.expireAfterWrite(desc.getTTL(), TimeUnit.MINUTES);
+        }
+        if (options.containsKey(OPTION_MAX_MEMORY)) {
+            long maxMemory = SizeUtils.parseSizeInBytes(options.get(OPTION_MAX_MEMORY));
+            builder = builder.maximumWeight(maxMemory).weigher((Object k, Object v) -> weigh((String) k, (Entry) v));
+        } else if (options.containsKey(OPTION_MAX_SIZE)) {
+            builder = builder.maximumSize(Long.parseLong(options.get(OPTION_MAX_SIZE)));
+        }
+        if (options.containsKey(OPTION_REFRESH_AFTER_WRITE)) {
+            builder = builder.refreshAfterWrite(Long.parseLong(options.get(OPTION_REFRESH_AFTER_WRITE)),
+                    TimeUnit.MINUTES);
+        }
+        cache = builder.build(new EntryLoader());
+    }
+
+    /**
+     * Estimates the memory size of an entry.
+     */
+    protected int weigh(String key, Entry entry) {
+        long size = ENTRY_OVERHEAD + STRING_OVERHEAD + 2L * key.length() + estimateSize(entry.value);
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Estimates the memory size of a value. Common simple values are computed directly, otherwise the size of the
+     * serialized value is used as an approximation.
+     */
+    protected long estimateSize(Serializable value) {
+        if (value instanceof String) {
+            return STRING_OVERHEAD + 2L * ((String) value).length();
+        } else if (value instanceof byte[]) {
+            return OBJECT_OVERHEAD + ((byte[]) value).length;
+        } else if (value instanceof Number || value instanceof Boolean) {
+            return OBJECT_OVERHEAD + 8;
+        }
+        CountingOutputStream out = new CountingOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(value);
+        } catch (IOException e) {
+            log.debug("Cannot estimate size of value of class: {} in cache: {}", value.getClass().getName(), name, e);
+        }
+        return OBJECT_OVERHEAD + out.getByteCount();
+    }
+
+    @Override
+    public Serializable get(String key) {
+        if (key == null) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(key);
+        return entry == null ? null : entry.value;
+    }
+
+    @Override
+    public Serializable get(String key, Function<String, ? extends Serializable> loader) {
+        if (key == null) {
+            return null;
+        }
+        Entry entry = cache.get(key, k -> {
+            Serializable value = loader.apply(k);
+            return value == null ? null : new Entry(value, loader);
+        });
+        return entry == null ? null : entry.value;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return cache.asMap().keySet();
+    }
+
+    @Override
+    public void invalidate(String key) {
+        invalidateLocal(key);
+    }
+
+    @Override
+    public void invalidateLocal(String key) {
+        if (key != null) {
+            cache.invalidate(key);
+        } else {
+            log.warn("Can't invalidate a null key for the cache '{}'!", name);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        invalidateLocalAll();
+    }
+
+    @Override
+    public void invalidateLocalAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void put(String key, Serializable value) {
+        putLocal(key, value);
+    }
+
+    @Override
+    public void putLocal(String key, Serializable value) {
+        if (key != null && value != null) {
+            cache.put(key, new Entry(value, null));
+        } else {
+            log.warn("Can't put a null key nor a null value in the cache '{}'!", name);
+        }
+    }
+
+    @Override
+    public boolean hasEntry(String key) {
+        return cache.asMap().containsKey(key);
+    }
+
+    @Override
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    @Override
+    public long getWeightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(-1)).orElse(-1L).longValue();
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.runtime.metrics.MetricsService;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+
+import io.dropwizard.metrics5.MetricName;
+import io.dropwizard.metrics5.MetricRegistry;
+import io.dropwizard.metrics5.SharedMetricRegistries;
+
+/**
+ * @since 11.3
+ */
+@RunWith(FeaturesRunner.class)
+@Features({ CacheFeature.class, CaffeineCacheFeature.class })
+public class TestCaffeineCacheService {
+
+    @Inject
+    @Named(CacheFeature.DEFAULT_TEST_CACHE_NAME)
+    Cache defaultCache;
+
+    @Inject
+    @Named(CaffeineCacheFeature.MAXMEMORY_TEST_CACHE_NAME)
+    Cache maxMemoryCache;
+
+    @Test
+    public void getCaffeineCache() {
+        CaffeineCacheImpl caffeineCache = CacheFeature.unwrapImpl(CaffeineCacheImpl.class, defaultCache);
+        assertNotNull(caffeineCache);
+    }
+
+    @Test
+    public void maxSizeExceeded() {
+        CaffeineCacheImpl impl = CacheFeature.unwrapImpl(CaffeineCacheImpl.class, defaultCache);
+        for (int i = 2; i <= 10; i++) {
+            defaultCache.put("key" + i, "val" + i);
+        }
+        // eviction is asynchronous
+        impl.cache.cleanUp();
+        assertEquals(3, impl.getSize());
+        assertEquals(-1, impl.getWeightedSize());
+        assertTrue(impl.getEvictionCount() >= 7);
+    }
+
+    @Test
+    public void maxMemoryExceeded() {
+        CaffeineCacheImpl impl = CacheFeature.unwrapImpl(CaffeineCacheImpl.class, maxMemoryCache);
+        maxMemoryCache.invalidateAll();
+        long evictionCount = impl.getEvictionCount();
+        String value = StringUtils.repeat('x', 500); // about 1KB
+        for (int i = 0; i < 20; i++) {
+            maxMemoryCache.put("key" + i, value + i);
+        }
+        impl.cache.cleanUp();
+        long size = impl.getSize();
+        assertTrue(String.valueOf(size), size > 0 && size < 20);
+        long weightedSize = impl.getWeightedSize();
+        assertTrue(String.valueOf(weightedSize), weightedSize > 0 && weightedSize <= 4 * 1024);
+        assertEquals(20 - size, impl.getEvictionCount() - evictionCount);
+        // serialized values are weighted too
+        maxMemoryCache.invalidateAll();
+        maxMemoryCache.put("list", new ArrayList<>(Arrays.asList(value + "a", value + "b")));
+        impl.cache.cleanUp();
+        assertTrue(impl.getWeightedSize() > 2 * value.length());
+    }
+
+    @Test
+    public void getWithLoader() {
+        MetricRegistry registry = SharedMetricRegistries.getOrCreate(MetricsService.class.getName());
+        MetricName loadName = MetricName.build("nuxeo.cache.load").tagged("cache", "maxmemory-test-cache");
+        long loadCount = registry.timer(loadName).getCount();
+        maxMemoryCache.invalidateAll();
+
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals("val", maxMemoryCache.get("key", k -> {
+            loads.incrementAndGet();
+            return "val";
+        }));
+        assertEquals(1, loads.get());
+        assertEquals("val", maxMemoryCache.get("key"));
+        assertEquals("val", maxMemoryCache.get("key", k -> {
+            loads.incrementAndGet();
+            return "other";
+        }));
+        assertEquals(1, loads.get());
+        assertEquals(loadCount + 1, registry.timer(loadName).getCount());
+
+        // a null value is not stored
+        assertNull(maxMemoryCache.get("nokey", k -> null));
+        assertFalse(maxMemoryCache.hasEntry("nokey"));
+        assertNull(maxMemoryCache.get(null, k -> "val"));
+    }
+
+    @Test
+    public void hasMetrics() {
+        List<MetricName> expected = Arrays.asList("nuxeo.cache.load", "nuxeo.cache.eviction", "nuxeo.cache.weight")
+                                          .stream()
+                                          .map(name -> MetricName.build(name).tagged("cache", "default-test-cache"))
+                                          .collect(Collectors.toList());
+        assertTrue(SharedMetricRegistries.getOrCreate(MetricsService.class.getName()).getNames().containsAll(expected));
+    }
+
+}
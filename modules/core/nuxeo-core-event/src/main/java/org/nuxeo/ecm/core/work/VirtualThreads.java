@@ -0,0 +1,110 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.work;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Creates virtual threads when the JVM supports them.
+ * <p>
+ * Virtual threads are only available starting with JDK 21 (or as a preview feature before that), so they are created
+ * through reflection to keep running on older JDKs.
+ *
+ * @since 11.3
+ */
+public class VirtualThreads {
+
+    private static final Logger log = LogManager.getLogger(VirtualThreads.class);
+
+    protected static final Method OF_VIRTUAL;
+
+    protected static final Method NAME;
+
+    protected static final Method UNCAUGHT_EXCEPTION_HANDLER;
+
+    protected static final Method UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method uncaughtExceptionHandler = null;
+        Method unstarted = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            name = builderClass.getMethod("name", String.class);
+            uncaughtExceptionHandler = builderClass.getMethod("uncaughtExceptionHandler",
+                    UncaughtExceptionHandler.class);
+            unstarted = builderClass.getMethod("unstarted", Runnable.class);
+            // fails if virtual threads are a disabled preview feature
+            unstarted.invoke(ofVirtual.invoke(null), (Runnable) () -> {
+            });
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("Virtual threads are not available", e);
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNCAUGHT_EXCEPTION_HANDLER = uncaughtExceptionHandler;
+        UNSTARTED = unstarted;
+    }
+
+    // utility class
+    private VirtualThreads() {
+    }
+
+    /**
+     * Checks if the JVM supports virtual threads.
+     */
+    public static boolean isAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates an unstarted virtual thread.
+     *
+     * @param name the thread name
+     * @param runnable the code to run
+     * @param handler the handler for uncaught exceptions
+     * @return the unstarted thread
+     * @throws UnsupportedOperationException if virtual threads are not available
+     */
+    public static Thread newThread(String name, Runnable runnable, UncaughtExceptionHandler handler) {
+        if (!isAvailable()) {
+            throw new UnsupportedOperationException("Virtual threads are not available");
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = NAME.invoke(builder, name);
+            builder = UNCAUGHT_EXCEPTION_HANDLER.invoke(builder, handler);
+            return (Thread) UNSTARTED.invoke(builder, runnable);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new UnsupportedOperationException(cause);
+        } catch (IllegalAccessException e) {
+            throw new UnsupportedOperationException(e);
+        }
+    }
+
+}
@@ -125,6 +125,16 @@ public class WorkManagerImpl extends DefaultComponent implements WorkManager {
      */
     public static final String WORKMANAGER_PROCESSING_ENABLED = "nuxeo.work.processing.enabled";
 
+    /**
+     * Property to disable the use of virtual threads to run works, when the JVM supports them.
+     * <p>
+     * With virtual threads, the {@code maxThreads} of a queue is the number of works that can run concurrently, which
+     * can be raised for I/O bound works without the memory cost of platform threads.
+     *
+     * @since 11.3
+     */
+    public static final String WORKMANAGER_VIRTUAL_THREADS_ENABLED = "nuxeo.work.virtualThreads.enabled";
+
     /**
      * The dead letter queue stream name.
      *
@@ -228,7 +238,9 @@ public class WorkManagerImpl extends DefaultComponent implements WorkManager {
             throw new IllegalStateException("work queue " + config.id + " already have an executor");
         }
         NuxeoBlockingQueue queue = queuing.init(config);
-        ThreadFactory threadFactory = new NamedThreadFactory(THREAD_PREFIX + config.id + "-");
+        boolean virtual = isVirtualThreadsEnabled();
+        ThreadFactory threadFactory = new NamedThreadFactory(THREAD_PREFIX + config.id + "-", virtual);
+        // with virtual threads the pool size only bounds the number of concurrent works
         int maxPoolSize = config.getMaxThreads();
         WorkThreadPoolExecutor executor = new WorkThreadPoolExecutor(maxPoolSize, maxPoolSize, 0, TimeUnit.SECONDS,
                 queue, threadFactory);
@@ -236,7 +248,18 @@ public class WorkManagerImpl extends DefaultComponent implements WorkManager {
         // (from another Nuxeo instance) can be seen
         executor.prestartAllCoreThreads();
         executors.put(config.id, executor);
-        log.info("Initialized work queue {}, {}", config.id, config);
+        log.info("Initialized work queue {}, {}{}", config.id, config, virtual ? " using virtual threads" : "");
+    }
+
+    /**
+     * Checks if works are run by virtual threads.
+     *
+     * @since 11.3
+     */
+    protected boolean isVirtualThreadsEnabled() {
+        return VirtualThreads.isAvailable()
+                && !Framework.getService(ConfigurationService.class)
+                             .isBooleanFalse(WORKMANAGER_VIRTUAL_THREADS_ENABLED);
     }
 
     void activateQueue(WorkQueueDescriptor config) {
@@ -585,7 +608,7 @@ public class WorkManagerImpl extends DefaultComponent implements WorkManager {
     }
 
     /**
-     * Creates non-daemon threads at normal priority.
+     * Creates non-daemon threads at normal priority, or virtual threads.
      */
     private static class NamedThreadFactory implements ThreadFactory {
 
@@ -595,15 +618,21 @@ public class WorkManagerImpl extends DefaultComponent implements WorkManager {
 
         private final String prefix;
 
-        public NamedThreadFactory(String prefix) {
+        private final boolean virtual;
+
+        public NamedThreadFactory(String prefix, boolean virtual) {
             SecurityManager sm = System.getSecurityManager();
             group = sm == null ? Thread.currentThread().getThreadGroup() : sm.getThreadGroup();
             this.prefix = prefix;
+            this.virtual = virtual;
         }
 
         @Override
         public Thread newThread(Runnable r) {
             String name = prefix + threadNumber.incrementAndGet();
+            if (virtual) {
+                return VirtualThreads.newThread(name, r, this::handleUncaughtException);
+            }
             Thread thread = new Thread(group, r, name);
             // do not set daemon
             thread.setPriority(Thread.NORM_PRIORITY);
@@ -0,0 +1,58 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.work;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * @since 11.3
+ */
+public class TestVirtualThreads {
+
+    @Test
+    public void testNewThread() throws Exception {
+        AtomicReference<String> threadName = new AtomicReference<>();
+        AtomicReference<Throwable> uncaught = new AtomicReference<>();
+        Runnable runnable = () -> {
+            threadName.set(Thread.currentThread().getName());
+            throw new IllegalStateException("boom");
+        };
+        Thread thread;
+        try {
+            thread = VirtualThreads.newThread("test-1", runnable, (t, e) -> uncaught.set(e));
+        } catch (UnsupportedOperationException e) {
+            assertFalse(VirtualThreads.isAvailable());
+            return;
+        }
+        assertTrue(VirtualThreads.isAvailable());
+        assertTrue((boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+        assertEquals("test-1", thread.getName());
+        thread.start();
+        thread.join(10_000);
+        assertEquals("test-1", threadName.get());
+        if (!(uncaught.get() instanceof IllegalStateException)) {
+            fail("Uncaught exception handler not called: " + uncaught.get());
+        }
+    }
+
+}
@@ -19,6 +19,8 @@
 package org.nuxeo.ecm.core.io.download;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -40,6 +42,13 @@ public class DownloadHelper {
 
     public static final String INLINE = "inline";
 
+    /**
+     * Maximum number of ranges accepted in a multiple byte range request.
+     *
+     * @since 11.3
+     */
+    public static final int MAX_RANGES = 16;
+
     // tomcat catalina
     private static final String CLIENT_ABORT_EXCEPTION = "ClientAbortException";
 
@@ -58,17 +67,52 @@ public class DownloadHelper {
      * @return the byte range, or {@code null} if it couldn't be parsed.
      */
     public static ByteRange parseRange(String range, long length) {
-        try {
-            // TODO does no support multiple ranges
-            if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+        // multiple ranges are handled by parseRanges
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return null;
+        }
+        return parseRangeSpec(range.substring(6), length);
+    }
+
+    /**
+     * Parses a byte range header that may contain several ranges, like {@code bytes=0-99,200-299}.
+     * <p>
+     * If any of the ranges is invalid, or if there are more than {@link #MAX_RANGES} ranges, the whole header is
+     * considered invalid.
+     *
+     * @param range the byte range as a string
+     * @param length the file length
+     * @return the byte ranges, or {@code null} if they couldn't be parsed.
+     * @since 11.3
+     */
+    public static List<ByteRange> parseRanges(String range, long length) {
+        if (!range.startsWith("bytes=")) {
+            return null;
+        }
+        String[] specs = range.substring(6).split(",");
+        if (specs.length > MAX_RANGES) {
+            // don't let clients ask for many small parts of the same file
+            return null;
+        }
+        List<ByteRange> byteRanges = new ArrayList<>(specs.length);
+        for (String spec : specs) {
+            ByteRange byteRange = parseRangeSpec(spec, length);
+            if (byteRange == null) {
                 return null;
             }
-            int i = range.indexOf('-', 6);
+            byteRanges.add(byteRange);
+        }
+        return byteRanges;
+    }
+
+    protected static ByteRange parseRangeSpec(String spec, long length) {
+        try {
+            int i = spec.indexOf('-');
             if (i < 0) {
                 return null;
             }
-            String start = range.substring(6, i).trim();
-            String end = range.substring(i + 1).trim();
+            String start = spec.substring(0, i).trim();
+            String end = spec.substring(i + 1).trim();
             long rangeStart = 0;
             long rangeEnd = length - 1;
             if (start.isEmpty()) {
@@ -83,6 +127,10 @@ public class DownloadHelper {
                 rangeStart = Long.parseLong(start);
                 if (!end.isEmpty()) {
                     rangeEnd = Long.parseLong(end);
+                    if (length >= 0 && rangeEnd >= length) {
+                        // last byte position past the end of the file (RFC 7233 2.1)
+                        rangeEnd = length - 1;
+                    }
                 }
             }
             if (rangeStart > rangeEnd) {
@@ -19,7 +19,10 @@
  */
 package org.nuxeo.ecm.core.io.download;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -28,6 +31,11 @@ import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Enumeration;
@@ -89,11 +97,16 @@ import org.nuxeo.ecm.core.io.NginxConstants;
 import org.nuxeo.ecm.core.transientstore.api.TransientStore;
 import org.nuxeo.ecm.core.transientstore.api.TransientStoreService;
 import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.metrics.MetricsService;
 import org.nuxeo.runtime.model.ComponentContext;
 import org.nuxeo.runtime.model.DefaultComponent;
 import org.nuxeo.runtime.services.config.ConfigurationService;
 import org.nuxeo.runtime.transaction.TransactionHelper;
 
+import io.dropwizard.metrics5.MetricName;
+import io.dropwizard.metrics5.MetricRegistry;
+import io.dropwizard.metrics5.SharedMetricRegistries;
+
 /**
  * This service allows the download of blobs to a HTTP response.
  *
@@ -126,6 +139,43 @@ public class DownloadServiceImpl extends DefaultComponent implements DownloadSer
 
     private static final String MD5 = "MD5";
 
+    private static final String CRLF = "\r\n";
+
+    // tomcat catalina sendfile request attributes
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_FILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_FILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Transfer mode where the file is delegated to the servlet container, which sends it itself (sendfile). The bytes
+     * counted are the requested ones, not the ones actually sent by the container.
+     *
+     * @since 11.3
+     */
+    public static final String TRANSFER_SENDFILE = "sendfile";
+
+    /**
+     * Transfer mode where the file is written using {@link FileChannel#transferTo} directly to the channel of a file
+     * output stream, without copying the data through the heap.
+     *
+     * @since 11.3
+     */
+    public static final String TRANSFER_CHANNEL = "channel";
+
+    /**
+     * Transfer mode where the data is copied through heap buffers to the output stream.
+     *
+     * @since 11.3
+     */
+    public static final String TRANSFER_STREAM = "stream";
+
+    // @since 11.3
+    protected final MetricRegistry registry = SharedMetricRegistries.getOrCreate(MetricsService.class.getName());
+
     protected enum Action {
         DOWNLOAD, DOWNLOAD_FROM_DOC, INFO, BLOBSTATUS
     }
@@ -565,7 +615,7 @@ public class DownloadServiceImpl extends DefaultComponent implements DownloadSer
         Consumer<ByteRange> blobTransferer = context.getBlobTransferer();
         if (blobTransferer == null) {
             Blob fblob = blob;
-            blobTransferer = byteRange -> transferBlobWithByteRange(fblob, byteRange, response);
+            blobTransferer = byteRange -> transferBlobWithByteRange(fblob, byteRange, request, response);
         }
         Calendar lastModified = context.getLastModified();
         if (lastModified == null && doc != null) {
@@ -602,6 +652,11 @@ public class DownloadServiceImpl extends DefaultComponent implements DownloadSer
 
             long length = blob.getLength();
             ByteRange byteRange = getByteRange(request, length);
+            // multiple byte ranges are only served by the default transfer, otherwise the full blob is sent
+            List<ByteRange> byteRanges = null;
+            if (byteRange == null && context.getBlobTransferer() == null) {
+                byteRanges = getByteRanges(request, length);
+            }
 
             String digest = blob.getDigest();
             String digestAlgorithm = blob.getDigestAlgorithm();
@@ -622,7 +677,7 @@ public class DownloadServiceImpl extends DefaultComponent implements DownloadSer
                     // deprecated per RFC7231 Appendix B
                     // don't do it if there's a byte range because the spec is inconsistent
                     // see https://trac.ietf.org/trac/httpbis/ticket/178
-                    if (byteRange == null && MD5.equalsIgnoreCase(digestAlgorithm)) {
+                    if (byteRange == null && byteRanges == null && MD5.equalsIgnoreCase(digestAlgorithm)) {
                         response.setHeader("Content-MD5", hexToBase64(digest));
                     }
                 }
@@ -686,7 +741,7 @@ public class DownloadServiceImpl extends DefaultComponent implements DownloadSer
             String contentDisposition = DownloadHelper.getRFC2231ContentDisposition(request, filename, inline);
             response.setHeader("Content-Disposition", contentDisposition);
             response.setContentType(contentType);
-            if (StringUtils.isNotBlank(blob.getEncoding())) {
+            if (StringUtils.isNotBlank(blob.getEncoding()) && byteRanges == null) {
                 try {
                     response.setCharacterEncoding(blob.getEncoding());
                 } catch (IllegalArgumentException e) {
@@ -704,7 +759,8 @@ public class DownloadServiceImpl extends DefaultComponent implements DownloadSer
             response.setContentLengthLong(contentLength);
 
             // log the download but not if it's a random byte range
-            if (byteRange == null || byteRange.getStart() == 0) {
+            ByteRange firstRange = byteRanges == null ? byteRange : byteRanges.get(0);
+            if (firstRange == null || firstRange.getStart() == 0) {
                 logDownload(request, doc, xpath, filename, reason, extendedInfos);
             }
 
@@ -735,6 +791,23 @@ public class DownloadServiceImpl extends DefaultComponent implements DownloadSer
                 }
             }
 
+            if (byteRanges != null) {
+                // multiple byte ranges are sent as a multipart/byteranges body (RFC 7233 4.1)
+                String boundary = UUID.randomUUID().toString().replace("-", "");
+                List<byte[]> partHeaders = getByteRangesPartHeaders(blob, byteRanges, boundary, length);
+                long multipartLength = getByteRangesEnd(boundary).length;
+                for (int i = 0; i < byteRanges.size(); i++) {
+                    multipartLength += partHeaders.get(i).length + byteRanges.get(i).getLength();
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setContentType("multipart/byteranges; boundary=" + boundary);
+                response.setContentLengthLong(multipartLength);
+                if (!isHead(request)) {
+                    transferBlobWithByteRanges(blob, byteRanges, partHeaders, boundary, response);
+                }
+                return;
+            }
+
             if (!isHead(request)) {
                 // execute the final download
                 blobTransferer.accept(byteRange);
@@ -758,6 +831,61 @@ public class DownloadServiceImpl extends DefaultComponent implements DownloadSer
         return byteRange;
     }
 
+    /**
+     * Gets the byte ranges of a request asking for multiple byte ranges.
+     *
+     * @return the byte ranges, or {@code null} if the request doesn't ask for several valid byte ranges
+     * @since 11.3
+     */
+    protected List<ByteRange> getByteRanges(HttpServletRequest request, long length) {
+        String range = request.getHeader("Range");
+        if (StringUtils.isBlank(range) || range.indexOf(',') < 0 || length < 0) {
+            return null;
+        }
+        List<ByteRange> byteRanges = DownloadHelper.parseRanges(range, length);
+        if (byteRanges == null) {
+            log.debug("Invalid byte ranges received: {}", range);
+        }
+        return byteRanges;
+    }
+
+    /**
+     * Computes the headers preceding each part of a multipart/byteranges body.
+     *
+     * @since 11.3
+     */
+    protected List<byte[]> getByteRangesPartHeaders(Blob blob, List<ByteRange> byteRanges, String boundary,
+            long length) {
+        String contentType = DownloadHelper.getContentTypeHeader(blob);
+        List<byte[]> partHeaders = new ArrayList<>(byteRanges.size());
+        for (ByteRange byteRange : byteRanges) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(CRLF).append("--").append(boundary).append(CRLF);
+            if (contentType != null) {
+                sb.append("Content-Type: ").append(contentType).append(CRLF);
+            }
+            sb.append("Content-Range: bytes ")
+              .append(byteRange.getStart())
+              .append('-')
+              .append(byteRange.getEnd())
+              .append('/')
+              .append(length)
+              .append(CRLF);
+            sb.append(CRLF);
+            partHeaders.add(sb.toString().getBytes(ISO_8859_1));
+        }
+        return partHeaders;
+    }
+
+    /**
+     * Computes the closing delimiter of a multipart/byteranges body.
+     *
+     * @since 11.3
+     */
+    protected byte[] getByteRangesEnd(String boundary) {
+        return (CRLF + "--" + boundary + "--" + CRLF).getBytes(ISO_8859_1);
+    }
+
     protected Set<String> getWantDigests(HttpServletRequest request) {
         Enumeration<String> values = request.getHeaders("Want-Digest");
         if (values == null) {
@@ -782,6 +910,48 @@ public class DownloadServiceImpl extends DefaultComponent implements DownloadSer
         }
     }
 
+    /**
+     * Transfers a blob to the response, letting the servlet container send the file itself when the blob is stored
+     * in a local file and the container supports it.
+     *
+     * @since 11.3
+     */
+    protected void transferBlobWithByteRange(Blob blob, ByteRange byteRange, HttpServletRequest request,
+            HttpServletResponse response) {
+        if (isSendfileSupported(request) && isLocalBlob(blob)) {
+            File file = blob.getFile();
+            if (file != null) {
+                long start = byteRange == null ? 0 : byteRange.getStart();
+                long end = byteRange == null ? file.length() : byteRange.getEnd() + 1; // exclusive
+                request.setAttribute(SENDFILE_FILENAME_ATTR, file.getAbsolutePath());
+                request.setAttribute(SENDFILE_FILE_START_ATTR, Long.valueOf(start));
+                request.setAttribute(SENDFILE_FILE_END_ATTR, Long.valueOf(end));
+                // delegated to the container, count the requested bytes
+                countTransfer(TRANSFER_SENDFILE, end - start);
+                return;
+            }
+        }
+        transferBlobWithByteRange(blob, byteRange, response);
+    }
+
+    protected boolean isSendfileSupported(HttpServletRequest request) {
+        return Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR));
+    }
+
+    /**
+     * Checks if the blob is stored in a local blob provider, whose files stay available after the end of the request.
+     *
+     * @since 11.3
+     */
+    protected boolean isLocalBlob(Blob blob) {
+        if (!(blob instanceof ManagedBlob)) {
+            return false;
+        }
+        BlobProvider blobProvider = Framework.getService(BlobManager.class).getBlobProvider(blob);
+        return blobProvider instanceof LocalBlobProvider
+                || blobProvider != null && blobProvider.getBinaryManager() instanceof DefaultBinaryManager;
+    }
+
     protected void transferBlobWithByteRange(Blob blob, ByteRange byteRange, HttpServletResponse response) {
         transferBlobWithByteRange(blob, byteRange, () -> {
             try {
@@ -799,25 +969,131 @@ public class DownloadServiceImpl extends DefaultComponent implements DownloadSer
 
     @Override
     public void transferBlobWithByteRange(Blob blob, ByteRange byteRange, Supplier<OutputStream> outputStreamSupplier) {
+        File file = blob.getFile();
+        if (file != null) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                @SuppressWarnings("resource")
+                OutputStream out = outputStreamSupplier.get(); // not ours to close
+                BufferingServletOutputStream.stopBuffering(out);
+                long count;
+                if (byteRange == null) {
+                    count = transferFile(channel, 0, channel.size(), out);
+                } else {
+                    count = transferFile(channel, byteRange.getStart(), byteRange.getLength(), out);
+                }
+                out.flush();
+                countTransfer(getTransferMode(out), count);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return;
+        }
         try (InputStream in = blob.getStream()) {
             @SuppressWarnings("resource")
             OutputStream out = outputStreamSupplier.get(); // not ours to close
             BufferingServletOutputStream.stopBuffering(out);
+            long count;
             if (byteRange == null) {
-                IOUtils.copy(in, out);
+                count = IOUtils.copyLarge(in, out);
             } else {
                 @SuppressWarnings("resource") // closing the original stream is enough
                 InputStream substream = byteRange.forStream(in);
-                // don't use IOUtils.copyLarge because it uses a skip method that reads
+                // don't use IOUtils.copyLarge(in, out, offset, length) because it uses a skip method that reads
                 // all intervening bytes, which is inefficient for skippable streams
-                IOUtils.copy(substream, out);
+                count = IOUtils.copyLarge(substream, out);
             }
             out.flush();
+            countTransfer(TRANSFER_STREAM, count);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    /**
+     * Transfers several byte ranges of a blob to the response as a multipart/byteranges body.
+     *
+     * @since 11.3
+     */
+    protected void transferBlobWithByteRanges(Blob blob, List<ByteRange> byteRanges, List<byte[]> partHeaders,
+            String boundary, HttpServletResponse response) throws IOException {
+        @SuppressWarnings("resource")
+        OutputStream out = response.getOutputStream(); // not ours to close
+        BufferingServletOutputStream.stopBuffering(out);
+        File file = blob.getFile();
+        if (file != null) {
+            long count = 0;
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                for (int i = 0; i < byteRanges.size(); i++) {
+                    ByteRange byteRange = byteRanges.get(i);
+                    out.write(partHeaders.get(i));
+                    count += transferFile(channel, byteRange.getStart(), byteRange.getLength(), out);
+                }
+            }
+            countTransfer(getTransferMode(out), count);
+        } else {
+            long count = 0;
+            for (int i = 0; i < byteRanges.size(); i++) {
+                out.write(partHeaders.get(i));
+                // ranges may be in any order, so reopen the stream for each of them
+                try (InputStream in = blob.getStream()) {
+                    @SuppressWarnings("resource") // closing the original stream is enough
+                    InputStream substream = byteRanges.get(i).forStream(in);
+                    count += IOUtils.copyLarge(substream, out);
+                }
+            }
+            countTransfer(TRANSFER_STREAM, count);
+        }
+        out.write(getByteRangesEnd(boundary));
+        out.flush();
+        response.flushBuffer();
+    }
+
+    /**
+     * Transfers a region of a file to an output stream using {@link FileChannel#transferTo}, seeking directly to the
+     * region.
+     * <p>
+     * The data is only transferred without heap copies when the output stream is a {@link FileOutputStream}. Other
+     * streams, like the servlet output stream, are wrapped in a channel that copies the data through a buffer.
+     *
+     * @return the number of bytes transferred
+     * @see #getTransferMode
+     * @since 11.3
+     */
+    protected long transferFile(FileChannel channel, long position, long count, OutputStream out) throws IOException {
+        @SuppressWarnings("resource") // closing would close the output stream, which is not ours
+        WritableByteChannel target = out instanceof FileOutputStream ? ((FileOutputStream) out).getChannel()
+                : Channels.newChannel(out);
+        long transferred = 0;
+        while (transferred < count) {
+            long n = channel.transferTo(position + transferred, count - transferred, target);
+            if (n <= 0) {
+                // end of file reached
+                break;
+            }
+            transferred += n;
+        }
+        return transferred;
+    }
+
+    /**
+     * Gets the transfer mode used by {@link #transferFile} for the given output stream.
+     *
+     * @since 11.3
+     */
+    protected String getTransferMode(OutputStream out) {
+        return out instanceof FileOutputStream ? TRANSFER_CHANNEL : TRANSFER_STREAM;
+    }
+
+    /**
+     * Counts a download and its size, for the given transfer mode.
+     *
+     * @since 11.3
+     */
+    protected void countTransfer(String mode, long bytes) {
+        registry.counter(MetricName.build("nuxeo", "download", "transfer").tagged("mode", mode)).inc();
+        registry.counter(MetricName.build("nuxeo", "download", "transfer", "bytes").tagged("mode", mode)).inc(bytes);
+    }
+
     protected String fixXPath(String xpath) {
         // Hack for Flash Url wich doesn't support ':' char
         return xpath == null ? null : xpath.replace(';', ':');
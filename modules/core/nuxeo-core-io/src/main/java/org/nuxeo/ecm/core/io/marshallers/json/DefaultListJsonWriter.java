@@ -20,22 +20,34 @@
 package org.nuxeo.ecm.core.io.marshallers.json;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
+import static org.nuxeo.ecm.core.io.marshallers.json.enrichers.AbstractJsonEnricher.ENTITY_ENRICHER_NAME;
+import static org.nuxeo.ecm.core.io.marshallers.json.enrichers.AbstractJsonEnricher.PREFETCHED_PREFIX;
 import static org.nuxeo.ecm.core.io.registry.MarshallingConstants.ENTITY_FIELD_NAME;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.apache.commons.lang3.reflect.TypeUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.nuxeo.ecm.automation.core.util.Paginable;
 import org.nuxeo.ecm.core.api.DocumentModelList;
 import org.nuxeo.ecm.core.api.PartialList;
+import org.nuxeo.ecm.core.io.marshallers.json.enrichers.BatchJsonEnricher;
+import org.nuxeo.ecm.core.io.marshallers.json.enrichers.Enriched;
 import org.nuxeo.ecm.core.io.registry.MarshallerRegistry;
+import org.nuxeo.ecm.core.io.registry.MarshallingException;
 import org.nuxeo.ecm.core.io.registry.Writer;
+import org.nuxeo.ecm.core.io.registry.context.MaxDepthReachedException;
 import org.nuxeo.ecm.core.io.registry.context.RenderingContext;
+import org.nuxeo.ecm.core.io.registry.context.WrappedContext;
 import org.nuxeo.ecm.platform.query.api.Aggregate;
 import org.nuxeo.ecm.platform.query.api.Bucket;
 import org.nuxeo.ecm.platform.query.api.QuickFilter;
@@ -72,6 +84,8 @@ import com.fasterxml.jackson.core.JsonGenerator;
  */
 public abstract class DefaultListJsonWriter<EntityType> extends AbstractJsonWriter<List<EntityType>> {
 
+    private static final Logger log = LogManager.getLogger(DefaultListJsonWriter.class);
+
     /**
      * The "entity-type" of the list.
      */
@@ -198,4 +212,62 @@ public abstract class DefaultListJsonWriter<EntityType> extends AbstractJsonWrit
     protected void extend(List<EntityType> list, JsonGenerator jg) throws IOException {
     }
 
+    /**
+     * Calls the {@link BatchJsonEnricher}s activated for the elements of the list, so that they can fetch their data
+     * for the whole list at once. The prefetched data is available to the enrichers until the returned
+     * {@link Closeable} is closed.
+     *
+     * @param list The list to marshal.
+     * @param elEntityType The "entity-type" of the elements of the list, used to get the activated enrichers.
+     * @return A {@link Closeable} to close once the list is written.
+     * @since 11.3
+     */
+    protected Closeable prefetchEnrichers(List<EntityType> list, String elEntityType) {
+        Set<String> enrichers = ctx.getEnrichers(elEntityType);
+        if (list.isEmpty() || enrichers.isEmpty()) {
+            return () -> {};
+        }
+        WrappedContext prefetchedCtx = ctx.wrap();
+        try {
+            // the enrichers of the elements are called one level deeper
+            WrappedContext wrappedCtx = ctx.wrap().controlDepth();
+            Type enrichedType = TypeUtils.parameterize(Enriched.class, elClazz);
+            for (String enricherName : enrichers) {
+                try (Closeable resource = wrappedCtx.with(ENTITY_ENRICHER_NAME, enricherName).open()) {
+                    @SuppressWarnings("rawtypes")
+                    Collection<Writer<Enriched>> writers = registry.getAllWriters(ctx, Enriched.class, enrichedType,
+                            APPLICATION_JSON_TYPE);
+                    for (@SuppressWarnings("rawtypes")
+                    Writer<Enriched> writer : writers) {
+                        if (writer instanceof BatchJsonEnricher) {
+                            @SuppressWarnings("unchecked")
+                            BatchJsonEnricher<EntityType> enricher = (BatchJsonEnricher<EntityType>) writer;
+                            Object prefetched = prefetch(enricher, list, enricherName);
+                            prefetchedCtx.with(PREFETCHED_PREFIX + enricherName, prefetched);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new MarshallingException(e);
+                }
+            }
+        } catch (MaxDepthReachedException e) {
+            // do nothing, enrichers won't be called
+        }
+        return prefetchedCtx.open();
+    }
+
+    protected Object prefetch(BatchJsonEnricher<EntityType> enricher, List<EntityType> list, String enricherName) {
+        try {
+            return enricher.prefetch(list);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) { // NOSONAR
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("interrupted", e); // NOSONAR
+            }
+            // the enricher falls back to its per-entity computation
+            log.info("Enricher: {} failed to prefetch", enricherName, e);
+            return null;
+        }
+    }
+
 }
@@ -50,14 +50,16 @@ public class DocumentModelListJsonWriter extends DefaultListJsonWriter<DocumentM
 
     @Override
     public void write(List<DocumentModel> docs, JsonGenerator jg) throws IOException {
-        if (docs instanceof PaginableDocumentModelList) {
-            PaginableDocumentModelList paginable = (PaginableDocumentModelList) docs;
-            String codecName = paginable.getDocumentLinkBuilder();
-            try (Closeable resource = ctx.wrap().with(CODEC_PARAMETER_NAME, codecName).open()) {
+        try (Closeable prefetched = prefetchEnrichers(docs, DocumentModelJsonWriter.ENTITY_TYPE)) {
+            if (docs instanceof PaginableDocumentModelList) {
+                PaginableDocumentModelList paginable = (PaginableDocumentModelList) docs;
+                String codecName = paginable.getDocumentLinkBuilder();
+                try (Closeable resource = ctx.wrap().with(CODEC_PARAMETER_NAME, codecName).open()) {
+                    super.write(docs, jg);
+                }
+            } else {
                 super.write(docs, jg);
             }
-        } else {
-            super.write(docs, jg);
         }
     }
 
@@ -49,6 +49,13 @@ public abstract class AbstractJsonEnricher<EntityType> extends AbstractJsonWrite
 
     public static final String ENTITY_ENRICHER_NAME = "_EntityEnricherName";
 
+    /**
+     * Prefix of the context parameter holding the data prefetched by a {@link BatchJsonEnricher}.
+     *
+     * @since 11.3
+     */
+    public static final String PREFETCHED_PREFIX = "_EnricherPrefetched_";
+
     private final String name;
 
     protected static final ObjectMapper MAPPER = new ObjectMapper();
@@ -92,6 +99,17 @@ public abstract class AbstractJsonEnricher<EntityType> extends AbstractJsonWrite
         }
     }
 
+    /**
+     * Gets the data prefetched by this enricher if it is a {@link BatchJsonEnricher} and a list of entities is being
+     * written.
+     *
+     * @return the prefetched data, or {@code null} if none
+     * @since 11.3
+     */
+    protected <T> T getPrefetched() {
+        return ctx.getParameter(PREFETCHED_PREFIX + name);
+    }
+
     protected String safeReadBuffer(TokenBuffer tb) {
         try {
             return MAPPER.readTree(tb.asParser());
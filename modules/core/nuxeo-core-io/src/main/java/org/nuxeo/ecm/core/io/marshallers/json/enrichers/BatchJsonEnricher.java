@@ -0,0 +1,46 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.io.marshallers.json.enrichers;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.nuxeo.ecm.core.io.marshallers.json.DefaultListJsonWriter;
+
+/**
+ * Optional interface for an {@link AbstractJsonEnricher} able to fetch at once the data it needs for a list of
+ * entities, instead of running one query per entity.
+ * <p>
+ * When a list of entities is written (see {@link DefaultListJsonWriter#prefetchEnrichers}), {@link #prefetch} is
+ * called with the whole list before the entities are written one by one. The returned data is then available to the
+ * enricher through {@link AbstractJsonEnricher#getPrefetched()} while the list is written. As the same entity may also
+ * be written outside of a list, or the prefetch may fail, the enricher must still be able to compute its value for an
+ * entity missing from the prefetched data.
+ *
+ * @param <EntityType> The Java type whose the generated JSON will be enriched.
+ * @since 11.3
+ */
+public interface BatchJsonEnricher<EntityType> {
+
+    /**
+     * Fetches the data needed to enrich the given entities.
+     *
+     * @param entities the entities that are about to be written
+     * @return the prefetched data, or {@code null} if nothing was prefetched
+     */
+    Object prefetch(List<EntityType> entities) throws IOException;
+
+}
@@ -19,11 +19,21 @@
 
 package org.nuxeo.ecm.core.io.marshallers.json.enrichers;
 
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import static org.nuxeo.ecm.core.io.registry.reflect.Instantiations.SINGLETON;
 import static org.nuxeo.ecm.core.io.registry.reflect.Priorities.REFERENCE;
 
 import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.nuxeo.ecm.core.api.CoreSession;
 import org.nuxeo.ecm.core.api.DocumentModel;
 import org.nuxeo.ecm.core.io.registry.context.RenderingContext.SessionWrapper;
 import org.nuxeo.ecm.core.io.registry.reflect.Setup;
@@ -35,10 +45,21 @@ import com.fasterxml.jackson.core.JsonGenerator;
  * @since 8.10
  */
 @Setup(mode = SINGLETON, priority = REFERENCE)
-public class HasFolderishChildJsonEnricher extends AbstractJsonEnricher<DocumentModel> {
+public class HasFolderishChildJsonEnricher extends AbstractJsonEnricher<DocumentModel>
+        implements BatchJsonEnricher<DocumentModel> {
 
     public static final String NAME = "hasFolderishChild";
 
+    /**
+     * Maximum number of folders checked by a single query when prefetching.
+     *
+     * @since 11.3
+     */
+    protected static final int PREFETCH_CHUNK_SIZE = 100;
+
+    protected static final String FOLDERISH_CHILD_WHERE_CLAUSE = " WHERE ecm:mixinType = 'Folderish'"
+            + " AND ecm:mixinType != 'HiddenInNavigation' AND ecm:isTrashed = 0";
+
     public HasFolderishChildJsonEnricher() {
         super(NAME);
     }
@@ -49,14 +70,73 @@ public class HasFolderishChildJsonEnricher extends AbstractJsonEnricher<Document
             jg.writeBooleanField(NAME, false);
             return;
         }
+        Map<String, Boolean> prefetched = getPrefetched();
+        Boolean hasChildren = prefetched == null ? null : prefetched.get(document.getId());
+        if (hasChildren != null) {
+            jg.writeBooleanField(NAME, hasChildren.booleanValue());
+            return;
+        }
         try (SessionWrapper wrapper = ctx.getSession(document)) {
-            String fetchFolderishChildQuery = "SELECT * FROM Document WHERE ecm:mixinType = 'Folderish'"
-                    + " AND ecm:mixinType != 'HiddenInNavigation' AND ecm:isTrashed = 0"
+            String fetchFolderishChildQuery = "SELECT * FROM Document" + FOLDERISH_CHILD_WHERE_CLAUSE
                     + " AND ecm:parentId = " + NXQL.escapeString(document.getId());
             // Limit result set to 1 as we just want to know if there's at least one Folderish child
-            boolean hasChildren = !wrapper.getSession().queryProjection(fetchFolderishChildQuery, 1, 0).isEmpty();
+            hasChildren = !wrapper.getSession().queryProjection(fetchFolderishChildQuery, 1, 0).isEmpty();
             jg.writeBooleanField(NAME, hasChildren);
         }
     }
 
+    /**
+     * Checks the folderish children of all the folders of the list, with queries on chunks of
+     * {@value #PREFETCH_CHUNK_SIZE} folders.
+     * <p>
+     * SELECT DISTINCT is not available on all the repositories, so each query is limited to the number of folders
+     * still unknown, and the folders found to have a folderish child are excluded from the next query. This way a
+     * folder with many folderish children doesn't make the query return all of them.
+     *
+     * @return a map of folder id to whether the folder has a folderish child
+     * @since 11.3
+     */
+    @Override
+    public Object prefetch(List<DocumentModel> documents) throws IOException {
+        Map<String, List<DocumentModel>> foldersByRepository = new HashMap<>();
+        for (DocumentModel doc : documents) {
+            if (doc.isFolder() && doc.getId() != null && doc.getRepositoryName() != null) {
+                foldersByRepository.computeIfAbsent(doc.getRepositoryName(), k -> new ArrayList<>()).add(doc);
+            }
+        }
+        Map<String, Boolean> hasFolderishChild = new HashMap<>();
+        for (List<DocumentModel> folders : foldersByRepository.values()) {
+            List<String> ids = folders.stream().map(DocumentModel::getId).distinct().collect(toList());
+            try (SessionWrapper wrapper = ctx.getSession(folders.get(0))) {
+                for (int start = 0; start < ids.size(); start += PREFETCH_CHUNK_SIZE) {
+                    Set<String> unknown = new HashSet<>(
+                            ids.subList(start, Math.min(start + PREFETCH_CHUNK_SIZE, ids.size())));
+                    prefetch(wrapper.getSession(), unknown, hasFolderishChild);
+                }
+            }
+        }
+        return hasFolderishChild;
+    }
+
+    protected void prefetch(CoreSession session, Set<String> unknown, Map<String, Boolean> hasFolderishChild) {
+        while (!unknown.isEmpty()) {
+            String query = "SELECT " + NXQL.ECM_PARENTID + " FROM Document" + FOLDERISH_CHILD_WHERE_CLAUSE
+                    + " AND ecm:parentId IN (" + unknown.stream().map(NXQL::escapeString).collect(joining(", "))
+                    + ")";
+            int limit = unknown.size();
+            List<Map<String, Serializable>> result = session.queryProjection(query, limit, 0);
+            for (Map<String, Serializable> map : result) {
+                String parentId = (String) map.get(NXQL.ECM_PARENTID);
+                if (unknown.remove(parentId)) {
+                    hasFolderishChild.put(parentId, Boolean.TRUE);
+                }
+            }
+            if (result.size() < limit) {
+                // all the folderish children have been read, the others have none
+                unknown.forEach(id -> hasFolderishChild.put(id, Boolean.FALSE));
+                unknown.clear();
+            }
+        }
+    }
+
 }
@@ -20,9 +20,12 @@
 package org.nuxeo.ecm.core.io.registry;
 
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
@@ -34,10 +37,16 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.nuxeo.ecm.core.io.registry.context.RenderingContext;
 import org.nuxeo.ecm.core.io.registry.reflect.MarshallerInspector;
+import org.nuxeo.runtime.metrics.MetricsService;
 import org.nuxeo.runtime.model.ComponentContext;
 import org.nuxeo.runtime.model.DefaultComponent;
 import org.nuxeo.runtime.model.Descriptor;
 
+import io.dropwizard.metrics5.Counter;
+import io.dropwizard.metrics5.MetricName;
+import io.dropwizard.metrics5.MetricRegistry;
+import io.dropwizard.metrics5.SharedMetricRegistries;
+
 /**
  * Implementation of {@link MarshallerRegistry}.
  * <p>
@@ -81,6 +90,62 @@ public class MarshallerRegistryImpl extends DefaultComponent implements Marshall
      */
     private static final Map<Class<?>, MarshallerInspector> marshallersByType = new ConcurrentHashMap<>();
 
+    /**
+     * {@link MarshallerInspector}s compatible with a marshalled class and generic type, by set of candidates. Replaced
+     * by a new map when marshallers are registered or deregistered, so that a concurrent resolution cannot store a
+     * stale result in the new map.
+     *
+     * @since 11.3
+     */
+    private static volatile Map<ResolutionKey, List<MarshallerInspector>> resolutions = new ConcurrentHashMap<>();
+
+    protected final MetricRegistry registry = SharedMetricRegistries.getOrCreate(MetricsService.class.getName());
+
+    /** @since 11.3 */
+    protected final Counter resolutionLookups = registry.counter(
+            MetricName.build("nuxeo", "marshaller", "resolution", "lookup"));
+
+    /** @since 11.3 */
+    protected final Counter resolutionHits = registry.counter(
+            MetricName.build("nuxeo", "marshaller", "resolution", "hit"));
+
+    /**
+     * Key of the resolution cache. The set of candidates is compared by identity, it is specific to a media type and to
+     * writers or readers.
+     */
+    private static final class ResolutionKey {
+
+        private final Set<MarshallerInspector> candidates;
+
+        private final Class<?> marshalledClazz;
+
+        private final Type genericType;
+
+        private ResolutionKey(Set<MarshallerInspector> candidates, Class<?> marshalledClazz, Type genericType) {
+            this.candidates = candidates;
+            this.marshalledClazz = marshalledClazz;
+            this.genericType = genericType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(candidates), marshalledClazz, genericType);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ResolutionKey)) {
+                return false;
+            }
+            ResolutionKey other = (ResolutionKey) obj;
+            return candidates == other.candidates && Objects.equals(marshalledClazz, other.marshalledClazz)
+                    && Objects.equals(genericType, other.genericType);
+        }
+    }
+
     @Override
     public void deactivate(ComponentContext context) {
         clear();
@@ -155,6 +220,7 @@ public class MarshallerRegistryImpl extends DefaultComponent implements Marshall
                 inspectors.add(inspector);
             }
         }
+        invalidateResolutions();
     }
 
     @Override
@@ -188,6 +254,48 @@ public class MarshallerRegistryImpl extends DefaultComponent implements Marshall
                 }
             }
         }
+        invalidateResolutions();
+    }
+
+    /**
+     * Invalidates the resolution cache, to call after any change of the registered marshallers.
+     *
+     * @since 11.3
+     */
+    protected void invalidateResolutions() {
+        resolutions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the candidates whose managed class and generic type are compatible with the given ones, ordered by priority.
+     * The result is cached as the checks are costly and done for each marshalled object.
+     *
+     * @since 11.3
+     */
+    protected List<MarshallerInspector> getCompatibleCandidates(Class<?> marshalledClazz, Type genericType,
+            Set<MarshallerInspector> candidates) {
+        resolutionLookups.inc();
+        // keep a reference to the current cache in case of concurrent invalidation
+        Map<ResolutionKey, List<MarshallerInspector>> cache = resolutions;
+        ResolutionKey key = new ResolutionKey(candidates, marshalledClazz, genericType);
+        List<MarshallerInspector> compatibles = cache.get(key);
+        if (compatibles != null) {
+            resolutionHits.inc();
+            return compatibles;
+        }
+        compatibles = new ArrayList<>();
+        for (MarshallerInspector inspector : candidates) {
+            // checks the managed class is compatible
+            if (inspector.getMarshalledType().isAssignableFrom(marshalledClazz)) {
+                // checks the generic type is compatible
+                if (genericType == null || marshalledClazz.equals(inspector.getGenericType())
+                        || TypeUtils.isAssignable(genericType, inspector.getGenericType())) {
+                    compatibles.add(inspector);
+                }
+            }
+        }
+        cache.put(key, compatibles);
+        return compatibles;
     }
 
     @Override
@@ -275,23 +383,16 @@ public class MarshallerRegistryImpl extends DefaultComponent implements Marshall
     @SuppressWarnings("unchecked")
     private <T> Marshaller<T> searchCandidate(RenderingContext ctx, Class<T> marshalledClazz, Type genericType,
             MediaType mediatype, Set<MarshallerInspector> candidates, boolean forceInstantiation) {
-        for (MarshallerInspector inspector : candidates) {
-            // checks the managed class is compatible
-            if (inspector.getMarshalledType().isAssignableFrom(marshalledClazz)) {
-                // checks the generic type is compatible
-                if (genericType == null || marshalledClazz.equals(inspector.getGenericType())
-                        || TypeUtils.isAssignable(genericType, inspector.getGenericType())) {
-                    Marshaller<T> marshaller = null;
-                    if (forceInstantiation) {
-                        marshaller = (Marshaller<T>) inspector.getNewInstance(ctx, false);
-                    } else {
-                        marshaller = inspector.getInstance(ctx);
-                    }
-                    // checks the marshaller accepts the request
-                    if (marshaller.accept(marshalledClazz, genericType, mediatype)) {
-                        return marshaller;
-                    }
-                }
+        for (MarshallerInspector inspector : getCompatibleCandidates(marshalledClazz, genericType, candidates)) {
+            Marshaller<T> marshaller = null;
+            if (forceInstantiation) {
+                marshaller = (Marshaller<T>) inspector.getNewInstance(ctx, false);
+            } else {
+                marshaller = inspector.getInstance(ctx);
+            }
+            // checks the marshaller accepts the request
+            if (marshaller.accept(marshalledClazz, genericType, mediatype)) {
+                return marshaller;
             }
         }
         return null;
@@ -300,18 +401,11 @@ public class MarshallerRegistryImpl extends DefaultComponent implements Marshall
     private <T> Map<MarshallerInspector, Marshaller<T>> searchAllCandidates(RenderingContext ctx,
             Class<T> marshalledClazz, Type genericType, MediaType mediatype, Set<MarshallerInspector> candidates) {
         Map<MarshallerInspector, Marshaller<T>> result = new HashMap<>();
-        for (MarshallerInspector inspector : candidates) {
-            // checks the managed class is compatible
-            if (inspector.getMarshalledType().isAssignableFrom(marshalledClazz)) {
-                // checks the generic type is compatible
-                if (genericType == null || marshalledClazz.equals(inspector.getGenericType())
-                        || TypeUtils.isAssignable(genericType, inspector.getGenericType())) {
-                    // checks the marshaller accepts the request
-                    Marshaller<T> marshaller = inspector.getInstance(ctx);
-                    if (marshaller.accept(marshalledClazz, genericType, mediatype)) {
-                        result.put(inspector, marshaller);
-                    }
-                }
+        for (MarshallerInspector inspector : getCompatibleCandidates(marshalledClazz, genericType, candidates)) {
+            // checks the marshaller accepts the request
+            Marshaller<T> marshaller = inspector.getInstance(ctx);
+            if (marshaller.accept(marshalledClazz, genericType, mediatype)) {
+                result.put(inspector, marshaller);
             }
         }
         return result;
@@ -344,6 +438,7 @@ public class MarshallerRegistryImpl extends DefaultComponent implements Marshall
         readersByMediaType.clear();
         writers.clear();
         readers.clear();
+        invalidateResolutions();
     }
 
 }
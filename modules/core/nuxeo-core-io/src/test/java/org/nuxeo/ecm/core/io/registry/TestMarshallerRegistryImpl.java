@@ -71,6 +71,27 @@ public class TestMarshallerRegistryImpl {
         assertIsEmpty();
     }
 
+    @Test
+    public void testResolutionCache() {
+        registry.clear();
+        registry.register(DefaultNumberReader.class);
+        MarshallerRegistryImpl component = (MarshallerRegistryImpl) registry;
+        long lookups = component.resolutionLookups.getCount();
+        long hits = component.resolutionHits.getCount();
+        assertHasOne();
+        assertHasOne();
+        // one lookup for the media type candidates and one for all the readers
+        assertEquals(lookups + 4, component.resolutionLookups.getCount());
+        assertEquals(hits + 2, component.resolutionHits.getCount());
+        // registration changes invalidate the cache
+        registry.deregister(DefaultNumberReader.class);
+        assertIsEmpty();
+        assertEquals(hits + 2, component.resolutionHits.getCount());
+        registry.register(DefaultNumberReader.class);
+        assertHasOne();
+        assertEquals(hits + 2, component.resolutionHits.getCount());
+    }
+
     private void assertIsEmpty() {
         assertTrue(registry.getAllReaders(ctx, Number.class, null, APPLICATION_JSON_TYPE).isEmpty());
     }
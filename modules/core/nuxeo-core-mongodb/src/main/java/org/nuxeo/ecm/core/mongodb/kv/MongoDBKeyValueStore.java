@@ -28,9 +28,11 @@ import static com.mongodb.client.model.Updates.unset;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.nio.charset.CharacterCodingException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
@@ -51,14 +53,20 @@ import org.nuxeo.runtime.mongodb.MongoDBConnectionService;
 
 import com.mongodb.Block;
 import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoCommandException;
 import com.mongodb.MongoWriteException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
 import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.ReplaceOneModel;
 import com.mongodb.client.model.ReplaceOptions;
 import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 
@@ -359,6 +367,52 @@ public class MongoDBKeyValueStore extends AbstractKeyValueStoreProvider {
         }
     }
 
+    @Override
+    public void putAll(Map<String, byte[]> map, long ttl) {
+        if (map.isEmpty()) {
+            return;
+        }
+        List<WriteModel<Document>> models = new ArrayList<>(map.size());
+        map.forEach((key, bytes) -> {
+            Bson filter = eq(ID_KEY, key);
+            Object value = toStorage(bytes);
+            if (value == null) {
+                models.add(new DeleteOneModel<>(filter));
+            } else {
+                Document doc = new Document(VALUE_KEY, value);
+                addTTL(doc, ttl);
+                models.add(new ReplaceOneModel<>(filter, doc, new ReplaceOptions().upsert(true)));
+            }
+        });
+        if (log.isTraceEnabled()) {
+            log.trace("MongoDB: PUTALL " + map.keySet() + (ttl == 0 ? "" : " (TTL " + ttl + ")"));
+        }
+        // keys are distinct, so the order of the writes doesn't matter
+        BulkWriteOptions options = new BulkWriteOptions().ordered(false);
+        try {
+            coll.bulkWrite(models, options);
+        } catch (MongoBulkWriteException e) {
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+            // retry once, as not all server versions do server-side retries on upsert
+            coll.bulkWrite(models, options);
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (log.isTraceEnabled()) {
+            log.trace("MongoDB: DELALL " + keys);
+        }
+        coll.deleteMany(in(ID_KEY, keys));
+    }
+
     protected void addTTL(Document doc, long ttl) {
         if (ttl != 0) {
             doc.append(TTL_KEY, getDateFromTTL(ttl));
@@ -23,6 +23,7 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 
 import java.io.IOException;
 import java.nio.charset.CharacterCodingException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -39,8 +40,12 @@ import org.nuxeo.ecm.core.redis.RedisAdmin;
 import org.nuxeo.ecm.core.redis.RedisExecutor;
 import org.nuxeo.runtime.api.Framework;
 import org.nuxeo.runtime.kv.AbstractKeyValueStoreProvider;
+import org.nuxeo.runtime.kv.KeyValueBatch;
+import org.nuxeo.runtime.kv.KeyValueBatchImpl;
 import org.nuxeo.runtime.kv.KeyValueStoreDescriptor;
 
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.exceptions.JedisDataException;
 
 /**
@@ -279,4 +284,92 @@ public class RedisKeyValueStore extends AbstractKeyValueStoreProvider {
         return result.longValue();
     }
 
+    @Override
+    public void putAll(Map<String, byte[]> map, long ttl) {
+        KeyValueBatch batch = batch();
+        map.forEach((key, value) -> batch.put(key, value, ttl));
+        batch.execute();
+    }
+
+    @Override
+    public void deleteAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        byte[][] byteKeys = new byte[keys.size()][];
+        int i = 0;
+        for (String key : keys) {
+            byteKeys[i++] = getBytes(namespace + key);
+        }
+        RedisExecutor redisExecutor = Framework.getService(RedisExecutor.class);
+        redisExecutor.execute(jedis -> jedis.del(byteKeys));
+    }
+
+    @Override
+    public Map<String, Long> addAndGetAll(Map<String, Long> deltas) throws NumberFormatException { // NOSONAR
+        KeyValueBatch batch = batch();
+        deltas.forEach((key, delta) -> batch.addAndGet(key, delta.longValue()));
+        return batch.execute();
+    }
+
+    /**
+     * Returns a batch sending all its operations in a single Redis pipeline.
+     *
+     * @since 11.3
+     */
+    @Override
+    public KeyValueBatch batch() {
+        return new KeyValueBatchImpl(this) {
+            @Override
+            protected Map<String, Long> execute(List<Operation> ops) {
+                return executePipelined(ops);
+            }
+        };
+    }
+
+    /**
+     * @since 11.3
+     */
+    protected Map<String, Long> executePipelined(List<KeyValueBatchImpl.Operation> ops) {
+        List<String> incrKeys = new ArrayList<>();
+        RedisExecutor redisExecutor = Framework.getService(RedisExecutor.class);
+        List<Response<Long>> incrResponses = redisExecutor.execute(jedis -> {
+            List<Response<Long>> responses = new ArrayList<>();
+            Pipeline pipeline = jedis.pipelined();
+            for (KeyValueBatchImpl.Operation op : ops) {
+                byte[] keyb = getBytes(namespace + op.key);
+                switch (op.type) {
+                case PUT:
+                    if (op.ttl == 0) {
+                        pipeline.set(keyb, op.value);
+                    } else {
+                        pipeline.setex(keyb, (int) op.ttl, op.value);
+                    }
+                    break;
+                case DELETE:
+                    pipeline.del(keyb);
+                    break;
+                case ADD:
+                    incrKeys.add(op.key);
+                    responses.add(pipeline.incrBy(keyb, op.delta));
+                    break;
+                default:
+                    throw new IllegalStateException(op.type.toString());
+                }
+            }
+            pipeline.sync();
+            return responses;
+        });
+        Map<String, Long> results = new HashMap<>(incrKeys.size());
+        for (int i = 0; i < incrKeys.size(); i++) {
+            String key = incrKeys.get(i);
+            try {
+                results.put(key, incrResponses.get(i).get());
+            } catch (JedisDataException e) {
+                throw new NumberFormatException("Value is not a Long for key: " + key);
+            }
+        }
+        return results;
+    }
+
 }
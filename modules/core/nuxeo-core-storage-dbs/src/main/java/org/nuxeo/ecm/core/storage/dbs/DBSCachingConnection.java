@@ -44,6 +44,8 @@ import com.google.common.cache.Cache;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Ordering;
 
+import io.dropwizard.metrics5.Counter;
+
 /**
  * The DBS Cache layer used to cache some method call of real repository
  *
@@ -86,6 +88,12 @@ public class DBSCachingConnection implements DBSConnection {
      */
     private final DBSInvalidationsPropagator invalidationsPropagator;
 
+    private final Counter invalidationsReceivedCount;
+
+    private final Counter invalidationsAllCount;
+
+    private final Counter invalidationsDroppedCount;
+
     public DBSCachingConnection(DBSConnection connection, DBSCachingRepository repository) {
         this.connection = connection;
         // Init caches
@@ -113,13 +121,19 @@ public class DBSCachingConnection implements DBSConnection {
             // no transactional backend and no cluster
             invalidations = null;
         } else {
-            invalidations = new DBSInvalidations();
+            // published in batches by the cluster invalidator, so keep more than a single message can hold
+            invalidations = new DBSInvalidations(DBSInvalidations.MAX_PUBLISHED_SIZE);
         }
+        invalidationsReceivedCount = repository.invalidationsReceivedCount;
+        invalidationsAllCount = repository.invalidationsAllCount;
+        invalidationsDroppedCount = repository.invalidationsDroppedCount;
     }
 
     @Override
     public void close() {
         connection.close();
+        // Send pending invalidations, if any (they're normally sent at commit time)
+        sendInvalidationsToOthers();
         if (invalidationsPropagator != null) {
             invalidationsPropagator.removeQueue(invalidationsQueue);
         }
@@ -128,10 +142,6 @@ public class DBSCachingConnection implements DBSConnection {
             cache.invalidateAll();
             childCache.invalidateAll();
         }
-        // Send invalidations
-        if (clusterInvalidator != null) {
-            clusterInvalidator.sendInvalidations(new DBSInvalidations(true));
-        }
     }
 
     @Override
@@ -204,6 +214,16 @@ public class DBSCachingConnection implements DBSConnection {
         invalidate(id);
     }
 
+    @Override
+    public void updateStates(List<StateUpdate> updates) {
+        try {
+            connection.updateStates(updates);
+        } finally {
+            // some updates may have been applied even on failure
+            updates.forEach(update -> invalidate(update.id));
+        }
+    }
+
     @Override
     public void deleteStates(Set<String> ids) {
         connection.deleteStates(ids);
@@ -219,8 +239,8 @@ public class DBSCachingConnection implements DBSConnection {
         if (stateId != null) {
             State state = cache.getIfPresent(stateId);
             if (state != null) {
-                // As we don't have invalidation for childCache we need to check if retrieved state is the right one
-                // and not a previous document which was moved or renamed
+                // The childCache entry is dropped when its state is invalidated, but it may outlive an evicted state
+                // so we still need to check if retrieved state is the right one and not a moved or renamed document
                 if (parentId.equals(state.get(KEY_PARENT_ID)) && name.equals(state.get(KEY_NAME))) {
                     return state;
                 } else {
@@ -254,12 +274,35 @@ public class DBSCachingConnection implements DBSConnection {
     }
 
     private void invalidate(Collection<String> ids) {
-        cache.invalidateAll(ids);
+        dropFromCache(ids);
         if (invalidations != null) {
             invalidations.addAll(ids);
         }
     }
 
+    /**
+     * Removes the given ids from the cache, along with their child cache entry.
+     *
+     * @return the number of cache entries actually dropped
+     */
+    private int dropFromCache(Collection<String> ids) {
+        int dropped = 0;
+        for (String id : ids) {
+            // go through the map view to not count the removal as a cache hit or miss
+            State state = cache.asMap().remove(id);
+            if (state == null) {
+                continue;
+            }
+            dropped++;
+            Object parentId = state.get(KEY_PARENT_ID);
+            if (parentId != null) {
+                childCache.asMap().remove(computeChildCacheKey(parentId.toString(), state.get(KEY_NAME).toString()),
+                        id);
+            }
+        }
+        return dropped;
+    }
+
     protected void sendInvalidationsToOthers() {
         if (invalidations != null && !invalidations.isEmpty()) {
             if (clusterInvalidator != null) {
@@ -298,10 +341,13 @@ public class DBSCachingConnection implements DBSConnection {
         // apply invalidations to the cache (connection-local or repository-wide)
         if (invals != null && !invals.isEmpty()) {
             if (invals.all) {
+                invalidationsAllCount.inc();
+                invalidationsDroppedCount.inc(cache.size());
                 cache.invalidateAll();
                 childCache.invalidateAll();
             } else if (invals.ids != null) {
-                cache.invalidateAll(invals.ids);
+                invalidationsReceivedCount.inc(invals.ids.size());
+                invalidationsDroppedCount.inc(dropFromCache(invals.ids));
             }
         }
     }
@@ -352,6 +398,12 @@ public class DBSCachingConnection implements DBSConnection {
         return connection.queryAndFetch(evaluator, orderByClause, distinctDocuments, limit, offset, countUpTo);
     }
 
+    @Override
+    public Stream<Map<String, Serializable>> queryAndFetchStream(DBSExpressionEvaluator evaluator,
+            OrderByClause orderByClause, boolean distinctDocuments, int limit, int offset) {
+        return connection.queryAndFetchStream(evaluator, orderByClause, distinctDocuments, limit, offset);
+    }
+
     @Override
     public ScrollResult<String> scroll(DBSExpressionEvaluator evaluator, int batchSize, int keepAliveSeconds) {
         return connection.scroll(evaluator, batchSize, keepAliveSeconds);
@@ -29,6 +29,7 @@ import org.nuxeo.ecm.core.api.repository.FulltextConfiguration;
 import org.nuxeo.ecm.core.blob.BlobManager;
 import org.nuxeo.ecm.core.model.LockManager;
 import org.nuxeo.ecm.core.model.Session;
+import org.nuxeo.ecm.core.storage.QueryPlanCache;
 import org.nuxeo.ecm.core.storage.State;
 import org.nuxeo.runtime.api.Framework;
 import org.nuxeo.runtime.cluster.ClusterService;
@@ -37,6 +38,7 @@ import org.nuxeo.runtime.metrics.MetricsService;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 
+import io.dropwizard.metrics5.Counter;
 import io.dropwizard.metrics5.MetricName;
 import io.dropwizard.metrics5.MetricRegistry;
 import io.dropwizard.metrics5.SharedMetricRegistries;
@@ -54,6 +56,18 @@ public class DBSCachingRepository implements DBSRepository {
 
     protected static final String METRIC_CHILD_CACHE_NAME = "nuxeo.repositories.repository.childCache";
 
+    /** @since 11.3 */
+    protected static final String METRIC_INVALIDATIONS_NAME = "nuxeo.repositories.repository.invalidations";
+
+    /** @since 11.3 */
+    protected static final String METRIC_INVALIDATIONS_RECEIVED_NAME = METRIC_INVALIDATIONS_NAME + ".received";
+
+    /** @since 11.3 */
+    protected static final String METRIC_INVALIDATIONS_ALL_NAME = METRIC_INVALIDATIONS_NAME + ".all";
+
+    /** @since 11.3 */
+    protected static final String METRIC_INVALIDATIONS_DROPPED_NAME = METRIC_INVALIDATIONS_NAME + ".dropped";
+
     private final DBSRepository repository;
 
     protected final Cache<String, State> cache;
@@ -68,6 +82,27 @@ public class DBSCachingRepository implements DBSRepository {
 
     protected final MetricRegistry registry = SharedMetricRegistries.getOrCreate(MetricsService.class.getName());
 
+    /**
+     * Number of ids received as invalidations from other connections or cluster nodes.
+     *
+     * @since 11.3
+     */
+    protected final Counter invalidationsReceivedCount;
+
+    /**
+     * Number of "invalidate all" received from other connections or cluster nodes.
+     *
+     * @since 11.3
+     */
+    protected final Counter invalidationsAllCount;
+
+    /**
+     * Number of cache entries actually dropped due to received invalidations.
+     *
+     * @since 11.3
+     */
+    protected final Counter invalidationsDroppedCount;
+
     public DBSCachingRepository(DBSRepository repository, DBSRepositoryDescriptor descriptor) {
         this.repository = repository;
         this.descriptor = descriptor;
@@ -86,6 +121,12 @@ public class DBSCachingRepository implements DBSRepository {
         }
         invalidationsPropagator = initInvalidationsPropagator();
         clusterInvalidator = initClusterInvalidator(descriptor);
+        invalidationsReceivedCount = registry.counter(
+                MetricName.build(METRIC_INVALIDATIONS_RECEIVED_NAME).tagged("repository", repository.getName()));
+        invalidationsAllCount = registry.counter(
+                MetricName.build(METRIC_INVALIDATIONS_ALL_NAME).tagged("repository", repository.getName()));
+        invalidationsDroppedCount = registry.counter(
+                MetricName.build(METRIC_INVALIDATIONS_DROPPED_NAME).tagged("repository", repository.getName()));
     }
 
     protected Cache<String, State> getCache() {
@@ -124,7 +165,8 @@ public class DBSCachingRepository implements DBSRepository {
 
     protected void removeCacheMetrics() {
         registry.removeMatching((name, metric) -> name.getKey().startsWith(METRIC_CACHE_NAME)
-                || name.getKey().startsWith(METRIC_CHILD_CACHE_NAME));
+                || name.getKey().startsWith(METRIC_CHILD_CACHE_NAME)
+                || name.getKey().startsWith(METRIC_INVALIDATIONS_NAME));
     }
 
     protected <T> Cache<String, T> newCache(DBSRepositoryDescriptor descriptor) {
@@ -232,6 +274,11 @@ public class DBSCachingRepository implements DBSRepository {
         return repository.isChangeTokenEnabled();
     }
 
+    @Override
+    public QueryPlanCache getQueryPlanCache() {
+        return repository.getQueryPlanCache();
+    }
+
     @Override
     public LockManager getLockManager() {
         return repository.getLockManager();
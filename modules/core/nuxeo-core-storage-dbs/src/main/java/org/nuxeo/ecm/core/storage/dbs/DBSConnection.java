@@ -116,6 +116,40 @@ public interface DBSConnection extends AutoCloseable, LockManager {
      */
     void updateState(String id, StateDiff diff, ChangeTokenUpdater changeTokenUpdater);
 
+    /**
+     * Updates several documents.
+     * <p>
+     * If a document was concurrently updated or deleted, a {@link org.nuxeo.ecm.core.api.ConcurrentUpdateException
+     * ConcurrentUpdateException} is thrown, the other updates may or may not have been applied.
+     *
+     * @param updates the updates to apply
+     * @since 11.3
+     */
+    default void updateStates(List<StateUpdate> updates) {
+        updates.forEach(update -> updateState(update.id, update.diff, update.changeTokenUpdater));
+    }
+
+    /**
+     * The update of a document: its id, the diff to apply and how to update its change token.
+     *
+     * @since 11.3
+     */
+    class StateUpdate {
+
+        public final String id;
+
+        public final StateDiff diff;
+
+        /** May be {@code null}. */
+        public final ChangeTokenUpdater changeTokenUpdater;
+
+        public StateUpdate(String id, StateDiff diff, ChangeTokenUpdater changeTokenUpdater) {
+            this.id = id;
+            this.diff = diff;
+            this.changeTokenUpdater = changeTokenUpdater;
+        }
+    }
+
     /**
      * Deletes a set of document.
      *
@@ -238,6 +272,25 @@ public interface DBSConnection extends AutoCloseable, LockManager {
     PartialList<Map<String, Serializable>> queryAndFetch(DBSExpressionEvaluator evaluator, OrderByClause orderByClause,
             boolean distinctDocuments, int limit, int offset, int countUpTo);
 
+    /**
+     * Queries the repository for documents matching a NXQL query, and streams a projection of the documents.
+     * <p>
+     * Implementations should read the results lazily from a server-side cursor so that memory usage doesn't depend on
+     * the number of results. The returned stream must be closed to release the cursor.
+     *
+     * @param evaluator the map-based evaluator for the query
+     * @param orderByClause an ORDER BY clause
+     * @param distinctDocuments {@code true} if the projection should return a maximum of one row per document
+     * @param limit the limit on the number of documents to return
+     * @param offset the offset in the list of documents to return
+     * @return a stream of maps containing the NXQL projections requested
+     * @since 11.3
+     */
+    default Stream<Map<String, Serializable>> queryAndFetchStream(DBSExpressionEvaluator evaluator,
+            OrderByClause orderByClause, boolean distinctDocuments, int limit, int offset) {
+        return queryAndFetch(evaluator, orderByClause, distinctDocuments, limit, offset, 0).stream();
+    }
+
     /**
      * Executes the given query and returns the first batch of results containing id of documents, next batch must be
      * requested within the {@code keepAliveSeconds} delay.
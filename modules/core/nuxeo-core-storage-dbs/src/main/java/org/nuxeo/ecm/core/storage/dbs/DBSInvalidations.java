@@ -22,8 +22,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.nuxeo.runtime.pubsub.SerializableAccumulableInvalidations;
@@ -45,6 +47,14 @@ public class DBSInvalidations implements SerializableAccumulableInvalidations {
      */
     public static final int MAX_SIZE = 10000;
 
+    /**
+     * Maximum number of invalidations collected by a connection before publishing them, after which only {@link #all}
+     * is set. Above {@link #MAX_SIZE} they are published in several batches.
+     *
+     * @since 11.3
+     */
+    public static final int MAX_PUBLISHED_SIZE = 200_000;
+
     /**
      * Used locally when invalidating everything, or when too many invalidations have been received.
      */
@@ -53,11 +63,24 @@ public class DBSInvalidations implements SerializableAccumulableInvalidations {
     /** null when empty */
     public Set<String> ids;
 
+    protected final int maxSize;
+
     public DBSInvalidations() {
+        this(false);
     }
 
     public DBSInvalidations(boolean all) {
         this.all = all;
+        maxSize = MAX_SIZE;
+    }
+
+    /**
+     * Constructs empty invalidations keeping at most the given number of ids before falling back to {@link #all}.
+     *
+     * @since 11.3
+     */
+    public DBSInvalidations(int maxSize) {
+        this.maxSize = maxSize;
     }
 
     @Override
@@ -76,7 +99,7 @@ public class DBSInvalidations implements SerializableAccumulableInvalidations {
     }
 
     protected void checkMaxSize() {
-        if (ids != null && ids.size() > MAX_SIZE) {
+        if (ids != null && ids.size() > maxSize) {
             setAll();
         }
     }
@@ -126,6 +149,28 @@ public class DBSInvalidations implements SerializableAccumulableInvalidations {
         checkMaxSize();
     }
 
+    /**
+     * Splits these invalidations into batches holding at most {@code batchSize} ids each.
+     *
+     * @since 11.3
+     */
+    public List<DBSInvalidations> split(int batchSize) {
+        if (all || ids == null || ids.size() <= batchSize) {
+            return List.of(this);
+        }
+        List<DBSInvalidations> batches = new ArrayList<>();
+        DBSInvalidations batch = null;
+        for (String id : ids) {
+            if (batch == null || batch.ids.size() >= batchSize) {
+                batch = new DBSInvalidations();
+                batch.ids = new HashSet<>();
+                batches.add(batch);
+            }
+            batch.ids.add(id);
+        }
+        return batches;
+    }
+
     private static final String UTF_8 = "UTF-8";
 
     private static final int ALL_IDS = (byte) 'A';
@@ -35,7 +35,8 @@ public class DBSInvalidationsQueue extends InvalidationsQueue<DBSInvalidations>
 
     @Override
     public DBSInvalidations newInvalidations() {
-        return new DBSInvalidations();
+        // accumulates several published batches without falling back to "all"
+        return new DBSInvalidations(DBSInvalidations.MAX_PUBLISHED_SIZE);
     }
 
 }
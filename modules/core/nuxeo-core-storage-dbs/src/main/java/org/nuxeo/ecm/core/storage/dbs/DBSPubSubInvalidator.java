@@ -32,7 +32,19 @@ public class DBSPubSubInvalidator extends AbstractPubSubInvalidationsAccumulator
 
     @Override
     public DBSInvalidations newInvalidations() {
-        return new DBSInvalidations();
+        // accumulates several published batches without falling back to "all"
+        return new DBSInvalidations(DBSInvalidations.MAX_PUBLISHED_SIZE);
+    }
+
+    /**
+     * Publishes large sets of invalidations in several messages of bounded size, so that receivers can apply them
+     * incrementally instead of invalidating everything.
+     */
+    @Override
+    public void sendInvalidations(DBSInvalidations invalidations) {
+        for (DBSInvalidations batch : invalidations.split(DBSInvalidations.MAX_SIZE)) {
+            super.sendInvalidations(batch);
+        }
     }
 
     @Override
@@ -21,6 +21,7 @@ package org.nuxeo.ecm.core.storage.dbs;
 import org.nuxeo.ecm.core.blob.BlobManager;
 import org.nuxeo.ecm.core.model.LockManager;
 import org.nuxeo.ecm.core.model.Repository;
+import org.nuxeo.ecm.core.storage.QueryPlanCache;
 
 /**
  * Interface for a {@link Repository} for Document-Based Storage.
@@ -95,4 +96,12 @@ public interface DBSRepository extends Repository, LockManager {
      */
     boolean supportsTransactions();
 
+    /**
+     * Gets the cache of parsed queries and query plans for this repository.
+     *
+     * @return the query plan cache
+     * @since 11.3
+     */
+    QueryPlanCache getQueryPlanCache();
+
 }
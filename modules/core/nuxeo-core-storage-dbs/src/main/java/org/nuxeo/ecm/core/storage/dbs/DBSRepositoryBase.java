@@ -61,6 +61,7 @@ import org.nuxeo.ecm.core.schema.types.Schema;
 import org.nuxeo.ecm.core.schema.types.Type;
 import org.nuxeo.ecm.core.storage.FulltextConfigurationFactory;
 import org.nuxeo.ecm.core.storage.FulltextDescriptor;
+import org.nuxeo.ecm.core.storage.QueryPlanCache;
 import org.nuxeo.ecm.core.storage.lock.LockManagerService;
 import org.nuxeo.ecm.core.storage.sql.ra.ConnectionFactoryImpl;
 import org.nuxeo.runtime.api.Framework;
@@ -120,6 +121,9 @@ public abstract class DBSRepositoryBase implements DBSRepository {
 
     protected final boolean changeTokenEnabled;
 
+    // @since 11.3
+    protected final QueryPlanCache queryPlanCache;
+
     /**
      * @since 7.4 : used to know if the LockManager was provided by this repository or externally
      */
@@ -149,6 +153,7 @@ public abstract class DBSRepositoryBase implements DBSRepository {
         this.cm = cm;
         changeTokenEnabled = descriptor.isChangeTokenEnabled();
         blobManager = Framework.getService(BlobManager.class);
+        queryPlanCache = new QueryPlanCache(repositoryName);
         initBlobsPaths();
         initLockManager();
     }
@@ -163,6 +168,7 @@ public abstract class DBSRepositoryBase implements DBSRepository {
 
     @Override
     public void shutdown() {
+        queryPlanCache.close();
         try {
             NuxeoContainer.disposeConnectionManager(cm);
         } catch (RuntimeException e) {
@@ -177,6 +183,11 @@ public abstract class DBSRepositoryBase implements DBSRepository {
         }
     }
 
+    @Override
+    public QueryPlanCache getQueryPlanCache() {
+        return queryPlanCache;
+    }
+
     @Override
     public String getName() {
         return repositoryName;
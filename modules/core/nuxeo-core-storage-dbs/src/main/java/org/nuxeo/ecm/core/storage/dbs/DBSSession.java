@@ -92,6 +92,7 @@ import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -114,6 +115,7 @@ import org.nuxeo.ecm.core.api.PartialList;
 import org.nuxeo.ecm.core.api.PropertyException;
 import org.nuxeo.ecm.core.api.ScrollResult;
 import org.nuxeo.ecm.core.api.VersionModel;
+import org.nuxeo.ecm.core.api.impl.FacetFilter;
 import org.nuxeo.ecm.core.api.repository.FulltextConfiguration;
 import org.nuxeo.ecm.core.api.security.ACE;
 import org.nuxeo.ecm.core.api.security.ACL;
@@ -133,7 +135,6 @@ import org.nuxeo.ecm.core.model.Session;
 import org.nuxeo.ecm.core.query.QueryFilter;
 import org.nuxeo.ecm.core.query.QueryParseException;
 import org.nuxeo.ecm.core.query.sql.NXQL;
-import org.nuxeo.ecm.core.query.sql.SQLQueryParser;
 import org.nuxeo.ecm.core.query.sql.model.Operand;
 import org.nuxeo.ecm.core.query.sql.model.OrderByClause;
 import org.nuxeo.ecm.core.query.sql.model.OrderByExpr;
@@ -152,6 +153,7 @@ import org.nuxeo.ecm.core.schema.types.primitives.StringType;
 import org.nuxeo.ecm.core.storage.BaseDocument;
 import org.nuxeo.ecm.core.storage.ExpressionEvaluator;
 import org.nuxeo.ecm.core.storage.QueryOptimizer;
+import org.nuxeo.ecm.core.storage.QueryPlanCache;
 import org.nuxeo.ecm.core.storage.State;
 import org.nuxeo.ecm.core.storage.StateHelper;
 import org.nuxeo.runtime.api.Framework;
@@ -1669,49 +1671,17 @@ public class DBSSession implements Session<QueryFilter> {
             throw new NuxeoException("No QueryMaker accepts query type: " + queryType);
         }
 
-        // transform the query according to the transformers defined by the
-        // security policies
-        SQLQuery sqlQuery = SQLQueryParser.parse(query);
-        for (SQLQuery.Transformer transformer : queryFilter.getQueryTransformers()) {
-            sqlQuery = transformer.transform(queryFilter.getPrincipal(), sqlQuery);
-        }
-
-        SelectClause selectClause = sqlQuery.select;
-        if (selectClause.isEmpty()) {
-            // turned into SELECT ecm:uuid
-            selectClause.add(new Reference(NXQL.ECM_UUID));
-        }
-        boolean selectStar = selectClause.count() == 1 && (selectClause.containsOperand(new Reference(NXQL.ECM_UUID)));
-        if (selectStar) {
+        QueryPlan plan = getQueryPlan(query, queryFilter);
+        if (plan.selectStar) {
             distinctDocuments = true;
-        } else if (selectClause.isDistinct()) {
-            throw new QueryParseException("SELECT DISTINCT not supported on DBS");
         }
         if (idKeyHolder != null) {
-            Operand operand = selectClause.operands().iterator().next();
-            String idKey = operand instanceof Reference ? ((Reference) operand).name : NXQL.ECM_UUID;
-            idKeyHolder.setValue(idKey);
-        }
-
-        // Replace select clause for tags
-        String ecmTag = selectClause.elements.keySet()
-                                             .stream()
-                                             .filter(k -> k.startsWith(NXQL.ECM_TAG))
-                                             .findFirst()
-                                             .orElse(null);
-        String keyTag = null;
-        if (ecmTag != null) {
-            keyTag = FACETED_TAG + "/*1/" + FACETED_TAG_LABEL;
-            selectClause.elements.replace(ecmTag, new Reference(keyTag));
+            idKeyHolder.setValue(plan.idKey);
         }
-
-        // Add useful select clauses, used for order by path
-        selectClause.elements.putIfAbsent(NXQL.ECM_UUID, new Reference(NXQL.ECM_UUID));
-        selectClause.elements.putIfAbsent(NXQL.ECM_PARENTID, new Reference(NXQL.ECM_PARENTID));
-        selectClause.elements.putIfAbsent(NXQL.ECM_NAME, new Reference(NXQL.ECM_NAME));
-
-        QueryOptimizer optimizer = new DBSQueryOptimizer().withFacetFilter(queryFilter.getFacetFilter());
-        sqlQuery = optimizer.optimize(sqlQuery);
+        String ecmTag = plan.ecmTag;
+        String keyTag = plan.keyTag;
+        // the plan is shared, work on a copy
+        SQLQuery sqlQuery = QueryPlanCache.copy(plan.sqlQuery);
         DBSExpressionEvaluator evaluator = new DBSExpressionEvaluator(this, sqlQuery, queryFilter.getPrincipals(),
                 fulltextSearchDisabled);
 
@@ -1769,6 +1739,106 @@ public class DBSSession implements Session<QueryFilter> {
         return projections;
     }
 
+    /**
+     * Gets the plan for a query, from the repository cache when possible.
+     *
+     * @since 11.3
+     */
+    protected QueryPlan getQueryPlan(String query, QueryFilter queryFilter) {
+        if (queryFilter.getQueryTransformers().isEmpty()) {
+            // without transformers the plan only depends on the query and the facet filter
+            String key = getQueryPlanKey(query, queryFilter.getFacetFilter());
+            return repository.getQueryPlanCache().getPlan(key, () -> newQueryPlan(query, queryFilter));
+        } else {
+            return newQueryPlan(query, queryFilter);
+        }
+    }
+
+    /**
+     * A parsed, transformed and optimized query, along with information derived from its SELECT clause.
+     *
+     * @since 11.3
+     */
+    protected static class QueryPlan {
+
+        protected final SQLQuery sqlQuery;
+
+        protected final boolean selectStar;
+
+        protected final String idKey;
+
+        protected final String ecmTag;
+
+        protected final String keyTag;
+
+        protected QueryPlan(SQLQuery sqlQuery, boolean selectStar, String idKey, String ecmTag, String keyTag) {
+            this.sqlQuery = sqlQuery;
+            this.selectStar = selectStar;
+            this.idKey = idKey;
+            this.ecmTag = ecmTag;
+            this.keyTag = keyTag;
+        }
+    }
+
+    /**
+     * Computes the key of a query plan that doesn't depend on query transformers.
+     *
+     * @since 11.3
+     */
+    protected String getQueryPlanKey(String query, FacetFilter facetFilter) {
+        if (facetFilter == null) {
+            return query;
+        }
+        return query + "\n" + new TreeSet<>(facetFilter.required) + new TreeSet<>(facetFilter.excluded);
+    }
+
+    /**
+     * Parses, transforms and optimizes a query.
+     *
+     * @since 11.3
+     */
+    protected QueryPlan newQueryPlan(String query, QueryFilter queryFilter) {
+        // transform the query according to the transformers defined by the
+        // security policies
+        SQLQuery sqlQuery = repository.getQueryPlanCache().parse(query);
+        for (SQLQuery.Transformer transformer : queryFilter.getQueryTransformers()) {
+            sqlQuery = transformer.transform(queryFilter.getPrincipal(), sqlQuery);
+        }
+
+        SelectClause selectClause = sqlQuery.select;
+        if (selectClause.isEmpty()) {
+            // turned into SELECT ecm:uuid
+            selectClause.add(new Reference(NXQL.ECM_UUID));
+        }
+        boolean selectStar = selectClause.count() == 1 && (selectClause.containsOperand(new Reference(NXQL.ECM_UUID)));
+        if (!selectStar && selectClause.isDistinct()) {
+            throw new QueryParseException("SELECT DISTINCT not supported on DBS");
+        }
+        Operand operand = selectClause.operands().iterator().next();
+        String idKey = operand instanceof Reference ? ((Reference) operand).name : NXQL.ECM_UUID;
+
+        // Replace select clause for tags
+        String ecmTag = selectClause.elements.keySet()
+                                             .stream()
+                                             .filter(k -> k.startsWith(NXQL.ECM_TAG))
+                                             .findFirst()
+                                             .orElse(null);
+        String keyTag = null;
+        if (ecmTag != null) {
+            keyTag = FACETED_TAG + "/*1/" + FACETED_TAG_LABEL;
+            selectClause.elements.replace(ecmTag, new Reference(keyTag));
+        }
+
+        // Add useful select clauses, used for order by path
+        selectClause.elements.putIfAbsent(NXQL.ECM_UUID, new Reference(NXQL.ECM_UUID));
+        selectClause.elements.putIfAbsent(NXQL.ECM_PARENTID, new Reference(NXQL.ECM_PARENTID));
+        selectClause.elements.putIfAbsent(NXQL.ECM_NAME, new Reference(NXQL.ECM_NAME));
+
+        QueryOptimizer optimizer = new DBSQueryOptimizer().withFacetFilter(queryFilter.getFacetFilter());
+        sqlQuery = optimizer.optimize(sqlQuery);
+        return new QueryPlan(sqlQuery, selectStar, idKey, ecmTag, keyTag);
+    }
+
     /** Does an ORDER BY clause include ecm:path */
     protected boolean isOrderByPath(OrderByClause orderByClause) {
         if (orderByClause == null) {
@@ -1887,6 +1957,37 @@ public class DBSSession implements Session<QueryFilter> {
         }
     }
 
+    @Override
+    public Stream<Map<String, Serializable>> queryAndFetchStream(String query, String queryType,
+            QueryFilter queryFilter, boolean distinctDocuments, Object[] params) {
+        if ("NXTAG".equals(queryType)) {
+            // for now don't try to implement tags
+            return Stream.empty();
+        }
+        if (!NXQL.NXQL.equals(queryType)) {
+            throw new NuxeoException("No QueryMaker accepts query type: " + queryType);
+        }
+        QueryPlan plan = getQueryPlan(query, queryFilter);
+        SQLQuery sqlQuery = QueryPlanCache.copy(plan.sqlQuery);
+        if (isOrderByPath(sqlQuery.orderBy)) {
+            // ordering has to be done in memory
+            return doQueryAndFetch(query, queryType, queryFilter, distinctDocuments, 0, null).stream();
+        }
+        DBSExpressionEvaluator evaluator = new DBSExpressionEvaluator(this, sqlQuery, queryFilter.getPrincipals(),
+                fulltextSearchDisabled);
+        int limit = Math.max((int) queryFilter.getLimit(), 0);
+        int offset = Math.max((int) queryFilter.getOffset(), 0);
+        String ecmTag = plan.ecmTag;
+        String keyTag = plan.keyTag;
+        return transaction.queryAndFetchStream(evaluator, sqlQuery.orderBy, distinctDocuments || plan.selectStar,
+                limit, offset).map(proj -> {
+                    if (proj.containsKey(keyTag)) {
+                        proj.put(ecmTag, proj.remove(keyTag));
+                    }
+                    return proj;
+                });
+    }
+
     @SuppressWarnings("resource") // Time.Context closed by stop()
     @Override
     public PartialList<Map<String, Serializable>> queryProjection(String query, String queryType,
@@ -1911,7 +2012,7 @@ public class DBSSession implements Session<QueryFilter> {
 
     @Override
     public ScrollResult<String> scroll(String query, int batchSize, int keepAliveSeconds) {
-        SQLQuery sqlQuery = SQLQueryParser.parse(query);
+        SQLQuery sqlQuery = repository.getQueryPlanCache().parse(query);
         SelectClause selectClause = sqlQuery.select;
         selectClause.add(new Reference(NXQL.ECM_UUID));
         sqlQuery = new DBSQueryOptimizer().optimize(sqlQuery);
@@ -1921,7 +2022,7 @@ public class DBSSession implements Session<QueryFilter> {
 
     @Override
     public ScrollResult<String> scroll(String query, QueryFilter queryFilter, int batchSize, int keepAliveSeconds) {
-        SQLQuery sqlQuery = SQLQueryParser.parse(query);
+        SQLQuery sqlQuery = repository.getQueryPlanCache().parse(query);
         SelectClause selectClause = sqlQuery.select;
         selectClause.add(new Reference(NXQL.ECM_UUID));
         sqlQuery = new DBSQueryOptimizer().optimize(sqlQuery);
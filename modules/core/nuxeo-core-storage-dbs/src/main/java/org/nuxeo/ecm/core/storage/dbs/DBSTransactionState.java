@@ -91,6 +91,7 @@ import org.nuxeo.ecm.core.storage.State.ListDiff;
 import org.nuxeo.ecm.core.storage.State.StateDiff;
 import org.nuxeo.ecm.core.storage.StateHelper;
 import org.nuxeo.ecm.core.storage.dbs.DBSConnection.DBSQueryOperator;
+import org.nuxeo.ecm.core.storage.dbs.DBSConnection.StateUpdate;
 import org.nuxeo.ecm.core.work.api.Work;
 import org.nuxeo.ecm.core.work.api.WorkManager;
 import org.nuxeo.ecm.core.work.api.WorkManager.Scheduling;
@@ -531,13 +532,26 @@ public class DBSTransactionState implements LockManager, AutoCloseable {
 
         // check if we have a small enough number of descendants that we can process them synchronously
         int limit = getReadAclsAsyncThreshold();
-        Set<String> ids = new HashSet<>();
-        try (Stream<State> states = getDescendants(id, Collections.emptySet(), limit)) {
-            states.forEach(state -> ids.add((String) state.get(KEY_ID)));
-        }
-        if (limit == 0 || ids.size() < limit) {
-            // update all descendants synchronously
-            ids.forEach(this::updateDocumentReadAcls);
+        Map<String, State> descendants = new HashMap<>();
+        try (Stream<State> states = getDescendants(id, READ_ACL_RECURSION_KEYS, limit)) {
+            states.forEach(state -> descendants.put((String) state.get(KEY_ID), state));
+        }
+        if (limit == 0 || descendants.size() < limit) {
+            // update all descendants synchronously, computing the Read ACL of each ancestor only once
+            ReadAclComputer computer = new ReadAclComputer(descendants);
+            List<String> changedIds = new ArrayList<>();
+            Map<String, String[]> changedReadAcls = new HashMap<>();
+            descendants.forEach((descendantId, state) -> {
+                String[] racl = computer.getReadACL(descendantId, state);
+                if (!Arrays.equals(racl, (Object[]) state.get(KEY_READ_ACL))) {
+                    changedIds.add(descendantId);
+                    changedReadAcls.put(descendantId, racl);
+                }
+            });
+            // only fetch and write the documents whose Read ACL changed
+            for (DBSDocumentState docState : getStatesForUpdate(changedIds)) {
+                docState.put(KEY_READ_ACL, changedReadAcls.get(docState.getId()));
+            }
         } else {
             // update the direct children synchronously, the rest asynchronously
 
@@ -633,7 +647,19 @@ public class DBSTransactionState implements LockManager, AutoCloseable {
      * itself (not the ancestors, needed for ACL inheritance and for which caching is useful).
      */
     public void updateReadACLs(Collection<String> docIds) {
-        docIds.forEach(id -> updateDocumentReadAclsNoCache(id));
+        // documents in the same batch usually share ancestors
+        ReadAclComputer computer = new ReadAclComputer();
+        List<StateUpdate> updates = new ArrayList<>();
+        for (String id : docIds) {
+            StateDiff diff = getReadAclDiffNoCache(id, computer);
+            if (diff != null) {
+                updates.add(new StateUpdate(id, diff, null));
+            }
+        }
+        if (!updates.isEmpty()) {
+            // no transient for state write, we write directly and just invalidate caches
+            connection.updateStates(updates);
+        }
     }
 
     /**
@@ -651,64 +677,144 @@ public class DBSTransactionState implements LockManager, AutoCloseable {
      * used.
      */
     protected void updateDocumentReadAclsNoCache(String id) {
+        StateDiff diff = getReadAclDiffNoCache(id, new ReadAclComputer());
+        if (diff != null) {
+            // no transient for state write, we write directly and just invalidate caches
+            connection.updateState(id, diff, null);
+        }
+    }
+
+    /**
+     * Computes the Read ACL change of a document, without polluting caches.
+     *
+     * @return the diff to apply, or {@code null} if the Read ACL did not change
+     * @since 11.3
+     */
+    protected StateDiff getReadAclDiffNoCache(String id, ReadAclComputer computer) {
         // no transient for state read, and we don't want to trash caches
         // fetch from repository only the properties needed for Read ACL computation and recursion
         State state = connection.readPartialState(id, READ_ACL_RECURSION_KEYS);
+        if (state == null) {
+            // concurrently deleted
+            return null;
+        }
         State oldState = new State(1);
         oldState.put(KEY_READ_ACL, state.get(KEY_READ_ACL));
         // compute new value
         State newState = new State(1);
-        newState.put(KEY_READ_ACL, getReadACL(state));
+        newState.put(KEY_READ_ACL, computer.getReadACL(id, state));
         StateDiff diff = StateHelper.diff(oldState, newState);
-        if (!diff.isEmpty()) {
-            // no transient for state write, we write directly and just invalidate caches
-            connection.updateState(id, diff, null);
-        }
+        return diff.isEmpty() ? null : diff;
     }
 
     /**
      * Gets the Read ACL (flat list of users having browse permission, including inheritance) on a document.
      */
     protected String[] getReadACL(State state) {
-        Set<String> racls = new HashSet<>();
-        LOOP: do {
+        return new ReadAclComputer().getReadACL((String) state.get(KEY_ID), state);
+    }
+
+    /**
+     * Adds to the Read ACL the users having browse permission from the ACP of a document, without inheritance.
+     *
+     * @return {@code false} if the ACP blocks inheritance
+     * @since 11.3
+     */
+    protected boolean addLocalReadACL(State state, Set<String> racls) {
+        @SuppressWarnings("unchecked")
+        List<Serializable> aclList = (List<Serializable>) state.get(KEY_ACP);
+        if (aclList == null) {
+            return true;
+        }
+        for (Serializable aclSer : aclList) {
+            State aclMap = (State) aclSer;
             @SuppressWarnings("unchecked")
-            List<Serializable> aclList = (List<Serializable>) state.get(KEY_ACP);
-            if (aclList != null) {
-                for (Serializable aclSer : aclList) {
-                    State aclMap = (State) aclSer;
-                    @SuppressWarnings("unchecked")
-                    List<Serializable> aceList = (List<Serializable>) aclMap.get(KEY_ACL);
-                    for (Serializable aceSer : aceList) {
-                        State aceMap = (State) aceSer;
-                        String username = (String) aceMap.get(KEY_ACE_USER);
-                        String permission = (String) aceMap.get(KEY_ACE_PERMISSION);
-                        Boolean granted = (Boolean) aceMap.get(KEY_ACE_GRANT);
-                        Long status = (Long) aceMap.get(KEY_ACE_STATUS);
-                        if (TRUE.equals(granted) && browsePermissions.contains(permission)
-                                && (status == null || status == 1)) {
-                            racls.add(username);
-                        }
-                        if (FALSE.equals(granted)) {
-                            if (!EVERYONE.equals(username)) {
-                                // TODO log
-                                racls.add(UNSUPPORTED_ACL);
-                            }
-                            break LOOP;
-                        }
+            List<Serializable> aceList = (List<Serializable>) aclMap.get(KEY_ACL);
+            for (Serializable aceSer : aceList) {
+                State aceMap = (State) aceSer;
+                String username = (String) aceMap.get(KEY_ACE_USER);
+                String permission = (String) aceMap.get(KEY_ACE_PERMISSION);
+                Boolean granted = (Boolean) aceMap.get(KEY_ACE_GRANT);
+                Long status = (Long) aceMap.get(KEY_ACE_STATUS);
+                if (TRUE.equals(granted) && browsePermissions.contains(permission)
+                        && (status == null || status == 1)) {
+                    racls.add(username);
+                }
+                if (FALSE.equals(granted)) {
+                    if (!EVERYONE.equals(username)) {
+                        // TODO log
+                        racls.add(UNSUPPORTED_ACL);
                     }
+                    return false;
                 }
             }
-            // get the parent; for a version the parent is the live document
-            String parentKey = TRUE.equals(state.get(KEY_IS_VERSION)) ? KEY_VERSION_SERIES_ID : KEY_PARENT_ID;
-            String parentId = (String) state.get(parentKey);
-            state = parentId == null ? null : getStateForRead(parentId);
-        } while (state != null);
-
-        // sort to have canonical order
-        List<String> racl = new ArrayList<>(racls);
-        Collections.sort(racl);
-        return racl.toArray(new String[racl.size()]);
+        }
+        return true;
+    }
+
+    /**
+     * Computes the Read ACLs of documents, computing the Read ACL of each ancestor only once.
+     * <p>
+     * The Read ACL of a document is made of the users having browse permission from its own ACP, plus the Read ACL of
+     * its parent unless inheritance is blocked. Read ACLs are remembered by document id, so documents sharing
+     * ancestors don't walk up the same parent chain again.
+     * <p>
+     * ACPs must not change while an instance is used.
+     *
+     * @since 11.3
+     */
+    protected class ReadAclComputer {
+
+        protected final Map<String, Set<String>> readAcls = new HashMap<>();
+
+        // states already fetched, checked before fetching an ancestor
+        protected final Map<String, State> knownStates;
+
+        protected ReadAclComputer() {
+            this(Collections.emptyMap());
+        }
+
+        protected ReadAclComputer(Map<String, State> knownStates) {
+            this.knownStates = knownStates;
+        }
+
+        /**
+         * Gets the Read ACL of a document, sorted to have a canonical order.
+         *
+         * @param id the document id, or {@code null} if unknown
+         * @param state the document state
+         */
+        public String[] getReadACL(String id, State state) {
+            List<String> racl = new ArrayList<>(getReadACLSet(id, state));
+            Collections.sort(racl);
+            return racl.toArray(new String[racl.size()]);
+        }
+
+        protected Set<String> getReadACLSet(String id, State state) {
+            Set<String> racls = id == null ? null : readAcls.get(id);
+            if (racls != null) {
+                return racls;
+            }
+            racls = new HashSet<>();
+            if (addLocalReadACL(state, racls)) {
+                // get the parent; for a version the parent is the live document
+                String parentKey = TRUE.equals(state.get(KEY_IS_VERSION)) ? KEY_VERSION_SERIES_ID : KEY_PARENT_ID;
+                String parentId = (String) state.get(parentKey);
+                if (parentId != null) {
+                    State parentState = knownStates.get(parentId);
+                    if (parentState == null) {
+                        parentState = getStateForRead(parentId);
+                    }
+                    if (parentState != null) {
+                        racls.addAll(getReadACLSet(parentId, parentState));
+                    }
+                }
+            }
+            if (id != null) {
+                readAcls.put(id, racls);
+            }
+            return racls;
+        }
     }
 
     protected Stream<State> getDescendants(String id, Set<String> keys, int limit) {
@@ -759,6 +865,12 @@ public class DBSTransactionState implements LockManager, AutoCloseable {
         return connection.queryAndFetch(evaluator, orderByClause, distinctDocuments, limit, offset, countUpTo);
     }
 
+    /** @since 11.3 */
+    public Stream<Map<String, Serializable>> queryAndFetchStream(DBSExpressionEvaluator evaluator,
+            OrderByClause orderByClause, boolean distinctDocuments, int limit, int offset) {
+        return connection.queryAndFetchStream(evaluator, orderByClause, distinctDocuments, limit, offset);
+    }
+
     /** @since 11.1 */
     public ScrollResult<String> scroll(DBSExpressionEvaluator evaluator, int batchSize, int keepAliveSeconds) {
         return connection.scroll(evaluator, batchSize, keepAliveSeconds);
@@ -851,6 +963,8 @@ public class DBSTransactionState implements LockManager, AutoCloseable {
         if (!statesToCreate.isEmpty()) {
             connection.createStates(statesToCreate);
         }
+        List<StateUpdate> updates = new ArrayList<>();
+        List<DBSDocumentState> updatedStates = new ArrayList<>();
         for (DBSDocumentState docState : transientStates.values()) {
             String id = docState.getId();
             if (transientCreated.contains(id)) {
@@ -858,33 +972,41 @@ public class DBSTransactionState implements LockManager, AutoCloseable {
             }
             StateDiff diff = docState.getStateChange();
             if (diff != null) {
-                try {
-                    if (undoLog != null) {
-                        if (!undoLog.containsKey(id)) {
-                            undoLog.put(id, StateHelper.deepCopy(docState.getOriginalState()));
-                        }
-                        // else there's already a create or an update in the undo log so original info is enough
+                if (undoLog != null) {
+                    if (!undoLog.containsKey(id)) {
+                        undoLog.put(id, StateHelper.deepCopy(docState.getOriginalState()));
                     }
-                    ChangeTokenUpdater changeTokenUpdater;
-                    if (repository.isChangeTokenEnabled()) {
-                        // increment system change token
-                        Long base = (Long) docState.get(KEY_SYS_CHANGE_TOKEN);
-                        docState.put(KEY_SYS_CHANGE_TOKEN, DeltaLong.valueOf(base, 1));
-                        diff.put(KEY_SYS_CHANGE_TOKEN, DeltaLong.valueOf(base, 1));
-                        // update change token if applicable (user change)
-                        if (userChangeIds.contains(id)) {
-                            changeTokenUpdater = new ChangeTokenUpdater(docState);
-                        } else {
-                            changeTokenUpdater = null;
-                        }
+                    // else there's already a create or an update in the undo log so original info is enough
+                }
+                ChangeTokenUpdater changeTokenUpdater;
+                if (repository.isChangeTokenEnabled()) {
+                    // increment system change token
+                    Long base = (Long) docState.get(KEY_SYS_CHANGE_TOKEN);
+                    docState.put(KEY_SYS_CHANGE_TOKEN, DeltaLong.valueOf(base, 1));
+                    diff.put(KEY_SYS_CHANGE_TOKEN, DeltaLong.valueOf(base, 1));
+                    // update change token if applicable (user change)
+                    if (userChangeIds.contains(id)) {
+                        changeTokenUpdater = new ChangeTokenUpdater(docState);
                     } else {
                         changeTokenUpdater = null;
                     }
-                    connection.updateState(id, diff, changeTokenUpdater);
-                } finally {
-                    docState.setNotDirty();
+                } else {
+                    changeTokenUpdater = null;
                 }
+                updates.add(new StateUpdate(id, diff, changeTokenUpdater));
+                updatedStates.add(docState);
+            }
+        }
+        try {
+            if (updates.size() == 1) {
+                StateUpdate update = updates.get(0);
+                connection.updateState(update.id, update.diff, update.changeTokenUpdater);
+            } else if (!updates.isEmpty()) {
+                // a single round trip when the connection supports it
+                connection.updateStates(updates);
             }
+        } finally {
+            updatedStates.forEach(DBSDocumentState::setNotDirty);
         }
         transientCreated.clear();
         userChangeIds.clear();
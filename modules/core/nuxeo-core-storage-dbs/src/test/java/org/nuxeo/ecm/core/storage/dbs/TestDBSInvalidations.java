@@ -19,6 +19,7 @@
 package org.nuxeo.ecm.core.storage.dbs;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -27,6 +28,8 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.junit.Test;
@@ -92,4 +95,63 @@ public class TestDBSInvalidations {
         assertEquals(new HashSet<>(Arrays.asList("foo", "bar")), invals.ids);
     }
 
+    @Test
+    public void testMaxSize() {
+        DBSInvalidations invals = new DBSInvalidations(2);
+        invals.add("foo");
+        invals.add("bar");
+        assertFalse(invals.all);
+        invals.add("gee");
+        assertTrue(invals.all);
+        assertNull(invals.ids);
+    }
+
+    @Test
+    public void testSplit() {
+        DBSInvalidations invals = new DBSInvalidations(10);
+        invals.addAll(Arrays.asList("a", "b", "c", "d", "e"));
+        assertEquals(Collections.singletonList(invals), invals.split(5));
+
+        List<DBSInvalidations> batches = invals.split(2);
+        assertEquals(3, batches.size());
+        Set<String> ids = new HashSet<>();
+        for (DBSInvalidations batch : batches) {
+            assertFalse(batch.all);
+            assertTrue(batch.ids.size() <= 2);
+            ids.addAll(batch.ids);
+        }
+        assertEquals(invals.ids, ids);
+
+        invals = new DBSInvalidations(true);
+        assertEquals(Collections.singletonList(invals), invals.split(2));
+    }
+
+    @Test
+    public void testAccumulateBatches() {
+        DBSInvalidations invals = new DBSInvalidations(DBSInvalidations.MAX_PUBLISHED_SIZE);
+        for (int i = 0; i < 2 * DBSInvalidations.MAX_SIZE + 1; i++) {
+            invals.add("id" + i);
+        }
+        List<DBSInvalidations> batches = invals.split(DBSInvalidations.MAX_SIZE);
+        assertEquals(3, batches.size());
+
+        // received from other nodes
+        DBSPubSubInvalidator invalidator = new DBSPubSubInvalidator() {
+            {
+                bufferedInvalidations = newInvalidations();
+            }
+        };
+        batches.forEach(invalidator::receivedMessage);
+        DBSInvalidations received = invalidator.receiveInvalidations();
+        assertFalse(received.all);
+        assertEquals(invals.ids, received.ids);
+
+        // received from other connections
+        DBSInvalidationsQueue queue = new DBSInvalidationsQueue("test");
+        batches.forEach(queue::addInvalidations);
+        received = queue.getInvalidations();
+        assertFalse(received.all);
+        assertEquals(invals.ids, received.ids);
+    }
+
 }
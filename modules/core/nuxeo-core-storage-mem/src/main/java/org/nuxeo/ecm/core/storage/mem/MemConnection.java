@@ -77,9 +77,13 @@ public class MemConnection extends DBSConnectionBase {
     // the global state, from the repository (thread-safe map)
     protected Map<String, State> states;
 
+    // the secondary indexes, from the repository, or null if not enabled
+    protected MemIndexes indexes;
+
     public MemConnection(MemRepository repository) {
         super(repository);
         states = repository.states;
+        indexes = repository.indexes;
     }
 
     @Override
@@ -161,6 +165,9 @@ public class MemConnection extends DBSConnectionBase {
         state = StateHelper.deepCopy(state, true); // thread-safe
         StateHelper.resetDeltas(state);
         states.put(id, state);
+        if (indexes != null) {
+            indexes.add(state);
+        }
     }
 
     @Override
@@ -180,11 +187,21 @@ public class MemConnection extends DBSConnectionBase {
                         throw new ConcurrentUpdateException((String) state.get(KEY_ID));
                     }
                 }
-                for (Entry<String, Serializable> en : changeTokenUpdater.getUpdates().entrySet()) {
-                    applyDiff(state, en.getKey(), en.getValue());
+            }
+            Runnable update = () -> {
+                if (changeTokenUpdater != null) {
+                    for (Entry<String, Serializable> en : changeTokenUpdater.getUpdates().entrySet()) {
+                        applyDiff(state, en.getKey(), en.getValue());
+                    }
                 }
+                applyDiff(state, diff);
+            };
+            if (indexes != null && indexes.isIndexed(diff.keySet())) {
+                // indexed values are changed atomically with the update
+                indexes.update(state, update);
+            } else {
+                update.run();
             }
-            applyDiff(state, diff);
         }
     }
 
@@ -194,16 +211,18 @@ public class MemConnection extends DBSConnectionBase {
             log.trace("Mem: REMOVE " + ids);
         }
         for (String id : ids) {
-            if (states.remove(id) == null) {
+            State state = states.remove(id);
+            if (state == null) {
                 log.debug("Missing on remove: " + id);
+            } else if (indexes != null) {
+                indexes.remove(state);
             }
         }
     }
 
     @Override
     public State readChildState(String parentId, String name, Set<String> ignored) {
-        // TODO optimize by maintaining a parent/child index
-        for (State state : states.values()) {
+        for (State state : getStates(KEY_PARENT_ID, parentId)) {
             if (ignored.contains(state.get(KEY_ID))) {
                 continue;
             }
@@ -229,7 +248,7 @@ public class MemConnection extends DBSConnectionBase {
             log.trace("Mem: QUERY " + key + " = " + value);
         }
         List<State> list = new ArrayList<>();
-        for (State state : states.values()) {
+        for (State state : getStates(key, value)) {
             String id = (String) state.get(KEY_ID);
             if (ignored.contains(id)) {
                 continue;
@@ -251,7 +270,7 @@ public class MemConnection extends DBSConnectionBase {
             log.trace("Mem: QUERY " + key1 + " = " + value1 + " AND " + key2 + " = " + value2);
         }
         List<State> list = new ArrayList<>();
-        for (State state : states.values()) {
+        for (State state : getStates(key1, value1)) {
             String id = (String) state.get(KEY_ID);
             if (ignored.contains(id)) {
                 continue;
@@ -277,15 +296,46 @@ public class MemConnection extends DBSConnectionBase {
         if (log.isTraceEnabled()) {
             log.trace("Mem: QUERY " + KEY_ANCESTOR_IDS + " = " + rootId);
         }
-        Stream<State> stream = states.values() //
-                                     .stream()
-                                     .filter(state -> hasAncestor(state, rootId));
+        Stream<State> stream = getStates(KEY_ANCESTOR_IDS, rootId).stream().filter(state -> hasAncestor(state, rootId));
         if (limit != 0) {
             stream = stream.limit(limit);
         }
         return stream;
     }
 
+    /**
+     * Gets the states that may have the given value for a key, using the indexes if possible.
+     *
+     * @since 11.3
+     */
+    protected Collection<State> getStates(String key, Object value) {
+        if (indexes == null || !indexes.isIndexed(key) || MemIndexes.normalize(value) == null) {
+            return states.values();
+        }
+        return getStates(indexes.get(key, value));
+    }
+
+    /**
+     * Gets the states that may match the evaluator's query, using the indexes if possible.
+     *
+     * @since 11.3
+     */
+    protected Collection<State> getCandidateStates(DBSExpressionEvaluator evaluator) {
+        Set<String> ids = indexes == null ? null : indexes.getCandidateIds(evaluator);
+        return ids == null ? states.values() : getStates(ids);
+    }
+
+    protected Collection<State> getStates(Set<String> ids) {
+        List<State> list = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            State state = states.get(id);
+            if (state != null) {
+                list.add(state);
+            }
+        }
+        return list;
+    }
+
     protected static boolean hasAncestor(State state, String id) {
         Object[] array = (Object[]) state.get(KEY_ANCESTOR_IDS);
         return array == null ? false : Arrays.asList(array).contains(id);
@@ -296,7 +346,7 @@ public class MemConnection extends DBSConnectionBase {
         if (log.isTraceEnabled()) {
             log.trace("Mem: QUERY " + key + " = " + value);
         }
-        for (State state : states.values()) {
+        for (State state : getStates(key, value)) {
             String id = (String) state.get(KEY_ID);
             if (ignored.contains(id)) {
                 continue;
@@ -322,7 +372,7 @@ public class MemConnection extends DBSConnectionBase {
         }
         evaluator.parse();
         List<Map<String, Serializable>> projections = new ArrayList<>();
-        for (State state : states.values()) {
+        for (State state : getCandidateStates(evaluator)) {
             List<Map<String, Serializable>> matches = evaluator.matches(state);
             if (!matches.isEmpty()) {
                 if (distinctDocuments) {
@@ -373,7 +423,7 @@ public class MemConnection extends DBSConnectionBase {
         }
         evaluator.parse();
         List<String> ids = new ArrayList<>();
-        for (State state : states.values()) {
+        for (State state : getCandidateStates(evaluator)) {
             List<Map<String, Serializable>> matches = evaluator.matches(state);
             if (!matches.isEmpty()) {
                 String id = matches.get(0).get(ECM_UUID).toString();
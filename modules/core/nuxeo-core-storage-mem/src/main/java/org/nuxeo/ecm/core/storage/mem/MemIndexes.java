@@ -0,0 +1,443 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.storage.mem;
+
+import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_ANCESTOR_IDS;
+import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_ID;
+import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_PARENT_ID;
+import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_PRIMARY_TYPE;
+import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_READ_ACL;
+
+import java.io.Serializable;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.nuxeo.ecm.core.query.sql.NXQL;
+import org.nuxeo.ecm.core.query.sql.model.DateLiteral;
+import org.nuxeo.ecm.core.query.sql.model.DoubleLiteral;
+import org.nuxeo.ecm.core.query.sql.model.Expression;
+import org.nuxeo.ecm.core.query.sql.model.IntegerLiteral;
+import org.nuxeo.ecm.core.query.sql.model.LiteralList;
+import org.nuxeo.ecm.core.query.sql.model.MultiExpression;
+import org.nuxeo.ecm.core.query.sql.model.Operand;
+import org.nuxeo.ecm.core.query.sql.model.Operator;
+import org.nuxeo.ecm.core.query.sql.model.Reference;
+import org.nuxeo.ecm.core.query.sql.model.StringLiteral;
+import org.nuxeo.ecm.core.schema.SchemaManager;
+import org.nuxeo.ecm.core.schema.types.Field;
+import org.nuxeo.ecm.core.schema.types.ListType;
+import org.nuxeo.ecm.core.schema.types.SimpleType;
+import org.nuxeo.ecm.core.schema.types.Type;
+import org.nuxeo.ecm.core.schema.types.primitives.DateType;
+import org.nuxeo.ecm.core.schema.types.primitives.DoubleType;
+import org.nuxeo.ecm.core.schema.types.primitives.IntegerType;
+import org.nuxeo.ecm.core.schema.types.primitives.LongType;
+import org.nuxeo.ecm.core.schema.types.primitives.StringType;
+import org.nuxeo.ecm.core.storage.State;
+import org.nuxeo.ecm.core.storage.dbs.DBSExpressionEvaluator;
+import org.nuxeo.runtime.api.Framework;
+
+/**
+ * In-memory secondary indexes for the states of a {@link MemRepository}.
+ * <p>
+ * The system keys (parent id, ancestor ids, primary type and read ACLs) use hash indexes. Additional top-level
+ * properties of type string, integer, long, double or date (or lists of them) use sorted indexes, which can also serve
+ * range predicates.
+ * <p>
+ * Indexes are only used to compute a superset of the documents matching a query, the full query is still evaluated on
+ * each candidate document.
+ *
+ * @since 11.3
+ */
+public class MemIndexes {
+
+    private static final Log log = LogFactory.getLog(MemIndexes.class);
+
+    protected static final Set<String> SYSTEM_KEYS = Set.of(KEY_PARENT_ID, KEY_ANCESTOR_IDS, KEY_PRIMARY_TYPE,
+            KEY_READ_ACL);
+
+    /** Orders numbers before strings, and each group according to their natural order. */
+    protected static final Comparator<Object> VALUE_COMPARATOR = (a, b) -> {
+        boolean na = a instanceof Double;
+        boolean nb = b instanceof Double;
+        if (na != nb) {
+            return na ? -1 : 1;
+        }
+        return na ? ((Double) a).compareTo((Double) b) : ((String) a).compareTo((String) b);
+    };
+
+    /** Index key -> normalized value -> ids. */
+    protected final Map<String, Map<Object, Set<String>>> indexes = new HashMap<>();
+
+    /** Indexed property name -> {@code true} for a list property, {@code false} for a scalar one. */
+    protected final Map<String, Boolean> properties = new HashMap<>();
+
+    /** Indexed property name -> {@code true} for a string property, {@code false} for a number or date one. */
+    protected final Map<String, Boolean> stringProperties = new HashMap<>();
+
+    public MemIndexes(Collection<String> propertyNames) {
+        for (String key : SYSTEM_KEYS) {
+            indexes.put(key, new HashMap<>());
+        }
+        SchemaManager schemaManager = propertyNames.isEmpty() ? null : Framework.getService(SchemaManager.class);
+        for (String name : propertyNames) {
+            Field field = schemaManager.getField(name);
+            if (field == null) {
+                log.warn("Cannot index unknown property: " + name);
+                continue;
+            }
+            Type type = field.getType();
+            boolean isList = type.isListType();
+            if (isList) {
+                type = ((ListType) type).getFieldType();
+            }
+            Type primitive = type.isSimpleType() ? ((SimpleType) type).getPrimitiveType() : null;
+            boolean isString = primitive instanceof StringType;
+            if (!isString && !(primitive instanceof LongType || primitive instanceof IntegerType
+                    || primitive instanceof DoubleType || primitive instanceof DateType)) {
+                log.warn("Cannot index property: " + name + " of type: " + field.getType().getName());
+                continue;
+            }
+            addSortedIndex(field.getName().getPrefixedName(), isList, isString);
+        }
+    }
+
+    protected void addSortedIndex(String key, boolean isList, boolean isString) {
+        properties.put(key, Boolean.valueOf(isList));
+        stringProperties.put(key, Boolean.valueOf(isString));
+        indexes.put(key, new TreeMap<>(VALUE_COMPARATOR));
+    }
+
+    /**
+     * Checks if the given state key is indexed.
+     */
+    public boolean isIndexed(String key) {
+        return indexes.containsKey(key);
+    }
+
+    /**
+     * Checks if the given diff changes indexed keys.
+     */
+    public boolean isIndexed(Collection<String> keys) {
+        for (String key : keys) {
+            if (indexes.containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized void add(State state) {
+        String id = (String) state.get(KEY_ID);
+        indexes.forEach((key, index) -> forEachValue(state.get(key),
+                value -> index.computeIfAbsent(value, k -> new HashSet<>()).add(id)));
+    }
+
+    public synchronized void remove(State state) {
+        String id = (String) state.get(KEY_ID);
+        indexes.forEach((key, index) -> forEachValue(state.get(key), value -> {
+            Set<String> ids = index.get(value);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    index.remove(value);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Updates a state and its indexed values as a single operation, so that lookups never see the state indexed under
+     * neither its old nor its new values.
+     *
+     * @param state the state, indexed with its current values
+     * @param updater the update to apply to the state
+     */
+    public synchronized void update(State state, Runnable updater) {
+        remove(state);
+        try {
+            updater.run();
+        } finally {
+            add(state);
+        }
+    }
+
+    public synchronized void clear() {
+        indexes.values().forEach(Map::clear);
+    }
+
+    /**
+     * Gets the ids of the states having the given value for an indexed key.
+     */
+    public synchronized Set<String> get(String key, Object value) {
+        Object v = normalize(value);
+        Set<String> ids = v == null ? null : indexes.get(key).get(v);
+        return ids == null ? new HashSet<>() : new HashSet<>(ids);
+    }
+
+    /**
+     * Gets the ids of the states having a value between the given bounds (inclusive) for a sorted key. A {@code null}
+     * bound means no bound, but both cannot be {@code null}.
+     */
+    public synchronized Set<String> getRange(String key, Object from, Object to) {
+        NavigableMap<Object, Set<String>> index = (NavigableMap<Object, Set<String>>) indexes.get(key);
+        Object lo = normalize(from);
+        Object hi = normalize(to);
+        boolean numeric = (lo == null ? hi : lo) instanceof Double;
+        if (lo == null) {
+            lo = numeric ? Double.valueOf(Double.NEGATIVE_INFINITY) : "";
+        }
+        Map<Object, Set<String>> range;
+        if (hi == null) {
+            range = numeric ? index.subMap(lo, true, Double.valueOf(Double.POSITIVE_INFINITY), true)
+                    : index.tailMap(lo, true);
+        } else if (VALUE_COMPARATOR.compare(lo, hi) > 0) {
+            range = Collections.emptyMap();
+        } else {
+            range = index.subMap(lo, true, hi, true);
+        }
+        Set<String> ids = new HashSet<>();
+        range.values().forEach(ids::addAll);
+        return ids;
+    }
+
+    /**
+     * Computes the ids of a superset of the states matched by the evaluator's query.
+     *
+     * @return the candidate ids, or {@code null} if the indexes cannot be used for this query
+     */
+    public Set<String> getCandidateIds(DBSExpressionEvaluator evaluator) {
+        Expression expression = evaluator.getExpression();
+        Set<String> ids = expression == null ? null : getCandidateIds(expression, evaluator);
+        if (evaluator.principals != null) {
+            Set<String> readable = new HashSet<>();
+            for (String principal : evaluator.principals) {
+                readable.addAll(get(KEY_READ_ACL, principal));
+            }
+            ids = intersect(ids, readable);
+        }
+        return ids;
+    }
+
+    protected Set<String> getCandidateIds(Expression expr, DBSExpressionEvaluator evaluator) {
+        Operator op = expr.operator;
+        if (op == Operator.AND || op == Operator.OR) {
+            List<? extends Expression> operands;
+            if (expr instanceof MultiExpression) {
+                operands = ((MultiExpression) expr).predicates;
+            } else if (expr.lvalue instanceof Expression && expr.rvalue instanceof Expression) {
+                operands = List.of((Expression) expr.lvalue, (Expression) expr.rvalue);
+            } else {
+                return null;
+            }
+            Set<String> ids = null;
+            for (Expression operand : operands) {
+                Set<String> operandIds = getCandidateIds(operand, evaluator);
+                if (op == Operator.AND) {
+                    ids = intersect(ids, operandIds);
+                } else if (operandIds == null) {
+                    // any document may match
+                    return null;
+                } else if (ids == null) {
+                    ids = operandIds;
+                } else {
+                    ids.addAll(operandIds);
+                }
+            }
+            return ids;
+        }
+        if (!(expr.lvalue instanceof Reference) || expr instanceof MultiExpression) {
+            return null;
+        }
+        Reference ref = (Reference) expr.lvalue;
+        if (ref.cast != null) {
+            return null;
+        }
+        String name = ref.name;
+        Operand rvalue = expr.rvalue;
+        if (op == Operator.STARTSWITH && NXQL.ECM_PATH.equals(name) && rvalue instanceof StringLiteral) {
+            String path = ((StringLiteral) rvalue).value;
+            if (path.length() > 1 && path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            String ancestorId = evaluator.pathResolver.getIdForPath(path);
+            return ancestorId == null ? new HashSet<>() : get(KEY_ANCESTOR_IDS, ancestorId);
+        }
+        String key;
+        boolean isString;
+        switch (name) {
+        case NXQL.ECM_UUID:
+            key = KEY_ID;
+            isString = true;
+            break;
+        case NXQL.ECM_PARENTID:
+            key = KEY_PARENT_ID;
+            isString = true;
+            break;
+        case NXQL.ECM_PRIMARYTYPE:
+            key = KEY_PRIMARY_TYPE;
+            isString = true;
+            break;
+        case NXQL.ECM_ANCESTORID:
+            key = KEY_ANCESTOR_IDS;
+            isString = true;
+            break;
+        default:
+            key = getPropertyKey(name);
+            if (key == null) {
+                return null;
+            }
+            isString = stringProperties.get(key).booleanValue();
+        }
+        if (op == Operator.EQ) {
+            Serializable value = getLiteralValue(rvalue, isString);
+            return value == null ? null : getIds(key, value);
+        } else if (op == Operator.IN && rvalue instanceof LiteralList) {
+            Set<String> ids = new HashSet<>();
+            for (Operand operand : (LiteralList) rvalue) {
+                Serializable value = getLiteralValue(operand, isString);
+                if (value == null) {
+                    return null;
+                }
+                ids.addAll(getIds(key, value));
+            }
+            return ids;
+        } else if (!(indexes.get(key) instanceof NavigableMap)) {
+            return null;
+        } else if (op == Operator.BETWEEN && rvalue instanceof LiteralList && ((LiteralList) rvalue).size() == 2) {
+            Serializable from = getLiteralValue(((LiteralList) rvalue).get(0), isString);
+            Serializable to = getLiteralValue(((LiteralList) rvalue).get(1), isString);
+            return from == null || to == null ? null : getRange(key, from, to);
+        } else if (op == Operator.LT || op == Operator.LTEQ) {
+            Serializable value = getLiteralValue(rvalue, isString);
+            return value == null ? null : getRange(key, null, value);
+        } else if (op == Operator.GT || op == Operator.GTEQ) {
+            Serializable value = getLiteralValue(rvalue, isString);
+            return value == null ? null : getRange(key, value, null);
+        }
+        return null;
+    }
+
+    protected Set<String> getIds(String key, Serializable value) {
+        if (KEY_ID.equals(key)) {
+            // the states themselves are the index, let the caller check existence
+            Set<String> ids = new HashSet<>();
+            ids.add((String) value);
+            return ids;
+        }
+        return get(key, value);
+    }
+
+    /**
+     * Finds the indexed property referenced by an NXQL name: the property itself, or for a list property the property
+     * followed by a wildcard.
+     */
+    protected String getPropertyKey(String name) {
+        int slash = name.indexOf('/');
+        String prop = slash < 0 ? name : name.substring(0, slash);
+        Boolean isList = properties.get(prop);
+        if (isList == null) {
+            return null;
+        }
+        if (slash < 0) {
+            return prop;
+        }
+        String rest = name.substring(slash + 1);
+        return isList.booleanValue() && rest.startsWith("*") && rest.indexOf('/') < 0 ? prop : null;
+    }
+
+    /**
+     * Gets the value of a literal usable for index lookups, or {@code null} if it doesn't match the indexed type.
+     */
+    protected static Serializable getLiteralValue(Operand operand, boolean isString) {
+        if (isString) {
+            return operand instanceof StringLiteral ? ((StringLiteral) operand).value : null;
+        }
+        if (operand instanceof IntegerLiteral) {
+            return Double.valueOf(((IntegerLiteral) operand).value);
+        } else if (operand instanceof DoubleLiteral) {
+            return Double.valueOf(((DoubleLiteral) operand).value);
+        } else if (operand instanceof DateLiteral && !((DateLiteral) operand).onlyDate) {
+            return Double.valueOf(((DateLiteral) operand).value.toInstant().toEpochMilli());
+        }
+        return null;
+    }
+
+    /**
+     * Intersects two sets of candidates, {@code null} meaning any document.
+     */
+    protected static Set<String> intersect(Set<String> a, Set<String> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b != null) {
+            a.retainAll(b);
+        }
+        return a;
+    }
+
+    /**
+     * Normalizes a value for indexing: strings are kept, numbers and dates become doubles (dates as epoch millis).
+     *
+     * @return the normalized value, or {@code null} if the value is not indexable
+     */
+    protected static Object normalize(Object value) {
+        if (value instanceof String || value instanceof Double) {
+            return value;
+        } else if (value instanceof Number) {
+            return Double.valueOf(((Number) value).doubleValue());
+        } else if (value instanceof Calendar) {
+            return Double.valueOf(((Calendar) value).getTimeInMillis());
+        }
+        return null;
+    }
+
+    protected static void forEachValue(Object value, Consumer<Object> consumer) {
+        if (value instanceof Object[]) {
+            for (Object v : (Object[]) value) {
+                Object n = normalize(v);
+                if (n != null) {
+                    consumer.accept(n);
+                }
+            }
+        } else if (value instanceof List) {
+            for (Object v : (List<?>) value) {
+                Object n = normalize(v);
+                if (n != null) {
+                    consumer.accept(n);
+                }
+            }
+        } else {
+            Object n = normalize(value);
+            if (n != null) {
+                consumer.accept(n);
+            }
+        }
+    }
+
+}
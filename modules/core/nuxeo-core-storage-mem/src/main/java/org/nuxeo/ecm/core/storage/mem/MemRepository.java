@@ -67,8 +67,18 @@ public class MemRepository extends DBSRepositoryBase {
      */
     protected Map<String, State> states;
 
+    /**
+     * The secondary indexes on the states, or {@code null} if not enabled.
+     *
+     * @since 11.3
+     */
+    protected MemIndexes indexes;
+
     public MemRepository(ConnectionManager cm, MemRepositoryDescriptor descriptor) {
         super(cm, descriptor.name, descriptor);
+        if (descriptor.isIndexesEnabled()) {
+            indexes = new MemIndexes(descriptor.indexes);
+        }
         initRepository();
     }
 
@@ -81,10 +91,16 @@ public class MemRepository extends DBSRepositoryBase {
     public void shutdown() {
         super.shutdown();
         states = null;
+        if (indexes != null) {
+            indexes.clear();
+        }
     }
 
     protected void initRepository() {
         states = new ConcurrentHashMap<>();
+        if (indexes != null) {
+            indexes.clear();
+        }
         try (MemConnection connection = getConnection()) {
             connection.initRepository();
         }
@@ -18,6 +18,11 @@
  */
 package org.nuxeo.ecm.core.storage.mem;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.nuxeo.common.xmap.annotation.XNode;
+import org.nuxeo.common.xmap.annotation.XNodeList;
 import org.nuxeo.common.xmap.annotation.XObject;
 import org.nuxeo.ecm.core.storage.dbs.DBSRepositoryDescriptor;
 
@@ -32,9 +37,45 @@ public class MemRepositoryDescriptor extends DBSRepositoryDescriptor {
     public MemRepositoryDescriptor() {
     }
 
+    /** @since 11.3 */
+    @XNode("indexes@enabled")
+    public Boolean indexesEnabled;
+
+    /**
+     * Properties indexed in addition to the system ones, when indexes are enabled.
+     *
+     * @since 11.3
+     */
+    @XNodeList(value = "indexes/index", type = ArrayList.class, componentType = String.class)
+    public List<String> indexes = new ArrayList<>();
+
+    /** @since 11.3 */
+    public boolean isIndexesEnabled() {
+        return Boolean.TRUE.equals(indexesEnabled);
+    }
+
     @Override
     public MemRepositoryDescriptor clone() {
-        return (MemRepositoryDescriptor) super.clone();
+        MemRepositoryDescriptor clone = (MemRepositoryDescriptor) super.clone();
+        clone.indexes = new ArrayList<>(indexes);
+        return clone;
+    }
+
+    @Override
+    public void merge(DBSRepositoryDescriptor o) {
+        super.merge(o);
+        if (!(o instanceof MemRepositoryDescriptor)) {
+            return;
+        }
+        MemRepositoryDescriptor other = (MemRepositoryDescriptor) o;
+        if (other.indexesEnabled != null) {
+            indexesEnabled = other.indexesEnabled;
+        }
+        for (String index : other.indexes) {
+            if (!indexes.contains(index)) {
+                indexes.add(index);
+            }
+        }
     }
 
 }
@@ -0,0 +1,122 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.storage.mem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_ANCESTOR_IDS;
+import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_ID;
+import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_PARENT_ID;
+import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_PRIMARY_TYPE;
+import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_READ_ACL;
+
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nuxeo.ecm.core.query.sql.SQLQueryParser;
+import org.nuxeo.ecm.core.storage.State;
+import org.nuxeo.ecm.core.storage.dbs.DBSExpressionEvaluator;
+
+public class TestMemIndexes {
+
+    protected MemIndexes indexes;
+
+    @Before
+    public void setUp() {
+        indexes = new MemIndexes(Collections.emptyList());
+        indexes.addSortedIndex("dc:title", false, true);
+        indexes.addSortedIndex("dc:modified", false, false);
+        indexes.addSortedIndex("dc:subjects", true, true);
+        indexes.add(state("id1", "root", "File", "foo", 1, new String[] { "a", "b" }, "bob"));
+        indexes.add(state("id2", "root", "Folder", "bar", 2, null, "bob", "pete"));
+        indexes.add(state("id3", "id2", "File", "gee", 3, new String[] { "b" }, "pete"));
+    }
+
+    protected static State state(String id, String parentId, String type, String title, int day, String[] subjects,
+            String... racl) {
+        State state = new State();
+        state.put(KEY_ID, id);
+        state.put(KEY_PARENT_ID, parentId);
+        state.put(KEY_ANCESTOR_IDS, "root".equals(parentId) ? new Object[] { "root" } : new Object[] { "root", parentId });
+        state.put(KEY_PRIMARY_TYPE, type);
+        state.put(KEY_READ_ACL, racl);
+        state.put("dc:title", title);
+        state.put("dc:modified", new GregorianCalendar(2020, 0, day));
+        state.put("dc:subjects", subjects);
+        return state;
+    }
+
+    protected Set<String> candidates(String where, String... principals) {
+        String query = "SELECT * FROM Document WHERE " + where;
+        DBSExpressionEvaluator evaluator = new DBSExpressionEvaluator(null, SQLQueryParser.parse(query),
+                principals.length == 0 ? null : principals, false);
+        return indexes.getCandidateIds(evaluator);
+    }
+
+    @Test
+    public void testHashIndexes() {
+        assertEquals(Set.of("id1", "id2"), indexes.get(KEY_PARENT_ID, "root"));
+        assertEquals(Set.of("id1", "id2", "id3"), indexes.get(KEY_ANCESTOR_IDS, "root"));
+        assertEquals(Set.of("id3"), indexes.get(KEY_ANCESTOR_IDS, "id2"));
+        assertEquals(Set.of("id2", "id3"), indexes.get(KEY_READ_ACL, "pete"));
+        assertEquals(Set.of(), indexes.get(KEY_PRIMARY_TYPE, "Note"));
+    }
+
+    @Test
+    public void testUpdate() {
+        State state = state("id3", "id2", "File", "gee", 3, new String[] { "b" }, "pete");
+        indexes.update(state, () -> {
+            state.put(KEY_PARENT_ID, "root");
+            state.put("dc:title", "moo");
+        });
+        assertEquals(Set.of("id1", "id2", "id3"), indexes.get(KEY_PARENT_ID, "root"));
+        assertEquals(Set.of(), indexes.get(KEY_PARENT_ID, "id2"));
+        assertEquals(Set.of("id3"), indexes.get("dc:title", "moo"));
+        assertEquals(Set.of(), indexes.get("dc:title", "gee"));
+    }
+
+    @Test
+    public void testRange() {
+        assertEquals(Set.of("id1", "id3"), indexes.getRange("dc:title", "c", null));
+        assertEquals(Set.of("id2"), indexes.getRange("dc:title", null, "c"));
+        assertEquals(Set.of("id2", "id3"),
+                indexes.getRange("dc:modified", new GregorianCalendar(2020, 0, 2), new GregorianCalendar(2020, 0, 3)));
+        assertEquals(Set.of(), indexes.getRange("dc:title", "z", "a"));
+    }
+
+    @Test
+    public void testCandidateIds() {
+        assertEquals(Set.of("id1", "id2"), candidates("ecm:parentId = 'root'"));
+        assertEquals(Set.of("id1"), candidates("ecm:parentId = 'root' AND ecm:primaryType = 'File'"));
+        assertEquals(Set.of("id1", "id3"), candidates("ecm:primaryType IN ('File', 'Note')"));
+        assertEquals(Set.of("id2", "id3"), candidates("ecm:ancestorId = 'id2' OR dc:title = 'bar'"));
+        assertEquals(Set.of("id1", "id3"), candidates("dc:subjects/* = 'b'"));
+        assertEquals(Set.of("id1", "id3"), candidates("dc:title > 'c'"));
+        assertEquals(Set.of("id1", "id2"), candidates("dc:title BETWEEN 'a' AND 'foo'"));
+        assertEquals(Set.of("id2"), candidates("ecm:uuid = 'id2'"));
+        // racl
+        assertEquals(Set.of("id2", "id3"), candidates("dc:title IS NOT NULL", "pete"));
+        assertEquals(Set.of("id2"), candidates("ecm:parentId = 'root'", "pete"));
+        // not indexable
+        assertNull(candidates("dc:title LIKE 'f%'"));
+        assertNull(candidates("ecm:parentId = 'root' OR ecm:isProxy = 1"));
+        assertNull(candidates("dc:description = 'foo'"));
+    }
+
+}
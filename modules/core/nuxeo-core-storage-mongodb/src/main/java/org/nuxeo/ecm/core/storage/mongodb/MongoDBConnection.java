@@ -26,6 +26,7 @@ import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_ACE_USER;
 import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_ACL;
 import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_ACP;
 import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_ANCESTOR_IDS;
+import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_CHANGE_TOKEN;
 import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_FULLTEXT_BINARY;
 import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_FULLTEXT_JOBID;
 import static org.nuxeo.ecm.core.storage.dbs.DBSDocument.KEY_FULLTEXT_SIMPLE;
@@ -57,9 +58,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
 import java.util.Spliterators;
@@ -97,11 +101,13 @@ import com.mongodb.MongoExecutionTimeoutException;
 import com.mongodb.MongoWriteException;
 import com.mongodb.QueryOperators;
 import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoIterable;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.CountOptions;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.FindOneAndUpdateOptions;
@@ -109,7 +115,9 @@ import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
 import com.mongodb.client.model.Projections;
 import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOneModel;
 import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 
@@ -124,6 +132,13 @@ public class MongoDBConnection extends DBSConnectionBase {
 
     protected static final Random RANDOM = new SecureRandom();
 
+    /**
+     * Number of documents fetched per round-trip when streaming query results.
+     *
+     * @since 11.3
+     */
+    protected static final int STREAM_BATCH_SIZE = 1000;
+
     protected final MongoDBRepository mongoDBRepository;
 
     protected final MongoCollection<Document> coll;
@@ -476,25 +491,7 @@ public class MongoDBConnection extends DBSConnectionBase {
     public void updateState(String id, StateDiff diff, ChangeTokenUpdater changeTokenUpdater) {
         List<Document> updates = converter.diffToBson(diff);
         for (Document update : updates) {
-            Document filter = new Document();
-            converter.putToBson(filter, KEY_ID, id);
-            if (changeTokenUpdater == null) {
-                log.trace("MongoDB: UPDATE {}: {}", id, update);
-            } else {
-                // assume bson is identical to dbs internals
-                // condition works even if value is null
-                Map<String, Serializable> conditions = changeTokenUpdater.getConditions();
-                Map<String, Serializable> tokenUpdates = changeTokenUpdater.getUpdates();
-                if (update.containsKey(MONGODB_SET)) {
-                    ((Document) update.get(MONGODB_SET)).putAll(tokenUpdates);
-                } else {
-                    Document set = new Document();
-                    set.putAll(tokenUpdates);
-                    update.put(MONGODB_SET, set);
-                }
-                log.trace("MongoDB: UPDATE {}: IF {} THEN {}", id, conditions, update);
-                filter.putAll(conditions);
-            }
+            Document filter = getUpdateFilter(id, update, changeTokenUpdater);
             try {
                 UpdateResult w = updateMany(filter, update);
                 if (w.getModifiedCount() != 1) {
@@ -511,6 +508,106 @@ public class MongoDBConnection extends DBSConnectionBase {
         }
     }
 
+    /**
+     * Gets the filter for an update of a document, adding the change token conditions and updates if needed.
+     *
+     * @since 11.3
+     */
+    protected Document getUpdateFilter(String id, Document update, ChangeTokenUpdater changeTokenUpdater) {
+        Document filter = new Document();
+        converter.putToBson(filter, KEY_ID, id);
+        if (changeTokenUpdater == null) {
+            log.trace("MongoDB: UPDATE {}: {}", id, update);
+        } else {
+            // assume bson is identical to dbs internals
+            // condition works even if value is null
+            Map<String, Serializable> conditions = changeTokenUpdater.getConditions();
+            Map<String, Serializable> tokenUpdates = changeTokenUpdater.getUpdates();
+            if (update.containsKey(MONGODB_SET)) {
+                ((Document) update.get(MONGODB_SET)).putAll(tokenUpdates);
+            } else {
+                Document set = new Document();
+                set.putAll(tokenUpdates);
+                update.put(MONGODB_SET, set);
+            }
+            log.trace("MongoDB: UPDATE {}: IF {} THEN {}", id, conditions, update);
+            filter.putAll(conditions);
+        }
+        return filter;
+    }
+
+    @Override
+    public void updateStates(List<StateUpdate> stateUpdates) {
+        List<WriteModel<Document>> models = new ArrayList<>();
+        // document id for each write model, to report errors
+        List<String> modelIds = new ArrayList<>();
+        boolean ordered = false;
+        for (StateUpdate stateUpdate : stateUpdates) {
+            List<Document> updates = converter.diffToBson(stateUpdate.diff);
+            if (updates.size() > 1) {
+                // successive updates of the same document must be applied in order
+                ordered = true;
+            }
+            for (Document update : updates) {
+                Document filter = getUpdateFilter(stateUpdate.id, update, stateUpdate.changeTokenUpdater);
+                models.add(new UpdateOneModel<>(filter, update));
+                modelIds.add(stateUpdate.id);
+            }
+        }
+        if (models.isEmpty()) {
+            return;
+        }
+        log.trace("MongoDB: BULK UPDATE {} documents, {} updates", stateUpdates::size, models::size);
+        BulkWriteResult result;
+        try {
+            result = bulkWrite(models, new BulkWriteOptions().ordered(ordered));
+        } catch (MongoBulkWriteException mbwe) {
+            for (BulkWriteError error : mbwe.getWriteErrors()) {
+                if (DUPLICATE_KEY.equals(fromErrorCode(error.getCode()))) {
+                    log.trace("MongoDB:    -> DUPLICATE KEY: {}", modelIds.get(error.getIndex()));
+                    throw new ConcurrentUpdateException(error.getMessage(), mbwe);
+                }
+            }
+            throw mbwe;
+        }
+        if (result.getModifiedCount() != models.size()) {
+            String id = findConcurrentUpdate(stateUpdates);
+            log.trace("MongoDB:    -> CONCURRENT UPDATE: {}", id);
+            throw new ConcurrentUpdateException(id);
+        }
+    }
+
+    /**
+     * Finds which document of a bulk update was concurrently updated or deleted, for error reporting.
+     *
+     * @since 11.3
+     */
+    protected String findConcurrentUpdate(List<StateUpdate> stateUpdates) {
+        Set<String> ids = stateUpdates.stream().map(stateUpdate -> stateUpdate.id).collect(Collectors.toSet());
+        Document fields = new Document();
+        fields.put(converter.keyToBson(KEY_ID), ONE);
+        fields.put(converter.keyToBson(KEY_CHANGE_TOKEN), ONE);
+        Map<String, Serializable> changeTokens = new HashMap<>();
+        try (Stream<State> states = stream(converter.filterIn(KEY_ID, ids), fields)) {
+            states.forEach(state -> changeTokens.put((String) state.get(KEY_ID), state.get(KEY_CHANGE_TOKEN)));
+        }
+        for (StateUpdate stateUpdate : stateUpdates) {
+            if (!changeTokens.containsKey(stateUpdate.id)) {
+                // concurrently deleted
+                return stateUpdate.id;
+            }
+            if (stateUpdate.changeTokenUpdater != null) {
+                // after a successful update, the condition is the new change token
+                Serializable expected = stateUpdate.changeTokenUpdater.getConditions().get(KEY_CHANGE_TOKEN);
+                if (!Objects.equals(expected, changeTokens.get(stateUpdate.id))) {
+                    return stateUpdate.id;
+                }
+            }
+        }
+        // not found, report all the documents
+        return String.join(", ", ids);
+    }
+
     @Override
     public void deleteStates(Set<String> ids) {
         Bson filter = converter.filterIn(KEY_ID, ids);
@@ -808,6 +905,96 @@ public class MongoDBConnection extends DBSConnectionBase {
         return new PartialList<>(projections, totalSize);
     }
 
+    @Override
+    public Stream<Map<String, Serializable>> queryAndFetchStream(DBSExpressionEvaluator evaluator,
+            OrderByClause orderByClause, boolean distinctDocuments, int limit, int offset) {
+        MongoDBRepositoryQueryBuilder builder = new MongoDBRepositoryQueryBuilder((MongoDBRepository) repository,
+                evaluator.getExpression(), evaluator.getSelectClause(), orderByClause, evaluator.pathResolver,
+                evaluator.fulltextSearchDisabled);
+        builder.walk();
+        if (builder.hasFulltext && repository.isFulltextSearchDisabled()) {
+            throw new QueryParseException("Fulltext search disabled by configuration");
+        }
+        Document filter = builder.getQuery();
+        addPrincipals(filter, evaluator.principals);
+        Bson orderBy = builder.getOrderBy();
+        Bson keys = builder.getProjection();
+        boolean manualProjection = !distinctDocuments && builder.hasProjectionWildcard();
+        if (manualProjection) {
+            keys = null;
+            evaluator.parse();
+        }
+
+        logQuery(filter, keys, orderBy, limit, offset);
+
+        boolean completedAbruptly = true;
+        MongoCursor<Document> cursor = null;
+        try {
+            cursor = find(filter).projection(keys)
+                                 .skip(offset)
+                                 .limit(limit)
+                                 .sort(orderBy)
+                                 .batchSize(STREAM_BATCH_SIZE)
+                                 .iterator();
+            DBSStateFlattener flattener = new DBSStateFlattener(builder.propertyKeys);
+            // next batches are fetched while the stream is consumed
+            Iterator<Document> docs = new QueryTimeoutIterator(cursor, filter);
+            Stream<State> states = StreamSupport.stream(Spliterators.spliteratorUnknownSize(docs, 0), false)
+                                                .onClose(cursor::close)
+                                                .map(converter::bsonToState);
+            Stream<Map<String, Serializable>> stream;
+            if (manualProjection) {
+                stream = states.flatMap(state -> evaluator.matches(state).stream());
+            } else {
+                stream = states.map(flattener::flatten);
+            }
+            // the stream takes responsibility for closing the cursor
+            completedAbruptly = false;
+            return stream;
+        } catch (MongoExecutionTimeoutException e) {
+            throw newQueryTimeout(e, filter); // NOSONAR (cursor is not leaked)
+        } finally {
+            if (completedAbruptly && cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Iterator on a cursor converting the timeouts that happen when fetching the next batches.
+     *
+     * @since 11.3
+     */
+    protected class QueryTimeoutIterator implements Iterator<Document> {
+
+        protected final MongoCursor<Document> cursor;
+
+        protected final Bson filter;
+
+        public QueryTimeoutIterator(MongoCursor<Document> cursor, Bson filter) {
+            this.cursor = cursor;
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return cursor.hasNext();
+            } catch (MongoExecutionTimeoutException e) {
+                throw newQueryTimeout(e, filter);
+            }
+        }
+
+        @Override
+        public Document next() {
+            try {
+                return cursor.next();
+            } catch (MongoExecutionTimeoutException e) {
+                throw newQueryTimeout(e, filter);
+            }
+        }
+    }
+
     @SuppressWarnings("resource") // cursor is being registered, must not be closed
     @Override
     public ScrollResult<String> scroll(DBSExpressionEvaluator evaluator, int batchSize, int keepAliveSeconds) {
@@ -990,6 +1177,14 @@ public class MongoDBConnection extends DBSConnectionBase {
         }
     }
 
+    protected BulkWriteResult bulkWrite(List<WriteModel<Document>> models, BulkWriteOptions options) {
+        if (transactionStarted) {
+            return coll.bulkWrite(clientSession, models, options);
+        } else {
+            return coll.bulkWrite(models, options);
+        }
+    }
+
     protected DeleteResult deleteMany(Bson filter) {
         if (transactionStarted) {
             return coll.deleteMany(clientSession, filter);
@@ -4067,6 +4067,32 @@ public class TestSQLBackend extends SQLBackendTestCase {
         assertEquals(0, jdbc.executeCount);
     }
 
+    @Test
+    public void testGetChildrenFetchedInBulk() throws Exception {
+        Session session = repository.getConnection();
+        Node root = session.getRootNode();
+        Node folder = session.addChildNode(root, "folder", null, "TestDoc", false);
+        String[] types = { "TestDoc", "TestDoc2", "TestDoc3", "Relation" };
+        int ndocs = 40;
+        for (int i = 0; i < ndocs; i++) {
+            session.addChildNode(folder, "doc" + i, null, types[i % types.length], false);
+        }
+        session.save();
+        session.close();
+        session = repository.getConnection();
+
+        folder = session.getNodeByPath("/folder", null);
+        JDBCConnection jdbc = (JDBCConnection) JDBCMapperConnector.unwrap(
+                ((SoftRefCachingMapper) ((SessionImpl) session).getMapper()).mapper);
+        jdbc.countExecutes = true;
+        jdbc.executeCount = 0;
+
+        List<Node> children = session.getChildren(folder, null, false);
+        assertEquals(ndocs, children.size());
+        // prefetched fragments are read with one query per table, not per child
+        assertTrue(String.valueOf(jdbc.executeCount), jdbc.executeCount < ndocs / 2);
+    }
+
     @Test
     public void testPathDeep() throws Exception {
         Session session = repository.getConnection();
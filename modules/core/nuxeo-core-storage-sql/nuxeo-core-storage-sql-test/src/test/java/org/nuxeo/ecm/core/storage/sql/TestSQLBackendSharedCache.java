@@ -0,0 +1,164 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.storage.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.Serializable;
+
+import org.junit.Test;
+import org.nuxeo.ecm.core.storage.sql.jdbc.JDBCConnection;
+import org.nuxeo.ecm.core.storage.sql.jdbc.JDBCMapperConnector;
+import org.nuxeo.runtime.transaction.TransactionHelper;
+
+/**
+ * Tests of the {@link SharedCachingMapper}.
+ *
+ * @since 11.3
+ */
+public class TestSQLBackendSharedCache extends SQLBackendTestCase {
+
+    @Override
+    protected RepositoryDescriptor newDescriptor(String name, long clusteringDelay) {
+        RepositoryDescriptor descriptor = super.newDescriptor(name, clusteringDelay);
+        descriptor.cachingMapperClass = SharedCachingMapper.class;
+        return descriptor;
+    }
+
+    protected static JDBCConnection countExecutes(Session session) {
+        JDBCConnection jdbc = (JDBCConnection) JDBCMapperConnector.unwrap(
+                ((SharedCachingMapper) ((SessionImpl) session).getMapper()).mapper);
+        jdbc.countExecutes = true;
+        jdbc.executeCount = 0;
+        return jdbc;
+    }
+
+    @Test
+    public void testCacheSharedBetweenSessions() {
+        Session session = repository.getConnection();
+        Node root = session.getRootNode();
+        Node foo = session.addChildNode(root, "foo", null, "TestDoc", false);
+        Node bar = session.addChildNode(foo, "bar", null, "TestDoc", false);
+        Serializable barId = bar.getId();
+        session.save();
+        session.close();
+
+        // first session reads from the database and fills the shared cache
+        Session session2 = repository.getConnection();
+        assertEquals("/foo/bar", session2.getNodeById(barId).getPath());
+        session2.close();
+
+        // another session reads from the shared cache
+        Session session3 = repository.getConnection();
+        JDBCConnection jdbc = countExecutes(session3);
+        assertEquals("/foo/bar", session3.getNodeById(barId).getPath());
+        assertEquals(0, jdbc.executeCount);
+        session3.close();
+    }
+
+    @Test
+    public void testInvalidationOnSave() {
+        Session session = repository.getConnection();
+        Node root = session.getRootNode();
+        Node foo = session.addChildNode(root, "foo", null, "TestDoc", false);
+        foo.setSimpleProperty("tst:title", "old");
+        Serializable fooId = foo.getId();
+        session.save();
+
+        // fill the shared cache
+        Session session2 = repository.getConnection();
+        assertEquals("old", session2.getNodeById(fooId).getSimpleProperty("tst:title").getString());
+        session2.close();
+
+        // update, not yet visible to others through the shared cache
+        foo.setSimpleProperty("tst:title", "new");
+        session.save();
+        session.close();
+
+        // the shared cache has been invalidated for the modified row
+        Session session3 = repository.getConnection();
+        assertEquals("new", session3.getNodeById(fooId).getSimpleProperty("tst:title").getString());
+        session3.close();
+    }
+
+    @Test
+    public void testAbsentRowsCached() {
+        Session session = repository.getConnection();
+        Node root = session.getRootNode();
+        Node foo = session.addChildNode(root, "foo", null, "TestDoc", false);
+        Serializable fooId = foo.getId();
+        session.save();
+
+        // fill the shared cache
+        Session session2 = repository.getConnection();
+        assertNotNull(session2.getNodeById(fooId));
+        session2.close();
+
+        session.removeNode(foo);
+        session.save();
+        session.close();
+
+        // the removal is visible, and the absence is now cached
+        Session session3 = repository.getConnection();
+        assertNull(session3.getNodeById(fooId));
+        session3.close();
+
+        Session session4 = repository.getConnection();
+        JDBCConnection jdbc = countExecutes(session4);
+        assertNull(session4.getNodeById(fooId));
+        assertEquals(0, jdbc.executeCount);
+        session4.close();
+    }
+
+    @Test
+    public void testRollbackKeepsSharedCache() throws Exception {
+        Session session = repository.getConnection();
+        Node root = session.getRootNode();
+        Node foo = session.addChildNode(root, "foo", null, "TestDoc", false);
+        foo.setSimpleProperty("tst:title", "old");
+        Serializable fooId = foo.getId();
+        session.save();
+        session.close();
+
+        // fill the shared cache
+        Session session2 = repository.getConnection();
+        assertEquals("old", session2.getNodeById(fooId).getSimpleProperty("tst:title").getString());
+        session2.close();
+
+        // update and rollback in another session
+        Session session3 = repository.getConnection();
+        TransactionHelper.startTransaction();
+        try {
+            TransactionHelper.lookupTransactionManager().getTransaction().enlistResource((SessionImpl) session3);
+            session3.getNodeById(fooId).setSimpleProperty("tst:title", "new");
+            session3.save();
+        } finally {
+            TransactionHelper.setTransactionRollbackOnly();
+            TransactionHelper.commitOrRollbackTransaction();
+        }
+        session3.close();
+
+        // the rows are still cached for other sessions
+        Session session4 = repository.getConnection();
+        JDBCConnection jdbc = countExecutes(session4);
+        assertEquals("old", session4.getNodeById(fooId).getSimpleProperty("tst:title").getString());
+        assertEquals(0, jdbc.executeCount);
+        session4.close();
+    }
+
+}
@@ -52,6 +52,7 @@ import org.nuxeo.ecm.core.schema.types.primitives.DateType;
 import org.nuxeo.ecm.core.schema.types.primitives.LongType;
 import org.nuxeo.ecm.core.schema.types.primitives.StringType;
 import org.nuxeo.ecm.core.storage.FulltextConfigurationFactory;
+import org.nuxeo.ecm.core.storage.QueryPlanCache;
 import org.nuxeo.ecm.core.storage.sql.RepositoryDescriptor.FieldDescriptor;
 import org.nuxeo.ecm.core.storage.sql.RowMapper.IdWithTypes;
 import org.nuxeo.ecm.core.storage.sql.jdbc.SQLInfo;
@@ -479,6 +480,9 @@ public class Model {
 
     private final boolean supportsArrayColumns;
 
+    // @since 11.3
+    protected final QueryPlanCache queryPlanCache;
+
     public Model(ModelSetup modelSetup) {
         // constant sanity check
         if (!FULLTEXT_BINARYTEXT_KEY.equals(CoreSession.BINARY_FULLTEXT_MAIN_KEY)) {
@@ -487,6 +491,7 @@ public class Model {
         }
 
         repositoryDescriptor = modelSetup.repositoryDescriptor;
+        queryPlanCache = new QueryPlanCache(repositoryDescriptor.name);
         materializeFulltextSyntheticColumn = modelSetup.materializeFulltextSyntheticColumn;
         supportsArrayColumns = modelSetup.supportsArrayColumns;
         idType = modelSetup.idType;
@@ -580,6 +585,16 @@ public class Model {
         return repositoryDescriptor;
     }
 
+    /**
+     * Gets the cache of parsed queries for this model's repository.
+     *
+     * @return the query plan cache
+     * @since 11.3
+     */
+    public QueryPlanCache getQueryPlanCache() {
+        return queryPlanCache;
+    }
+
     /**
      * Fixup an id that has been turned into a string for high-level Nuxeo APIs.
      *
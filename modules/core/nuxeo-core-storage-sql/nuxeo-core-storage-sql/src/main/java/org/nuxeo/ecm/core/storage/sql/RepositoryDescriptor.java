@@ -411,6 +411,45 @@ public class RepositoryDescriptor {
         this.changeTokenEnabled = Boolean.valueOf(enabled);
     }
 
+    /** @since 11.3 */
+    public static final int DEFAULT_COPY_INSERT_THRESHOLD = 100;
+
+    /** @since 11.3 */
+    @XNode("copyInsert@enabled")
+    private Boolean copyInsertEnabled;
+
+    /**
+     * Whether bulk inserts through the database-specific bulk-loading protocol (PostgreSQL {@code COPY}) are enabled.
+     *
+     * @since 11.3
+     */
+    public boolean isCopyInsertEnabled() {
+        return defaultFalse(copyInsertEnabled);
+    }
+
+    /** @since 11.3 */
+    public void setCopyInsertEnabled(boolean enabled) {
+        this.copyInsertEnabled = Boolean.valueOf(enabled);
+    }
+
+    /** @since 11.3 */
+    @XNode("copyInsert@threshold")
+    private Integer copyInsertThreshold;
+
+    /**
+     * The minimum number of rows created in a table by a single write for bulk inserts to be used.
+     *
+     * @since 11.3
+     */
+    public int getCopyInsertThreshold() {
+        return copyInsertThreshold == null ? DEFAULT_COPY_INSERT_THRESHOLD : copyInsertThreshold.intValue();
+    }
+
+    /** @since 11.3 */
+    public void setCopyInsertThreshold(int threshold) {
+        this.copyInsertThreshold = Integer.valueOf(threshold);
+    }
+
     public RepositoryDescriptor() {
     }
 
@@ -447,6 +486,8 @@ public class RepositoryDescriptor {
         readAclMaxSize = other.readAclMaxSize;
         usersSeparatorKey = other.usersSeparatorKey;
         changeTokenEnabled = other.changeTokenEnabled;
+        copyInsertEnabled = other.copyInsertEnabled;
+        copyInsertThreshold = other.copyInsertThreshold;
     }
 
     public void merge(RepositoryDescriptor other) {
@@ -549,6 +590,12 @@ public class RepositoryDescriptor {
         if (other.changeTokenEnabled != null) {
             changeTokenEnabled = other.changeTokenEnabled;
         }
+        if (other.copyInsertEnabled != null) {
+            copyInsertEnabled = other.copyInsertEnabled;
+        }
+        if (other.copyInsertThreshold != null) {
+            copyInsertThreshold = other.copyInsertThreshold;
+        }
     }
 
 }
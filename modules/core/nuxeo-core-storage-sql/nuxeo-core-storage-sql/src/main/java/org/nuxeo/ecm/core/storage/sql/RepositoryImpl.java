@@ -382,6 +382,9 @@ public class RepositoryImpl implements Repository {
     @Override
     public synchronized void close() {
         closeAllSessions();
+        if (model != null) {
+            model.getQueryPlanCache().close();
+        }
         model = null;
         backend.shutdown();
 
@@ -491,6 +491,21 @@ public interface Session extends Connection {
     IterableQueryResult queryAndFetch(String query, String queryType, QueryFilter queryFilter,
             boolean distinctDocuments, Object... params);
 
+    /**
+     * Makes a query to the database and returns an iterable backed by a forward-only cursor (which must be closed when
+     * done).
+     *
+     * @param query the query
+     * @param queryType the query type
+     * @param queryFilter the query filter
+     * @param distinctDocuments if {@code true} then a maximum of one row per document will be returned
+     * @param params optional query-type-dependent parameters
+     * @return an iterable, which <b>must</b> be closed when done
+     * @since 11.3
+     */
+    IterableQueryResult queryAndFetchForwardOnly(String query, String queryType, QueryFilter queryFilter,
+            boolean distinctDocuments, Object... params);
+
     /**
      * Makes a query to the database.
      *
@@ -31,10 +31,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -934,16 +934,19 @@ public class SessionImpl implements Session, XAResource {
     public List<Node> getChildren(Node parent, String name, boolean complexProp) {
         checkLive();
         List<SimpleFragment> fragments = context.getChildren(parent.getId(), name, complexProp);
-        List<Node> nodes = new ArrayList<>(fragments.size());
+        List<Serializable> ids = new ArrayList<>(fragments.size());
         for (SimpleFragment fragment : fragments) {
-            Node node = getNodeById(fragment.getId());
-            if (node == null) {
+            ids.add(fragment.getId());
+        }
+        // fetch all the children in bulk
+        List<Node> nodes = getNodesByIds(ids, true);
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i) == null) {
                 // cannot happen
-                log.error("Child node cannot be created: " + fragment.getId());
-                continue;
+                log.error("Child node cannot be created: " + ids.get(i));
             }
-            nodes.add(node);
         }
+        nodes.removeIf(Objects::isNull);
         return nodes;
     }
 
@@ -1090,11 +1093,7 @@ public class SessionImpl implements Session, XAResource {
     public List<Node> getVersions(Serializable versionSeriesId) {
         checkLive();
         List<Serializable> ids = context.getVersionIds(versionSeriesId);
-        List<Node> nodes = new ArrayList<>(ids.size());
-        for (Serializable id : ids) {
-            nodes.add(getNodeById(id));
-        }
-        return nodes;
+        return getNodesByIds(ids, true);
     }
 
     @Override
@@ -1129,16 +1128,9 @@ public class SessionImpl implements Session, XAResource {
     }
 
     protected List<Node> getNodes(List<Serializable> ids) {
-        List<Node> nodes = new LinkedList<>();
-        for (Serializable id : ids) {
-            Node node = getNodeById(id);
-            if (node != null || Boolean.TRUE.booleanValue()) { // XXX
-                // null if deleted, which means selection wasn't correctly
-                // updated
-                nodes.add(node);
-            }
-        }
-        return nodes;
+        // fetch all the nodes in bulk
+        // a node is null if deleted, which means selection wasn't correctly updated
+        return getNodesByIds(ids, true);
     }
 
     @Override
@@ -1231,6 +1223,27 @@ public class SessionImpl implements Session, XAResource {
         }
     }
 
+    @SuppressWarnings("resource") // Time.Context closed by stop()
+    @Override
+    public IterableQueryResult queryAndFetchForwardOnly(String query, String queryType, QueryFilter queryFilter,
+            boolean distinctDocuments, Object... params) {
+        final Timer.Context timerContext = queryTimer.time();
+        try {
+            return mapper.queryAndFetchForwardOnly(query, queryType, queryFilter, distinctDocuments, params);
+        } finally {
+            long duration = timerContext.stop();
+            if ((LOG_MIN_DURATION_NS >= 0) && (duration > LOG_MIN_DURATION_NS)) {
+                String msg = String.format("duration_ms:\t%.2f\t%s\tqueryAndFetchForwardOnly\t%s",
+                        duration / 1000000.0, queryFilter, query);
+                if (log.isTraceEnabled()) {
+                    log.info(msg, new Throwable("Slow query stack trace"));
+                } else {
+                    log.info(msg);
+                }
+            }
+        }
+    }
+
     @SuppressWarnings("resource") // Time.Context closed by stop()
     @Override
     public PartialList<Map<String, Serializable>> queryProjection(String query, String queryType,
@@ -0,0 +1,661 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.storage.sql;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.transaction.xa.XAException;
+import javax.transaction.xa.Xid;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.nuxeo.ecm.core.storage.sql.ACLRow.ACLRowPositionComparator;
+import org.nuxeo.runtime.metrics.MetricsService;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.dropwizard.metrics5.Counter;
+import io.dropwizard.metrics5.Gauge;
+import io.dropwizard.metrics5.MetricName;
+import io.dropwizard.metrics5.MetricRegistry;
+import io.dropwizard.metrics5.SharedMetricRegistries;
+import io.dropwizard.metrics5.Timer;
+
+/**
+ * A {@link RowMapper} whose cache is shared by all the sessions of a repository.
+ * <p>
+ * The cache only holds {@link Row}s that are known to be identical to what's committed in the underlying
+ * {@link RowMapper}. Rows written by a transaction bypass the shared cache until the end of the transaction, at which
+ * point they are invalidated for all sessions; invalidations received from other cluster nodes are applied row by
+ * row.
+ * <p>
+ * The cache is bounded by the total weight of its rows (their number of values) and uses the W-TinyLFU eviction
+ * policy of Caffeine. Rows known to be absent from the database are cached as well.
+ *
+ * @since 11.3
+ */
+public class SharedCachingRowMapper implements RowMapper {
+
+    private static final Log log = LogFactory.getLog(SharedCachingRowMapper.class);
+
+    /** Caching mapper property for the maximum total weight of the cached rows. */
+    public static final String MAX_WEIGHT_PROP = "maxWeight";
+
+    public static final long DEFAULT_MAX_WEIGHT = 1_000_000;
+
+    private static final String ABSENT = "__ABSENT__\0\0\0";
+
+    protected static final int VERSION_STRIPES = 1024;
+
+    /** The shared caches, one per repository model. */
+    protected static final Map<Model, SharedRowCache> CACHES = new WeakHashMap<>();
+
+    protected SharedRowCache cache;
+
+    protected Model model;
+
+    /**
+     * The {@link RowMapper} to which operations that cannot be processed from the cache are delegated.
+     */
+    protected RowMapper rowMapper;
+
+    /**
+     * The local invalidations due to writes through this mapper that should be propagated to other sessions at
+     * post-commit time.
+     */
+    protected final VCSInvalidations localInvalidations;
+
+    /**
+     * The rows written by the current transaction, which must neither be read from nor put in the shared cache
+     * until the transaction is over.
+     */
+    protected final Set<RowId> transactionRowIds;
+
+    /**
+     * The queue of invalidations received from other session or from the cluster invalidator, to process at
+     * pre-transaction time.
+     */
+    protected final VCSInvalidationsQueue invalidationsQueue;
+
+    /**
+     * The propagator of invalidations to other mappers.
+     */
+    protected VCSInvalidationsPropagator invalidationsPropagator;
+
+    protected final MetricRegistry registry = SharedMetricRegistries.getOrCreate(MetricsService.class.getName());
+
+    protected Timer cacheGetTimer;
+
+    // sor means system of record (database access)
+    protected Counter sorRows;
+
+    protected Timer sorGetTimer;
+
+    public SharedCachingRowMapper() {
+        localInvalidations = new VCSInvalidations();
+        transactionRowIds = new HashSet<>();
+        invalidationsQueue = new VCSInvalidationsQueue("mapper-" + this);
+    }
+
+    public void initialize(String repositoryName, Model model, RowMapper rowMapper,
+            VCSInvalidationsPropagator invalidationsPropagator, Map<String, String> properties) {
+        this.model = model;
+        this.rowMapper = rowMapper;
+        this.invalidationsPropagator = invalidationsPropagator;
+        invalidationsPropagator.addQueue(invalidationsQueue);
+        synchronized (CACHES) {
+            cache = CACHES.computeIfAbsent(model,
+                    m -> new SharedRowCache(repositoryName, getMaxWeight(properties), registry));
+        }
+        setMetrics(repositoryName);
+    }
+
+    protected static long getMaxWeight(Map<String, String> properties) {
+        String value = properties.get(MAX_WEIGHT_PROP);
+        if (value == null) {
+            return DEFAULT_MAX_WEIGHT;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.error("Invalid " + MAX_WEIGHT_PROP + " value for VCS shared cache: " + value);
+            return DEFAULT_MAX_WEIGHT;
+        }
+    }
+
+    protected void setMetrics(String repositoryName) {
+        cacheGetTimer = registry.timer(
+                MetricName.build("nuxeo", "repositories", "repository", "cache", "shared", "timer")
+                          .tagged("repository", repositoryName));
+        sorRows = registry.counter(
+                MetricName.build("nuxeo", "repositories", "repository", "cache", "shared", "sor", "rows")
+                          .tagged("repository", repositoryName));
+        sorGetTimer = registry.timer(
+                MetricName.build("nuxeo", "repositories", "repository", "cache", "shared", "sor", "timer")
+                          .tagged("repository", repositoryName));
+    }
+
+    public void close() {
+        invalidationsPropagator.removeQueue(invalidationsQueue);
+        transactionRowIds.clear();
+        localInvalidations.clear();
+    }
+
+    @Override
+    public Serializable generateNewId() {
+        return rowMapper.generateNewId();
+    }
+
+    /*
+     * ----- Shared Cache -----
+     */
+
+    /**
+     * The cache shared by all the mappers of a repository.
+     * <p>
+     * Each invalidation increments a version, global and for the stripe of the invalidated row, so that rows read from
+     * the database concurrently with an invalidation are not put in the cache with a stale value.
+     */
+    protected static class SharedRowCache {
+
+        protected final String repositoryName;
+
+        protected final Cache<RowId, Row> cache;
+
+        protected final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+        protected final AtomicLong globalVersion = new AtomicLong();
+
+        protected final MetricRegistry registry;
+
+        protected final Map<String, Counter> hitCounters = new ConcurrentHashMap<>();
+
+        protected final Map<String, Counter> missCounters = new ConcurrentHashMap<>();
+
+        protected final Map<String, Counter> evictionCounters = new ConcurrentHashMap<>();
+
+        protected SharedRowCache(String repositoryName, long maxWeight, MetricRegistry registry) {
+            this.repositoryName = repositoryName;
+            this.registry = registry;
+            cache = Caffeine.newBuilder()
+                            .maximumWeight(maxWeight)
+                            .weigher(SharedRowCache::weigh)
+                            .removalListener(this::onRemoval)
+                            .build();
+            MetricName gaugeName = MetricName.build("nuxeo", "repositories", "repository", "cache", "shared", "size")
+                                             .tagged("repository", repositoryName);
+            registry.remove(gaugeName);
+            registry.register(gaugeName, (Gauge<Long>) cache::estimatedSize);
+        }
+
+        protected static int weigh(RowId rowId, Row row) {
+            return 1 + (row.values == null ? 0 : row.values.length);
+        }
+
+        protected void onRemoval(RowId rowId, Row row, RemovalCause cause) {
+            if (rowId != null && cause.wasEvicted()) {
+                getCounter(evictionCounters, "eviction", rowId.tableName).inc();
+            }
+        }
+
+        protected Counter getCounter(Map<String, Counter> counters, String name, String tableName) {
+            return counters.computeIfAbsent(tableName, t -> registry.counter(
+                    MetricName.build("nuxeo", "repositories", "repository", "cache", "shared", name)
+                              .tagged("repository", repositoryName, "table", t)));
+        }
+
+        protected int stripe(RowId rowId) {
+            return (rowId.hashCode() & Integer.MAX_VALUE) % VERSION_STRIPES;
+        }
+
+        protected long getVersion(RowId rowId) {
+            return versions.get(stripe(rowId));
+        }
+
+        protected long getGlobalVersion() {
+            return globalVersion.get();
+        }
+
+        protected Row get(RowId rowId) {
+            Row row = cache.getIfPresent(rowId);
+            if (row == null) {
+                getCounter(missCounters, "miss", rowId.tableName).inc();
+            } else {
+                getCounter(hitCounters, "hit", rowId.tableName).inc();
+            }
+            return row;
+        }
+
+        /**
+         * Puts a row read from the database, unless it was invalidated since the given version was read.
+         */
+        protected void put(RowId rowId, Row row, long version) {
+            if (getVersion(rowId) != version) {
+                return;
+            }
+            cache.put(rowId, row);
+            // re-check, in case of an invalidation concurrent with our put
+            if (getVersion(rowId) != version) {
+                cache.invalidate(rowId);
+            }
+        }
+
+        protected void putIfGlobalVersion(RowId rowId, Row row, long globalVersion) {
+            if (getGlobalVersion() != globalVersion) {
+                return;
+            }
+            cache.put(rowId, row);
+            if (getGlobalVersion() != globalVersion) {
+                cache.invalidate(rowId);
+            }
+        }
+
+        protected void invalidate(RowId rowId) {
+            versions.incrementAndGet(stripe(rowId));
+            globalVersion.incrementAndGet();
+            cache.invalidate(rowId);
+        }
+
+        protected void invalidateAll() {
+            for (int i = 0; i < VERSION_STRIPES; i++) {
+                versions.incrementAndGet(i);
+            }
+            globalVersion.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+
+    /*
+     * ----- Cache -----
+     */
+
+    protected static boolean isAbsent(Row row) {
+        return row.tableName == ABSENT; // == is ok
+    }
+
+    protected Row prepareCachedRow(Row row) {
+        row = row.clone();
+        // for ACL collections, make sure the order is correct
+        // (without the cache, the query to get a list of collection does an
+        // ORDER BY pos, so users of the cache must get the same behavior)
+        if (row.isCollection() && row.values.length > 0 && row.values[0] instanceof ACLRow) {
+            row.values = sortACLRows((ACLRow[]) row.values);
+        }
+        return row;
+    }
+
+    protected ACLRow[] sortACLRows(ACLRow[] acls) {
+        List<ACLRow> list = new ArrayList<>(Arrays.asList(acls));
+        Collections.sort(list, ACLRowPositionComparator.INSTANCE);
+        ACLRow[] res = new ACLRow[acls.length];
+        return list.toArray(res);
+    }
+
+    /**
+     * Checks if a row can use the shared cache, which is not the case for rows written by the current transaction.
+     */
+    protected boolean isCacheable(RowId rowId) {
+        return !transactionRowIds.contains(rowId);
+    }
+
+    protected long getVersion(RowId rowId) {
+        return cache.getVersion(rowId);
+    }
+
+    protected void cachePut(Row row, long version) {
+        if (isCacheable(row)) {
+            cache.put(new RowId(row), prepareCachedRow(row), version);
+        }
+    }
+
+    protected void cachePutAbsent(RowId rowId, long version) {
+        if (isCacheable(rowId)) {
+            cache.put(new RowId(rowId), new Row(ABSENT, (Serializable) null), version);
+        }
+    }
+
+    protected void cachePutAbsentIfNull(RowId rowId, Row row, long version) {
+        if (row != null) {
+            cachePut(row, version);
+        } else {
+            cachePutAbsent(rowId, version);
+        }
+    }
+
+    @SuppressWarnings("resource") // Time.Context closed by stop()
+    protected Row cacheGet(RowId rowId) {
+        if (!isCacheable(rowId)) {
+            return null;
+        }
+        final Timer.Context context = cacheGetTimer.time();
+        try {
+            Row row = cache.get(rowId);
+            if (row != null && !isAbsent(row)) {
+                row = row.clone();
+            }
+            return row;
+        } finally {
+            context.stop();
+        }
+    }
+
+    /**
+     * Records a row written by the current transaction, to be invalidated for all sessions when it's over.
+     */
+    protected void addTransactionRow(RowId rowId) {
+        transactionRowIds.add(new RowId(rowId));
+    }
+
+    /*
+     * ----- Invalidations / Cache Management -----
+     */
+
+    @Override
+    public VCSInvalidations receiveInvalidations() {
+        // invalidations from the underlying mapper (cluster)
+        // already propagated to our invalidations queue
+        VCSInvalidations remoteInvals = rowMapper.receiveInvalidations();
+
+        VCSInvalidations ret = invalidationsQueue.getInvalidations();
+
+        // the shared cache has already been invalidated by the local sessions,
+        // only apply the remote invalidations
+        if (remoteInvals != null && !remoteInvals.all) {
+            if (remoteInvals.modified != null) {
+                remoteInvals.modified.forEach(cache::invalidate);
+            }
+            if (remoteInvals.deleted != null) {
+                remoteInvals.deleted.forEach(cache::invalidate);
+            }
+        }
+
+        if (ret.all) {
+            cache.invalidateAll();
+            clearCache();
+        }
+
+        return ret.isEmpty() ? null : ret;
+    }
+
+    // propagate invalidations
+    @Override
+    public void sendInvalidations(VCSInvalidations invalidations) {
+        // the transaction is over, its rows are now visible to others
+        transactionRowIds.forEach(cache::invalidate);
+        transactionRowIds.clear();
+
+        // add local invalidations
+        if (!localInvalidations.isEmpty()) {
+            if (invalidations == null) {
+                invalidations = new VCSInvalidations();
+            }
+            invalidations.add(localInvalidations);
+            localInvalidations.clear();
+        }
+
+        if (invalidations != null && !invalidations.isEmpty()) {
+            // send to underlying mapper
+            rowMapper.sendInvalidations(invalidations);
+
+            // queue to other mappers' caches
+            invalidationsPropagator.propagateInvalidations(invalidations, invalidationsQueue);
+        }
+    }
+
+    /**
+     * Clears the state of this mapper. The shared cache is kept: it is called on rollback and session close, and
+     * holds no uncommitted rows.
+     */
+    @Override
+    public void clearCache() {
+        localInvalidations.clear();
+        rowMapper.clearCache();
+    }
+
+    @Override
+    public long getCacheSize() {
+        // the shared cache is reported by the cache-size gauge
+        return 0;
+    }
+
+    @Override
+    public void rollback(Xid xid) throws XAException {
+        try {
+            rowMapper.rollback(xid);
+        } finally {
+            // nothing written by the transaction was put in the shared cache
+            transactionRowIds.clear();
+            localInvalidations.clear();
+        }
+    }
+
+    /*
+     * ----- Batch -----
+     */
+
+    /*
+     * Use those from the cache if available, read from the mapper for the rest.
+     */
+    @Override
+    public List<? extends RowId> read(Collection<RowId> rowIds, boolean cacheOnly) {
+        List<RowId> res = new ArrayList<>(rowIds.size());
+        // find which are in cache, and which not
+        List<RowId> todo = new LinkedList<>();
+        Map<RowId, Long> versions = new HashMap<>();
+        for (RowId rowId : rowIds) {
+            Row row = cacheGet(rowId);
+            if (row == null) {
+                if (cacheOnly) {
+                    res.add(new RowId(rowId));
+                } else {
+                    todo.add(rowId);
+                    versions.put(rowId, Long.valueOf(getVersion(rowId)));
+                }
+            } else if (isAbsent(row)) {
+                res.add(new RowId(rowId));
+            } else {
+                res.add(row);
+            }
+        }
+        if (!todo.isEmpty()) {
+            @SuppressWarnings("resource")
+            final Timer.Context context = sorGetTimer.time();
+            try {
+                // ask missing ones to underlying row mapper
+                List<? extends RowId> fetched = rowMapper.read(todo, cacheOnly);
+                // add them to the cache
+                for (RowId rowId : fetched) {
+                    Long version = versions.get(rowId);
+                    if (version == null) {
+                        continue;
+                    }
+                    if (rowId instanceof Row) {
+                        cachePut((Row) rowId, version.longValue());
+                    } else {
+                        cachePutAbsent(rowId, version.longValue());
+                    }
+                }
+                // merge results
+                res.addAll(fetched);
+                sorRows.inc(fetched.size());
+            } finally {
+                context.stop();
+            }
+        }
+        return res;
+    }
+
+    /*
+     * Record the written rows then pass all the writes to the mapper.
+     */
+    @Override
+    public void write(RowBatch batch) {
+        // we avoid gathering invalidations for a write-only table: fulltext
+        for (Row row : batch.creates) {
+            addTransactionRow(row);
+            if (!Model.FULLTEXT_TABLE_NAME.equals(row.tableName)) {
+                // we need to send modified invalidations for created
+                // fragments because other session's ABSENT fragments have
+                // to be invalidated
+                localInvalidations.addModified(new RowId(row));
+            }
+        }
+        for (RowUpdate rowu : batch.updates) {
+            addTransactionRow(rowu.row);
+            if (!Model.FULLTEXT_TABLE_NAME.equals(rowu.row.tableName)) {
+                localInvalidations.addModified(new RowId(rowu.row));
+            }
+        }
+        for (RowId rowId : batch.deletes) {
+            if (rowId instanceof Row) {
+                throw new AssertionError();
+            }
+            addTransactionRow(rowId);
+            if (!Model.FULLTEXT_TABLE_NAME.equals(rowId.tableName)) {
+                localInvalidations.addDeleted(rowId);
+            }
+        }
+        for (RowId rowId : batch.deletesDependent) {
+            if (rowId instanceof Row) {
+                throw new AssertionError();
+            }
+            addTransactionRow(rowId);
+            if (!Model.FULLTEXT_TABLE_NAME.equals(rowId.tableName)) {
+                localInvalidations.addDeleted(rowId);
+            }
+        }
+
+        // propagate to underlying mapper
+        rowMapper.write(batch);
+    }
+
+    /*
+     * ----- Read -----
+     */
+
+    @Override
+    public Row readSimpleRow(RowId rowId) {
+        Row row = cacheGet(rowId);
+        if (row == null) {
+            long version = getVersion(rowId);
+            row = rowMapper.readSimpleRow(rowId);
+            cachePutAbsentIfNull(rowId, row, version);
+            return row;
+        } else if (isAbsent(row)) {
+            return null;
+        } else {
+            return row;
+        }
+    }
+
+    @Override
+    public Map<String, String> getBinaryFulltext(RowId rowId) {
+        return rowMapper.getBinaryFulltext(rowId);
+    }
+
+    @Override
+    public Serializable[] readCollectionRowArray(RowId rowId) {
+        Row row = cacheGet(rowId);
+        if (row == null) {
+            long version = getVersion(rowId);
+            Serializable[] array = rowMapper.readCollectionRowArray(rowId);
+            assert array != null;
+            row = new Row(rowId.tableName, rowId.id, array);
+            cachePut(row, version);
+            return row.values;
+        } else if (isAbsent(row)) {
+            return null;
+        } else {
+            return row.values;
+        }
+    }
+
+    @Override
+    public List<Row> readSelectionRows(SelectionType selType, Serializable selId, Serializable filter,
+            Serializable criterion, boolean limitToOne) {
+        long globalVersion = cache.getGlobalVersion();
+        List<Row> rows = rowMapper.readSelectionRows(selType, selId, filter, criterion, limitToOne);
+        for (Row row : rows) {
+            if (isCacheable(row)) {
+                cache.putIfGlobalVersion(new RowId(row), prepareCachedRow(row), globalVersion);
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public Set<Serializable> readSelectionsIds(SelectionType selType, List<Serializable> values) {
+        return rowMapper.readSelectionsIds(selType, values);
+    }
+
+    /*
+     * ----- Copy -----
+     */
+
+    @Override
+    public CopyResult copy(IdWithTypes source, Serializable destParentId, String destName, Row overwriteRow,
+            boolean excludeSpecialChildren) {
+        CopyResult result = rowMapper.copy(source, destParentId, destName, overwriteRow, excludeSpecialChildren);
+        VCSInvalidations invalidations = result.invalidations;
+        if (invalidations.modified != null) {
+            for (RowId rowId : invalidations.modified) {
+                addTransactionRow(rowId);
+                localInvalidations.addModified(new RowId(rowId));
+            }
+        }
+        if (invalidations.deleted != null) {
+            for (RowId rowId : invalidations.deleted) {
+                addTransactionRow(rowId);
+                localInvalidations.addDeleted(rowId);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<NodeInfo> getDescendantsInfo(Serializable rootId) {
+        return rowMapper.getDescendantsInfo(rootId);
+    }
+
+    @Override
+    public void remove(Serializable rootId, List<NodeInfo> nodeInfos) {
+        rowMapper.remove(rootId, nodeInfos);
+        for (NodeInfo info : nodeInfos) {
+            for (String fragmentName : model.getTypeFragments(new IdWithTypes(info))) {
+                RowId rowId = new RowId(fragmentName, info.id);
+                addTransactionRow(rowId);
+                localInvalidations.addDeleted(rowId);
+            }
+        }
+    }
+
+}
@@ -47,4 +47,11 @@ public interface CollectionIO {
     void executeInserts(PreparedStatement ps, List<RowUpdate> rowus, List<Column> columns, boolean supportsBatchUpdates,
             String sql, JDBCConnection connection) throws SQLException;
 
+    /**
+     * Gets the column values of the rows to insert for the given fragments, in the order of the columns.
+     *
+     * @since 11.3
+     */
+    List<Serializable[]> getInsertValues(List<RowUpdate> rowus, List<Column> columns);
+
 }
@@ -56,6 +56,7 @@ import org.nuxeo.ecm.core.storage.sql.VCSInvalidations;
 import org.nuxeo.ecm.core.storage.sql.VCSInvalidationsPropagator;
 import org.nuxeo.ecm.core.storage.sql.Model;
 import org.nuxeo.ecm.core.storage.sql.PropertyType;
+import org.nuxeo.ecm.core.storage.sql.RepositoryDescriptor;
 import org.nuxeo.ecm.core.storage.sql.Row;
 import org.nuxeo.ecm.core.storage.sql.RowId;
 import org.nuxeo.ecm.core.storage.sql.RowMapper;
@@ -457,10 +458,87 @@ public class JDBCRowMapper extends JDBCConnection implements RowMapper {
             List<Row> rows = en.getValue();
             if (model.isCollectionFragment(tableName)) {
                 List<RowUpdate> rowus = rows.stream().map(RowUpdate::new).collect(Collectors.toList());
-                insertCollectionRows(tableName, rowus);
+                if (!copyCollectionRows(tableName, rowus)) {
+                    insertCollectionRows(tableName, rowus);
+                }
             } else {
-                insertSimpleRows(tableName, rows);
+                if (!copySimpleRows(tableName, rows)) {
+                    insertSimpleRows(tableName, rows);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if bulk inserts can be used for the given number of created rows in a table.
+     *
+     * @since 11.3
+     */
+    protected boolean useCopyInsert(String tableName, int size) {
+        RepositoryDescriptor repositoryDescriptor = model.getRepositoryDescriptor();
+        return repositoryDescriptor.isCopyInsertEnabled() && size > 0
+                && size >= repositoryDescriptor.getCopyInsertThreshold()
+                && dialect.supportsCopyInsert(sqlInfo.getInsertColumns(tableName));
+    }
+
+    /**
+     * Inserts multiple rows, all for the same table, using the bulk-loading protocol of the database if enabled.
+     *
+     * @return {@code true} if the rows were inserted, {@code false} if regular inserts must be used
+     * @since 11.3
+     */
+    protected boolean copySimpleRows(String tableName, List<Row> rows) {
+        if (!useCopyInsert(tableName, rows.size())) {
+            return false;
+        }
+        List<Column> columns = sqlInfo.getInsertColumns(tableName);
+        List<Serializable[]> values = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            Serializable[] v = new Serializable[columns.size()];
+            for (int i = 0; i < v.length; i++) {
+                v[i] = row.get(columns.get(i).getKey());
+            }
+            values.add(v);
+        }
+        return copyInsert(tableName, columns, values);
+    }
+
+    /**
+     * Inserts multiple collection rows, all for the same table, using the bulk-loading protocol of the database if
+     * enabled.
+     *
+     * @return {@code true} if the rows were inserted, {@code false} if regular inserts must be used
+     * @since 11.3
+     */
+    protected boolean copyCollectionRows(String tableName, List<RowUpdate> rowus) {
+        if (!useCopyInsert(tableName, rowus.size())) {
+            return false;
+        }
+        List<Column> columns = sqlInfo.getInsertColumns(tableName);
+        List<Serializable[]> values = getCollectionIO(tableName).getInsertValues(rowus, columns);
+        return values.isEmpty() || copyInsert(tableName, columns, values);
+    }
+
+    /**
+     * Inserts rows using the bulk-loading protocol of the database.
+     *
+     * @return {@code true} if the rows were inserted, {@code false} if the connection doesn't allow it
+     * @since 11.3
+     */
+    protected boolean copyInsert(String tableName, List<Column> columns, List<Serializable[]> values) {
+        Table table = sqlInfo.getDatabase().getTable(tableName);
+        if (logger.isLogEnabled()) {
+            logger.log("COPY " + table.getQuotedName() + " -- " + values.size() + " rows");
+        }
+        try {
+            if (dialect.copyInsert(connection, table, columns, values) < 0) {
+                return false;
             }
+            countExecute();
+            return true;
+        } catch (SQLException e) {
+            checkConcurrentUpdate(e);
+            throw new NuxeoException("Could not copy into: " + table.getQuotedName(), e);
         }
     }
 
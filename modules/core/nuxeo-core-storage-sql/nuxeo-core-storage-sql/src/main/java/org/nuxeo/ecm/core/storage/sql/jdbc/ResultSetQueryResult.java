@@ -35,6 +35,13 @@ import org.nuxeo.ecm.core.storage.sql.Session.PathResolver;
  */
 public class ResultSetQueryResult implements IterableQueryResult, Iterator<Map<String, Serializable>> {
 
+    /**
+     * Number of rows fetched per round-trip for forward-only results.
+     *
+     * @since 11.3
+     */
+    public static final int FORWARD_ONLY_FETCH_SIZE = 500;
+
     private QueryMaker.Query q;
 
     private PreparedStatement ps;
@@ -51,9 +58,25 @@ public class ResultSetQueryResult implements IterableQueryResult, Iterator<Map<S
 
     private final JDBCLogger logger;
 
+    private final boolean forwardOnly;
+
     public ResultSetQueryResult(QueryMaker queryMaker, String query, QueryFilter queryFilter, PathResolver pathResolver,
             JDBCMapper mapper, Object... params) throws SQLException {
+        this(queryMaker, query, queryFilter, pathResolver, mapper, false, params);
+    }
+
+    /**
+     * Constructs a result, optionally as a forward-only cursor.
+     * <p>
+     * A forward-only result fetches its rows in batches of {@link #FORWARD_ONLY_FETCH_SIZE} instead of materializing
+     * the whole result set on the client, but its {@link #size} is unknown and it cannot {@link #skipTo} a position.
+     *
+     * @since 11.3
+     */
+    public ResultSetQueryResult(QueryMaker queryMaker, String query, QueryFilter queryFilter, PathResolver pathResolver,
+            JDBCMapper mapper, boolean forwardOnly, Object... params) throws SQLException {
         logger = mapper.logger;
+        this.forwardOnly = forwardOnly;
         q = queryMaker.buildQuery(mapper.sqlInfo, mapper.model, pathResolver, query, queryFilter, params);
         if (q == null) {
             // no result
@@ -68,8 +91,14 @@ public class ResultSetQueryResult implements IterableQueryResult, Iterator<Map<S
         if (logger.isLogEnabled()) {
             logger.logSQL(q.selectInfo.sql, q.selectParams);
         }
-        ps = mapper.connection.prepareStatement(q.selectInfo.sql, ResultSet.TYPE_SCROLL_INSENSITIVE,
-                ResultSet.CONCUR_READ_ONLY);
+        if (forwardOnly) {
+            ps = mapper.connection.prepareStatement(q.selectInfo.sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FORWARD_ONLY_FETCH_SIZE);
+        } else {
+            ps = mapper.connection.prepareStatement(q.selectInfo.sql, ResultSet.TYPE_SCROLL_INSENSITIVE,
+                    ResultSet.CONCUR_READ_ONLY);
+        }
         int i = 1;
         for (Serializable object : q.selectParams) {
             mapper.setToPreparedStatement(ps, i++, object);
@@ -140,6 +169,10 @@ public class ResultSetQueryResult implements IterableQueryResult, Iterator<Map<S
             return size;
         }
         checkNotClosed();
+        if (forwardOnly) {
+            // unknown without consuming the cursor
+            return -1;
+        }
         try {
             // save cursor pos
             int old = rs.isBeforeFirst() ? -1 : rs.isAfterLast() ? -2 : rs.getRow();
@@ -169,6 +202,9 @@ public class ResultSetQueryResult implements IterableQueryResult, Iterator<Map<S
     @Override
     public void skipTo(long pos) {
         checkNotClosed();
+        if (forwardOnly) {
+            throw new UnsupportedOperationException("Cannot skip in a forward-only result");
+        }
         try {
             boolean available = rs.absolute((int) pos + 1);
             if (available) {
@@ -91,17 +91,7 @@ public class ScalarCollectionIO implements CollectionIO {
                 int n = 0;
                 for (Column column : columns) {
                     n++;
-                    String key = column.getKey();
-                    Serializable v;
-                    if (key.equals(Model.MAIN_KEY)) {
-                        v = id;
-                    } else if (key.equals(Model.COLL_TABLE_POS_KEY)) {
-                        v = Long.valueOf(i);
-                    } else if (key.equals(Model.COLL_TABLE_VALUE_KEY)) {
-                        v = array[i];
-                    } else {
-                        throw new RuntimeException(key);
-                    }
+                    Serializable v = getValue(column.getKey(), id, array, i);
                     column.setToPreparedStatement(ps, n, v);
                     if (debugValues != null) {
                         debugValues.add(v);
@@ -126,4 +116,39 @@ public class ScalarCollectionIO implements CollectionIO {
         }
     }
 
+    /**
+     * Gets the value of a column for an element of a collection fragment.
+     *
+     * @since 11.3
+     */
+    protected Serializable getValue(String key, Serializable id, Serializable[] array, int i) {
+        if (key.equals(Model.MAIN_KEY)) {
+            return id;
+        } else if (key.equals(Model.COLL_TABLE_POS_KEY)) {
+            return Long.valueOf(i);
+        } else if (key.equals(Model.COLL_TABLE_VALUE_KEY)) {
+            return array[i];
+        } else {
+            throw new RuntimeException(key);
+        }
+    }
+
+    @Override
+    public List<Serializable[]> getInsertValues(List<RowUpdate> rowus, List<Column> columns) {
+        List<Serializable[]> values = new ArrayList<>();
+        for (RowUpdate rowu : rowus) {
+            int start = rowu.pos == -1 || insertAll ? 0 : rowu.pos;
+            Serializable id = rowu.row.id;
+            Serializable[] array = rowu.row.values;
+            for (int i = start; i < array.length; i++) {
+                Serializable[] v = new Serializable[columns.size()];
+                for (int n = 0; n < v.length; n++) {
+                    v[n] = getValue(columns.get(n).getKey(), id, array, i);
+                }
+                values.add(v);
+            }
+        }
+        return values;
+    }
+
 }
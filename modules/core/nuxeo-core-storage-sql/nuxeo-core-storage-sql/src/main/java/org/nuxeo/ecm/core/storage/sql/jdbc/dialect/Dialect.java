@@ -1391,4 +1391,29 @@ public abstract class Dialect {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Checks if rows for the given columns can be inserted using {@link #copyInsert}.
+     *
+     * @since 11.3
+     */
+    public boolean supportsCopyInsert(List<Column> columns) {
+        return false;
+    }
+
+    /**
+     * Inserts rows in a table using the bulk-loading protocol of the database, instead of individual {@code INSERT}s.
+     *
+     * @param connection the connection
+     * @param table the table
+     * @param columns the columns to insert
+     * @param values the values for each row, in the order of the columns
+     * @return the number of inserted rows, or {@code -1} if the connection doesn't give access to the bulk-loading
+     *         protocol, in which case nothing was inserted
+     * @since 11.3
+     */
+    public long copyInsert(Connection connection, Table table, List<Column> columns, List<Serializable[]> values)
+            throws SQLException {
+        throw new UnsupportedOperationException();
+    }
+
 }
@@ -19,7 +19,11 @@
  */
 package org.nuxeo.ecm.core.storage.sql.jdbc.dialect;
 
+import java.io.Reader;
 import java.io.Serializable;
+import java.io.StringReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.Array;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
@@ -31,6 +35,7 @@ import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Calendar;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -65,6 +70,7 @@ import org.nuxeo.ecm.core.storage.sql.jdbc.db.Join;
 import org.nuxeo.ecm.core.storage.sql.jdbc.db.Table;
 import org.nuxeo.ecm.core.storage.sql.jdbc.db.TableAlias;
 import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.datasource.ConnectionHelper;
 
 /**
  * PostgreSQL-specific dialect.
@@ -90,6 +96,8 @@ public class DialectPostgreSQL extends Dialect {
 
     private static final String UNLOGGED_KEYWORD = "UNLOGGED";
 
+    private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+
     protected final String fulltextAnalyzer;
 
     protected final boolean supportsWith;
@@ -114,6 +122,8 @@ public class DialectPostgreSQL extends Dialect {
 
     protected String idSequenceName;
 
+    protected volatile boolean copyUnavailableLogged;
+
     public DialectPostgreSQL(DatabaseMetaData metadata, RepositoryDescriptor repositoryDescriptor) {
         super(metadata, repositoryDescriptor);
         fulltextAnalyzer = repositoryDescriptor == null ? null
@@ -1508,4 +1518,177 @@ public class DialectPostgreSQL extends Dialect {
         return String.join(", ", newArgList);
     }
 
+    @Override
+    public boolean supportsCopyInsert(List<Column> columns) {
+        for (Column column : columns) {
+            int jdbcType = column.getJdbcType();
+            if (jdbcType == Types.ARRAY) {
+                jdbcType = column.getJdbcBaseType();
+            } else if (jdbcType == Types.OTHER) {
+                // uuid ids are written as text, but tsvector fulltext columns (compatibility fulltext table)
+                // are written with NX_TO_TSVECTOR by INSERT
+                if (!column.getType().isId()) {
+                    return false;
+                }
+                continue;
+            }
+            switch (jdbcType) {
+            case Types.VARCHAR:
+            case Types.CLOB:
+            case Types.BIT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.DOUBLE:
+            case Types.TIMESTAMP:
+                break;
+            default:
+                // binary values and others are only written with INSERT
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Inserts rows using {@code COPY ... FROM STDIN} in text format, through the driver's {@code CopyManager}.
+     */
+    @Override
+    public long copyInsert(Connection connection, Table table, List<Column> columns, List<Serializable[]> values)
+            throws SQLException {
+        Object copyManager = getCopyManager(connection);
+        if (copyManager == null) {
+            return -1;
+        }
+        String sql = "COPY " + table.getQuotedName() + " ("
+                + columns.stream().map(Column::getQuotedName).collect(Collectors.joining(", ")) + ") FROM STDIN";
+        StringBuilder buf = new StringBuilder();
+        for (Serializable[] row : values) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    buf.append('\t');
+                }
+                appendCopyValue(buf, row[i], columns.get(i));
+            }
+            buf.append('\n');
+        }
+        try {
+            Method copyIn = copyManager.getClass().getMethod("copyIn", String.class, Reader.class);
+            return ((Long) copyIn.invoke(copyManager, sql, new StringReader(buf.toString()))).longValue();
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException(cause);
+        } catch (ReflectiveOperationException e) {
+            throw new SQLException("Cannot use COPY with connection: " + connection, e);
+        }
+    }
+
+    /**
+     * Gets the driver's {@code CopyManager} for the given connection.
+     *
+     * @return the {@code CopyManager}, or {@code null} if the driver or the connection pool doesn't give access to it
+     * @since 11.3
+     */
+    @SuppressWarnings("resource") // unwrapped connection not ours to close
+    protected Object getCopyManager(Connection connection) throws SQLException {
+        try {
+            Class<?> pgConnectionClass = Class.forName(PG_CONNECTION_CLASS);
+            Connection unwrapped = ConnectionHelper.unwrap(connection);
+            if (unwrapped.isWrapperFor(pgConnectionClass)) {
+                Object pgConnection = unwrapped.unwrap(pgConnectionClass);
+                return pgConnectionClass.getMethod("getCopyAPI").invoke(pgConnection);
+            }
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException(cause);
+        } catch (ReflectiveOperationException e) {
+            log.debug("Cannot get CopyManager", e);
+        }
+        if (!copyUnavailableLogged) {
+            copyUnavailableLogged = true;
+            log.warn("Cannot use COPY with connection: " + connection + ", using INSERT instead");
+        }
+        return null;
+    }
+
+    protected void appendCopyValue(StringBuilder buf, Serializable value, Column column) {
+        if (value == null) {
+            buf.append("\\N");
+            return;
+        }
+        if (column.getJdbcType() == Types.ARRAY) {
+            Object[] array = (Object[]) value;
+            if (column.getJdbcBaseType() == Types.TIMESTAMP) {
+                array = getTimestampFromCalendar((Serializable[]) value);
+            }
+            // array literal, itself escaped for the COPY text format
+            StringBuilder sb = new StringBuilder("{");
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                Object element = array[i];
+                if (element == null) {
+                    sb.append("NULL");
+                } else {
+                    sb.append('"');
+                    sb.append(element.toString().replace("\\", "\\\\").replace("\"", "\\\""));
+                    sb.append('"');
+                }
+            }
+            sb.append('}');
+            appendCopyEscaped(buf, sb.toString());
+            return;
+        }
+        String string;
+        switch (column.getJdbcType()) {
+        case Types.BIT:
+            string = ((Boolean) value).booleanValue() ? "t" : "f";
+            break;
+        case Types.TIMESTAMP:
+            // default timezone, like setToPreparedStatementTimestamp
+            string = getTimestampFromCalendar((Calendar) value).toString();
+            break;
+        case Types.VARCHAR:
+            if (value instanceof String[]) {
+                // sysname array when arrays aren't used
+                string = ARRAY_SEP + String.join(ARRAY_SEP, (String[]) value) + ARRAY_SEP;
+                break;
+            }
+            string = value.toString();
+            break;
+        default:
+            string = value.toString();
+        }
+        appendCopyEscaped(buf, string);
+    }
+
+    protected static void appendCopyEscaped(StringBuilder buf, String string) {
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch (c) {
+            case '\\':
+                buf.append("\\\\");
+                break;
+            case '\t':
+                buf.append("\\t");
+                break;
+            case '\n':
+                buf.append("\\n");
+                break;
+            case '\r':
+                buf.append("\\r");
+                break;
+            default:
+                buf.append(c);
+            }
+        }
+    }
+
 }
@@ -150,6 +150,9 @@ public class SQLKeyValueStore extends AbstractKeyValueStoreProvider {
 
     protected String deleteSQL;
 
+    // @since 11.3
+    protected String deleteMultiSQL;
+
     protected String deleteIfLongSQL;
 
     protected String deleteIfStringSQL;
@@ -248,6 +251,7 @@ public class SQLKeyValueStore extends AbstractKeyValueStoreProvider {
         getLongSQL = "SELECT " + longColName + " FROM " + tableName + " WHERE " + keyColName + " = ?";
         deleteAllSQL = "DELETE FROM " + tableName;
         deleteSQL = "DELETE FROM " + tableName + " WHERE " + keyColName + " = ?";
+        deleteMultiSQL = "DELETE FROM " + tableName + " WHERE " + keyColName + " IN (%s)";
         deleteIfLongSQL = deleteSQL + " AND " + longColName + " = ?";
         deleteIfStringSQL = deleteSQL + " AND " + dialect.getQuotedNameForExpression(stringCol) + " = ?";
         deleteIfBytesSQL = deleteSQL + " AND " + bytesColName + " = ?";
@@ -800,6 +804,118 @@ public class SQLKeyValueStore extends AbstractKeyValueStoreProvider {
         });
     }
 
+    @Override
+    public void putAll(Map<String, byte[]> map, long ttl) {
+        if (map.isEmpty()) {
+            return;
+        }
+        List<String> deletes = new ArrayList<>();
+        Map<String, Object> upserts = new HashMap<>(map.size());
+        map.forEach((key, bytes) -> {
+            Object value = toStorage(bytes);
+            if (value == null) {
+                deletes.add(key);
+            } else {
+                upserts.put(key, value);
+            }
+        });
+        runWithConnection((Connection connection) -> {
+            deleteAll(connection, deletes);
+            upsertAll(connection, upserts, ttl);
+        });
+    }
+
+    /**
+     * Upserts all the values using a single batched statement.
+     *
+     * @since 11.3
+     */
+    protected void upsertAll(Connection connection, Map<String, Object> values, long ttl) throws SQLException {
+        if (values.isEmpty()) {
+            return;
+        }
+        Long ttlValue = ttlToStorage(ttl);
+        String sql = null;
+        List<List<Column>> psColumnsList = new ArrayList<>(values.size());
+        List<List<Serializable>> psValuesList = new ArrayList<>(values.size());
+        for (Map.Entry<String, Object> en : values.entrySet()) {
+            Object value = en.getValue();
+            Long longValue = value instanceof Long ? (Long) value : null;
+            String stringValue = value instanceof String ? (String) value : null;
+            byte[] bytesValue = value instanceof byte[] ? (byte[]) value : null;
+            List<Column> psColumns = new ArrayList<>();
+            List<Serializable> psValues = new ArrayList<>();
+            // the SQL only depends on the columns, so it's the same for all the values
+            sql = dialect.getUpsertSql(Arrays.asList(keyCol, longCol, stringCol, bytesCol, ttlCol),
+                    Arrays.asList(en.getKey(), longValue, stringValue, bytesValue, ttlValue), psColumns, psValues);
+            psColumnsList.add(psColumns);
+            psValuesList.add(psValues);
+        }
+        for (int retry = 0; retry < MAX_RETRY; retry++) {
+            try {
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < psColumnsList.size(); i++) {
+                        List<Column> psColumns = psColumnsList.get(i);
+                        List<Serializable> psValues = psValuesList.get(i);
+                        if (logger.isLogEnabled()) {
+                            logger.logSQL(sql, psValues);
+                        }
+                        for (int j = 0; j < psColumns.size(); j++) {
+                            psColumns.get(j).setToPreparedStatement(ps, j + 1, psValues.get(j));
+                        }
+                        ps.addBatch();
+                    }
+                    int[] counts = ps.executeBatch();
+                    logger.logCount(counts.length);
+                }
+                return;
+            } catch (SQLException e) {
+                if (!dialect.isConcurrentUpdateException(e)) {
+                    throw e;
+                }
+                // Oracle MERGE can throw DUP_VAL_ON_INDEX (ORA-0001) or NO_DATA_FOUND (ORA-01403)
+                // in that case retry a few times, upserts are idempotent
+            }
+            sleepBeforeRetry();
+        }
+        throw new ConcurrentUpdateException("Failed to do atomic put for keys: " + values.keySet());
+    }
+
+    @Override
+    public void deleteAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        runWithConnection((Connection connection) -> deleteAll(connection, keys));
+    }
+
+    /**
+     * @since 11.3
+     */
+    protected void deleteAll(Connection connection, Collection<String> keys) throws SQLException {
+        if (keys.isEmpty()) {
+            return;
+        }
+        // chunk the keys to stay below the database limit for IN lists
+        List<String> keyList = new ArrayList<>(keys);
+        int chunkSize = dialect.getMaximumArgsForIn();
+        for (int start = 0; start < keyList.size(); start += chunkSize) {
+            List<String> chunk = keyList.subList(start, Math.min(start + chunkSize, keyList.size()));
+            String sql = String.format(deleteMultiSQL, nParams(chunk.size()));
+            if (logger.isLogEnabled()) {
+                logger.logSQL(sql, chunk);
+            }
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                int i = 1;
+                for (String key : chunk) {
+                    keyCol.setToPreparedStatement(ps, i++, key);
+                }
+                int count = ps.executeUpdate();
+                logger.logCount(count);
+            }
+        }
+    }
+
     @Override
     public boolean setTTL(String key, long ttl) {
         return runWithConnection((Connection connection) -> {
@@ -926,122 +1042,142 @@ public class SQLKeyValueStore extends AbstractKeyValueStoreProvider {
 
     @Override
     public long addAndGet(String key, long delta) throws NumberFormatException { // NOSONAR
+        return runWithConnection((Connection connection) -> addAndGet(connection, key, delta)).longValue();
+    }
+
+    @Override
+    public Map<String, Long> addAndGetAll(Map<String, Long> deltas) throws NumberFormatException { // NOSONAR
+        if (deltas.isEmpty()) {
+            return new HashMap<>();
+        }
+        // share a single connection for all the keys
         return runWithConnection((Connection connection) -> {
-            for (int retry = 0; retry < MAX_RETRY; retry++) {
-                String updateReturningSql;
-                boolean useReturnResultSet = false;
-                if (dialect instanceof DialectPostgreSQL) {
-                    updateReturningSql = updateReturningPostgreSQLSql;
-                } else if (dialect instanceof DialectOracle) {
-                    updateReturningSql = updateReturningOracleSql;
-                    useReturnResultSet = true;
-                } else if (dialect instanceof DialectSQLServer) {
-                    updateReturningSql = updateReturningSQLServerSql;
-                } else {
-                    updateReturningSql = null;
-                }
-                if (updateReturningSql != null) {
-                    List<Column> psColumns = Arrays.asList(longCol, keyCol);
-                    List<Serializable> psValues = Arrays.asList(Long.valueOf(delta), key);
-                    try (PreparedStatement ps = connection.prepareStatement(updateReturningSql)) {
-                        setToPreparedStatement(updateReturningSql, ps, psColumns, psValues);
-                        if (useReturnResultSet) {
-                            dialect.registerReturnParameter(ps, 3, longCol.getJdbcType());
-                        }
-                        boolean hasResultSet;
+            Map<String, Long> map = new HashMap<>(deltas.size());
+            for (Map.Entry<String, Long> en : deltas.entrySet()) {
+                map.put(en.getKey(), addAndGet(connection, en.getKey(), en.getValue().longValue()));
+            }
+            return map;
+        });
+    }
+
+    /**
+     * @since 11.3
+     */
+    protected Long addAndGet(Connection connection, String key, long delta) throws SQLException {
+        for (int retry = 0; retry < MAX_RETRY; retry++) {
+            String updateReturningSql;
+            boolean useReturnResultSet = false;
+            if (dialect instanceof DialectPostgreSQL) {
+                updateReturningSql = updateReturningPostgreSQLSql;
+            } else if (dialect instanceof DialectOracle) {
+                updateReturningSql = updateReturningOracleSql;
+                useReturnResultSet = true;
+            } else if (dialect instanceof DialectSQLServer) {
+                updateReturningSql = updateReturningSQLServerSql;
+            } else {
+                updateReturningSql = null;
+            }
+            if (updateReturningSql != null) {
+                List<Column> psColumns = Arrays.asList(longCol, keyCol);
+                List<Serializable> psValues = Arrays.asList(Long.valueOf(delta), key);
+                try (PreparedStatement ps = connection.prepareStatement(updateReturningSql)) {
+                    setToPreparedStatement(updateReturningSql, ps, psColumns, psValues);
+                    if (useReturnResultSet) {
+                        dialect.registerReturnParameter(ps, 3, longCol.getJdbcType());
+                    }
+                    boolean hasResultSet;
+                    if (useReturnResultSet) {
+                        int count = ps.executeUpdate();
+                        hasResultSet = count > 0;
+                    } else {
+                        hasResultSet = true;
+                    }
+                    if (hasResultSet) {
+                        ResultSet rs;
                         if (useReturnResultSet) {
-                            int count = ps.executeUpdate();
-                            hasResultSet = count > 0;
+                            rs = dialect.getReturnResultSet(ps);
                         } else {
-                            hasResultSet = true;
+                            rs = ps.executeQuery();
                         }
-                        if (hasResultSet) {
-                            ResultSet rs;
-                            if (useReturnResultSet) {
-                                rs = dialect.getReturnResultSet(ps);
-                            } else {
-                                rs = ps.executeQuery();
-                            }
-                            try {
-                                if (rs.next()) {
-                                    Long longValue = (Long) longCol.getFromResultSet(rs, 1);
-                                    // We may get NULL here, because if the value is an empty string
-                                    // a normal database would not match any row, but Oracle treats
-                                    // "" as NULL and we end up trying to increment the long field
-                                    // which is also NULL.
-                                    if (longValue == null) {
-                                        throw new NumberFormatException("Value is not a Long for key: " + key);
-                                    }
-                                    return longValue;
+                        try {
+                            if (rs.next()) {
+                                Long longValue = (Long) longCol.getFromResultSet(rs, 1);
+                                // We may get NULL here, because if the value is an empty string
+                                // a normal database would not match any row, but Oracle treats
+                                // "" as NULL and we end up trying to increment the long field
+                                // which is also NULL.
+                                if (longValue == null) {
+                                    throw new NumberFormatException("Value is not a Long for key: " + key);
                                 }
-                            } finally {
-                                rs.close();
+                                return longValue;
                             }
+                        } finally {
+                            rs.close();
                         }
                     }
                 }
-                // the dialect doesn't support UPDATE RETURNING, or
-                // there was no row for this key, or
-                // the row didn't contain a long
-                // -> retry using a full transaction doing check + insert
-                // start transaction
-                connection.setAutoCommit(false);
-                try {
-                    // check value
-                    Long currentLong;
-                    try (PreparedStatement ps = connection.prepareStatement(getLongSQL)) {
-                        setToPreparedStatement(getLongSQL, ps, keyCol, key);
-                        try (ResultSet rs = ps.executeQuery()) {
-                            if (rs.next()) {
-                                currentLong = (Long) longCol.getFromResultSet(rs, 1);
-                                if (logger.isLogEnabled()) {
-                                    logger.logResultSet(rs, Arrays.asList(longCol));
-                                }
-                                if (currentLong == null) {
-                                    throw new NumberFormatException("Value is not a Long for key: " + key);
-                                }
-                            } else {
-                                currentLong = null;
+            }
+            // the dialect doesn't support UPDATE RETURNING, or
+            // there was no row for this key, or
+            // the row didn't contain a long
+            // -> retry using a full transaction doing check + insert
+            // start transaction
+            connection.setAutoCommit(false);
+            try {
+                // check value
+                Long currentLong;
+                try (PreparedStatement ps = connection.prepareStatement(getLongSQL)) {
+                    setToPreparedStatement(getLongSQL, ps, keyCol, key);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            currentLong = (Long) longCol.getFromResultSet(rs, 1);
+                            if (logger.isLogEnabled()) {
+                                logger.logResultSet(rs, Arrays.asList(longCol));
                             }
+                            if (currentLong == null) {
+                                throw new NumberFormatException("Value is not a Long for key: " + key);
+                            }
+                        } else {
+                            currentLong = null;
                         }
                     }
-                    if (currentLong == null) {
-                        // try insert
-                        try (PreparedStatement ps = connection.prepareStatement(insertLongSQL)) {
-                            setToPreparedStatement(insertLongSQL, ps, keyCol, key, longCol, Long.valueOf(delta));
-                            try {
-                                ps.executeUpdate();
-                                return delta;
-                            } catch (SQLException e) {
-                                if (!dialect.isConcurrentUpdateException(e)) {
-                                    throw e;
-                                }
-                                // if concurrent update, retry
+                }
+                if (currentLong == null) {
+                    // try insert
+                    try (PreparedStatement ps = connection.prepareStatement(insertLongSQL)) {
+                        setToPreparedStatement(insertLongSQL, ps, keyCol, key, longCol, Long.valueOf(delta));
+                        try {
+                            ps.executeUpdate();
+                            return Long.valueOf(delta);
+                        } catch (SQLException e) {
+                            if (!dialect.isConcurrentUpdateException(e)) {
+                                throw e;
                             }
+                            // if concurrent update, retry
                         }
-                    } else {
-                        // update existing value
-                        Long newLong = Long.valueOf(currentLong.longValue() + delta);
-                        try (PreparedStatement ps = connection.prepareStatement(updateLongSQL)) {
-                            setToPreparedStatement(updateLongSQL, ps, longCol, newLong, keyCol, key, longCol,
-                                    currentLong);
-                            int count = ps.executeUpdate();
-                            if (count == 1) {
-                                return newLong;
-                            }
-                            // else the value changed...
-                            // concurrent update, retry
+                    }
+                } else {
+                    // update existing value
+                    Long newLong = Long.valueOf(currentLong.longValue() + delta);
+                    try (PreparedStatement ps = connection.prepareStatement(updateLongSQL)) {
+                        setToPreparedStatement(updateLongSQL, ps, longCol, newLong, keyCol, key, longCol,
+                                currentLong);
+                        int count = ps.executeUpdate();
+                        if (count == 1) {
+                            return newLong;
                         }
+                        // else the value changed...
+                        // concurrent update, retry
                     }
-                } finally {
-                    connection.commit();
-                    connection.setAutoCommit(true);
                 }
-                // concurrent update on insert or update, retry a few times
-                sleepBeforeRetry();
+            } finally {
+                connection.commit();
+                connection.setAutoCommit(true);
             }
-            throw new ConcurrentUpdateException("Failed to do atomic addAndGet for key: " + key);
-        }).longValue();
+            // concurrent update on insert or update, retry a few times
+            sleepBeforeRetry();
+        }
+        throw new ConcurrentUpdateException("Failed to do atomic addAndGet for key: " + key);
     }
 
     protected void sleepBeforeRetry() {
@@ -374,6 +374,15 @@ public class ConnectionImpl implements Session {
         return result;
     }
 
+    @Override
+    public IterableQueryResult queryAndFetchForwardOnly(String query, String queryType, QueryFilter queryFilter,
+            boolean distinctDocuments, Object... params) {
+        IterableQueryResult result = getSession().queryAndFetchForwardOnly(query, queryType, queryFilter,
+                distinctDocuments, params);
+        noteQueryResult(result);
+        return result;
+    }
+
     @Override
     public PartialList<Map<String,Serializable>> queryProjection(String query, String queryType, QueryFilter queryFilter,
             boolean distinctDocuments, long countUpTo, Object... params) {
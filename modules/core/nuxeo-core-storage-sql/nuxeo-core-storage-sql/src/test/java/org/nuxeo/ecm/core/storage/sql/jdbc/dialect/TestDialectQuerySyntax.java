@@ -19,13 +19,19 @@
 package org.nuxeo.ecm.core.storage.sql.jdbc.dialect;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.GregorianCalendar;
 
 import org.hamcrest.core.StringContains;
 import org.jmock.Expectations;
@@ -38,7 +44,12 @@ import org.junit.runner.RunWith;
 import org.nuxeo.ecm.core.storage.FulltextQueryAnalyzer;
 import org.nuxeo.ecm.core.storage.FulltextQueryAnalyzer.FulltextQuery;
 import org.nuxeo.ecm.core.storage.FulltextQueryAnalyzer.Op;
+import org.nuxeo.ecm.core.storage.sql.ColumnType;
+import org.nuxeo.ecm.core.storage.sql.Model;
 import org.nuxeo.ecm.core.storage.sql.RepositoryDescriptor;
+import org.nuxeo.ecm.core.storage.sql.jdbc.db.Column;
+import org.nuxeo.ecm.core.storage.sql.jdbc.db.Table;
+import org.nuxeo.ecm.core.storage.sql.jdbc.db.TableImpl;
 
 @RunWith(JMock.class)
 public class TestDialectQuerySyntax {
@@ -81,6 +92,46 @@ public class TestDialectQuerySyntax {
         return m;
     }
 
+    protected DatabaseMetaData getMockDatabaseMetaDataWithTsvectorFulltext() throws SQLException {
+        final DatabaseMetaData m = jmcontext.mock(DatabaseMetaData.class, "tsvectorFulltextMetadata");
+        jmcontext.checking(new Expectations() {
+            {
+                allowing(m).storesUpperCaseIdentifiers();
+                will(returnValue(false));
+
+                allowing(m).getDatabaseMajorVersion();
+                will(returnValue(9));
+
+                allowing(m).getDatabaseMinorVersion();
+                will(returnValue(0));
+
+                allowing(m).getColumns(with(aNull(String.class)), with(aNull(String.class)),
+                        with(equal(Model.FULLTEXT_TABLE_NAME)), with(any(String.class)));
+                will(returnValue(getMockTsvectorFulltextColumnResultSet()));
+            }
+        });
+        return m;
+    }
+
+    protected ResultSet getMockTsvectorFulltextColumnResultSet() throws SQLException {
+        final ResultSet m = jmcontext.mock(ResultSet.class, "tsvectorFulltextColumn");
+        jmcontext.checking(new Expectations() {
+            {
+                oneOf(m).next();
+                will(returnValue(true));
+
+                allowing(m).getString("COLUMN_NAME");
+                will(returnValue(Model.FULLTEXT_FULLTEXT_KEY));
+
+                allowing(m).getString("TYPE_NAME");
+                will(returnValue("tsvector"));
+
+                allowing(m).close();
+            }
+        });
+        return m;
+    }
+
     protected ResultSet getMockEmptyResultSet() throws SQLException {
         final ResultSet m = jmcontext.mock(ResultSet.class, "empty");
         jmcontext.checking(new Expectations() {
@@ -240,6 +291,91 @@ public class TestDialectQuerySyntax {
         assertPGLikeSql("?? ILIKE '% foo %'", "foo OR -\"bar baz\"");
     }
 
+    @Test
+    public void testPostgreSQLCopyEscaping() throws Exception {
+        StringBuilder buf = new StringBuilder();
+        DialectPostgreSQL.appendCopyEscaped(buf, "a\tb\nc\rd\\e");
+        assertEquals("a\\tb\\nc\\rd\\\\e", buf.toString());
+    }
+
+    protected String getCopyValue(ColumnType type, Serializable value) {
+        Table table = new TableImpl(dialect, "tab", "tab");
+        StringBuilder buf = new StringBuilder();
+        ((DialectPostgreSQL) dialect).appendCopyValue(buf, value, new Column(table, "col", type, "col"));
+        return buf.toString();
+    }
+
+    @Test
+    public void testPostgreSQLCopyValues() throws Exception {
+        dialect = new DialectPostgreSQL(metadata, repositoryDescriptor);
+        Calendar cal = new GregorianCalendar(2020, Calendar.JANUARY, 2, 3, 4, 5);
+        assertEquals("\\N", getCopyValue(ColumnType.STRING, null));
+        assertEquals("a\\tb", getCopyValue(ColumnType.STRING, "a\tb"));
+        assertEquals("t", getCopyValue(ColumnType.BOOLEAN, Boolean.TRUE));
+        assertEquals("f", getCopyValue(ColumnType.BOOLEAN, Boolean.FALSE));
+        assertEquals("12", getCopyValue(ColumnType.LONG, Long.valueOf(12)));
+        assertEquals("1.5", getCopyValue(ColumnType.DOUBLE, Double.valueOf(1.5)));
+        assertEquals("2020-01-02 03:04:05.0", getCopyValue(ColumnType.TIMESTAMP, cal));
+        // sysname array stored in a varchar column
+        assertEquals("|a|b|", getCopyValue(ColumnType.SYSNAME, new String[] { "a", "b" }));
+    }
+
+    @Test
+    public void testPostgreSQLCopyArrayValues() throws Exception {
+        dialect = new DialectPostgreSQL(metadata, repositoryDescriptor);
+        Calendar cal = new GregorianCalendar(2020, Calendar.JANUARY, 2, 3, 4, 5);
+        assertEquals("\\N", getCopyValue(ColumnType.ARRAY_STRING, null));
+        assertEquals("{}", getCopyValue(ColumnType.ARRAY_STRING, new String[0]));
+        // elements are quoted for the array literal, which is then escaped for COPY
+        assertEquals("{\"a\",NULL,\"b\\\\\"c\",\"d\\\\\\\\e\",\"f\\tg\"}",
+                getCopyValue(ColumnType.ARRAY_STRING, new String[] { "a", null, "b\"c", "d\\e", "f\tg" }));
+        assertEquals("{\"1\",\"2\"}", getCopyValue(ColumnType.ARRAY_LONG, new Long[] { 1L, 2L }));
+        assertEquals("{\"2020-01-02 03:04:05.0\"}",
+                getCopyValue(ColumnType.ARRAY_TIMESTAMP, new Calendar[] { cal }));
+    }
+
+    @Test
+    public void testPostgreSQLSupportsCopyInsert() throws Exception {
+        dialect = new DialectPostgreSQL(metadata, repositoryDescriptor);
+        Table table = new TableImpl(dialect, "tab", "tab");
+        Column id = new Column(table, "id", ColumnType.NODEID, "id");
+        Column ftstored = new Column(table, "fulltext", ColumnType.FTSTORED, "fulltext");
+        assertTrue(dialect.supportsCopyInsert(Collections.singletonList(id)));
+        // text column
+        assertTrue(dialect.supportsCopyInsert(Collections.singletonList(ftstored)));
+        Column blob = new Column(table, "data", ColumnType.BLOB, "data");
+        assertFalse(dialect.supportsCopyInsert(Collections.singletonList(blob)));
+    }
+
+    @Test
+    public void testPostgreSQLSupportsCopyInsertCompatibilityFulltextTable() throws Exception {
+        dialect = new DialectPostgreSQL(getMockDatabaseMetaDataWithTsvectorFulltext(), repositoryDescriptor);
+        Table table = new TableImpl(dialect, "tab", "tab");
+        Column ftstored = new Column(table, "fulltext", ColumnType.FTSTORED, "fulltext");
+        // tsvector column, INSERT writes it with NX_TO_TSVECTOR
+        assertFalse(dialect.supportsCopyInsert(Collections.singletonList(ftstored)));
+        Column ftindexed = new Column(table, "fulltext", ColumnType.FTINDEXED, "fulltext");
+        assertFalse(dialect.supportsCopyInsert(Collections.singletonList(ftindexed)));
+    }
+
+    @Test
+    public void testPostgreSQLCopyInsertUnavailable() throws Exception {
+        dialect = new DialectPostgreSQL(metadata, repositoryDescriptor);
+        // a connection that doesn't give access to the driver's CopyManager
+        final Connection connection = jmcontext.mock(Connection.class, "notPGConnection");
+        jmcontext.checking(new Expectations() {
+            {
+                allowing(connection).isWrapperFor(with(any(Class.class)));
+                will(returnValue(false));
+            }
+        });
+        Table table = new TableImpl(dialect, "tab", "tab");
+        Column column = new Column(table, "col", ColumnType.STRING, "col");
+        long count = dialect.copyInsert(connection, table, Collections.singletonList(column),
+                Collections.singletonList(new Serializable[] { "foo" }));
+        assertEquals(-1, count);
+    }
+
     @Test
     public void testPostgreSQL() throws Exception {
         dialect = new DialectPostgreSQL(metadata, repositoryDescriptor);
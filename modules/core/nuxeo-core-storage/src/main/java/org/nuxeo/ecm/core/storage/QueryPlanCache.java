@@ -0,0 +1,252 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.storage;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.nuxeo.ecm.core.query.sql.SQLQueryParser;
+import org.nuxeo.ecm.core.query.sql.model.FromClause;
+import org.nuxeo.ecm.core.query.sql.model.IdentityQueryTransformer;
+import org.nuxeo.ecm.core.query.sql.model.Operand;
+import org.nuxeo.ecm.core.query.sql.model.Reference;
+import org.nuxeo.ecm.core.query.sql.model.SQLQuery;
+import org.nuxeo.ecm.core.query.sql.model.WhereClause;
+import org.nuxeo.ecm.core.schema.SchemaManager;
+import org.nuxeo.ecm.core.schema.SchemaManagerImpl;
+import org.nuxeo.runtime.api.Framework;
+import org.nuxeo.runtime.metrics.MetricsService;
+import org.nuxeo.runtime.metrics.NuxeoMetricSet;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.dropwizard.metrics5.Metric;
+import io.dropwizard.metrics5.MetricName;
+import io.dropwizard.metrics5.MetricRegistry;
+import io.dropwizard.metrics5.SharedMetricRegistries;
+
+/**
+ * Repository-scoped cache of parsed NXQL queries and of the query plans computed from them.
+ * <p>
+ * Parsed queries are keyed by their query string. As callers are free to modify the {@link SQLQuery} they get, a copy
+ * of the cached query is returned each time.
+ * <p>
+ * Query plans are opaque values computed by the repository, they must not be modified by the caller. As they depend
+ * on the schemas and document types, they are invalidated when the {@link SchemaManager} recomputes them.
+ *
+ * @since 11.3
+ */
+public class QueryPlanCache {
+
+    private static final Log log = LogFactory.getLog(QueryPlanCache.class);
+
+    /** Maximum number of parsed queries and of query plans kept in each repository cache, 0 to disable caching. */
+    public static final String MAX_SIZE_PROP = "nuxeo.repository.query.cache.maxSize";
+
+    public static final long DEFAULT_MAX_SIZE = 1000;
+
+    protected static final String METRIC_PARSE_NAME = "nuxeo.repositories.repository.queryParseCache";
+
+    protected static final String METRIC_PLAN_NAME = "nuxeo.repositories.repository.queryPlanCache";
+
+    protected final MetricRegistry registry = SharedMetricRegistries.getOrCreate(MetricsService.class.getName());
+
+    protected final String repositoryName;
+
+    protected final Cache<String, SQLQuery> parsedQueries;
+
+    protected final Cache<String, Object> plans;
+
+    protected final Runnable recomputeCallback = this::invalidatePlans;
+
+    protected final Map<MetricName, Metric> metrics = new HashMap<>();
+
+    public QueryPlanCache(String repositoryName) {
+        this.repositoryName = repositoryName;
+        long maxSize = getMaxSize();
+        if (maxSize > 0) {
+            parsedQueries = newCache(maxSize);
+            plans = newCache(maxSize);
+            metrics.putAll(newCacheMetrics(parsedQueries, METRIC_PARSE_NAME).getMetrics());
+            metrics.putAll(newCacheMetrics(plans, METRIC_PLAN_NAME).getMetrics());
+            // replace the metrics of a previous cache for the same repository that was not closed
+            metrics.forEach((name, metric) -> {
+                registry.remove(name);
+                registry.register(name, metric);
+            });
+            SchemaManager schemaManager = Framework.getService(SchemaManager.class);
+            if (schemaManager instanceof SchemaManagerImpl) {
+                ((SchemaManagerImpl) schemaManager).registerRecomputeCallback(recomputeCallback);
+            }
+        } else {
+            parsedQueries = null;
+            plans = null;
+        }
+    }
+
+    protected static long getMaxSize() {
+        String value = Framework.getProperty(MAX_SIZE_PROP);
+        if (value == null) {
+            return DEFAULT_MAX_SIZE;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.error("Invalid value for " + MAX_SIZE_PROP + ": " + value);
+            return DEFAULT_MAX_SIZE;
+        }
+    }
+
+    protected <T> Cache<String, T> newCache(long maxSize) {
+        return CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+    }
+
+    protected NuxeoMetricSet newCacheMetrics(Cache<?, ?> cache, String name) {
+        NuxeoMetricSet metrics = new NuxeoMetricSet(MetricName.build(name).tagged("repository", repositoryName));
+        metrics.putGauge(() -> cache.size(), "size");
+        metrics.putGauge(() -> cache.stats().evictionCount(), "eviction", "count");
+        metrics.putGauge(() -> cache.stats().hitCount(), "hit", "count");
+        metrics.putGauge(() -> cache.stats().hitRate(), "hit", "ratio");
+        metrics.putGauge(() -> cache.stats().missCount(), "miss", "count");
+        metrics.putGauge(() -> cache.stats().requestCount(), "read", "count");
+        return metrics;
+    }
+
+    /**
+     * Checks whether caching is enabled.
+     */
+    public boolean isEnabled() {
+        return parsedQueries != null;
+    }
+
+    /**
+     * Parses a NXQL query, reusing a previous parsing of the same query string if available.
+     *
+     * @param query the NXQL query
+     * @return a new {@link SQLQuery} that the caller is free to modify
+     */
+    public SQLQuery parse(String query) {
+        if (parsedQueries == null) {
+            return SQLQueryParser.parse(query);
+        }
+        SQLQuery sqlQuery = parsedQueries.getIfPresent(query);
+        if (sqlQuery == null) {
+            // parse errors are not cached
+            sqlQuery = SQLQueryParser.parse(query);
+            parsedQueries.put(query, copy(sqlQuery));
+            return sqlQuery;
+        }
+        return copy(sqlQuery);
+    }
+
+    /**
+     * Gets a query plan, computing it if it's not already in the cache.
+     *
+     * @param key the key identifying the plan, which must include everything the plan depends on
+     * @param supplier the supplier computing the plan
+     * @return the plan, which must not be modified
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getPlan(String key, Supplier<T> supplier) {
+        if (plans == null) {
+            return supplier.get();
+        }
+        T plan = (T) plans.getIfPresent(key);
+        if (plan == null) {
+            plan = supplier.get();
+            plans.put(key, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Invalidates the cached query plans, for instance after a change in the schemas or document types.
+     */
+    public void invalidatePlans() {
+        if (plans != null) {
+            plans.invalidateAll();
+        }
+    }
+
+    /**
+     * Invalidates everything and unregisters this cache from the schema manager and the metrics.
+     */
+    public void close() {
+        if (parsedQueries == null) {
+            return;
+        }
+        parsedQueries.invalidateAll();
+        plans.invalidateAll();
+        SchemaManager schemaManager = Framework.getService(SchemaManager.class);
+        if (schemaManager instanceof SchemaManagerImpl) {
+            ((SchemaManagerImpl) schemaManager).unregisterRecomputeCallback(recomputeCallback);
+        }
+        // only our own metrics, they may have been replaced by a newer cache for the same repository
+        registry.removeMatching((name, metric) -> metrics.get(name) == metric);
+    }
+
+    /**
+     * Returns a deep copy of a query.
+     */
+    public static SQLQuery copy(SQLQuery query) {
+        SQLQuery copy = new QueryCopier().transform(query);
+        copy.setQueryString(query.getQueryString());
+        return copy;
+    }
+
+    /**
+     * Query transformer doing a full copy of the query, including the parts that {@link IdentityQueryTransformer}
+     * doesn't keep.
+     */
+    protected static class QueryCopier extends IdentityQueryTransformer {
+
+        @Override
+        public FromClause transform(FromClause node) {
+            return new FromClause(node.type, transform(node.elements));
+        }
+
+        @Override
+        public WhereClause transform(WhereClause node) {
+            if (node == null) {
+                return null;
+            }
+            if (node.predicate == null) {
+                return new WhereClause();
+            }
+            return super.transform(node);
+        }
+
+        @Override
+        public Operand transform(Operand node) {
+            if (node == null) {
+                return null;
+            }
+            return super.transform(node);
+        }
+
+        @Override
+        public Reference transform(Reference node) {
+            Reference ref = super.transform(node);
+            ref.originalName = node.originalName;
+            return ref;
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.ecm.core.query.sql.SQLQueryParser;
+import org.nuxeo.ecm.core.query.sql.model.FromClause;
+import org.nuxeo.ecm.core.query.sql.model.Reference;
+import org.nuxeo.ecm.core.query.sql.model.SQLQuery;
+import org.nuxeo.runtime.metrics.MetricsService;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.RuntimeFeature;
+
+import io.dropwizard.metrics5.Gauge;
+import io.dropwizard.metrics5.MetricName;
+import io.dropwizard.metrics5.MetricRegistry;
+import io.dropwizard.metrics5.SharedMetricRegistries;
+
+@RunWith(FeaturesRunner.class)
+@Features(RuntimeFeature.class)
+public class TestQueryPlanCache {
+
+    protected static void assertCopy(String query) {
+        SQLQuery sqlQuery = SQLQueryParser.parse(query);
+        SQLQuery copy = QueryPlanCache.copy(sqlQuery);
+        assertNotSame(sqlQuery, copy);
+        assertEquals(sqlQuery, copy);
+        assertEquals(query, copy.getQueryString());
+    }
+
+    @Test
+    public void testCopy() {
+        assertCopy("SELECT * FROM Document");
+        assertCopy("SELECT * FROM Document WHERE ecm:isProxy = 0 AND dc:title IS NOT NULL");
+        assertCopy("SELECT ecm:uuid, dc:title FROM File, Note WHERE NOT (dc:title LIKE 'foo%')"
+                + " AND dc:created BETWEEN DATE '2020-01-01' AND TIMESTAMP '2020-12-31 00:00:00'"
+                + " ORDER BY dc:title DESC, ecm:name");
+        assertCopy("SELECT * FROM Document WHERE ecm:parentId IN ('a', 'b') AND ecm:fulltext = 'bar'"
+                + " AND ecm:path STARTSWITH '/foo' AND dc:subjects/* = 'x' LIMIT 10 OFFSET 5");
+        assertCopy("SELECT COUNT(ecm:uuid), MAX(DATE(dc:modified)) FROM Document WHERE /*+ES: INDEX(dc:title.fr) */"
+                + " dc:title = 'foo'");
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        SQLQuery sqlQuery = SQLQueryParser.parse("SELECT * FROM Document WHERE dc:title = 'foo'");
+        SQLQuery copy = QueryPlanCache.copy(sqlQuery);
+        copy.select.add(new Reference("ecm:uuid"));
+        ((Reference) copy.where.predicate.lvalue).setInfo("info");
+        assertEquals(0, sqlQuery.select.count());
+        assertNull(((Reference) sqlQuery.where.predicate.lvalue).getInfo());
+    }
+
+    protected static Gauge<?> getSizeGauge(String repositoryName) {
+        MetricRegistry registry = SharedMetricRegistries.getOrCreate(MetricsService.class.getName());
+        MetricName name = MetricName.build(QueryPlanCache.METRIC_PARSE_NAME, "size")
+                                    .tagged("repository", repositoryName);
+        return registry.getGauges().get(name);
+    }
+
+    @Test
+    public void testMetricsWhenRecreatedWithoutClose() {
+        QueryPlanCache cache = new QueryPlanCache("testrepo");
+        // a new cache for the same repository, for instance after a hot reload
+        QueryPlanCache newCache = new QueryPlanCache("testrepo");
+        newCache.parse("SELECT * FROM Document");
+        assertEquals(Long.valueOf(1), getSizeGauge("testrepo").getValue());
+        // closing the old cache keeps the metrics of the new one
+        cache.close();
+        assertNotNull(getSizeGauge("testrepo"));
+        newCache.close();
+        assertNull(getSizeGauge("testrepo"));
+    }
+
+    @Test
+    public void testCopyKeepsFromLocation() {
+        SQLQuery sqlQuery = SQLQueryParser.parse("SELECT * FROM LOCATION foo");
+        assertEquals(FromClause.LOCATION, sqlQuery.from.type);
+        assertEquals(FromClause.LOCATION, QueryPlanCache.copy(sqlQuery).from.type);
+    }
+
+}
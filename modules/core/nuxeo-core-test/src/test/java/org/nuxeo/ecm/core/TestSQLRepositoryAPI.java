@@ -4984,6 +4984,37 @@ public class TestSQLRepositoryAPI {
         assertNotEquals(token2, token2b);
     }
 
+    @Test
+    public void testSaveManyUpdatedDocuments() {
+        int n = 20;
+        List<DocumentModel> docs = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            DocumentModel doc = session.createDocumentModel("/", "doc" + i, "File");
+            doc.setPropertyValue("dc:subjects", new String[] { "a" });
+            docs.add(session.createDocument(doc));
+        }
+        session.save();
+        List<String> tokens = docs.stream().map(DocumentModel::getChangeToken).collect(Collectors.toList());
+
+        // change all the docs in the same save
+        for (int i = 0; i < n; i++) {
+            DocumentModel doc = docs.get(i);
+            doc.setPropertyValue("dc:title", "Doc " + i);
+            doc.setPropertyValue("dc:subjects", new String[] { "a", "b" + i });
+            maybeUpdateChangeToken(doc);
+            docs.set(i, session.saveDocument(doc));
+        }
+        session.save();
+        reopenSession();
+
+        for (int i = 0; i < n; i++) {
+            DocumentModel doc = session.getDocument(docs.get(i).getRef());
+            assertEquals("Doc " + i, doc.getPropertyValue("dc:title"));
+            assertEquals(Arrays.asList("a", "b" + i), Arrays.asList((String[]) doc.getPropertyValue("dc:subjects")));
+            assertNotEquals(tokens.get(i), doc.getChangeToken());
+        }
+    }
+
     // query providers create "search" doc types to collect results
     @Test
     public void testChangeTokenOnFakeDocument() {
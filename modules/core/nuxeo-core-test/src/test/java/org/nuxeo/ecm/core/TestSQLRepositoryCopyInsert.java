@@ -0,0 +1,117 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import javax.inject.Inject;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.nuxeo.ecm.core.api.CoreSession;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.PathRef;
+import org.nuxeo.ecm.core.api.security.ACE;
+import org.nuxeo.ecm.core.api.security.ACL;
+import org.nuxeo.ecm.core.api.security.ACP;
+import org.nuxeo.ecm.core.storage.sql.RepositoryDescriptor;
+import org.nuxeo.ecm.core.storage.sql.coremodel.SQLRepositoryService;
+import org.nuxeo.ecm.core.test.CoreFeature;
+import org.nuxeo.ecm.core.test.annotations.Granularity;
+import org.nuxeo.ecm.core.test.annotations.RepositoryConfig;
+import org.nuxeo.runtime.test.runner.Features;
+import org.nuxeo.runtime.test.runner.FeaturesRunner;
+import org.nuxeo.runtime.test.runner.HotDeployer;
+
+/**
+ * Tests document creation with bulk inserts enabled. Databases or connections that can't use them fall back to
+ * regular inserts.
+ *
+ * @since 11.3
+ */
+@RunWith(FeaturesRunner.class)
+@Features(CoreFeature.class)
+@RepositoryConfig(cleanup = Granularity.METHOD)
+public class TestSQLRepositoryCopyInsert {
+
+    protected static final int NB_DOCS = 10;
+
+    @Inject
+    protected CoreFeature coreFeature;
+
+    @Inject
+    protected CoreSession session;
+
+    @Inject
+    protected SQLRepositoryService sqlRepositoryService;
+
+    @Inject
+    protected HotDeployer deployer;
+
+    @Before
+    public void setUp() throws Exception {
+        // cannot be done through @Deploy, because the framework variables
+        // about repository configuration aren't ready yet
+        assumeTrue(coreFeature.getStorageConfiguration().isVCS());
+        deployer.deploy("org.nuxeo.ecm.core.test.tests:OSGI-INF/test-repo-copy-insert-contrib.xml");
+        RepositoryDescriptor desc = sqlRepositoryService.getRepositoryDescriptor(session.getRepositoryName());
+        assertTrue("Copy insert should be enabled", desc.isCopyInsertEnabled());
+    }
+
+    @Test
+    public void testCreateDocuments() {
+        Calendar created = new GregorianCalendar(2020, Calendar.JANUARY, 2, 3, 4, 5);
+        DocumentModel folder = session.createDocumentModel("/", "folder", "Folder");
+        folder = session.createDocument(folder);
+        ACP acp = folder.getACP();
+        ACL acl = acp.getOrCreateACL();
+        acl.add(new ACE("bob", "Read", true));
+        acl.add(new ACE("members", "Write", true));
+        folder.setACP(acp, true);
+        for (int i = 0; i < NB_DOCS; i++) {
+            DocumentModel doc = session.createDocumentModel("/folder", "doc" + i, "File");
+            // values needing escapes in the bulk-loading text format
+            doc.setPropertyValue("dc:title", "title\t" + i);
+            doc.setPropertyValue("dc:description", "line1\nline2\\end");
+            doc.setPropertyValue("dc:subjects", new String[] { "a", "b\"c", "d,e" });
+            doc.setPropertyValue("dc:created", created);
+            session.createDocument(doc);
+        }
+        session.save();
+        session = coreFeature.reopenCoreSession();
+
+        folder = session.getDocument(new PathRef("/folder"));
+        ACE[] aces = folder.getACP().getACL(ACL.LOCAL_ACL).getACEs();
+        assertEquals(2, aces.length);
+        assertEquals("bob", aces[0].getUsername());
+        assertEquals("members", aces[1].getUsername());
+        for (int i = 0; i < NB_DOCS; i++) {
+            DocumentModel doc = session.getDocument(new PathRef("/folder/doc" + i));
+            assertEquals("title\t" + i, doc.getPropertyValue("dc:title"));
+            assertEquals("line1\nline2\\end", doc.getPropertyValue("dc:description"));
+            assertArrayEquals(new String[] { "a", "b\"c", "d,e" }, (Object[]) doc.getPropertyValue("dc:subjects"));
+            assertEquals(created.getTimeInMillis(), ((Calendar) doc.getPropertyValue("dc:created")).getTimeInMillis());
+        }
+    }
+
+}
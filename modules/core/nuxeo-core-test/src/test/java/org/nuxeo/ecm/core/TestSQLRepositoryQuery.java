@@ -55,6 +55,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.inject.Inject;
 
@@ -2443,6 +2444,32 @@ public class TestSQLRepositoryQuery {
         res.close();
     }
 
+    @Test
+    public void testQueryAndFetchStream() {
+        createDocs();
+
+        String query = "SELECT ecm:uuid, dc:title FROM File ORDER BY dc:title";
+        List<String> titles;
+        try (Stream<Map<String, Serializable>> stream = session.queryAndFetchStream(query, "NXQL", false)) {
+            titles = stream.map(map -> (String) map.get("dc:title")).collect(Collectors.toList());
+        }
+        assertEquals(Arrays.asList("testfile1_Title", "testfile2_Title", "testfile4Title"), titles);
+
+        // ORDER BY ecm:path
+        query = "SELECT ecm:name FROM File ORDER BY ecm:path DESC";
+        List<String> names;
+        try (Stream<Map<String, Serializable>> stream = session.queryAndFetchStream(query, "NXQL", false)) {
+            names = stream.map(map -> (String) map.get("ecm:name")).collect(Collectors.toList());
+        }
+        assertEquals(Arrays.asList("testfile4", "testfile2", "testfile1"), names);
+
+        // no results
+        query = "SELECT ecm:uuid FROM File WHERE dc:title = 'nosuchtitle'";
+        try (Stream<Map<String, Serializable>> stream = session.queryAndFetchStream(query, "NXQL", false)) {
+            assertEquals(0, stream.count());
+        }
+    }
+
     @Test
     public void testQueryProjectionDistinctId() {
         makeComplexDoc();
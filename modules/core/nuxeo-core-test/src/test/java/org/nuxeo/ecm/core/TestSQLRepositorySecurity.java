@@ -699,6 +699,38 @@ public class TestSQLRepositorySecurity {
         assertEquals(doc.getId(), list.get(0).getId());
     }
 
+    @Test
+    public void testReadAclOnTreeWithBlockedInheritance() {
+        DocumentModel folder = session.createDocumentModel("/", "folder", "Folder");
+        folder = session.createDocument(folder);
+        DocumentModel sub = session.createDocumentModel("/folder", "sub", "Folder");
+        sub = session.createDocument(sub);
+        DocumentModel blocked = session.createDocumentModel("/folder", "blocked", "Folder");
+        blocked = session.createDocument(blocked);
+        for (int i = 0; i < 3; i++) {
+            session.createDocument(session.createDocumentModel("/folder/sub", "doc" + i, "File"));
+            session.createDocument(session.createDocumentModel("/folder/blocked", "doc" + i, "File"));
+        }
+        // block inheritance on one branch
+        ACP acp = new ACPImpl();
+        acp.addACE(ACL.LOCAL_ACL, new ACE("bob", READ, true));
+        acp.addACE(ACL.LOCAL_ACL, ACE.BLOCK);
+        blocked.setACP(acp, true);
+        session.save();
+
+        assertEquals(0, numberOfReadableDocuments("joe"));
+        assertEquals(4, numberOfReadableDocuments("bob"));
+
+        // grant on the top folder, the blocked branch must not be affected
+        acp = new ACPImpl();
+        acp.addACE(ACL.LOCAL_ACL, new ACE("joe", READ, true));
+        folder.setACP(acp, true);
+        session.save();
+
+        assertEquals(5, numberOfReadableDocuments("joe"));
+        assertEquals(4, numberOfReadableDocuments("bob"));
+    }
+
     @Test
     public void testReadAclAfterMove() {
         DocumentModel folder1 = session.createDocumentModel("/", "folder1", "Folder");
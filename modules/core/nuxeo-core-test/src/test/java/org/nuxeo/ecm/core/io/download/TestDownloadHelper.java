@@ -21,6 +21,9 @@ package org.nuxeo.ecm.core.io.download;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 import org.nuxeo.ecm.core.blob.ByteRange;
 
@@ -59,6 +62,34 @@ public class TestDownloadHelper {
         assertEquals(128, byteRange.getLength());
     }
 
+    @Test
+    public void testParseByteRangeEndPastLength() throws Exception {
+        ByteRange byteRange = DownloadHelper.parseRange("bytes=12300-99999", 12345);
+        assertEquals(12300, byteRange.getStart());
+        assertEquals(12344, byteRange.getEnd());
+        assertEquals(45, byteRange.getLength());
+    }
+
+    @Test
+    public void testParseMultipleByteRanges() throws Exception {
+        List<ByteRange> byteRanges = DownloadHelper.parseRanges("bytes=0-123, 200-, -45", 12345);
+        assertEquals(3, byteRanges.size());
+        assertEquals(0, byteRanges.get(0).getStart());
+        assertEquals(123, byteRanges.get(0).getEnd());
+        assertEquals(200, byteRanges.get(1).getStart());
+        assertEquals(12344, byteRanges.get(1).getEnd());
+        assertEquals(12300, byteRanges.get(2).getStart());
+        assertEquals(12344, byteRanges.get(2).getEnd());
+    }
+
+    @Test
+    public void testParseUnsupportedMultipleByteRanges() throws Exception {
+        assertNull(DownloadHelper.parseRanges("bytes=0-123,foo", 12345));
+        assertNull(DownloadHelper.parseRanges("bytes=0-123,45-6", 12345)); // Start > end
+        String range = "bytes=0-1" + StringUtils.repeat(",0-1", DownloadHelper.MAX_RANGES);
+        assertNull(DownloadHelper.parseRanges(range, 12345)); // Too many ranges
+    }
+
     @Test
     public void testParseUnsupportedByteRange() throws Exception {
         assertNull(DownloadHelper.parseRange("blablabla", 12345));
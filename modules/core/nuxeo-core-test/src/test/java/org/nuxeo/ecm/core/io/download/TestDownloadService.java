@@ -43,6 +43,7 @@ import static org.nuxeo.ecm.core.io.download.DownloadService.REQUEST_ATTR_DOWNLO
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Serializable;
@@ -76,6 +77,7 @@ import org.nuxeo.ecm.core.api.NuxeoException;
 import org.nuxeo.ecm.core.api.NuxeoPrincipal;
 import org.nuxeo.ecm.core.api.impl.UserPrincipal;
 import org.nuxeo.ecm.core.api.impl.blob.FileBlob;
+import org.nuxeo.ecm.core.blob.ByteRange;
 import org.nuxeo.ecm.core.blob.binary.Binary;
 import org.nuxeo.ecm.core.blob.binary.BinaryBlob;
 import org.nuxeo.ecm.core.blob.binary.DefaultBinaryManager;
@@ -88,11 +90,17 @@ import org.nuxeo.ecm.core.transientstore.api.TransientStore;
 import org.nuxeo.ecm.core.transientstore.api.TransientStoreService;
 import org.nuxeo.runtime.api.Framework;
 import org.nuxeo.runtime.api.login.LoginComponent;
+import org.nuxeo.runtime.metrics.MetricsService;
 import org.nuxeo.runtime.test.runner.ConditionalIgnoreRule;
 import org.nuxeo.runtime.test.runner.Deploy;
 import org.nuxeo.runtime.test.runner.Features;
 import org.nuxeo.runtime.test.runner.FeaturesRunner;
 
+import io.dropwizard.metrics5.Counter;
+import io.dropwizard.metrics5.MetricName;
+import io.dropwizard.metrics5.MetricRegistry;
+import io.dropwizard.metrics5.SharedMetricRegistries;
+
 @RunWith(FeaturesRunner.class)
 @Features(CoreFeature.class)
 @Deploy("org.nuxeo.ecm.core.cache")
@@ -863,6 +871,136 @@ public class TestDownloadService {
         }
     }
 
+    @Test
+    public void testDownloadByteRangeFromFile() throws IOException {
+        Blob blob = new FileBlob(new ByteArrayInputStream("Hello World".getBytes("UTF-8")));
+        assertEquals("World", doTestDownloadByteRanges(blob, "6-10"));
+    }
+
+    @Test
+    public void testDownloadMultipleByteRanges() throws IOException {
+        // from a stream
+        doTestDownloadMultipleByteRanges(Blobs.createBlob("Hello World"));
+        // from a file
+        doTestDownloadMultipleByteRanges(new FileBlob(new ByteArrayInputStream("Hello World".getBytes("UTF-8"))));
+    }
+
+    protected void doTestDownloadMultipleByteRanges(Blob blob) throws IOException {
+        blob.setMimeType("text/plain");
+        blob.setEncoding(null);
+        String result = doTestDownloadByteRanges(blob, "6-10,0-4");
+        String boundary = result.substring(4, result.indexOf("\r\n", 4));
+        String expected = "\r\n--" + boundary + "\r\n" //
+                + "Content-Type: text/plain\r\n" //
+                + "Content-Range: bytes 6-10/11\r\n" //
+                + "\r\n" //
+                + "World" //
+                + "\r\n--" + boundary + "\r\n" //
+                + "Content-Type: text/plain\r\n" //
+                + "Content-Range: bytes 0-4/11\r\n" //
+                + "\r\n" //
+                + "Hello" //
+                + "\r\n--" + boundary + "--\r\n";
+        assertEquals(expected, result);
+    }
+
+    protected String doTestDownloadByteRanges(Blob blob, String range) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HttpServletRequest req = mock(HttpServletRequest.class);
+        when(req.getMethod()).thenReturn("GET");
+        when(req.getHeader("Range")).thenReturn("bytes=" + range);
+
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        ServletOutputStream sos = new DummyServletOutputStream() {
+            @Override
+            public void write(int b) {
+                out.write(b);
+            }
+        };
+        when(resp.getOutputStream()).thenReturn(sos);
+
+        DownloadContext context = DownloadContext.builder(req, resp).blob(blob).build();
+        downloadService.downloadBlob(context);
+
+        verify(resp).setStatus(eq(HttpServletResponse.SC_PARTIAL_CONTENT));
+        String result = out.toString("UTF-8");
+        if (range.indexOf(',') < 0) {
+            verify(resp).setHeader(eq("Content-Range"), eq("bytes " + range + "/" + blob.getLength()));
+        } else {
+            verify(resp).setContentType(eq("multipart/byteranges; boundary=" + result.substring(4,
+                    result.indexOf("\r\n", 4))));
+        }
+        verify(resp).setContentLengthLong(eq((long) out.size()));
+        return result;
+    }
+
+    @Test
+    public void testTransferModes() throws IOException {
+        MetricRegistry registry = SharedMetricRegistries.getOrCreate(MetricsService.class.getName());
+        Counter channelCounter = registry.counter(
+                MetricName.build("nuxeo", "download", "transfer").tagged("mode", DownloadServiceImpl.TRANSFER_CHANNEL));
+        Counter streamCounter = registry.counter(
+                MetricName.build("nuxeo", "download", "transfer").tagged("mode", DownloadServiceImpl.TRANSFER_STREAM));
+        long channelCount = channelCounter.getCount();
+        long streamCount = streamCounter.getCount();
+        Blob blob = new FileBlob(new ByteArrayInputStream("Hello World".getBytes("UTF-8")));
+
+        // to a file, the data is transferred between channels
+        Path path = Files.createTempFile("download-", ".txt");
+        try {
+            try (FileOutputStream out = new FileOutputStream(path.toFile())) {
+                downloadService.transferBlobWithByteRange(blob, ByteRange.inclusive(6, 10), () -> out);
+            }
+            assertEquals("World", new String(Files.readAllBytes(path), "UTF-8"));
+            assertEquals(channelCount + 1, channelCounter.getCount());
+            assertEquals(streamCount, streamCounter.getCount());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+
+        // to any other stream, the data is copied
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        downloadService.transferBlobWithByteRange(blob, ByteRange.inclusive(6, 10), () -> out);
+        assertEquals("World", out.toString("UTF-8"));
+        assertEquals(channelCount + 1, channelCounter.getCount());
+        assertEquals(streamCount + 1, streamCounter.getCount());
+    }
+
+    @Test
+    @Deploy("org.nuxeo.ecm.core.api.tests:OSGI-INF/test-default-blob-provider.xml")
+    public void testDownloadWithSendfile() throws IOException {
+        DefaultBinaryManager binaryManager = new DefaultBinaryManager();
+        binaryManager.initialize("repo", Collections.emptyMap());
+        Blob source = new FileBlob(new ByteArrayInputStream(CONTENT.getBytes("UTF-8")));
+        Binary binary = binaryManager.getBinary(source);
+        String digest = binary.getDigest();
+        long length = binary.getFile().length();
+        Blob blob = new BinaryBlob(binary, digest, "cafe.txt", "text/plain", "utf-8", digest, length);
+
+        // mock request response, the servlet container supports sendfile
+        HttpServletRequest req = mock(HttpServletRequest.class);
+        when(req.getMethod()).thenReturn("GET");
+        when(req.getHeader("Range")).thenReturn("bytes=5-");
+        when(req.getAttribute("org.apache.tomcat.sendfile.support")).thenReturn(TRUE);
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        ServletOutputStream sos = new DummyServletOutputStream() {
+            @Override
+            public void write(int b) {
+                throw new NuxeoException("Not supposed to write to response");
+            }
+        };
+        when(resp.getOutputStream()).thenReturn(sos);
+
+        DownloadContext context = DownloadContext.builder(req, resp).blob(blob).build();
+        downloadService.downloadBlob(context);
+
+        // the file is sent by the servlet container
+        verify(resp).setContentLengthLong(eq(length - 5));
+        verify(req).setAttribute(eq("org.apache.tomcat.sendfile.filename"), eq(binary.getFile().getAbsolutePath()));
+        verify(req).setAttribute(eq("org.apache.tomcat.sendfile.start"), eq(Long.valueOf(5)));
+        verify(req).setAttribute(eq("org.apache.tomcat.sendfile.end"), eq(Long.valueOf(length)));
+    }
+
     @Test
     @Deploy("org.nuxeo.ecm.core.api.tests:OSGI-INF/test-default-blob-provider.xml")
     public void testDownloadWithNginxAccel() throws IOException {
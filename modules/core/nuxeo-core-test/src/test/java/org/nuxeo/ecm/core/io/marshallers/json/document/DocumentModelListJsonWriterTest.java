@@ -30,12 +30,17 @@ import org.nuxeo.ecm.core.api.CoreSession;
 import org.nuxeo.ecm.core.api.DocumentModel;
 import org.nuxeo.ecm.core.io.marshallers.json.AbstractJsonWriterTest;
 import org.nuxeo.ecm.core.io.marshallers.json.JsonAssert;
+import org.nuxeo.ecm.core.io.marshallers.json.enrichers.DummyBatchEnricher;
+import org.nuxeo.ecm.core.io.marshallers.json.enrichers.HasFolderishChildJsonEnricher;
+import org.nuxeo.ecm.core.io.registry.context.RenderingContext;
+import org.nuxeo.ecm.core.io.registry.context.RenderingContext.CtxBuilder;
 import org.nuxeo.ecm.core.test.CoreFeature;
 import org.nuxeo.runtime.test.runner.Deploy;
 import org.nuxeo.runtime.test.runner.Features;
 
 @Features(CoreFeature.class)
 @Deploy("org.nuxeo.ecm.core.io:OSGI-INF/doc-type-contrib.xml")
+@Deploy("org.nuxeo.ecm.core.test.tests:enrichers-contrib.xml")
 public class DocumentModelListJsonWriterTest extends
         AbstractJsonWriterTest.Local<DocumentModelListJsonWriter, List<DocumentModel>> {
 
@@ -68,4 +73,26 @@ public class DocumentModelListJsonWriterTest extends
         json.childrenContains("title", "myDoc1", "myDoc2", "myDoc3");
     }
 
+    @Test
+    public void testBatchEnricher() throws Exception {
+        DocumentModel folder1 = session.createDocument(session.createDocumentModel("/", "folder1", "MyFolder"));
+        session.createDocument(session.createDocumentModel("/folder1", "subFolder", "MyFolder"));
+        DocumentModel folder2 = session.createDocument(session.createDocumentModel("/", "folder2", "MyFolder"));
+        session.createDocument(session.createDocumentModel("/folder2", "doc", "CSDoc"));
+        DocumentModel doc = session.createDocument(session.createDocumentModel("/", "doc", "CSDoc"));
+        session.save();
+
+        List<DocumentModel> elements = Arrays.asList(folder1, folder2, doc);
+        RenderingContext ctx = CtxBuilder.enrichDoc(HasFolderishChildJsonEnricher.NAME, DummyBatchEnricher.NAME).get();
+        JsonAssert json = jsonAssert(elements, ctx);
+        json = json.has("entries").length(elements.size());
+        json.has(0).has("contextParameters").has(HasFolderishChildJsonEnricher.NAME).isTrue();
+        json.has(1).has("contextParameters").has(HasFolderishChildJsonEnricher.NAME).isFalse();
+        json.has(2).has("contextParameters").has(HasFolderishChildJsonEnricher.NAME).isFalse();
+        // the prefetched data is what the list writer hands to each entry
+        for (int i = 0; i < elements.size(); i++) {
+            json.has(i).has("contextParameters").has(DummyBatchEnricher.NAME).isTrue();
+        }
+    }
+
 }
@@ -0,0 +1,59 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.nuxeo.ecm.core.io.marshallers.json.enrichers;
+
+import static org.nuxeo.ecm.core.io.registry.reflect.Instantiations.SINGLETON;
+import static org.nuxeo.ecm.core.io.registry.reflect.Priorities.REFERENCE;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.io.registry.reflect.Setup;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Batch enricher writing whether the enriched document was part of the prefetched data.
+ *
+ * @since 11.3
+ */
+@Setup(mode = SINGLETON, priority = REFERENCE)
+public class DummyBatchEnricher extends AbstractJsonEnricher<DocumentModel>
+        implements BatchJsonEnricher<DocumentModel> {
+
+    public static final String NAME = "dummyBatchEnricher";
+
+    public DummyBatchEnricher() {
+        super(NAME);
+    }
+
+    @Override
+    public Object prefetch(List<DocumentModel> entities) {
+        Map<String, Boolean> prefetched = new HashMap<>();
+        entities.forEach(doc -> prefetched.put(doc.getId(), Boolean.TRUE));
+        return prefetched;
+    }
+
+    @Override
+    public void write(JsonGenerator jg, DocumentModel enriched) throws IOException {
+        Map<String, Boolean> prefetched = getPrefetched();
+        jg.writeBooleanField(NAME, prefetched != null && prefetched.containsKey(enriched.getId()));
+    }
+}
@@ -61,6 +61,7 @@ import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
@@ -1318,6 +1319,30 @@ public abstract class AbstractSession implements CoreSession, Serializable {
         }
     }
 
+    @Override
+    public Stream<Map<String, Serializable>> queryAndFetchStream(String query, String queryType,
+            boolean distinctDocuments, Object... params) {
+        Span span = Tracing.getTracer().getCurrentSpan();
+        Map<String, AttributeValue> map = new HashMap<>();
+        map.put("nxql", AttributeValue.stringAttributeValue(query));
+        map.put("distinct", AttributeValue.booleanAttributeValue(distinctDocuments));
+        span.addAnnotation("AbstractSession#queryAndFetchStream", map);
+        try {
+            SecurityService securityService = getSecurityService();
+            NuxeoPrincipal principal = getPrincipal();
+            String[] principals = getPrincipalsToCheck();
+            String[] permissions = securityService.getPermissionsToCheck(BROWSE);
+            Collection<Transformer> transformers = getPoliciesQueryTransformers(queryType);
+
+            QueryFilter queryFilter = new QueryFilter(principal, principals, permissions, null, transformers, 0, 0);
+            // no size annotation, it would require reading the whole result
+            return getSession().queryAndFetchStream(query, queryType, queryFilter, distinctDocuments, params);
+        } catch (QueryParseException e) {
+            e.addInfo("Failed to execute query: " + queryType + ": " + query);
+            throw e;
+        }
+    }
+
     @Override
     public PartialList<Map<String, Serializable>> queryProjection(String query, long limit, long offset) {
         return queryProjection(query, limit, offset, false);
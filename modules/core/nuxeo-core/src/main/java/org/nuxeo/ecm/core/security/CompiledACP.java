@@ -0,0 +1,179 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import org.nuxeo.ecm.core.api.security.ACE;
+import org.nuxeo.ecm.core.api.security.ACL;
+import org.nuxeo.ecm.core.api.security.ACP;
+import org.nuxeo.ecm.core.api.security.Access;
+
+/**
+ * An immutable compiled form of an {@link ACP}, where the ACEs are flattened in evaluation order and their principal
+ * and permission are interned as ints.
+ * <p>
+ * Only ACPs without time-bounded ACEs can be compiled, as the status of these ACEs changes over time.
+ *
+ * @since 11.3
+ */
+public class CompiledACP {
+
+    protected final long id;
+
+    protected final int[] users;
+
+    protected final int[] permissions;
+
+    protected final boolean[] granted;
+
+    protected CompiledACP(long id, int[] users, int[] permissions, boolean[] granted) {
+        this.id = id;
+        this.users = users;
+        this.permissions = permissions;
+        this.granted = granted;
+    }
+
+    /**
+     * Compiles an ACP, using the given function to intern principals and permissions.
+     *
+     * @return the compiled ACP, or {@code null} if the ACP cannot be compiled
+     */
+    public static CompiledACP compile(long id, ACP acp, ToIntFunction<String> interner) {
+        List<ACE> aces = new ArrayList<>();
+        for (ACL acl : acp.getACLs()) {
+            for (ACE ace : acl) {
+                if (!isCompilable(ace)) {
+                    return null;
+                }
+                aces.add(ace);
+            }
+        }
+        int size = aces.size();
+        int[] users = new int[size];
+        int[] permissions = new int[size];
+        boolean[] granted = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            ACE ace = aces.get(i);
+            users[i] = interner.applyAsInt(ace.getUsername());
+            permissions[i] = interner.applyAsInt(ace.getPermission());
+            granted[i] = ace.isGranted();
+        }
+        return new CompiledACP(id, users, permissions, granted);
+    }
+
+    /**
+     * Computes a key identifying the content of an ACP as far as permission checks are concerned: the ordered list of
+     * its ACEs principals, permissions and granted flags.
+     *
+     * @return the key, or {@code null} if the ACP cannot be compiled
+     */
+    public static Fingerprint fingerprint(ACP acp) {
+        ACL[] acls = acp.getACLs();
+        int size = 0;
+        for (ACL acl : acls) {
+            size += acl.size();
+        }
+        String[] names = new String[2 * size];
+        boolean[] granted = new boolean[size];
+        int i = 0;
+        for (ACL acl : acls) {
+            for (ACE ace : acl) {
+                if (!isCompilable(ace)) {
+                    return null;
+                }
+                names[2 * i] = ace.getUsername();
+                names[2 * i + 1] = ace.getPermission();
+                granted[i] = ace.isGranted();
+                i++;
+            }
+        }
+        return new Fingerprint(names, granted);
+    }
+
+    protected static boolean isCompilable(ACE ace) {
+        return ace.getBegin() == null && ace.getEnd() == null && ace.getUsername() != null
+                && ace.getPermission() != null;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Evaluates this ACP: the first ACE whose principal and permission are in the given sets decides.
+     * <p>
+     * Like {@link ACP#getAccess(String[], String[])}, it expects the principals to include
+     * {@link org.nuxeo.ecm.core.api.security.SecurityConstants#EVERYONE EVERYONE} and the permissions to include
+     * {@link org.nuxeo.ecm.core.api.security.SecurityConstants#EVERYTHING EVERYTHING}, as returned by
+     * {@link SecurityService#getPrincipalsToCheck} and {@link SecurityService#getPermissionsToCheck}.
+     *
+     * @param principalIds the interned principals to check
+     * @param permissionIds the interned permissions to check
+     */
+    public Access getAccess(BitSet principalIds, BitSet permissionIds) {
+        for (int i = 0; i < users.length; i++) {
+            if (principalIds.get(users[i]) && permissionIds.get(permissions[i])) {
+                return granted[i] ? Access.GRANT : Access.DENY;
+            }
+        }
+        return Access.UNKNOWN;
+    }
+
+    /**
+     * Key identifying the content of an ACP, see {@link CompiledACP#fingerprint}.
+     * <p>
+     * It references the ACE strings instead of concatenating them, so that it is cheap to compute for each check.
+     */
+    public static class Fingerprint {
+
+        /** The principal and permission of each ACE. */
+        protected final String[] names;
+
+        protected final boolean[] granted;
+
+        protected final int hashCode;
+
+        protected Fingerprint(String[] names, boolean[] granted) {
+            this.names = names;
+            this.granted = granted;
+            hashCode = 31 * Arrays.hashCode(names) + Arrays.hashCode(granted);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) obj;
+            return hashCode == other.hashCode && Arrays.equals(names, other.names)
+                    && Arrays.equals(granted, other.granted);
+        }
+    }
+
+}
@@ -0,0 +1,207 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.security;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.nuxeo.ecm.core.api.security.ACP;
+import org.nuxeo.ecm.core.api.security.Access;
+import org.nuxeo.ecm.core.security.CompiledACP.Fingerprint;
+import org.nuxeo.runtime.metrics.MetricsService;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.dropwizard.metrics5.Counter;
+import io.dropwizard.metrics5.MetricName;
+import io.dropwizard.metrics5.MetricRegistry;
+import io.dropwizard.metrics5.SharedMetricRegistries;
+import io.dropwizard.metrics5.Timer;
+
+/**
+ * Bounded cache of the permission decisions made on merged ACPs.
+ * <p>
+ * ACPs are identified by their content (see {@link CompiledACP#fingerprint}), so a changed ACP never hits a stale
+ * entry, and are compiled once. Decisions are cached by compiled ACP, set of interned principals and permission. Only
+ * the principals and permissions found in compiled ACEs are interned, the other ones cannot match any ACE.
+ * <p>
+ * Interned names are not evicted with the compiled ACPs that use them, so when there are too many of them, or when the
+ * cache is {@link #clear cleared}, the interned names, compiled ACPs and decisions are all dropped together.
+ * <p>
+ * The decisions depend on the permission groups, so the cache must be {@link #clear cleared} when they change.
+ *
+ * @since 11.3
+ */
+public class PermissionDecisionCache {
+
+    /** Maximum number of interned names, per compiled ACP that can be cached. */
+    protected static final int MAX_INTERNED_PER_ENTRY = 10;
+
+    protected final MetricRegistry registry = SharedMetricRegistries.getOrCreate(MetricsService.class.getName());
+
+    protected final int maxSize;
+
+    protected final int maxInterned;
+
+    protected final AtomicReference<Generation> generation;
+
+    protected final AtomicLong nextACPId = new AtomicLong();
+
+    protected final Counter hitCount;
+
+    protected final Counter missCount;
+
+    protected final Timer evaluationTimer;
+
+    public PermissionDecisionCache(int maxSize) {
+        this.maxSize = maxSize;
+        maxInterned = maxSize * MAX_INTERNED_PER_ENTRY;
+        generation = new AtomicReference<>(new Generation(maxSize));
+        hitCount = registry.counter(MetricName.build("nuxeo", "security", "permission", "cache", "hit"));
+        missCount = registry.counter(MetricName.build("nuxeo", "security", "permission", "cache", "miss"));
+        evaluationTimer = registry.timer(MetricName.build("nuxeo", "security", "permission", "evaluation", "timer"));
+    }
+
+    /**
+     * Gets the access for the given principals and permissions on a merged ACP.
+     *
+     * @param acp the merged ACP
+     * @param principals the principals to check, as returned by {@link SecurityService#getPrincipalsToCheck}
+     * @param permission the checked permission
+     * @param permissions the permissions to check, as returned by {@link SecurityService#getPermissionsToCheck}
+     */
+    public Access getAccess(ACP acp, String[] principals, String permission, String[] permissions) {
+        Fingerprint fingerprint = CompiledACP.fingerprint(acp);
+        if (fingerprint == null) {
+            // time-bounded ACEs
+            return evaluate(acp, principals, permissions);
+        }
+        // the compiled ACPs and decisions are only valid with the interned ids of their generation
+        Generation gen = generation.get();
+        CompiledACP compiled = gen.compiledACPs.getIfPresent(fingerprint);
+        if (compiled == null) {
+            compiled = CompiledACP.compile(nextACPId.incrementAndGet(), acp, gen::intern);
+            gen.compiledACPs.put(fingerprint, compiled);
+            if (gen.ids.size() > maxInterned) {
+                // start over, the current check can still use the full generation
+                generation.compareAndSet(gen, new Generation(maxSize));
+            }
+        }
+        BitSet principalIds = gen.toIds(principals);
+        DecisionKey key = new DecisionKey(compiled.getId(), principalIds, permission);
+        Access access = gen.decisions.getIfPresent(key);
+        if (access != null) {
+            hitCount.inc();
+            return access;
+        }
+        missCount.inc();
+        try (Timer.Context context = evaluationTimer.time()) {
+            access = compiled.getAccess(principalIds, gen.toIds(permissions));
+        }
+        gen.decisions.put(key, access);
+        return access;
+    }
+
+    protected Access evaluate(ACP acp, String[] principals, String[] permissions) {
+        try (Timer.Context context = evaluationTimer.time()) {
+            return acp.getAccess(principals, permissions);
+        }
+    }
+
+    /**
+     * Clears the cached decisions, compiled ACPs and interned names.
+     */
+    public void clear() {
+        generation.set(new Generation(maxSize));
+    }
+
+    /**
+     * The interned names, with the compiled ACPs and decisions using them.
+     */
+    protected static class Generation {
+
+        protected final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+        protected final AtomicInteger nextId = new AtomicInteger();
+
+        protected final Cache<Fingerprint, CompiledACP> compiledACPs;
+
+        protected final Cache<DecisionKey, Access> decisions;
+
+        protected Generation(int maxSize) {
+            compiledACPs = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+            decisions = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+        }
+
+        protected int intern(String name) {
+            return ids.computeIfAbsent(name, k -> Integer.valueOf(nextId.getAndIncrement())).intValue();
+        }
+
+        protected BitSet toIds(String[] names) {
+            BitSet bits = new BitSet();
+            for (String name : names) {
+                Integer id = name == null ? null : ids.get(name);
+                if (id != null) {
+                    bits.set(id.intValue());
+                }
+            }
+            return bits;
+        }
+    }
+
+    protected static class DecisionKey {
+
+        protected final long acpId;
+
+        protected final BitSet principalIds;
+
+        protected final String permission;
+
+        protected final int hashCode;
+
+        protected DecisionKey(long acpId, BitSet principalIds, String permission) {
+            this.acpId = acpId;
+            this.principalIds = principalIds;
+            this.permission = permission;
+            hashCode = Objects.hash(Long.valueOf(acpId), principalIds, permission);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof DecisionKey)) {
+                return false;
+            }
+            DecisionKey other = (DecisionKey) obj;
+            return acpId == other.acpId && principalIds.equals(other.principalIds)
+                    && Objects.equals(permission, other.permission);
+        }
+    }
+
+}
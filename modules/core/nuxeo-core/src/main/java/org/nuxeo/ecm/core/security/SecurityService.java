@@ -24,6 +24,8 @@ package org.nuxeo.ecm.core.security;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -35,10 +37,12 @@ import org.nuxeo.ecm.core.api.security.PermissionProvider;
 import org.nuxeo.ecm.core.api.security.SecurityConstants;
 import org.nuxeo.ecm.core.model.Document;
 import org.nuxeo.ecm.core.query.sql.model.SQLQuery;
+import org.nuxeo.runtime.api.Framework;
 import org.nuxeo.runtime.model.ComponentContext;
 import org.nuxeo.runtime.model.ComponentInstance;
 import org.nuxeo.runtime.model.ComponentName;
 import org.nuxeo.runtime.model.DefaultComponent;
+import org.nuxeo.runtime.services.config.ConfigurationService;
 
 /**
  * @author Bogdan Stefanescu
@@ -58,12 +62,27 @@ public class SecurityService extends DefaultComponent {
 
     private static final String POLICIES_EXTENSION_POINT = "policies";
 
+    /**
+     * Maximum number of cached permission decisions, 0 to disable the cache.
+     *
+     * @since 11.3
+     */
+    public static final String PERMISSION_CACHE_MAX_SIZE_PROP = "nuxeo.security.permission.cache.maxSize";
+
+    /** @since 11.3 */
+    public static final int PERMISSION_CACHE_MAX_SIZE_DEFAULT = 10_000;
+
     private static final Log log = LogFactory.getLog(SecurityService.class);
 
     private PermissionProviderLocal permissionProvider;
 
     private SecurityPolicyService securityPolicyService;
 
+    private PermissionDecisionCache permissionDecisionCache;
+
+    /** Resolved permissions to check, by permission. Not exposed as the arrays are shared. */
+    private final Map<String, String[]> permissionsToCheck = new ConcurrentHashMap<>();
+
     // private SecurityManager securityManager;
 
     @Override
@@ -80,10 +99,24 @@ public class SecurityService extends DefaultComponent {
         securityPolicyService = null;
     }
 
+    @Override
+    public void start(ComponentContext context) {
+        ConfigurationService configurationService = Framework.getService(ConfigurationService.class);
+        int maxSize = configurationService == null ? PERMISSION_CACHE_MAX_SIZE_DEFAULT
+                : configurationService.getInteger(PERMISSION_CACHE_MAX_SIZE_PROP, PERMISSION_CACHE_MAX_SIZE_DEFAULT);
+        permissionDecisionCache = maxSize > 0 ? new PermissionDecisionCache(maxSize) : null;
+    }
+
+    @Override
+    public void stop(ComponentContext context) {
+        permissionDecisionCache = null;
+    }
+
     @Override
     public void registerContribution(Object contribution, String extensionPoint, ComponentInstance contributor) {
         if (PERMISSIONS_EXTENSION_POINT.equals(extensionPoint) && contribution instanceof PermissionDescriptor) {
             permissionProvider.registerDescriptor((PermissionDescriptor) contribution);
+            clearPermissionDecisionCache();
         } else if (PERMISSIONS_VISIBILITY_EXTENSION_POINT.equals(extensionPoint)
                 && contribution instanceof PermissionVisibilityDescriptor) {
             permissionProvider.registerDescriptor((PermissionVisibilityDescriptor) contribution);
@@ -96,6 +129,7 @@ public class SecurityService extends DefaultComponent {
     public void unregisterContribution(Object contribution, String extensionPoint, ComponentInstance contributor) {
         if (PERMISSIONS_EXTENSION_POINT.equals(extensionPoint) && contribution instanceof PermissionDescriptor) {
             permissionProvider.unregisterDescriptor((PermissionDescriptor) contribution);
+            clearPermissionDecisionCache();
         } else if (PERMISSIONS_VISIBILITY_EXTENSION_POINT.equals(extensionPoint)
                 && contribution instanceof PermissionVisibilityDescriptor) {
             permissionProvider.unregisterDescriptor((PermissionVisibilityDescriptor) contribution);
@@ -125,7 +159,7 @@ public class SecurityService extends DefaultComponent {
             return true;
         }
         // fully check each ACE in turn
-        String[] resolvedPermissions = getPermissionsToCheck(permission);
+        String[] resolvedPermissions = getResolvedPermissions(permission);
         String[] additionalPrincipals = getPrincipalsToCheck(principal);
 
         // get the ordered list of ACE
@@ -141,11 +175,35 @@ public class SecurityService extends DefaultComponent {
         if (acp == null) {
             return false; // no ACP on that doc - by default deny
         }
-        access = acp.getAccess(additionalPrincipals, resolvedPermissions);
+        access = getAccess(acp, additionalPrincipals, permission, resolvedPermissions);
 
         return access.toBoolean();
     }
 
+    /**
+     * Evaluates a merged ACP, using the permission decision cache if enabled.
+     */
+    protected Access getAccess(ACP acp, String[] principals, String permission, String[] resolvedPermissions) {
+        PermissionDecisionCache cache = permissionDecisionCache;
+        if (cache == null) {
+            return acp.getAccess(principals, resolvedPermissions);
+        }
+        return cache.getAccess(acp, principals, permission, resolvedPermissions);
+    }
+
+    /**
+     * Clears the permission decision cache, to be called when the permission groups change.
+     *
+     * @since 11.3
+     */
+    public void clearPermissionDecisionCache() {
+        permissionsToCheck.clear();
+        PermissionDecisionCache cache = permissionDecisionCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
     /**
      * Filters the supplied permissions based on whether they are granted to a given principal for a given document.
      *
@@ -162,11 +220,11 @@ public class SecurityService extends DefaultComponent {
 
         List<String> result = new ArrayList<>();
         for(String permission : permissions) {
-            String[] resolvedPermissions = getPermissionsToCheck(permission);
+            String[] resolvedPermissions = getResolvedPermissions(permission);
             Access access = securityPolicyService.checkPermission(doc, acp, principal, permission, resolvedPermissions,
                 additionalPrincipals);
             if (access == null || Access.UNKNOWN.equals(access)) {
-                access = acp == null ? null : acp.getAccess(additionalPrincipals, resolvedPermissions);
+                access = acp == null ? null : getAccess(acp, additionalPrincipals, permission, resolvedPermissions);
             }
             if (access != null && access.toBoolean()) {
                 result.add(permission);
@@ -196,6 +254,13 @@ public class SecurityService extends DefaultComponent {
         }
     }
 
+    /**
+     * Same as {@link #getPermissionsToCheck} but memoized, the returned array must not be modified.
+     */
+    protected String[] getResolvedPermissions(String permission) {
+        return permissionsToCheck.computeIfAbsent(permission, this::getPermissionsToCheck);
+    }
+
     public static String[] getPrincipalsToCheck(NuxeoPrincipal principal) {
         List<String> userGroups = principal.getAllGroups();
         if (userGroups == null) {
@@ -0,0 +1,157 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.core.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.nuxeo.ecm.core.api.security.SecurityConstants.EVERYONE;
+import static org.nuxeo.ecm.core.api.security.SecurityConstants.EVERYTHING;
+import static org.nuxeo.ecm.core.api.security.SecurityConstants.READ;
+import static org.nuxeo.ecm.core.api.security.SecurityConstants.READ_WRITE;
+import static org.nuxeo.ecm.core.api.security.SecurityConstants.WRITE;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nuxeo.ecm.core.api.security.ACE;
+import org.nuxeo.ecm.core.api.security.ACL;
+import org.nuxeo.ecm.core.api.security.ACP;
+import org.nuxeo.ecm.core.api.security.Access;
+import org.nuxeo.ecm.core.api.security.impl.ACLImpl;
+import org.nuxeo.ecm.core.api.security.impl.ACPImpl;
+import org.nuxeo.ecm.core.security.CompiledACP.Fingerprint;
+
+public class TestPermissionDecisionCache {
+
+    protected static final String[] BOB = { "members", "bob", EVERYONE };
+
+    protected static final String[] PETE = { "pete", EVERYONE };
+
+    protected static final String[] READ_PERMISSIONS = { READ, READ_WRITE, EVERYTHING };
+
+    protected static final String[] WRITE_PERMISSIONS = { WRITE, READ_WRITE, EVERYTHING };
+
+    protected PermissionDecisionCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new PermissionDecisionCache(100);
+    }
+
+    protected static ACP newACP(ACE... localAces) {
+        ACP acp = new ACPImpl();
+        ACL local = acp.getOrCreateACL();
+        for (ACE ace : localAces) {
+            local.add(ace);
+        }
+        ACL inherited = new ACLImpl(ACL.INHERITED_ACL);
+        inherited.add(new ACE("members", READ_WRITE, true));
+        inherited.add(new ACE(EVERYONE, READ, true));
+        acp.addACL(inherited);
+        return acp;
+    }
+
+    protected void assertSameAccess(ACP acp, String[] principals, String permission, String[] permissions) {
+        Access expected = acp.getAccess(principals, permissions);
+        assertEquals(expected, cache.getAccess(acp, principals, permission, permissions));
+        // again, from the cache
+        assertEquals(expected, cache.getAccess(acp, principals, permission, permissions));
+    }
+
+    @Test
+    public void testSameAccessAsACP() {
+        ACP acp = newACP(new ACE("bob", WRITE, false), new ACE("pete", EVERYTHING, true));
+        assertSameAccess(acp, BOB, READ, READ_PERMISSIONS);
+        assertSameAccess(acp, BOB, WRITE, WRITE_PERMISSIONS);
+        assertSameAccess(acp, PETE, READ, READ_PERMISSIONS);
+        assertSameAccess(acp, PETE, WRITE, WRITE_PERMISSIONS);
+        assertSameAccess(acp, new String[] { "unknown", EVERYONE }, WRITE, WRITE_PERMISSIONS);
+
+        // blocked inheritance
+        acp = newACP(new ACE("bob", READ, true), new ACE(EVERYONE, EVERYTHING, false));
+        assertSameAccess(acp, BOB, READ, READ_PERMISSIONS);
+        assertSameAccess(acp, BOB, WRITE, WRITE_PERMISSIONS);
+        assertSameAccess(acp, PETE, READ, READ_PERMISSIONS);
+    }
+
+    @Test
+    public void testCacheHit() {
+        long hits = cache.hitCount.getCount();
+        ACP acp = newACP(new ACE("bob", WRITE, false));
+        assertEquals(Access.DENY, cache.getAccess(acp, BOB, WRITE, WRITE_PERMISSIONS));
+        assertEquals(hits, cache.hitCount.getCount());
+        // a different ACP instance with the same content hits the cache
+        acp = newACP(new ACE("bob", WRITE, false));
+        assertEquals(Access.DENY, cache.getAccess(acp, BOB, WRITE, WRITE_PERMISSIONS));
+        assertEquals(hits + 1, cache.hitCount.getCount());
+        // a changed ACP doesn't
+        acp.getOrCreateACL().add(0, new ACE("bob", WRITE, true));
+        assertEquals(Access.GRANT, cache.getAccess(acp, BOB, WRITE, WRITE_PERMISSIONS));
+        assertEquals(hits + 1, cache.hitCount.getCount());
+        // nor after a clear
+        cache.clear();
+        assertEquals(Access.GRANT, cache.getAccess(acp, BOB, WRITE, WRITE_PERMISSIONS));
+        assertEquals(hits + 1, cache.hitCount.getCount());
+    }
+
+    @Test
+    public void testClearDropsInternedNames() {
+        ACP acp = newACP(new ACE("bob", WRITE, false));
+        assertEquals(Access.DENY, cache.getAccess(acp, BOB, WRITE, WRITE_PERMISSIONS));
+        assertTrue(cache.generation.get().ids.containsKey("bob"));
+        cache.clear();
+        assertTrue(cache.generation.get().ids.isEmpty());
+        assertSameAccess(acp, BOB, WRITE, WRITE_PERMISSIONS);
+    }
+
+    @Test
+    public void testInternedNamesBounded() {
+        cache = new PermissionDecisionCache(1);
+        for (int i = 0; i < 100; i++) {
+            String user = "user" + i;
+            ACP acp = newACP(new ACE(user, WRITE, true));
+            assertSameAccess(acp, new String[] { user, EVERYONE }, WRITE, WRITE_PERMISSIONS);
+            assertSameAccess(acp, BOB, WRITE, WRITE_PERMISSIONS);
+            assertTrue(cache.generation.get().ids.size() <= cache.maxInterned);
+        }
+    }
+
+    @Test
+    public void testTimeBoundedACE() {
+        Calendar past = new GregorianCalendar();
+        past.add(Calendar.DAY_OF_MONTH, -1);
+        ACE archived = ACE.builder("bob", WRITE).isGranted(false).end(past).build();
+        ACP acp = newACP(archived);
+        assertNull(CompiledACP.fingerprint(acp));
+        assertSameAccess(acp, BOB, WRITE, WRITE_PERMISSIONS);
+        assertEquals(Access.GRANT, cache.getAccess(acp, BOB, WRITE, WRITE_PERMISSIONS));
+    }
+
+    @Test
+    public void testFingerprint() {
+        Fingerprint fingerprint = CompiledACP.fingerprint(newACP(new ACE("bob", WRITE, false)));
+        assertNotNull(fingerprint);
+        assertEquals(fingerprint, CompiledACP.fingerprint(newACP(new ACE("bob", WRITE, false))));
+        assertNotEquals(fingerprint, CompiledACP.fingerprint(newACP(new ACE("bob", WRITE, true))));
+        assertNotEquals(fingerprint, CompiledACP.fingerprint(newACP(new ACE("bob", READ, false))));
+    }
+
+}
@@ -20,13 +20,16 @@
 package org.nuxeo.elasticsearch.audit;
 
 import static org.elasticsearch.common.xcontent.DeprecationHandler.THROW_UNSUPPORTED_OPERATION;
-import static org.elasticsearch.common.xcontent.XContentFactory.jsonBuilder;
+import static org.nuxeo.ecm.platform.audit.api.BuiltinLogEntryData.LOG_EVENT_DATE;
+import static org.nuxeo.ecm.platform.audit.api.BuiltinLogEntryData.LOG_EXTENDED;
 import static org.nuxeo.ecm.platform.audit.api.BuiltinLogEntryData.LOG_ID;
+import static org.nuxeo.ecm.platform.audit.api.BuiltinLogEntryData.LOG_LOG_DATE;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
@@ -52,11 +55,9 @@ import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchScrollRequest;
 import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.common.ParsingException;
-import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
-import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.XContentType;
@@ -107,9 +108,12 @@ import org.nuxeo.elasticsearch.query.NxqlQueryConverter;
 import org.nuxeo.runtime.api.Framework;
 import org.nuxeo.runtime.model.DefaultComponent;
 
-import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
 
 /**
  * Implementation of the {@link AuditBackend} interface using Elasticsearch persistence
@@ -128,6 +132,11 @@ public class ESAuditBackend extends AbstractAuditBackend implements AuditBackend
 
     public static final int MIGRATION_DEFAULT_BACTH_SIZE = 1000;
 
+    /**
+     * @since 11.3
+     */
+    protected static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     protected CursorService<Iterator<SearchHit>, SearchHit, String> cursorService;
 
     public ESAuditBackend(NXAuditEventsService component, AuditBackendDescriptor config) {
@@ -335,10 +344,9 @@ public class ESAuditBackend extends AbstractAuditBackend implements AuditBackend
 
     protected List<LogEntry> buildLogEntries(SearchResponse searchResponse) {
         List<LogEntry> entries = new ArrayList<>(searchResponse.getHits().getHits().length);
-        ObjectMapper mapper = new ObjectMapper();
         for (SearchHit hit : searchResponse.getHits()) {
             try {
-                entries.add(mapper.readValue(hit.getSourceAsString(), LogEntryImpl.class));
+                entries.add(OBJECT_MAPPER.readValue(hit.getSourceAsString(), LogEntryImpl.class));
             } catch (IOException e) {
                 log.error("Error while reading Audit Entry from ES", e);
             }
@@ -358,7 +366,7 @@ public class ESAuditBackend extends AbstractAuditBackend implements AuditBackend
             return null;
         }
         try {
-            return new ObjectMapper().readValue(ret.getSourceAsString(), LogEntryImpl.class);
+            return OBJECT_MAPPER.readValue(ret.getSourceAsString(), LogEntryImpl.class);
         } catch (IOException e) {
             throw new NuxeoException("Unable to read Entry for id " + id, e);
         }
@@ -475,7 +483,7 @@ public class ESAuditBackend extends AbstractAuditBackend implements AuditBackend
         }
 
         BulkRequest bulkRequest = new BulkRequest();
-        JsonFactory factory = new JsonFactory();
+        String indexName = getESIndexName();
 
         UIDGeneratorService uidGeneratorService = Framework.getService(UIDGeneratorService.class);
         UIDSequencer seq = uidGeneratorService.getSequencer();
@@ -489,29 +497,136 @@ public class ESAuditBackend extends AbstractAuditBackend implements AuditBackend
                     log.debug(String.format("Indexing log entry: %s", entry));
                 }
                 entry.setLogDate(new Date());
-                try (OutputStream out = new BytesStreamOutput(); //
-                        JsonGenerator jg = factory.createGenerator(out); //
-                        XContentBuilder builder = jsonBuilder(out)) {
-                    ObjectMapper mapper = new ObjectMapper();
-                    mapper.writeValue(jg, entry);
-                    bulkRequest.add(new IndexRequest(getESIndexName(), ElasticSearchConstants.ENTRY_TYPE,
-                            String.valueOf(entry.getId())).source(builder));
-                }
+                bulkRequest.add(new IndexRequest(indexName, ElasticSearchConstants.ENTRY_TYPE,
+                        String.valueOf(entry.getId())).source(OBJECT_MAPPER.writeValueAsBytes(entry),
+                                XContentType.JSON));
             }
+        } catch (IOException e) {
+            throw new NuxeoException("Error while indexing Audit entries", e);
+        }
+        bulkIndex(bulkRequest);
+    }
 
-            BulkResponse bulkResponse = esClient.bulk(bulkRequest);
-            if (bulkResponse.hasFailures()) {
-                for (BulkItemResponse response : bulkResponse.getItems()) {
-                    if (response.isFailed()) {
-                        log.error("Unable to index audit entry " + response.getItemId() + " :"
-                                + response.getFailureMessage());
-                    }
+    /**
+     * Indexes log entries serialized as JSON, as found in the audit stream, without reading them as {@link LogEntry}:
+     * their id and log date are set, and their event date and extended infos are converted to what the serialization
+     * of the equivalent {@link LogEntryImpl} gives.
+     *
+     * @since 11.3
+     */
+    @Override
+    public void addJsonLogEntries(List<String> jsonEntries) {
+        if (jsonEntries.isEmpty()) {
+            return;
+        }
+        BulkRequest bulkRequest = new BulkRequest();
+        String indexName = getESIndexName();
+
+        UIDGeneratorService uidGeneratorService = Framework.getService(UIDGeneratorService.class);
+        UIDSequencer seq = uidGeneratorService.getSequencer();
+
+        List<Long> block = seq.getNextBlock(SEQ_NAME, jsonEntries.size());
+        for (int i = 0; i < jsonEntries.size(); i++) {
+            String json = jsonEntries.get(i);
+            try {
+                JsonNode node = OBJECT_MAPPER.readTree(json);
+                if (node == null || !node.isObject()) {
+                    log.error("Discard invalid json log entry: " + json);
+                    continue;
                 }
+                ObjectNode entry = (ObjectNode) node;
+                long id = block.get(i);
+                entry.put(LOG_ID, id);
+                // same format as the LogEntryImpl serialization
+                entry.put(LOG_LOG_DATE, new Date().toInstant().toString());
+                convertJsonLogEntry(entry);
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Indexing log entry: %s", entry));
+                }
+                bulkRequest.add(new IndexRequest(indexName, ElasticSearchConstants.ENTRY_TYPE,
+                        String.valueOf(id)).source(OBJECT_MAPPER.writeValueAsBytes(entry), XContentType.JSON));
+            } catch (IOException e) {
+                log.error("Discard invalid json log entry: " + json, e);
             }
-        } catch (IOException e) {
-            throw new NuxeoException("Error while indexing Audit entries", e);
         }
+        bulkIndex(bulkRequest);
+    }
 
+    /**
+     * Converts a log entry from the audit stream to the JSON indexed for the {@link LogEntryImpl} read from it: the
+     * event date has the LogEntryImpl format, and extended infos follow the ExtendedInfoDeserializer then
+     * ExtendedInfoSerializer rules for {@link ESExtendedInfo}.
+     *
+     * @since 11.3
+     */
+    protected void convertJsonLogEntry(ObjectNode entry) {
+        JsonNode eventDate = entry.get(LOG_EVENT_DATE);
+        if (eventDate != null && eventDate.isTextual()) {
+            Instant instant = parseInstant(eventDate.textValue());
+            if (instant != null) {
+                entry.put(LOG_EVENT_DATE, instant.toString());
+            }
+        }
+        JsonNode extended = entry.get(LOG_EXTENDED);
+        if (extended == null || !extended.isObject()) {
+            return;
+        }
+        ObjectNode extendedInfos = (ObjectNode) extended;
+        List<String> keys = new ArrayList<>();
+        extendedInfos.fieldNames().forEachRemaining(keys::add);
+        for (String key : keys) {
+            JsonNode value = extendedInfos.get(key);
+            if (value.isTextual()) {
+                extendedInfos.set(key, convertExtendedInfo(value.textValue()));
+            }
+        }
+    }
+
+    /**
+     * @since 11.3
+     */
+    protected JsonNode convertExtendedInfo(String value) {
+        Instant instant = parseInstant(value);
+        if (instant != null) {
+            // read as a Date, which is serialized as a timestamp
+            return LongNode.valueOf(instant.toEpochMilli());
+        }
+        if ((value.startsWith("{") && value.endsWith("}")) || (value.startsWith("[") && value.endsWith("]"))) {
+            try {
+                return OBJECT_MAPPER.readTree(value);
+            } catch (IOException e) {
+                // If the value represents an invalid JSON, send a null value to ES to prevent potential
+                // mapping exceptions
+                return NullNode.getInstance();
+            }
+        }
+        return TextNode.valueOf(value);
+    }
+
+    protected static Instant parseInstant(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @since 11.3
+     */
+    protected void bulkIndex(BulkRequest bulkRequest) {
+        if (bulkRequest.numberOfActions() == 0) {
+            return;
+        }
+        BulkResponse bulkResponse = esClient.bulk(bulkRequest);
+        if (bulkResponse.hasFailures()) {
+            for (BulkItemResponse response : bulkResponse.getItems()) {
+                if (response.isFailed()) {
+                    log.error("Unable to index audit entry " + response.getItemId() + " :"
+                            + response.getFailureMessage());
+                }
+            }
+        }
     }
 
     @Override
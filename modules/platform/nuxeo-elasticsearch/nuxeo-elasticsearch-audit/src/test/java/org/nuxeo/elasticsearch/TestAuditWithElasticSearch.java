@@ -23,7 +23,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.nuxeo.ecm.platform.audit.api.BuiltinLogEntryData.LOG_ID;
+import static org.nuxeo.ecm.platform.audit.api.BuiltinLogEntryData.LOG_LOG_DATE;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -32,14 +35,19 @@ import java.util.Map;
 import javax.inject.Inject;
 
 import org.apache.commons.io.IOUtils;
+import org.elasticsearch.action.get.GetRequest;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.nuxeo.ecm.core.api.CoreSession;
 import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.io.marshallers.json.MarshallerHelper;
+import org.nuxeo.ecm.core.io.registry.context.RenderingContext;
 import org.nuxeo.ecm.platform.audit.AbstractAuditStorageTest;
 import org.nuxeo.ecm.platform.audit.api.AuditReader;
+import org.nuxeo.ecm.platform.audit.api.ExtendedInfo;
 import org.nuxeo.ecm.platform.audit.api.LogEntry;
+import org.nuxeo.ecm.platform.audit.impl.LogEntryImpl;
 import org.nuxeo.ecm.platform.audit.service.AuditBackend;
 import org.nuxeo.ecm.platform.audit.service.NXAuditEventsService;
 import org.nuxeo.elasticsearch.api.ElasticSearchAdmin;
@@ -50,6 +58,8 @@ import org.nuxeo.runtime.test.runner.Deploy;
 import org.nuxeo.runtime.test.runner.Features;
 import org.nuxeo.runtime.test.runner.FeaturesRunner;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 @Deploy("org.nuxeo.runtime.metrics")
 @Deploy("org.nuxeo.ecm.platform.audit.api")
 @Deploy("org.nuxeo.ecm.core.persistence")
@@ -249,6 +259,56 @@ public class TestAuditWithElasticSearch extends AbstractAuditStorageTest {
         assertEquals(id3, entries.get(1).getId());
     }
 
+    @Test
+    public void testAddJsonLogEntries() throws Exception {
+        ESAuditBackend backend = (ESAuditBackend) auditEventsService.getBackend();
+        LogEntry entry = LogEntryGen.doCreateEntry("mydoc", "jsonEvent", "cat");
+        Map<String, ExtendedInfo> extendedInfos = new HashMap<>();
+        extendedInfos.put("json", backend.newExtendedInfo(
+                "{\"k1\":\"test\", \"k2\":\"test\", \"k3\":{\"k4\":\"test\", \"k5\":\"test\"}}"));
+        extendedInfos.put("json2", backend.newExtendedInfo("[{t1=test1:toto, t2=test1},{t1=test2, t2=test2}]"));
+        extendedInfos.put("string", backend.newExtendedInfo(" some text "));
+        extendedInfos.put("date", backend.newExtendedInfo(new Date()));
+        extendedInfos.put("long", backend.newExtendedInfo(Long.valueOf(123)));
+        extendedInfos.put("boolean", backend.newExtendedInfo(Boolean.TRUE));
+        entry.setExtendedInfos(extendedInfos);
+        // as written to the audit stream
+        String json = MarshallerHelper.objectToJson(entry, RenderingContext.CtxBuilder.get());
+
+        // index it through a LogEntry read from the stream and directly as JSON
+        LogEntry readEntry = new ObjectMapper().readValue(json, LogEntryImpl.class);
+        backend.addLogEntries(Collections.singletonList(readEntry));
+        backend.addJsonLogEntries(Collections.singletonList(json));
+        LogEntryGen.flushAndSync();
+
+        long id = readEntry.getId();
+        long jsonId = Framework.getService(AuditReader.class).getLatestLogId("test", "jsonEvent");
+        assertTrue("jsonId: " + jsonId, jsonId > id);
+        Map<String, Object> expected = getSource(id);
+        Map<String, Object> actual = getSource(jsonId);
+        expected.remove(LOG_ID);
+        actual.remove(LOG_ID);
+        expected.remove(LOG_LOG_DATE);
+        actual.remove(LOG_LOG_DATE);
+        // not part of the audit stream
+        expected.remove("preprocessedComment");
+        assertEquals(expected, actual);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> extended = (Map<String, Object>) actual.get("extended");
+        assertTrue(extended.get("json") instanceof Map);
+        assertTrue(extended.containsKey("json2"));
+        assertNull(extended.get("json2"));
+        assertTrue(extended.get("date") instanceof Long);
+    }
+
+    protected Map<String, Object> getSource(long id) {
+        String indexName = esa.getIndexNameForType(ElasticSearchConstants.ENTRY_TYPE);
+        return esa.getClient()
+                  .get(new GetRequest(indexName, ElasticSearchConstants.ENTRY_TYPE, String.valueOf(id)))
+                  .getSourceAsMap();
+    }
+
     @Override
     @Test
     public void testStartsWith() throws Exception {
@@ -22,7 +22,6 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.nuxeo.ecm.platform.audit.listener.StreamAuditEventListener.STREAM_NAME;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -33,6 +32,7 @@ import org.apache.commons.logging.LogFactory;
 import org.nuxeo.ecm.core.api.NuxeoException;
 import org.nuxeo.ecm.platform.audit.api.AuditLogger;
 import org.nuxeo.ecm.platform.audit.api.LogEntry;
+import org.nuxeo.ecm.platform.audit.service.AuditBackend;
 import org.nuxeo.lib.stream.computation.AbstractBatchComputation;
 import org.nuxeo.lib.stream.computation.ComputationContext;
 import org.nuxeo.lib.stream.computation.Record;
@@ -41,6 +41,7 @@ import org.nuxeo.runtime.api.Framework;
 import org.nuxeo.runtime.stream.StreamProcessorTopology;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 /**
  * Computation that consumes a stream of log entries and write them to the audit backend.
@@ -52,6 +53,11 @@ public class StreamAuditWriter implements StreamProcessorTopology {
 
     public static final String COMPUTATION_NAME = "audit/writer";
 
+    /**
+     * @since 11.3
+     */
+    protected static final ObjectReader LOG_ENTRY_READER = new ObjectMapper().readerFor(LogEntryImpl.class);
+
     @Override
     public Topology getTopology(Map<String, String> options) {
         return Topology.builder()
@@ -61,6 +67,36 @@ public class StreamAuditWriter implements StreamProcessorTopology {
                        .build();
     }
 
+    /**
+     * Reads log entries serialized as JSON in the audit stream, discarding the invalid ones.
+     *
+     * @since 11.3
+     */
+    public static List<LogEntry> readLogEntries(List<String> jsonEntries) {
+        List<LogEntry> logEntries = new ArrayList<>(jsonEntries.size());
+        for (String json : jsonEntries) {
+            try {
+                logEntries.add(readLogEntry(json));
+            } catch (NuxeoException e) {
+                log.error("Discard invalid json log entry: " + json, e);
+            }
+        }
+        return logEntries;
+    }
+
+    /**
+     * Reads a log entry serialized as JSON in the audit stream.
+     *
+     * @since 11.3
+     */
+    public static LogEntry readLogEntry(String json) {
+        try {
+            return LOG_ENTRY_READER.readValue(json);
+        } catch (IOException e) {
+            throw new NuxeoException("Invalid json logEntry" + json, e);
+        }
+    }
+
     public static class AuditLogWriterComputation extends AbstractBatchComputation {
 
         public AuditLogWriterComputation(String name) {
@@ -69,6 +105,16 @@ public class StreamAuditWriter implements StreamProcessorTopology {
 
         @Override
         public void batchProcess(ComputationContext context, String inputStreamName, List<Record> records) {
+            AuditLogger logger = Framework.getService(AuditLogger.class);
+            if (logger instanceof AuditBackend) {
+                // let the backend write the json entries without reading them if it can
+                List<String> jsonEntries = new ArrayList<>(records.size());
+                for (Record record : records) {
+                    jsonEntries.add(new String(record.getData(), UTF_8));
+                }
+                writeJsonEntriesToAudit((AuditBackend) logger, jsonEntries);
+                return;
+            }
             List<LogEntry> logEntries = new ArrayList<>(records.size());
             for (Record record : records) {
                 try {
@@ -80,6 +126,19 @@ public class StreamAuditWriter implements StreamProcessorTopology {
             writeEntriesToAudit(logEntries);
         }
 
+        /**
+         * @since 11.3
+         */
+        protected void writeJsonEntriesToAudit(AuditBackend backend, List<String> jsonEntries) {
+            if (jsonEntries.isEmpty()) {
+                return;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Writing %d json log entries to audit backend.", jsonEntries.size()));
+            }
+            backend.addJsonLogEntries(jsonEntries);
+        }
+
         @Override
         public void batchFailure(ComputationContext context, String inputStreamName, List<Record> records) {
             // error log already done by abstract
@@ -97,14 +156,7 @@ public class StreamAuditWriter implements StreamProcessorTopology {
         }
 
         protected LogEntry getLogEntryFromJson(byte[] data) {
-            String json = "";
-            try {
-                json = new String(data, UTF_8);
-                ObjectMapper mapper = new ObjectMapper();
-                return mapper.readValue(json, LogEntryImpl.class);
-            } catch (IOException e) {
-                throw new NuxeoException("Invalid json logEntry" + json, e);
-            }
+            return readLogEntry(new String(data, UTF_8));
         }
     }
 
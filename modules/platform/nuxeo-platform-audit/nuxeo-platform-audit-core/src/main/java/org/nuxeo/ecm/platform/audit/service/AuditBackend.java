@@ -18,8 +18,11 @@
  */
 package org.nuxeo.ecm.platform.audit.service;
 
+import java.util.List;
+
 import org.nuxeo.ecm.platform.audit.api.AuditStorage;
 import org.nuxeo.ecm.platform.audit.api.Logs;
+import org.nuxeo.ecm.platform.audit.impl.StreamAuditWriter;
 
 /**
  * Audit Backend SPI
@@ -57,4 +60,17 @@ public interface AuditBackend extends Logs {
      */
     void restore(AuditStorage auditStorage, int batchSize, int keepAlive);
 
+    /**
+     * Adds log entries serialized as JSON, as found in the audit stream. The backend sets their id and log date.
+     * <p>
+     * The default implementation reads the log entries, discarding the invalid ones, and calls
+     * {@link #addLogEntries(List)}. Backends able to store JSON directly should override it.
+     *
+     * @param jsonEntries the JSON log entries
+     * @since 11.3
+     */
+    default void addJsonLogEntries(List<String> jsonEntries) {
+        addLogEntries(StreamAuditWriter.readLogEntries(jsonEntries));
+    }
+
 }
@@ -30,8 +30,10 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.codec.binary.Base64;
@@ -46,6 +48,7 @@ import org.nuxeo.ecm.platform.audit.api.ExtendedInfo;
 import org.nuxeo.ecm.platform.audit.api.LogEntry;
 import org.nuxeo.ecm.platform.audit.impl.ExtendedInfoImpl;
 import org.nuxeo.ecm.platform.audit.impl.LogEntryImpl;
+import org.nuxeo.ecm.platform.audit.impl.StreamAuditWriter;
 import org.nuxeo.runtime.test.runner.Features;
 import org.nuxeo.runtime.test.runner.FeaturesRunner;
 
@@ -178,4 +181,24 @@ public class LogEntrySerializationTest {
         assertTrue(infos.get(BLOB_INFO) instanceof ExtendedInfoImpl.BlobInfo);
         assertEquals("I'm a blob!", ((StringBlob) infos.get(BLOB_INFO).getSerializableValue()).getString());
     }
+
+    @Test
+    public void testReadLogEntriesFromStream() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode logEntryJson = mapper.createObjectNode();
+        logEntryJson.put("entity-type", "logEntry");
+        logEntryJson.put("id", 0L);
+        logEntryJson.put("eventId", "documentCreated");
+        logEntryJson.put("eventDate", "2012-01-01T00:00:00.000Z");
+        logEntryJson.with("extended").put(STRING_INFO, "myInfo");
+
+        // invalid entries are discarded
+        List<LogEntry> entries = StreamAuditWriter.readLogEntries(
+                Arrays.asList(mapper.writeValueAsString(logEntryJson), "{ not json"));
+        assertEquals(1, entries.size());
+        LogEntry entry = entries.get(0);
+        assertEquals("documentCreated", entry.getEventId());
+        assertEquals(1325376000000L, entry.getEventDate().getTime());
+        assertEquals("myInfo", entry.getExtendedInfos().get(STRING_INFO).getSerializableValue());
+    }
 }
@@ -35,6 +35,7 @@ import java.io.Serializable;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -315,7 +316,7 @@ public class NuxeoPrincipalImpl implements NuxeoPrincipal {
         UserManager userManager = Framework.getService(UserManager.class);
         Set<String> checkedGroups = new HashSet<>();
         List<String> groupsToProcess = new ArrayList<>();
-        List<String> resultingGroups = new ArrayList<>();
+        Set<String> resultingGroups = new LinkedHashSet<>();
         groupsToProcess.addAll(getGroups());
 
         while (!groupsToProcess.isEmpty()) {
@@ -325,6 +326,17 @@ public class NuxeoPrincipalImpl implements NuxeoPrincipal {
                 NuxeoGroup nxGroup = null;
                 if (userManager != null) {
                     try {
+                        // use the precomputed group and ancestors if available,
+                        // virtual groups are usually not in the directory so are not indexed
+                        List<String> closure = virtualGroups.contains(groupName) ? null
+                                : userManager.getGroupClosure(groupName);
+                        if (closure != null) {
+                            // ancestors missing from the directory are not in the closure,
+                            // the virtual groups among them are still processed as groups of the principal
+                            resultingGroups.addAll(closure);
+                            checkedGroups.addAll(closure);
+                            continue;
+                        }
                         nxGroup = userManager.getGroup(groupName);
                     } catch (DirectoryException de) {
                         if (virtualGroups.contains(groupName)) {
@@ -418,6 +418,18 @@ public interface UserManager extends Authenticator, EventListener, Serializable
      */
     List<String> getAncestorGroups(String groupId);
 
+    /**
+     * Returns the group with the given name followed by all its ancestor groups, as found in the precomputed group
+     * membership index.
+     *
+     * @return the group and its ancestor groups, or {@code null} if the group is unknown or if the index is not
+     *         available
+     * @since 11.3
+     */
+    default List<String> getGroupClosure(String groupName) {
+        return null;
+    }
+
     /**
      * Returns the contributed {@link GroupConfig}.
      *
@@ -109,6 +109,12 @@ public class UserManagerWithComputedGroups extends UserManagerImpl {
         return principal;
     }
 
+    @Override
+    public List<String> getGroupClosure(String groupName) {
+        // computed groups are not indexed
+        return activateComputedGroup() ? null : super.getGroupClosure(groupName);
+    }
+
     @Override
     public NuxeoGroup getGroup(String groupName) {
         NuxeoGroup grp = super.getGroup(groupName);
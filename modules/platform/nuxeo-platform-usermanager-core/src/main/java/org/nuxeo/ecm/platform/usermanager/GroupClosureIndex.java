@@ -0,0 +1,162 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.platform.usermanager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.nuxeo.ecm.core.api.NuxeoGroup;
+import org.nuxeo.runtime.metrics.MetricsService;
+
+import io.dropwizard.metrics5.Histogram;
+import io.dropwizard.metrics5.MetricName;
+import io.dropwizard.metrics5.MetricRegistry;
+import io.dropwizard.metrics5.SharedMetricRegistries;
+import io.dropwizard.metrics5.Timer;
+
+/**
+ * Index of the transitive closure of the "parent group" relation: for a group, the group itself and all its ancestor
+ * groups.
+ * <p>
+ * The closure of a group is computed from the group directory the first time it is requested, then kept until the
+ * group or one of its ancestors changes. Unknown groups are not indexed.
+ *
+ * @since 11.3
+ */
+public class GroupClosureIndex {
+
+    private static final Log log = LogFactory.getLog(GroupClosureIndex.class);
+
+    protected final MetricRegistry registry = SharedMetricRegistries.getOrCreate(MetricsService.class.getName());
+
+    /** Group loader, returns {@code null} for an unknown group. */
+    protected final Function<String, NuxeoGroup> groupLoader;
+
+    /** Closure by group name, the first element is the name of the group as found in the directory. */
+    protected final Map<String, List<String>> closures = new ConcurrentHashMap<>();
+
+    /** Incremented on each invalidation, to avoid indexing a closure computed concurrently with an invalidation. */
+    protected long generation;
+
+    protected final Histogram closureSize;
+
+    protected final Timer closureTimer;
+
+    public GroupClosureIndex(Function<String, NuxeoGroup> groupLoader) {
+        this.groupLoader = groupLoader;
+        closureSize = registry.histogram(MetricName.build("nuxeo", "usermanager", "groups", "closure", "size"));
+        closureTimer = registry.timer(MetricName.build("nuxeo", "usermanager", "groups", "closure", "timer"));
+    }
+
+    /**
+     * Gets the given group and all its ancestor groups.
+     *
+     * @return an unmodifiable list of group names, or {@code null} if the group is unknown
+     */
+    public List<String> getClosure(String groupName) {
+        List<String> closure = closures.get(groupName);
+        if (closure == null) {
+            long gen = getGeneration();
+            closure = computeClosure(groupName);
+            if (closure != null) {
+                synchronized (this) {
+                    if (gen == generation) {
+                        closures.put(groupName, closure);
+                    }
+                }
+            }
+        }
+        return closure;
+    }
+
+    protected List<String> computeClosure(String groupName) {
+        try (Timer.Context context = closureTimer.time()) {
+            NuxeoGroup group = groupLoader.apply(groupName);
+            if (group == null) {
+                return null;
+            }
+            Set<String> checked = new LinkedHashSet<>();
+            checked.add(groupName);
+            Set<String> closure = new LinkedHashSet<>();
+            closure.add(group.getName());
+            List<String> toProcess = new LinkedList<>(group.getParentGroups());
+            while (!toProcess.isEmpty()) {
+                String name = toProcess.remove(0);
+                if (!checked.add(name)) {
+                    continue;
+                }
+                // reuse the already computed closures of ancestors
+                List<String> ancestors = closures.get(name);
+                if (ancestors != null) {
+                    closure.addAll(ancestors);
+                    checked.addAll(ancestors);
+                    continue;
+                }
+                NuxeoGroup parent = groupLoader.apply(name);
+                if (parent == null) {
+                    log.error("Group " + groupName + " references the " + name + " group that does not exists");
+                    continue;
+                }
+                closure.add(parent.getName());
+                toProcess.addAll(parent.getParentGroups());
+            }
+            closureSize.update(closure.size());
+            return Collections.unmodifiableList(new ArrayList<>(closure));
+        }
+    }
+
+    /**
+     * Invalidates the closures impacted by a change on a group: the closures that include the group, and the closures
+     * that include one of its current subgroups, which may have been added by the change.
+     *
+     * @param groupName the changed group
+     * @param subGroups the current subgroups of the changed group, may be {@code null}
+     */
+    public synchronized void invalidate(String groupName, Collection<String> subGroups) {
+        generation++;
+        closures.remove(groupName);
+        Collection<String> subs = subGroups == null ? Collections.emptyList() : subGroups;
+        closures.values()
+                .removeIf(closure -> closure.contains(groupName) || subs.stream().anyMatch(closure::contains));
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        closures.clear();
+    }
+
+    protected synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the number of indexed groups.
+     */
+    public int size() {
+        return closures.size();
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.platform.usermanager;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.nuxeo.runtime.pubsub.AbstractPubSubBroker;
+import org.nuxeo.runtime.pubsub.SerializableMessage;
+
+/**
+ * Propagates the {@link GroupClosureIndex} invalidations to the other nodes of the cluster.
+ *
+ * @since 11.3
+ */
+public class GroupClosureInvalidator extends AbstractPubSubBroker<GroupClosureInvalidator.GroupClosureInvalidation> {
+
+    public static final String GROUP_CLOSURE_INVAL_PUBSUB_TOPIC = "groupclosureinval";
+
+    protected final Supplier<UserManager> userManagerSupplier;
+
+    public GroupClosureInvalidator(Supplier<UserManager> userManagerSupplier) {
+        this.userManagerSupplier = userManagerSupplier;
+    }
+
+    /**
+     * A changed group, with its subgroups at the time of the change.
+     */
+    public static class GroupClosureInvalidation implements SerializableMessage {
+
+        private static final long serialVersionUID = 1L;
+
+        protected static final String SEP = "\n";
+
+        public final String groupName;
+
+        public final List<String> subGroups;
+
+        public GroupClosureInvalidation(String groupName, List<String> subGroups) {
+            this.groupName = groupName;
+            this.subGroups = subGroups;
+        }
+
+        @Override
+        public void serialize(OutputStream out) throws IOException {
+            StringBuilder sb = new StringBuilder(groupName);
+            for (String subGroup : subGroups) {
+                sb.append(SEP).append(subGroup);
+            }
+            out.write(sb.toString().getBytes(UTF_8));
+        }
+
+        public static GroupClosureInvalidation deserialize(InputStream in) throws IOException {
+            String[] parts = new String(in.readAllBytes(), UTF_8).split(SEP);
+            return new GroupClosureInvalidation(parts[0], Arrays.asList(parts).subList(1, parts.length));
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "(" + groupName + "," + subGroups + ")";
+        }
+    }
+
+    public void sendInvalidation(String groupName, List<String> subGroups) {
+        sendMessage(new GroupClosureInvalidation(groupName, subGroups == null ? Collections.emptyList() : subGroups));
+    }
+
+    @Override
+    public GroupClosureInvalidation deserialize(InputStream in) throws IOException {
+        return GroupClosureInvalidation.deserialize(in);
+    }
+
+    @Override
+    public void receivedMessage(GroupClosureInvalidation message) {
+        UserManager userManager = userManagerSupplier.get();
+        if (userManager instanceof UserManagerImpl) {
+            // don't send again the invalidation
+            ((UserManagerImpl) userManager).invalidateGroupClosureLocal(message.groupName, message.subGroups);
+        }
+    }
+
+}
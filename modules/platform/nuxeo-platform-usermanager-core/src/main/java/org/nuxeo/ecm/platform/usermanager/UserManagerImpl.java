@@ -151,12 +151,25 @@ public class UserManagerImpl implements UserManager, MultiTenantUserManager, Adm
      */
     public static final String ANCESTOR_GROUPS_PROPERTY_KEY = "ancestorGroups";
 
+    /**
+     * Property to disable the group closure index, which is used only when the principal cache is enabled.
+     *
+     * @since 11.3
+     */
+    public static final String GROUP_CLOSURE_INDEX_ENABLED_PROP = "nuxeo.usermanager.groupClosureIndex.enabled";
+
     protected final DirectoryService dirService;
 
     protected final CacheService cacheService;
 
     protected Cache principalCache = null;
 
+    /** @since 11.3 */
+    protected GroupClosureIndex groupClosureIndex;
+
+    /** @since 11.3 */
+    protected GroupClosureInvalidator groupClosureInvalidator;
+
     public UserMultiTenantManagement multiTenantManagement = new DefaultUserMultiTenantManagement();
 
     /**
@@ -286,6 +299,14 @@ public class UserManagerImpl implements UserManager, MultiTenantUserManager, Adm
             principalCache = cacheService.getCache(descriptor.userCacheName);
             invalidateAllPrincipals();
         }
+        // the group closures have the same invalidation rules as the cached principals
+        ConfigurationService configurationService = Framework.getService(ConfigurationService.class);
+        if (useCache() && (configurationService == null
+                || !configurationService.isBooleanFalse(GROUP_CLOSURE_INDEX_ENABLED_PROP))) {
+            groupClosureIndex = new GroupClosureIndex(this::getGroup);
+        } else {
+            groupClosureIndex = null;
+        }
 
     }
 
@@ -833,6 +854,7 @@ public class UserManagerImpl implements UserManager, MultiTenantUserManager, Adm
     @Override
     public void notifyGroupChanged(String groupName, String eventId, List<String> ancestorGroupNames) {
         invalidateAllPrincipals();
+        invalidateGroupClosure(groupName);
         notifyRuntime(groupName, GROUPCHANGED_EVENT_ID);
         if (eventId != null) {
             notifyRuntime(groupName, eventId);
@@ -846,6 +868,47 @@ public class UserManagerImpl implements UserManager, MultiTenantUserManager, Adm
         }
     }
 
+    @Override
+    public List<String> getGroupClosure(String groupName) {
+        return groupClosureIndex == null ? null : groupClosureIndex.getClosure(groupName);
+    }
+
+    /**
+     * Invalidates the group closures impacted by a change on a group, on all nodes.
+     *
+     * @since 11.3
+     */
+    protected void invalidateGroupClosure(String groupName) {
+        if (groupClosureIndex == null || groupName == null) {
+            return;
+        }
+        List<String> subGroups = getGroupsInGroup(groupName);
+        invalidateGroupClosureLocal(groupName, subGroups);
+        if (groupClosureInvalidator != null) {
+            groupClosureInvalidator.sendInvalidation(groupName, subGroups);
+        }
+    }
+
+    /**
+     * Invalidates the group closures impacted by a change on a group, on this node only.
+     *
+     * @since 11.3
+     */
+    public void invalidateGroupClosureLocal(String groupName, List<String> subGroups) {
+        if (groupClosureIndex != null) {
+            groupClosureIndex.invalidate(groupName, subGroups);
+        }
+    }
+
+    /**
+     * Sets the invalidator used to propagate group closure invalidations to other nodes.
+     *
+     * @since 11.3
+     */
+    public void setGroupClosureInvalidator(GroupClosureInvalidator groupClosureInvalidator) {
+        this.groupClosureInvalidator = groupClosureInvalidator;
+    }
+
     @Override
     public Boolean areGroupsReadOnly() {
         try (Session groupDir = dirService.open(groupDirectoryName)) {
@@ -1604,6 +1667,9 @@ public class UserManagerImpl implements UserManager, MultiTenantUserManager, Adm
             invalidatePrincipal((String) event.getData());
         } else if (INVALIDATE_ALL_PRINCIPALS_EVENT_ID.equals(id)) {
             invalidateAllPrincipals();
+            if (groupClosureIndex != null) {
+                groupClosureIndex.invalidateAll();
+            }
         }
     }
 
@@ -34,6 +34,7 @@ import org.nuxeo.ecm.directory.api.DirectoryService;
 import org.nuxeo.ecm.platform.usermanager.UserManager.MatchType;
 import org.nuxeo.runtime.api.Framework;
 import org.nuxeo.runtime.api.login.Authenticator;
+import org.nuxeo.runtime.cluster.ClusterService;
 import org.nuxeo.runtime.model.ComponentContext;
 import org.nuxeo.runtime.model.ComponentInstance;
 import org.nuxeo.runtime.model.ComponentName;
@@ -50,6 +51,9 @@ public class UserService extends DefaultComponent {
 
     private UserManager userManager;
 
+    /** @since 11.3 */
+    protected GroupClosureInvalidator groupClosureInvalidator;
+
     public UserManager getUserManager() {
         if (userManager == null) {
             recomputeUserManager(false);
@@ -102,6 +106,9 @@ public class UserService extends DefaultComponent {
             } catch (ReflectiveOperationException e) {
                 throw new NuxeoException(e);
             }
+            if (userManager instanceof UserManagerImpl) {
+                ((UserManagerImpl) userManager).setGroupClosureInvalidator(groupClosureInvalidator);
+            }
         }
         userManager.setConfiguration(merged);
     }
@@ -120,6 +127,31 @@ public class UserService extends DefaultComponent {
         log.info("UserService activated");
     }
 
+    @Override
+    public void start(ComponentContext context) {
+        ClusterService clusterService = Framework.getService(ClusterService.class);
+        if (clusterService != null && clusterService.isEnabled()) {
+            // register group closure invalidator
+            String nodeId = clusterService.getNodeId();
+            groupClosureInvalidator = new GroupClosureInvalidator(() -> userManager);
+            groupClosureInvalidator.initialize(GroupClosureInvalidator.GROUP_CLOSURE_INVAL_PUBSUB_TOPIC, nodeId);
+            if (userManager instanceof UserManagerImpl) {
+                ((UserManagerImpl) userManager).setGroupClosureInvalidator(groupClosureInvalidator);
+            }
+        }
+    }
+
+    @Override
+    public void stop(ComponentContext context) {
+        if (groupClosureInvalidator != null) {
+            groupClosureInvalidator.close();
+            groupClosureInvalidator = null;
+            if (userManager instanceof UserManagerImpl) {
+                ((UserManagerImpl) userManager).setGroupClosureInvalidator(null);
+            }
+        }
+    }
+
     @Override
     public void deactivate(ComponentContext context) {
         log.info("UserService deactivated");
@@ -0,0 +1,191 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.ecm.platform.usermanager;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nuxeo.ecm.core.api.DocumentModel;
+import org.nuxeo.ecm.core.api.NuxeoGroup;
+
+public class TestGroupClosureIndex {
+
+    protected Map<String, NuxeoGroup> groups;
+
+    protected AtomicInteger loads;
+
+    protected GroupClosureIndex index;
+
+    @Before
+    public void setUp() {
+        groups = new HashMap<>();
+        loads = new AtomicInteger();
+        index = new GroupClosureIndex(name -> {
+            loads.incrementAndGet();
+            return groups.get(name);
+        });
+        // root <- middle <- leaf, other <- leaf
+        addGroup("root");
+        addGroup("middle", "root");
+        addGroup("other");
+        addGroup("leaf", "middle", "other");
+    }
+
+    protected void addGroup(String name, String... parents) {
+        groups.put(name, new MockGroup(name, asList(parents)));
+    }
+
+    /** Group not backed by a document model, as there is no runtime. */
+    protected static class MockGroup implements NuxeoGroup {
+
+        private static final long serialVersionUID = 1L;
+
+        protected String name;
+
+        protected List<String> parentGroups;
+
+        public MockGroup(String name, List<String> parentGroups) {
+            this.name = name;
+            this.parentGroups = parentGroups;
+        }
+
+        @Override
+        public List<String> getMemberUsers() {
+            return emptyList();
+        }
+
+        @Override
+        public List<String> getMemberGroups() {
+            return emptyList();
+        }
+
+        @Override
+        public List<String> getParentGroups() {
+            return parentGroups;
+        }
+
+        @Override
+        public void setMemberUsers(List<String> users) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setMemberGroups(List<String> groups) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setParentGroups(List<String> groups) {
+            parentGroups = groups;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getLabel() {
+            return name;
+        }
+
+        @Override
+        public void setLabel(String label) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public DocumentModel getModel() {
+            return null;
+        }
+    }
+
+    /** The group comes first, the order of the ancestors is not specified. */
+    protected static void assertClosure(List<String> closure, String... expected) {
+        assertEquals(expected[0], closure.get(0));
+        assertEquals(new HashSet<>(asList(expected)), new HashSet<>(closure));
+        assertEquals(expected.length, closure.size());
+    }
+
+    @Test
+    public void testClosure() {
+        assertClosure(index.getClosure("root"), "root");
+        assertClosure(index.getClosure("middle"), "middle", "root");
+        assertClosure(index.getClosure("leaf"), "leaf", "middle", "other", "root");
+        assertNull(index.getClosure("unknown"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void testClosureIsCached() {
+        List<String> closure = index.getClosure("leaf");
+        int count = loads.get();
+        assertSame(closure, index.getClosure("leaf"));
+        assertEquals(count, loads.get());
+    }
+
+    @Test
+    public void testInvalidateAncestor() {
+        index.getClosure("root");
+        index.getClosure("other");
+        index.getClosure("leaf");
+        // add a new parent to root
+        addGroup("top");
+        addGroup("root", "top");
+        index.invalidate("root", asList("middle"));
+        assertEquals(1, index.size()); // other
+        assertClosure(index.getClosure("leaf"), "leaf", "middle", "other", "root", "top");
+    }
+
+    @Test
+    public void testInvalidateNewSubGroup() {
+        index.getClosure("root");
+        index.getClosure("other");
+        addGroup("new");
+        assertClosure(index.getClosure("new"), "new");
+        // new becomes a subgroup of other
+        addGroup("new", "other");
+        index.invalidate("other", asList("leaf", "new"));
+        assertEquals(1, index.size()); // root
+        assertClosure(index.getClosure("new"), "new", "other");
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        index.getClosure("leaf");
+        index.invalidate("unknown", emptyList());
+        assertEquals(1, index.size());
+        index.invalidateAll();
+        assertEquals(0, index.size());
+    }
+
+}
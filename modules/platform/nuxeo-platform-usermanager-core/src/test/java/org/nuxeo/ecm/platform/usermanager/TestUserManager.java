@@ -41,6 +41,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
@@ -1392,6 +1393,30 @@ public class TestUserManager extends UserManagerTestCase {
                 userManager.getAncestorGroups("ABCD")));
     }
 
+    @Test
+    public void testAllGroupsWithVirtualGroups() throws Exception {
+        DocumentModel childGroup = getGroup("test_g_child");
+        userManager.createGroup(childGroup);
+
+        DocumentModel parentGroup = getGroup("test_g_parent");
+        parentGroup.setPropertyValue("group:subGroups", (Serializable) Collections.singletonList("test_g_child"));
+        userManager.createGroup(parentGroup);
+
+        DocumentModel user = getUser("test_u_virtual");
+        user.setProperty("user", "groups", Collections.singletonList("test_g_child"));
+        userManager.createUser(user);
+
+        NuxeoPrincipalImpl principal = (NuxeoPrincipalImpl) userManager.getPrincipal("test_u_virtual");
+        // twice, the second time with the indexed group closures
+        for (int i = 0; i < 2; i++) {
+            principal.setVirtualGroups(Arrays.asList("virtual", "test_g_parent"), true);
+            List<String> allGroups = principal.getAllGroups();
+            assertTrue(allGroups.toString(),
+                    allGroups.containsAll(Arrays.asList("test_g_child", "test_g_parent", "virtual")));
+            assertEquals(allGroups.toString(), new HashSet<>(allGroups).size(), allGroups.size());
+        }
+    }
+
     @Test
     public void testNuxeoPrincipalSerialization() throws Exception {
         String userId = "test";
@@ -206,4 +206,38 @@ public abstract class AbstractKeyValueStoreProvider implements KeyValueStoreProv
         }
     }
 
+    /*
+     * This default implementation is uninteresting. It is expected that underlying storage implementations
+     * will leverage bulk writes to deliver significant optimizations over this simple loop.
+     */
+    @Override
+    public void putAll(Map<String, byte[]> map, long ttl) {
+        map.forEach((key, value) -> put(key, value, ttl));
+    }
+
+    /*
+     * This default implementation is uninteresting. It is expected that underlying storage implementations
+     * will leverage bulk writes to deliver significant optimizations over this simple loop.
+     */
+    @Override
+    public void deleteAll(Collection<String> keys) {
+        keys.forEach(key -> put(key, (byte[]) null));
+    }
+
+    /*
+     * This default implementation is uninteresting. It is expected that underlying storage implementations
+     * will leverage bulk writes to deliver significant optimizations over this simple loop.
+     */
+    @Override
+    public Map<String, Long> addAndGetAll(Map<String, Long> deltas) throws NumberFormatException { // NOSONAR
+        Map<String, Long> map = new HashMap<>(deltas.size());
+        deltas.forEach((key, delta) -> map.put(key, Long.valueOf(addAndGet(key, delta.longValue()))));
+        return map;
+    }
+
+    @Override
+    public KeyValueBatch batch() {
+        return new KeyValueBatchImpl(this);
+    }
+
 }
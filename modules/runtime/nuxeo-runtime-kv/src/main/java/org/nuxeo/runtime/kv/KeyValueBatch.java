@@ -0,0 +1,94 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.runtime.kv;
+
+import java.util.Map;
+
+/**
+ * A batch of operations on a {@link KeyValueStore}.
+ * <p>
+ * Operations are recorded in order and sent to the store when {@link #execute} is called. Depending on the underlying
+ * storage they may be pipelined or grouped, so a batch is much cheaper than the same operations done one by one.
+ * <p>
+ * A batch is not thread-safe, and is not atomic as a whole.
+ *
+ * @since 11.3
+ */
+public interface KeyValueBatch {
+
+    /**
+     * Records the setting of the value associated to the key, and a TTL.
+     *
+     * @param key the key
+     * @param value the value, which may be {@code null}
+     * @param ttl the TTL, in seconds (0 for infinite)
+     * @return this batch
+     */
+    KeyValueBatch put(String key, byte[] value, long ttl);
+
+    /**
+     * Records the setting of the value associated to the key, and a TTL.
+     *
+     * @param key the key
+     * @param value the value, which may be {@code null}
+     * @param ttl the TTL, in seconds (0 for infinite)
+     * @return this batch
+     */
+    KeyValueBatch put(String key, String value, long ttl);
+
+    /**
+     * Records the setting of the value associated to the key, and a TTL.
+     *
+     * @param key the key
+     * @param value the value, which may be {@code null}
+     * @param ttl the TTL, in seconds (0 for infinite)
+     * @return this batch
+     */
+    KeyValueBatch put(String key, Long value, long ttl);
+
+    /**
+     * Records the deletion of the value associated to the key.
+     *
+     * @param key the key
+     * @return this batch
+     */
+    KeyValueBatch delete(String key);
+
+    /**
+     * Records the atomic addition of the delta to the value associated to the key.
+     *
+     * @param key the key
+     * @param delta the delta to add
+     * @return this batch
+     * @see KeyValueStore#addAndGet
+     */
+    KeyValueBatch addAndGet(String key, long delta);
+
+    /**
+     * Returns the number of operations recorded and not yet executed.
+     */
+    int size();
+
+    /**
+     * Executes the recorded operations, in order, then clears them.
+     *
+     * @return the key/new value map for the keys that were the target of an {@link #addAndGet}; if a key was
+     *         incremented several times its last value is returned
+     * @throws NumberFormatException if one of the values to increment cannot be interpreted as a {@code long}
+     */
+    Map<String, Long> execute();
+
+}
@@ -0,0 +1,169 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.runtime.kv;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Default implementation of a {@link KeyValueBatch}.
+ * <p>
+ * Consecutive operations of the same kind are grouped and executed using the bulk methods of the store:
+ * {@link KeyValueStore#putAll}, {@link KeyValueStore#deleteAll} and {@link KeyValueStore#addAndGetAll}. Stores able to
+ * pipeline heterogeneous operations can override {@link #execute(List)}.
+ *
+ * @since 11.3
+ */
+public class KeyValueBatchImpl implements KeyValueBatch {
+
+    public enum Type {
+        PUT, DELETE, ADD
+    }
+
+    /**
+     * A recorded operation.
+     */
+    public static class Operation {
+
+        public final Type type;
+
+        public final String key;
+
+        public final byte[] value;
+
+        public final long ttl;
+
+        public final long delta;
+
+        public Operation(Type type, String key, byte[] value, long ttl, long delta) {
+            this.type = type;
+            this.key = key;
+            this.value = value;
+            this.ttl = ttl;
+            this.delta = delta;
+        }
+
+        @Override
+        public String toString() {
+            return type + "(" + key + ")";
+        }
+    }
+
+    protected final KeyValueStore store;
+
+    protected final List<Operation> operations = new ArrayList<>();
+
+    public KeyValueBatchImpl(KeyValueStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public KeyValueBatch put(String key, byte[] value, long ttl) {
+        Objects.requireNonNull(key);
+        if (value == null) {
+            return delete(key);
+        }
+        operations.add(new Operation(Type.PUT, key, value, ttl, 0));
+        return this;
+    }
+
+    @Override
+    public KeyValueBatch put(String key, String value, long ttl) {
+        return put(key, value == null ? null : value.getBytes(UTF_8), ttl);
+    }
+
+    @Override
+    public KeyValueBatch put(String key, Long value, long ttl) {
+        return put(key, value == null ? null : value.toString(), ttl);
+    }
+
+    @Override
+    public KeyValueBatch delete(String key) {
+        Objects.requireNonNull(key);
+        operations.add(new Operation(Type.DELETE, key, null, 0, 0));
+        return this;
+    }
+
+    @Override
+    public KeyValueBatch addAndGet(String key, long delta) {
+        Objects.requireNonNull(key);
+        operations.add(new Operation(Type.ADD, key, null, 0, delta));
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return operations.size();
+    }
+
+    @Override
+    public Map<String, Long> execute() {
+        if (operations.isEmpty()) {
+            return new HashMap<>();
+        }
+        List<Operation> ops = new ArrayList<>(operations);
+        operations.clear();
+        return execute(ops);
+    }
+
+    /**
+     * Executes the given operations, in order.
+     */
+    protected Map<String, Long> execute(List<Operation> ops) {
+        Map<String, Long> results = new HashMap<>();
+        int size = ops.size();
+        int i = 0;
+        while (i < size) {
+            Operation first = ops.get(i);
+            switch (first.type) {
+            case PUT:
+                Map<String, byte[]> map = new LinkedHashMap<>();
+                for (; i < size && ops.get(i).type == Type.PUT && ops.get(i).ttl == first.ttl; i++) {
+                    map.put(ops.get(i).key, ops.get(i).value);
+                }
+                store.putAll(map, first.ttl);
+                break;
+            case DELETE:
+                Set<String> keys = new LinkedHashSet<>();
+                for (; i < size && ops.get(i).type == Type.DELETE; i++) {
+                    keys.add(ops.get(i).key);
+                }
+                store.deleteAll(keys);
+                break;
+            case ADD:
+                // several increments of the same key are merged, only the last value is returned anyway
+                Map<String, Long> deltas = new LinkedHashMap<>();
+                for (; i < size && ops.get(i).type == Type.ADD; i++) {
+                    deltas.merge(ops.get(i).key, Long.valueOf(ops.get(i).delta), Long::sum);
+                }
+                results.putAll(store.addAndGetAll(deltas));
+                break;
+            default:
+                throw new IllegalStateException(first.type.toString());
+            }
+        }
+        return results;
+    }
+
+}
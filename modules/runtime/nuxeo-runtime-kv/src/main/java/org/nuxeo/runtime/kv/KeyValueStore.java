@@ -223,4 +223,48 @@ public interface KeyValueStore {
      */
     long addAndGet(String key, long delta);
 
+    /**
+     * Sets the values associated to the keys, all with the same TTL.
+     * <p>
+     * A {@code null} value deletes the key. The operation is not atomic as a whole, but each key is updated atomically.
+     *
+     * @param map the key/value map, whose values may be {@code null}
+     * @param ttl the TTL, in seconds (0 for infinite)
+     * @since 11.3
+     */
+    void putAll(Map<String, byte[]> map, long ttl);
+
+    /**
+     * Deletes the values associated to the keys.
+     * <p>
+     * The operation is not atomic as a whole, but each key is deleted atomically.
+     *
+     * @param keys the keys
+     * @since 11.3
+     */
+    void deleteAll(Collection<String> keys);
+
+    /**
+     * Atomically adds each delta to the value associated to its key, interpreted as a long represented as a string.
+     * <p>
+     * The operation is not atomic as a whole, but each key is updated atomically as with {@link #addAndGet}.
+     *
+     * @param deltas the key/delta map
+     * @return the key/new value map
+     * @throws NumberFormatException if one of the existing values cannot be interpreted as a {@code long}
+     * @since 11.3
+     */
+    Map<String, Long> addAndGetAll(Map<String, Long> deltas);
+
+    /**
+     * Creates a new batch of operations on this store.
+     * <p>
+     * The operations are recorded and only sent to the store when {@link KeyValueBatch#execute} is called, allowing the
+     * underlying storage to pipeline them.
+     *
+     * @return the new batch
+     * @since 11.3
+     */
+    KeyValueBatch batch();
+
 }
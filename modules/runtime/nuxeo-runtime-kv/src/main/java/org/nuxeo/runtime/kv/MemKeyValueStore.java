@@ -20,7 +20,9 @@ package org.nuxeo.runtime.kv;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
@@ -144,4 +146,50 @@ public class MemKeyValueStore extends AbstractKeyValueStoreProvider {
         }
     }
 
+    @Override
+    public void putAll(Map<String, byte[]> values, long ttl) {
+        writeLock.lock();
+        try {
+            values.forEach((key, value) -> put(key, value, ttl));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<String> keys) {
+        writeLock.lock();
+        try {
+            keys.forEach(map::remove);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Long> addAndGetAll(Map<String, Long> deltas) throws NumberFormatException { // NOSONAR
+        writeLock.lock();
+        try {
+            return super.addAndGetAll(deltas);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public KeyValueBatch batch() {
+        return new KeyValueBatchImpl(this) {
+            @Override
+            protected Map<String, Long> execute(List<Operation> ops) {
+                // the lock is reentrant, holding it makes the whole batch atomic
+                writeLock.lock();
+                try {
+                    return super.execute(ops);
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+        };
+    }
+
 }
@@ -539,6 +539,106 @@ public abstract class AbstractKeyValueStoreTest {
         }
     }
 
+    @Test
+    public void testPutAllDeleteAll() {
+        Map<String, byte[]> map = new HashMap<>();
+        map.put("foo1", BAR_B);
+        map.put("foo2", GEE_B);
+        map.put("foo3", NOT_UTF_8);
+        map.put("foo4", null);
+        store.put("foo4", MOO);
+        store.putAll(map, 0);
+        assertEquals(new HashSet<>(Arrays.asList("foo1", "foo2", "foo3")), storeKeys());
+        assertEquals(BAR, store.getString("foo1"));
+        assertEquals(GEE, store.getString("foo2"));
+        assertArrayEquals(NOT_UTF_8, store.get("foo3"));
+
+        // overwrite
+        store.putAll(Collections.singletonMap("foo1", MOO_B), 0);
+        assertEquals(MOO, store.getString("foo1"));
+
+        store.deleteAll(Arrays.asList("foo1", "foo3", "foo5"));
+        assertEquals(Collections.singleton("foo2"), storeKeys());
+
+        // empty collections are a no-op
+        store.putAll(Collections.emptyMap(), 0);
+        store.deleteAll(Collections.emptySet());
+        assertEquals(Collections.singleton("foo2"), storeKeys());
+    }
+
+    @Test
+    public void testPutAllDeleteAllMany() {
+        // more keys than a database accepts in a single IN list
+        Map<String, byte[]> map = new HashMap<>();
+        for (int i = 0; i < 2500; i++) {
+            map.put("foo" + i, BAR_B);
+        }
+        store.putAll(map, 0);
+        assertEquals(map.keySet(), storeKeys());
+        store.deleteAll(map.keySet());
+        assertEquals(Collections.emptySet(), storeKeys());
+    }
+
+    @SuppressWarnings("boxing")
+    @Test
+    public void testAddAndGetAll() {
+        store.put("foo2", 10L);
+        store.put("foo3", "20");
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put("foo1", 1L);
+        deltas.put("foo2", 2L);
+        deltas.put("foo3", -3L);
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("foo1", 1L);
+        expected.put("foo2", 12L);
+        expected.put("foo3", 17L);
+        assertEquals(expected, store.addAndGetAll(deltas));
+        assertEquals(expected, store.getLongs(expected.keySet()));
+
+        store.put("foo3", "ABC");
+        try {
+            store.addAndGetAll(deltas);
+            fail("shouldn't allow incrementing a non-numeric string");
+        } catch (NumberFormatException e) {
+            // ok
+        }
+    }
+
+    @SuppressWarnings("boxing")
+    @Test
+    public void testBatch() {
+        store.put("foo3", "toremove");
+        KeyValueBatch batch = store.batch();
+        batch.put("foo1", BAR, 0)
+             .put("foo2", GEE_B, 0)
+             .put("foo4", 5L, 0)
+             .delete("foo3")
+             .addAndGet("foo4", 10)
+             .addAndGet("foo5", 1)
+             .addAndGet("foo5", 2)
+             .put("foo2", MOO, 0)
+             .put("foo1", (String) null, 0);
+        assertEquals(9, batch.size());
+        // nothing is done before execution
+        assertNull(store.get("foo1"));
+        assertEquals("toremove", store.getString("foo3"));
+
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("foo4", 15L);
+        expected.put("foo5", 3L);
+        assertEquals(expected, batch.execute());
+        assertEquals(0, batch.size());
+        assertEquals(new HashSet<>(Arrays.asList("foo2", "foo4", "foo5")), storeKeys());
+        assertEquals(MOO, store.getString("foo2"));
+        assertEquals(Long.valueOf(15), store.getLong("foo4"));
+        assertEquals(Long.valueOf(3), store.getLong("foo5"));
+
+        // an executed batch is empty and can be reused
+        assertTrue(batch.execute().isEmpty());
+        batch.put("foo6", BAR, 0).execute();
+        assertEquals(BAR, store.getString("foo6"));
+    }
+
     @Test
     public void testKeyStream() throws Exception {
         // keyStream() already tested by all other test methods indirectly
@@ -34,6 +34,7 @@ import org.nuxeo.lib.stream.StreamRuntimeException;
 import org.nuxeo.lib.stream.computation.ComputationPolicy;
 import org.nuxeo.lib.stream.computation.ComputationPolicyBuilder;
 import org.nuxeo.lib.stream.computation.RecordFilter;
+import org.nuxeo.lib.stream.computation.WaitStrategy;
 import org.nuxeo.runtime.api.Framework;
 import org.nuxeo.runtime.model.Descriptor;
 
@@ -62,6 +63,11 @@ public class StreamProcessorDescriptor implements Descriptor {
         @XNode("@concurrency")
         public Integer concurrency = DEFAULT_CONCURRENCY;
 
+        // Maximum number of runners executed at the same time with the shared scheduling, 0 for no limit
+        // @since 11.3
+        @XNode("@maxRunning")
+        public Integer maxRunning = 0;
+
         @Override
         public String getId() {
             return name;
@@ -174,6 +180,14 @@ public class StreamProcessorDescriptor implements Descriptor {
         @XNode("@batchThreshold")
         public Duration batchThreshold = DEFAULT_BATCH_THRESHOLD;
 
+        // @since 11.3 delivers records by batch to the computation using the batch policy
+        @XNode("@batchDelivery")
+        public Boolean batchDelivery = Boolean.FALSE;
+
+        // @since 11.3 how the computation waits for records when idle: sleep, busy_spin, yield, backoff or blocking
+        @XNode("@waitStrategy")
+        public String waitStrategy = WaitStrategy.SLEEP.name();
+
         protected int getSkipFirstFailures() {
             return Integer.parseInt(
                     Framework.getProperty(RECOVERY_SKIP_FIRST_FAILURES_OPTION, Integer.toString(skipFirstFailures)));
@@ -185,6 +199,8 @@ public class StreamProcessorDescriptor implements Descriptor {
                                                                TimeUnit.MILLISECONDS);
             return new ComputationPolicyBuilder().retryPolicy(retryPolicy)
                                                  .batchPolicy(batchCapacity, batchThreshold)
+                                                 .batchDelivery(batchDelivery)
+                                                 .waitStrategy(WaitStrategy.valueOf(waitStrategy.toUpperCase()))
                                                  .continueOnFailure(continueOnFailure)
                                                  .skipFirstFailures(getSkipFirstFailures());
         }
@@ -215,6 +231,11 @@ public class StreamProcessorDescriptor implements Descriptor {
     @XNode("@defaultExternal")
     public boolean defaultExternal;
 
+    // Run computations as cooperative tasks on a shared pool instead of dedicated threads
+    // @since 11.3
+    @XNode("@sharedScheduling")
+    public boolean sharedScheduling;
+
     @XNodeMap(value = "option", key = "@name", type = HashMap.class, componentType = String.class)
     public Map<String, String> options = new HashMap<>();
 
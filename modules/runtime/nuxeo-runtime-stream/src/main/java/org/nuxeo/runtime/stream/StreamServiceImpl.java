@@ -42,6 +42,7 @@ import org.nuxeo.lib.stream.log.Name;
 import org.nuxeo.lib.stream.log.UnifiedLogManager;
 import org.nuxeo.lib.stream.log.chronicle.ChronicleLogConfig;
 import org.nuxeo.lib.stream.log.kafka.KafkaLogConfig;
+import org.nuxeo.lib.stream.log.mem.MemLogConfig;
 import org.nuxeo.runtime.api.Framework;
 import org.nuxeo.runtime.codec.CodecService;
 import org.nuxeo.runtime.kafka.KafkaConfigService;
@@ -148,6 +149,8 @@ public class StreamServiceImpl extends DefaultComponent implements StreamService
             }
             if ("kafka".equalsIgnoreCase(desc.type)) {
                 ret.add(createKafkaLogConfig(desc));
+            } else if ("mem".equalsIgnoreCase(desc.type)) {
+                ret.add(createMemLogConfig(desc));
             } else {
                 ret.add(createChronicleLogConfig(desc));
             }
@@ -171,6 +174,13 @@ public class StreamServiceImpl extends DefaultComponent implements StreamService
         return new ChronicleLogConfig(desc.getId(), desc.isDefault(), desc.getPatterns(), path, retention);
     }
 
+    // @since 11.3
+    protected LogConfig createMemLogConfig(LogConfigDescriptor desc) {
+        String capacity = desc.options.get("capacity");
+        int value = capacity != null ? Integer.parseInt(capacity) : MemLogConfig.DEFAULT_CAPACITY;
+        return new MemLogConfig(desc.getId(), desc.isDefault(), desc.getPatterns(), value);
+    }
+
     protected void initProcessor(StreamProcessorDescriptor descriptor) {
         if (! descriptor.isEnabled()) {
             log.info("Processor {} disabled", descriptor.getId());
@@ -205,7 +215,11 @@ public class StreamServiceImpl extends DefaultComponent implements StreamService
                 : codecService.getCodec(descriptor.defaultCodec, Record.class);
         Settings settings = new Settings(descriptor.defaultConcurrency, descriptor.defaultPartitions, actualCodec,
                 descriptor.getDefaultPolicy(), null, descriptor.defaultExternal);
-        descriptor.computations.forEach(comp -> settings.setConcurrency(comp.name, comp.concurrency));
+        settings.setSharedScheduling(descriptor.sharedScheduling);
+        descriptor.computations.forEach(comp -> {
+            settings.setConcurrency(comp.name, comp.concurrency);
+            settings.setMaxRunning(comp.name, comp.maxRunning);
+        });
         descriptor.policies.forEach(policy -> settings.setPolicy(policy.name, descriptor.getPolicy(policy.name)));
         for (StreamProcessorDescriptor.StreamDescriptor streamDescriptor : descriptor.streams) {
             settings.setPartitions(streamDescriptor.name,
@@ -0,0 +1,145 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.bench;
+
+import static org.nuxeo.lib.stream.codec.NoCodec.NO_CODEC;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.nuxeo.lib.stream.codec.AvroBinaryCodec;
+import org.nuxeo.lib.stream.codec.AvroJsonCodec;
+import org.nuxeo.lib.stream.codec.AvroMessageCodec;
+import org.nuxeo.lib.stream.codec.Codec;
+import org.nuxeo.lib.stream.codec.NoCodec;
+import org.nuxeo.lib.stream.codec.SerializableCodec;
+import org.nuxeo.lib.stream.computation.Record;
+import org.nuxeo.lib.stream.log.LogManager;
+import org.nuxeo.lib.stream.log.chronicle.ChronicleLogManager;
+import org.nuxeo.lib.stream.log.kafka.KafkaLogManager;
+import org.nuxeo.lib.stream.log.kafka.KafkaUtils;
+import org.nuxeo.lib.stream.log.mem.MemLogManager;
+import org.nuxeo.lib.stream.log.mem.MemLogs;
+
+/**
+ * Creates the log managers, codecs and records used by the benchmarks.
+ * <p>
+ * The Kafka backend uses the broker defined by the {@value KafkaUtils#BOOTSTRAP_SERVERS_PROP} system property.
+ *
+ * @since 11.3
+ */
+public class BenchmarkHelper {
+
+    public static final String CHRONICLE = "chronicle";
+
+    public static final String KAFKA = "kafka";
+
+    public static final String MEM = "mem";
+
+    protected static final String KAFKA_PREFIX = "nuxeo-bench-";
+
+    private BenchmarkHelper() {
+        // utility class
+    }
+
+    /**
+     * Creates a new log manager for the given backend, the base path is used by the Chronicle backend and as store
+     * name by the in-memory backend.
+     */
+    public static LogManager createLogManager(String backend, Path basePath) {
+        switch (backend) {
+        case CHRONICLE:
+            return new ChronicleLogManager(basePath);
+        case MEM:
+            return new MemLogManager(basePath.toString());
+        case KAFKA:
+            if (!KafkaUtils.kafkaDetected()) {
+                throw new IllegalStateException("No Kafka broker found on: " + KafkaUtils.getBootstrapServers());
+            }
+            return new KafkaLogManager(KAFKA_PREFIX + System.currentTimeMillis() + "-", getKafkaProducerProperties(),
+                    getKafkaConsumerProperties());
+        default:
+            throw new IllegalArgumentException("Unknown backend: " + backend);
+        }
+    }
+
+    public static Path createBasePath() {
+        try {
+            return Files.createTempDirectory("nuxeo-stream-bench");
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create temporary directory", e);
+        }
+    }
+
+    public static void deleteBasePath(Path basePath) {
+        if (basePath != null) {
+            FileUtils.deleteQuietly(basePath.toFile());
+            MemLogs.clear(basePath.toString());
+        }
+    }
+
+    protected static Properties getKafkaProducerProperties() {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, KafkaUtils.getBootstrapServers());
+        return props;
+    }
+
+    protected static Properties getKafkaConsumerProperties() {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, KafkaUtils.getBootstrapServers());
+        props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, 120_000);
+        props.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, 10_000);
+        props.put(ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, 400);
+        return props;
+    }
+
+    /**
+     * Returns a {@link Record} codec from its name.
+     */
+    @SuppressWarnings("unchecked")
+    public static Codec<Record> getCodec(String name) {
+        switch (name) {
+        case NoCodec.NAME:
+            return NO_CODEC;
+        case SerializableCodec.NAME:
+            return new SerializableCodec<>();
+        case AvroMessageCodec.NAME:
+            return new AvroMessageCodec<>(Record.class);
+        case AvroBinaryCodec.NAME:
+            return new AvroBinaryCodec<>(Record.class);
+        case AvroJsonCodec.NAME:
+            return new AvroJsonCodec<>(Record.class);
+        default:
+            throw new IllegalArgumentException("Unknown codec: " + name);
+        }
+    }
+
+    /**
+     * Creates a record with a random payload of the given size.
+     */
+    public static Record createRecord(String key, int dataSize) {
+        byte[] data = new byte[dataSize];
+        ThreadLocalRandom.current().nextBytes(data);
+        return Record.of(key, data);
+    }
+
+}
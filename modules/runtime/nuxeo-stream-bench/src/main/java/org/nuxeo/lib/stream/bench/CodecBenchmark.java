@@ -0,0 +1,97 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.bench;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.nuxeo.lib.stream.codec.Codec;
+import org.nuxeo.lib.stream.computation.Record;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the encoding and decoding throughput of a {@link Record} for each codec and record size.
+ *
+ * @since 11.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CodecBenchmark {
+
+    // the "none" codec is not usable outside of a log, it is measured by the LogAppenderBenchmark
+    @Param({ "java", "avro", "avroBinary", "avroJson" })
+    public String codec;
+
+    @Param({ "100", "1000", "10000" })
+    public int size;
+
+    protected Codec<Record> recordCodec;
+
+    protected Record record;
+
+    protected byte[] encoded;
+
+    protected ByteBuffer buffer;
+
+    protected ByteBuffer encodedBuffer;
+
+    @Setup
+    public void setup() {
+        recordCodec = BenchmarkHelper.getCodec(codec);
+        record = BenchmarkHelper.createRecord("key", size);
+        encoded = recordCodec.encode(record);
+        buffer = ByteBuffer.allocate(2 * encoded.length);
+        encodedBuffer = ByteBuffer.wrap(encoded);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return recordCodec.encode(record);
+    }
+
+    @Benchmark
+    public Record decode() {
+        return recordCodec.decode(encoded);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeBuffer() {
+        buffer.clear();
+        recordCodec.encode(record, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Record decodeBuffer() {
+        encodedBuffer.rewind();
+        return recordCodec.decode(encodedBuffer);
+    }
+
+}
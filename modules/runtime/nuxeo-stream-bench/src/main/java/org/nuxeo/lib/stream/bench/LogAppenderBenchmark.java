@@ -0,0 +1,108 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.bench;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.nuxeo.lib.stream.computation.Record;
+import org.nuxeo.lib.stream.log.LogAppender;
+import org.nuxeo.lib.stream.log.LogManager;
+import org.nuxeo.lib.stream.log.LogOffset;
+import org.nuxeo.lib.stream.log.Name;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the append throughput on a Log for each backend, codec and record size.
+ * <p>
+ * The appender is shared, use the JMH {@code -t} option to measure concurrent appends.
+ *
+ * @since 11.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LogAppenderBenchmark {
+
+    protected static final Name LOG_NAME = Name.ofUrn("bench/append");
+
+    protected static final int KEYS = 1024;
+
+    @Param({ BenchmarkHelper.CHRONICLE, BenchmarkHelper.MEM })
+    public String backend;
+
+    @Param({ "none", "java", "avro", "avroBinary", "avroJson" })
+    public String codec;
+
+    @Param({ "100", "1000", "10000" })
+    public int size;
+
+    @Param({ "4" })
+    public int partitions;
+
+    protected Path basePath;
+
+    protected LogManager manager;
+
+    protected LogAppender<Record> appender;
+
+    protected Record[] records;
+
+    @Setup
+    public void setup() {
+        basePath = BenchmarkHelper.createBasePath();
+        manager = BenchmarkHelper.createLogManager(backend, basePath);
+        manager.createIfNotExists(LOG_NAME, partitions);
+        appender = manager.getAppender(LOG_NAME, BenchmarkHelper.getCodec(codec));
+        records = new Record[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            records[i] = BenchmarkHelper.createRecord("key" + i, size);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.delete(LOG_NAME);
+        manager.close();
+        BenchmarkHelper.deleteBasePath(basePath);
+    }
+
+    @State(Scope.Thread)
+    public static class Counter {
+        protected int value;
+    }
+
+    @Benchmark
+    public LogOffset append(Counter counter) {
+        Record record = records[counter.value++ % KEYS];
+        return appender.append(record.getKey(), record);
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.bench;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.nuxeo.lib.stream.codec.Codec;
+import org.nuxeo.lib.stream.computation.Record;
+import org.nuxeo.lib.stream.log.LogAppender;
+import org.nuxeo.lib.stream.log.LogManager;
+import org.nuxeo.lib.stream.log.LogPartition;
+import org.nuxeo.lib.stream.log.LogRecord;
+import org.nuxeo.lib.stream.log.LogTailer;
+import org.nuxeo.lib.stream.log.Name;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the tail latency: the time between the append of a record and its read by a tailer.
+ * <p>
+ * The sample mode reports the latency distribution (p50, p99, p999 ...).
+ *
+ * @since 11.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LogTailerBenchmark {
+
+    protected static final Name LOG_NAME = Name.ofUrn("bench/tail");
+
+    protected static final Name GROUP = Name.ofUrn("bench/tailer");
+
+    protected static final Duration READ_TIMEOUT = Duration.ofSeconds(10);
+
+    @Param({ BenchmarkHelper.CHRONICLE, BenchmarkHelper.MEM })
+    public String backend;
+
+    @Param({ "none", "java", "avro", "avroBinary", "avroJson" })
+    public String codec;
+
+    @Param({ "100", "1000", "10000" })
+    public int size;
+
+    protected Path basePath;
+
+    protected LogManager manager;
+
+    protected LogAppender<Record> appender;
+
+    protected LogTailer<Record> tailer;
+
+    protected Record record;
+
+    @Setup
+    public void setup() {
+        basePath = BenchmarkHelper.createBasePath();
+        manager = BenchmarkHelper.createLogManager(backend, basePath);
+        manager.createIfNotExists(LOG_NAME, 1);
+        Codec<Record> recordCodec = BenchmarkHelper.getCodec(codec);
+        appender = manager.getAppender(LOG_NAME, recordCodec);
+        tailer = manager.createTailer(GROUP, LogPartition.of(LOG_NAME, 0), recordCodec);
+        record = BenchmarkHelper.createRecord("key", size);
+    }
+
+    @TearDown
+    public void tearDown() {
+        tailer.close();
+        manager.delete(LOG_NAME);
+        manager.close();
+        BenchmarkHelper.deleteBasePath(basePath);
+    }
+
+    @Benchmark
+    public LogRecord<Record> appendAndRead() throws InterruptedException {
+        appender.append(0, record);
+        LogRecord<Record> ret = tailer.read(READ_TIMEOUT);
+        if (ret == null) {
+            throw new IllegalStateException("Record not read after " + READ_TIMEOUT);
+        }
+        return ret;
+    }
+
+}
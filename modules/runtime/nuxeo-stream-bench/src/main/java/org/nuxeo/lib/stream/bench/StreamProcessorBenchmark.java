@@ -0,0 +1,161 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.bench;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.nuxeo.lib.stream.codec.Codec;
+import org.nuxeo.lib.stream.computation.AbstractComputation;
+import org.nuxeo.lib.stream.computation.ComputationContext;
+import org.nuxeo.lib.stream.computation.ComputationPolicy;
+import org.nuxeo.lib.stream.computation.ComputationPolicyBuilder;
+import org.nuxeo.lib.stream.computation.Record;
+import org.nuxeo.lib.stream.computation.Settings;
+import org.nuxeo.lib.stream.computation.StreamManager;
+import org.nuxeo.lib.stream.computation.StreamProcessor;
+import org.nuxeo.lib.stream.computation.Topology;
+import org.nuxeo.lib.stream.computation.WaitStrategy;
+import org.nuxeo.lib.stream.computation.log.LogStreamManager;
+import org.nuxeo.lib.stream.log.LogManager;
+import org.nuxeo.lib.stream.log.LogPartition;
+import org.nuxeo.lib.stream.log.LogRecord;
+import org.nuxeo.lib.stream.log.LogTailer;
+import org.nuxeo.lib.stream.log.Name;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the end to end latency of a {@link org.nuxeo.lib.stream.computation.log.LogStreamProcessor} topology: the
+ * time between the append of a record in the input stream and its read at the end of a chain of computations.
+ *
+ * @since 11.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class StreamProcessorBenchmark {
+
+    protected static final String INPUT_STREAM = "bench/input";
+
+    protected static final Name GROUP = Name.ofUrn("bench/tailer");
+
+    protected static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    @Param({ BenchmarkHelper.CHRONICLE, BenchmarkHelper.MEM })
+    public String backend;
+
+    @Param({ "none", "avro" })
+    public String codec;
+
+    @Param({ "1000" })
+    public int size;
+
+    @Param({ "1", "3" })
+    public int computations;
+
+    @Param({ "SLEEP", "BLOCKING" })
+    public WaitStrategy waitStrategy;
+
+    protected Path basePath;
+
+    protected LogManager manager;
+
+    protected StreamManager streamManager;
+
+    protected StreamProcessor processor;
+
+    protected LogTailer<Record> tailer;
+
+    protected Record record;
+
+    @Setup
+    public void setup() throws InterruptedException {
+        basePath = BenchmarkHelper.createBasePath();
+        manager = BenchmarkHelper.createLogManager(backend, basePath);
+        streamManager = new LogStreamManager(manager);
+        Codec<Record> recordCodec = BenchmarkHelper.getCodec(codec);
+        Topology.Builder builder = Topology.builder();
+        for (int i = 1; i <= computations; i++) {
+            String name = "bench/C" + i;
+            builder.addComputation(() -> new ForwardComputation(name),
+                    Arrays.asList("i1:" + getStream(i - 1), "o1:" + getStream(i)));
+        }
+        ComputationPolicy policy = new ComputationPolicyBuilder().waitStrategy(waitStrategy).build();
+        Settings settings = new Settings(1, 1, recordCodec, policy);
+        processor = streamManager.registerAndCreateProcessor("bench", builder.build(), settings);
+        processor.start();
+        if (!processor.waitForAssignments(TIMEOUT)) {
+            throw new IllegalStateException("Processor not assigned after " + TIMEOUT);
+        }
+        tailer = manager.createTailer(GROUP, LogPartition.of(Name.ofUrn(getStream(computations)), 0), recordCodec);
+        record = BenchmarkHelper.createRecord("key", size);
+    }
+
+    protected static String getStream(int index) {
+        return index == 0 ? INPUT_STREAM : "bench/output" + index;
+    }
+
+    @TearDown
+    public void tearDown() {
+        processor.shutdown();
+        tailer.close();
+        manager.close();
+        BenchmarkHelper.deleteBasePath(basePath);
+    }
+
+    @Benchmark
+    public LogRecord<Record> endToEnd() throws InterruptedException {
+        streamManager.append(INPUT_STREAM, record);
+        LogRecord<Record> ret = tailer.read(TIMEOUT);
+        if (ret == null) {
+            throw new IllegalStateException("Record not processed after " + TIMEOUT);
+        }
+        return ret;
+    }
+
+    /**
+     * Forwards records without batching.
+     */
+    public static class ForwardComputation extends AbstractComputation {
+
+        public ForwardComputation(String name) {
+            super(name, 1, 1);
+        }
+
+        @Override
+        public void processRecord(ComputationContext context, String inputStreamName, Record record) {
+            context.produceRecord(OUTPUT_1, record);
+            context.askForCheckpoint();
+        }
+    }
+
+}
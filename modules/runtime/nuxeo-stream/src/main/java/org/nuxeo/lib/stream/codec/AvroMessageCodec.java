@@ -19,6 +19,7 @@
 package org.nuxeo.lib.stream.codec;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.apache.avro.Schema;
 import org.apache.avro.message.BadHeaderException;
@@ -72,6 +73,16 @@ public class AvroMessageCodec<T> implements Codec<T> {
         }
     }
 
+    @Override
+    public void encode(T object, ByteBuffer buffer) {
+        // the encoder is reused by the thread and writes directly into the buffer
+        try (ByteBufferOutputStream stream = ByteBufferOutputStream.of(buffer)) {
+            encoder.encode(object, stream);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
     @Override
     public T decode(byte[] data) {
         try {
@@ -80,4 +91,13 @@ public class AvroMessageCodec<T> implements Codec<T> {
             throw new IllegalArgumentException(e);
         }
     }
+
+    @Override
+    public T decode(ByteBuffer buffer) {
+        try {
+            return decoder.decode(buffer, null);
+        } catch (IOException | BadHeaderException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
 }
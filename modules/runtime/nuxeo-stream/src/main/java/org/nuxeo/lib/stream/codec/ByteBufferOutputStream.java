@@ -0,0 +1,58 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.codec;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An OutputStream writing directly into a ByteBuffer, the instance is reused by a thread to encode without
+ * intermediate copy.
+ *
+ * @since 11.3
+ */
+class ByteBufferOutputStream extends OutputStream {
+
+    protected static final ThreadLocal<ByteBufferOutputStream> STREAM = ThreadLocal.withInitial(
+            ByteBufferOutputStream::new);
+
+    protected ByteBuffer buffer;
+
+    /**
+     * Returns the stream of the current thread writing into the buffer.
+     */
+    static ByteBufferOutputStream of(ByteBuffer buffer) {
+        ByteBufferOutputStream stream = STREAM.get();
+        stream.buffer = buffer;
+        return stream;
+    }
+
+    @Override
+    public void write(int b) {
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        buffer.put(b, off, len);
+    }
+
+    @Override
+    public void close() {
+        // don't keep a reference on the buffer
+        buffer = null;
+    }
+}
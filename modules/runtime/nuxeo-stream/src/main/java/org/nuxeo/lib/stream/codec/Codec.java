@@ -18,6 +18,8 @@
  */
 package org.nuxeo.lib.stream.codec;
 
+import java.nio.ByteBuffer;
+
 /**
  * Convert an object to/from byte array. The implementation should be thread safe.
  *
@@ -41,4 +43,28 @@ public interface Codec<T> {
      * @throws IllegalArgumentException if data are invalid.
      */
     T decode(byte[] data);
+
+    /**
+     * Encodes the object into the buffer starting at its current position, the position is moved after the encoded
+     * data.
+     *
+     * @throws java.nio.BufferOverflowException if there is not enough room in the buffer, the buffer position is then
+     *             undefined.
+     * @since 11.3
+     */
+    default void encode(T object, ByteBuffer buffer) {
+        buffer.put(encode(object));
+    }
+
+    /**
+     * Decodes the remaining bytes of the buffer returns an object.
+     *
+     * @throws IllegalArgumentException if data are invalid.
+     * @since 11.3
+     */
+    default T decode(ByteBuffer buffer) {
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        return decode(data);
+    }
 }
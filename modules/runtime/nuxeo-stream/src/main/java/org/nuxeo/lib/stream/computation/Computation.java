@@ -19,6 +19,8 @@
  */
 package org.nuxeo.lib.stream.computation;
 
+import java.util.List;
+
 /**
  * Computation receives records from input streams one at a time, it can produce record on its output streams. A timer
  * processing can be used for windowing computation.
@@ -53,6 +55,22 @@ public interface Computation {
      */
     void processRecord(ComputationContext context, String inputStreamName, Record record);
 
+    /**
+     * Process a batch of incoming records from the same input stream, this is used instead of
+     * {@link #processRecord(ComputationContext, String, Record)} when the computation policy enables the batch
+     * delivery. The checkpoint is requested once for the whole batch.
+     * <p>
+     * The default implementation processes the records one by one.
+     *
+     * @param context The computation context object provided by the system.
+     * @param inputStreamName Name of the input stream that provides the records.
+     * @param records The records in the stream order.
+     * @since 11.3
+     */
+    default void processRecords(ComputationContext context, String inputStreamName, List<Record> records) {
+        records.forEach(record -> processRecord(context, inputStreamName, record));
+    }
+
     /**
      * Process a timer callback previously set via {@link ComputationContext#setTimer(String, long)}.
      *
@@ -46,12 +46,20 @@ public class ComputationPolicy {
 
     protected final int skipFirstFailures;
 
+    // @since 11.3
+    protected final boolean batchDelivery;
+
+    // @since 11.3
+    protected final WaitStrategy waitStrategy;
+
     public ComputationPolicy(ComputationPolicyBuilder builder) {
         batchCapacity = builder.batchCapacity;
         batchThreshold = builder.batchThreshold;
         skipFailure = builder.skipFailure;
         retryPolicy = builder.retryPolicy;
         skipFirstFailures = builder.skipFirstFailures;
+        batchDelivery = builder.batchDelivery;
+        waitStrategy = builder.waitStrategy;
     }
 
     public RetryPolicy getRetryPolicy() {
@@ -74,6 +82,24 @@ public class ComputationPolicy {
         return skipFirstFailures;
     }
 
+    /**
+     * Returns {@code true} when records are delivered by batch using {@link Computation#processRecords}.
+     *
+     * @since 11.3
+     */
+    public boolean isBatchDelivery() {
+        return batchDelivery;
+    }
+
+    /**
+     * Returns how the computation waits for records when idle.
+     *
+     * @since 11.3
+     */
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
     /**
      * @deprecated since 10.3 use {@link #continueOnFailure()} instead
      */
@@ -86,6 +112,7 @@ public class ComputationPolicy {
     public String toString() {
         return "ComputationPolicy{" + "maxRetries=" + retryPolicy.getMaxRetries() + ", delay=" + retryPolicy.getDelay()
                 + ", delayMax=" + retryPolicy.getMaxDelay() + ", continueOnFailure=" + skipFailure + ", batchCapacity="
-                + batchCapacity + ", batchThreshold=" + batchThreshold + '}';
+                + batchCapacity + ", batchThreshold=" + batchThreshold + ", batchDelivery=" + batchDelivery
+                + ", waitStrategy=" + waitStrategy + '}';
     }
 }
@@ -19,6 +19,7 @@
 package org.nuxeo.lib.stream.computation;
 
 import java.time.Duration;
+import java.util.Objects;
 
 import net.jodah.failsafe.RetryPolicy;
 
@@ -43,6 +44,10 @@ public class ComputationPolicyBuilder {
 
     protected Duration batchThreshold = Duration.ofSeconds(DEFAULT_BATCH_THRESHOLD_SECOND);
 
+    protected boolean batchDelivery = false;
+
+    protected WaitStrategy waitStrategy = WaitStrategy.SLEEP;
+
     public ComputationPolicyBuilder() {
         // Empty constructor
     }
@@ -50,7 +55,7 @@ public class ComputationPolicyBuilder {
     /**
      * Defines how to group records by batch using a capacity and a time threshold.
      * <p>
-     * This is used only by computation that extends AbstractBatchComputation.
+     * This is used by computation that extends AbstractBatchComputation and by the batch delivery.
      *
      * @param capacity the number of records in the batch
      * @param timeThreshold process the batch even if not full after this duration
@@ -61,6 +66,29 @@ public class ComputationPolicyBuilder {
         return this;
     }
 
+    /**
+     * Delivers records to the computation by batch using {@link Computation#processRecords}.
+     * <p>
+     * The batch is made of the records available within the batch policy: up to the batch capacity, without waiting
+     * more than the batch threshold.
+     *
+     * @since 11.3
+     */
+    public ComputationPolicyBuilder batchDelivery(boolean value) {
+        batchDelivery = value;
+        return this;
+    }
+
+    /**
+     * Defines how the computation waits for records when idle, default is {@link WaitStrategy#SLEEP}.
+     *
+     * @since 11.3
+     */
+    public ComputationPolicyBuilder waitStrategy(WaitStrategy strategy) {
+        waitStrategy = Objects.requireNonNull(strategy);
+        return this;
+    }
+
     /**
      * Defines what to do in case of failure during the batch processing.
      */
@@ -60,6 +60,12 @@ public class Settings {
 
     protected final Map<Name, ComputationPolicy> policies = new HashMap<>();
 
+    // @since 11.3
+    protected final Map<Name, Integer> maxRunnings = new HashMap<>();
+
+    // @since 11.3
+    protected boolean sharedScheduling;
+
     /**
      * Default concurrency and partition to use if not specified explicitly.
      */
@@ -131,6 +137,48 @@ public class Settings {
         return concurrencies.getOrDefault(computationName, defaultConcurrency);
     }
 
+    /**
+     * Sets the maximum number of runners of a computation that can be executed at the same time when using the shared
+     * scheduling mode, {@code 0} means no limit other than the shared pool size.
+     *
+     * @since 11.3
+     */
+    public Settings setMaxRunning(Name computationName, int maxRunning) {
+        maxRunnings.put(computationName, maxRunning);
+        return this;
+    }
+
+    // @since 11.3
+    public Settings setMaxRunning(String computationName, int maxRunning) {
+        return setMaxRunning(Name.ofUrn(computationName), maxRunning);
+    }
+
+    // @since 11.3
+    public int getMaxRunning(Name computationName) {
+        return maxRunnings.getOrDefault(computationName, 0);
+    }
+
+    // @since 11.3
+    public int getMaxRunning(String computationName) {
+        return getMaxRunning(Name.ofUrn(computationName));
+    }
+
+    /**
+     * When enabled, computation runners are not bound to a dedicated thread, they are cooperative tasks executed on a
+     * pool shared by all the processors and sized to the number of cores.
+     *
+     * @since 11.3
+     */
+    public Settings setSharedScheduling(boolean sharedScheduling) {
+        this.sharedScheduling = sharedScheduling;
+        return this;
+    }
+
+    // @since 11.3
+    public boolean isSharedScheduling() {
+        return sharedScheduling;
+    }
+
     /**
      * Sets the number of partitions for a stream.
      */
@@ -0,0 +1,51 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.computation;
+
+/**
+ * Defines how a computation thread waits for records when there is nothing to process.
+ *
+ * @since 11.3
+ */
+public enum WaitStrategy {
+
+    /**
+     * Reads with a short timeout then sleeps for a fixed duration when idle. This is the default, it uses few resources
+     * but can add up to 100ms of latency to the first record after a quiet period.
+     */
+    SLEEP,
+
+    /**
+     * Never waits, spins on the tailer. This gives the lowest latency at the cost of a CPU core per thread.
+     */
+    BUSY_SPIN,
+
+    /**
+     * Never waits, yields the CPU between reads. Low latency with less contention than {@link #BUSY_SPIN}.
+     */
+    YIELD,
+
+    /**
+     * Parks the thread for an exponentially growing duration when idle, the duration is reset on activity.
+     */
+    BACKOFF,
+
+    /**
+     * Blocks on the tailer read so the thread is woken up by the Log implementation as soon as a record is available.
+     */
+    BLOCKING
+
+}
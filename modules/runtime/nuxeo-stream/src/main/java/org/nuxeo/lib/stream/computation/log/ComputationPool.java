@@ -104,7 +104,7 @@ public class ComputationPool {
 
     public boolean waitForAssignments(Duration timeout) throws InterruptedException {
         log.info(metadata.name() + ": Wait for partitions assignments");
-        if (threadPool == null || threadPool.isTerminated()) {
+        if (isTerminated()) {
             return true;
         }
         for (ComputationRunner runner : runners) {
@@ -116,7 +116,7 @@ public class ComputationPool {
     }
 
     public boolean drainAndStop(Duration timeout) {
-        if (threadPool == null || threadPool.isTerminated()) {
+        if (isTerminated()) {
             return true;
         }
         log.info(metadata.name() + ": Draining");
@@ -127,7 +127,7 @@ public class ComputationPool {
     }
 
     public boolean stop(Duration timeout) {
-        if (threadPool == null || threadPool.isTerminated()) {
+        if (isTerminated()) {
             return true;
         }
         log.info(metadata.name() + ": Stopping");
@@ -20,14 +20,18 @@ package org.nuxeo.lib.stream.computation.log;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -37,6 +41,7 @@ import org.nuxeo.lib.stream.computation.Computation;
 import org.nuxeo.lib.stream.computation.ComputationMetadataMapping;
 import org.nuxeo.lib.stream.computation.ComputationPolicy;
 import org.nuxeo.lib.stream.computation.Record;
+import org.nuxeo.lib.stream.computation.WaitStrategy;
 import org.nuxeo.lib.stream.computation.Watermark;
 import org.nuxeo.lib.stream.computation.internals.ComputationContextImpl;
 import org.nuxeo.lib.stream.computation.internals.WatermarkMonotonicInterval;
@@ -46,8 +51,10 @@ import org.nuxeo.lib.stream.log.LogTailer;
 import org.nuxeo.lib.stream.log.Name;
 import org.nuxeo.lib.stream.log.RebalanceException;
 import org.nuxeo.lib.stream.log.RebalanceListener;
+import org.nuxeo.lib.stream.log.chronicle.ChronicleCompoundLogTailer;
 
 import io.dropwizard.metrics5.Counter;
+import io.dropwizard.metrics5.Histogram;
 import io.dropwizard.metrics5.MetricName;
 import io.dropwizard.metrics5.MetricRegistry;
 import io.dropwizard.metrics5.SharedMetricRegistries;
@@ -78,6 +85,12 @@ public class ComputationRunner implements Runnable, RebalanceListener {
 
     protected static final long INACTIVITY_BREAK_MS = 100;
 
+    // @since 11.3
+    protected static final long BACKOFF_MIN_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    // @since 11.3
+    protected static final long BACKOFF_MAX_NANOS = TimeUnit.MILLISECONDS.toNanos(INACTIVITY_BREAK_MS);
+
     private static final Log log = LogFactory.getLog(ComputationRunner.class);
 
     protected final LogStreamManager streamManager;
@@ -139,6 +152,21 @@ public class ComputationRunner implements Runnable, RebalanceListener {
 
     protected Timer processTimerTimer;
 
+    // @since 11.3
+    protected Timer processBatchTimer;
+
+    // @since 11.3
+    protected Histogram batchSizeHistogram;
+
+    // @since 11.3
+    protected Timer wakeUpTimer;
+
+    // @since 11.3
+    protected boolean idle;
+
+    // @since 11.3
+    protected long backoffNanos = BACKOFF_MIN_NANOS;
+
     // @since 11.1
     protected static AtomicInteger skipFailures = new AtomicInteger(0);
 
@@ -147,6 +175,10 @@ public class ComputationRunner implements Runnable, RebalanceListener {
 
     protected SpanContext lastSpanContext;
 
+    // when true the runner is a cooperative task of a shared pool and must not block on read
+    // @since 11.3
+    protected boolean cooperative;
+
     @SuppressWarnings("unchecked")
     public ComputationRunner(Supplier<Computation> supplier, ComputationMetadataMapping metadata,
             List<LogPartition> defaultAssignment, LogStreamManager streamManager, ComputationPolicy policy) {
@@ -169,6 +201,10 @@ public class ComputationRunner implements Runnable, RebalanceListener {
             assignmentLatch.countDown();
         }
         this.defaultAssignment = defaultAssignment;
+        if (policy.getWaitStrategy() == WaitStrategy.BLOCKING && tailer instanceof ChronicleCompoundLogTailer) {
+            // the read is the wait, pick up a record appended after a quiet period without the full poll interval
+            ((ChronicleCompoundLogTailer<Record>) tailer).setPollBackOff(true);
+        }
     }
 
     public void stop() {
@@ -224,21 +260,85 @@ public class ComputationRunner implements Runnable, RebalanceListener {
             }
         } finally {
             try {
-                computation.destroy();
-                closeTailer();
+                terminate(normalTermination, interrupted);
             } finally {
                 if (interrupted) {
                     Thread.currentThread().interrupt();
                 }
             }
-            if (normalTermination || interrupted) {
-                log.debug(metadata.name() + ": Terminated");
-            } else {
-                // Terminating because of unexpected error in the ComputationRunner code
-                log.error(String.format("Terminate computation: %s due to previous failure", metadata.name()));
-                globalFailureCount.inc();
-                failureCount.inc();
+        }
+    }
+
+    /**
+     * Runs the processing loop as a cooperative task: returns after the quantum when there is activity, or as soon as
+     * there is nothing to process.
+     *
+     * @return the delay in nanoseconds before the next slice, {@code 0} to be rescheduled immediately, or a negative
+     *         value when the runner is terminated
+     * @since 11.3
+     */
+    public long runSlice(long quantumNanos) {
+        boolean normalTermination = false;
+        boolean interrupted = false;
+        try {
+            if (computation == null) {
+                cooperative = true;
+                registerMetrics();
+                computation = supplier.get();
+                log.debug(metadata.name() + ": Init");
+                computation.init(context);
+                log.debug(metadata.name() + ": Start");
+            }
+            long deadline = System.nanoTime() + quantumNanos;
+            while (!stop) {
+                boolean timerActivity = processTimer();
+                recordActivity = processRecord();
+                counter++;
+                if (!timerActivity && !recordActivity) {
+                    // the time spent waiting for a thread is not starvation, check the drain only when idle
+                    if (!continueLoop()) {
+                        break;
+                    }
+                    // no activity give back the thread
+                    idle = true;
+                    long delay = Math.min(backoffNanos,
+                            TimeUnit.MILLISECONDS.toNanos(Math.max(0, getTimeToNextTimer())));
+                    backoffNanos = Math.min(backoffNanos * 2, BACKOFF_MAX_NANOS);
+                    return Math.max(1, delay);
+                }
+                backoffNanos = BACKOFF_MIN_NANOS;
+                if (System.nanoTime() - deadline >= 0) {
+                    // end of quantum give a chance to other runners
+                    return 0;
+                }
+            }
+            normalTermination = true;
+        } catch (InterruptedException e) {
+            interrupted = true;
+            log.debug(metadata.name() + ": Interrupted");
+        } catch (Exception e) {
+            log.error(metadata.name() + ": Exception in processLoop: " + e.getMessage(), e);
+        }
+        terminate(normalTermination, interrupted);
+        return -1;
+    }
+
+    // @since 11.3
+    protected void terminate(boolean normalTermination, boolean interrupted) {
+        try {
+            if (computation != null) {
+                computation.destroy();
             }
+        } finally {
+            closeTailer();
+        }
+        if (normalTermination || interrupted) {
+            log.debug(metadata.name() + ": Terminated");
+        } else {
+            // Terminating because of unexpected error in the ComputationRunner code
+            log.error(String.format("Terminate computation: %s due to previous failure", metadata.name()));
+            globalFailureCount.inc();
+            failureCount.inc();
         }
     }
 
@@ -255,6 +355,12 @@ public class ComputationRunner implements Runnable, RebalanceListener {
                 MetricName.build("nuxeo.streams.computation.processRecord").tagged("computation", name));
         processTimerTimer = registry.timer(
                 MetricName.build("nuxeo.streams.computation.processTimer").tagged("computation", name));
+        processBatchTimer = registry.timer(
+                MetricName.build("nuxeo.streams.computation.processBatch").tagged("computation", name));
+        batchSizeHistogram = registry.histogram(
+                MetricName.build("nuxeo.streams.computation.processBatch.size").tagged("computation", name));
+        wakeUpTimer = registry.timer(
+                MetricName.build("nuxeo.streams.computation.wakeUp").tagged("computation", name));
     }
 
     protected void closeTailer() {
@@ -271,11 +377,84 @@ public class ComputationRunner implements Runnable, RebalanceListener {
             counter++;
             if (!timerActivity && !recordActivity) {
                 // no activity take a break
-                Thread.sleep(INACTIVITY_BREAK_MS);
+                idle = true;
+                waitForActivity();
+            } else {
+                backoffNanos = BACKOFF_MIN_NANOS;
             }
         }
     }
 
+    /**
+     * Waits when there is no activity depending on the policy wait strategy.
+     *
+     * @since 11.3
+     */
+    protected void waitForActivity() throws InterruptedException {
+        switch (getWaitStrategy()) {
+        case BUSY_SPIN:
+            Thread.onSpinWait();
+            break;
+        case YIELD:
+            Thread.yield();
+            break;
+        case BACKOFF:
+            LockSupport.parkNanos(backoffNanos);
+            backoffNanos = Math.min(backoffNanos * 2, BACKOFF_MAX_NANOS);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            break;
+        case BLOCKING:
+            if (tailer == null || tailer.assignments().isEmpty()) {
+                // nothing to block on, wait for the next timer
+                Thread.sleep(Math.max(1, getTimeToNextTimer()));
+            }
+            // otherwise the tailer read has already waited
+            break;
+        default:
+            Thread.sleep(INACTIVITY_BREAK_MS);
+        }
+    }
+
+    /**
+     * Returns the policy wait strategy, a runner without assignment has nothing to spin on and backs off instead.
+     *
+     * @since 11.3
+     */
+    protected WaitStrategy getWaitStrategy() {
+        WaitStrategy strategy = policy.getWaitStrategy();
+        if ((strategy == WaitStrategy.BUSY_SPIN || strategy == WaitStrategy.YIELD)
+                && (tailer == null || tailer.assignments().isEmpty())) {
+            return WaitStrategy.BACKOFF;
+        }
+        return strategy;
+    }
+
+    // @since 11.3
+    protected long getTimeToNextTimer() {
+        long now = System.currentTimeMillis();
+        return context.getTimers()
+                      .values()
+                      .stream()
+                      .mapToLong(time -> time - now)
+                      .min()
+                      .orElse(INACTIVITY_BREAK_MS);
+    }
+
+    /**
+     * Measures the latency of the first record processed after an idle period.
+     *
+     * @since 11.3
+     */
+    protected void markActivity(Record record) {
+        if (idle) {
+            idle = false;
+            long latency = System.currentTimeMillis() - Watermark.ofValue(record.getWatermark()).getTimestamp();
+            wakeUpTimer.update(Math.max(0, latency), TimeUnit.MILLISECONDS);
+        }
+    }
+
     protected boolean continueLoop() {
         if (stop || Thread.currentThread().isInterrupted()) {
             return false;
@@ -377,6 +556,9 @@ public class ComputationRunner implements Runnable, RebalanceListener {
         if (tailer == null) {
             return false;
         }
+        if (policy.isBatchDelivery()) {
+            return processRecords();
+        }
         Duration timeoutRead = getTimeoutDuration();
         LogRecord<Record> logRecord = null;
         try {
@@ -384,31 +566,141 @@ public class ComputationRunner implements Runnable, RebalanceListener {
         } catch (RebalanceException e) {
             // the revoke has done a checkpoint we can continue
         }
-        Record record;
         if (logRecord != null) {
-            record = logRecord.message();
-            Name stream = logRecord.offset().partition().name();
-            Record filteredRecord = streamManager.getFilter(stream).afterRead(record, logRecord.offset());
-            if (filteredRecord == null) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Filtering skip record: " + record);
-                }
+            logRecord = filterRecord(logRecord);
+            if (logRecord == null) {
                 return false;
-            } else if (filteredRecord != record) {
-                logRecord = new LogRecord<>(filteredRecord, logRecord.offset());
-                record = filteredRecord;
             }
+            Record record = logRecord.message();
             lastReadTime = System.currentTimeMillis();
+            markActivity(record);
             inRecords++;
             lowWatermark.mark(record.getWatermark());
             context.setLastOffset(logRecord.offset());
-            String from = metadata.reverseMap(stream.getUrn());
+            String from = metadata.reverseMap(logRecord.offset().partition().name().getUrn());
             processRecordWithTracing(from, record);
             return true;
         }
         return false;
     }
 
+    protected LogRecord<Record> filterRecord(LogRecord<Record> logRecord) {
+        Record record = logRecord.message();
+        Name stream = logRecord.offset().partition().name();
+        Record filteredRecord = streamManager.getFilter(stream).afterRead(record, logRecord.offset());
+        if (filteredRecord == null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Filtering skip record: " + record);
+            }
+            return null;
+        } else if (filteredRecord != record) {
+            return new LogRecord<>(filteredRecord, logRecord.offset());
+        }
+        return logRecord;
+    }
+
+    /**
+     * Reads a batch of records and delivers them to the computation, consecutive records from the same input stream
+     * are processed together. There is a single checkpoint decision for the whole batch.
+     *
+     * @since 11.3
+     */
+    protected boolean processRecords() throws InterruptedException {
+        List<LogRecord<Record>> logRecords = readRecords();
+        if (logRecords.isEmpty()) {
+            return false;
+        }
+        lastReadTime = System.currentTimeMillis();
+        markActivity(logRecords.get(0).message());
+        batchSizeHistogram.update(logRecords.size());
+        context.setLastOffset(logRecords.get(0).offset());
+        Span span = getSpanFromRecord(logRecords.get(0).message());
+        try (Scope scope = Tracing.getTracer().withSpan(span)) {
+            int start = 0;
+            while (start < logRecords.size() && !context.requireTerminate()) {
+                String from = getInputStream(logRecords.get(start));
+                int end = start + 1;
+                while (end < logRecords.size() && from.equals(getInputStream(logRecords.get(end)))) {
+                    end++;
+                }
+                List<LogRecord<Record>> batch = logRecords.subList(start, end);
+                batch.forEach(logRecord -> lowWatermark.mark(logRecord.message().getWatermark()));
+                inRecords += batch.size();
+                context.setLastOffset(batch.get(batch.size() - 1).offset());
+                processRecordsWithRetry(from, batch.stream().map(LogRecord::message).collect(Collectors.toList()));
+                batch.forEach(logRecord -> checkRecordFlags(logRecord.message()));
+                start = end;
+            }
+            if (start < logRecords.size()) {
+                // terminated before the end of the batch, the checkpoint must not go past unprocessed records
+                rewind(logRecords.subList(start, logRecords.size()));
+            }
+            checkSourceLowWatermark();
+            setThreadName("records");
+            checkpointIfNecessary();
+        } finally {
+            span.end();
+        }
+        return true;
+    }
+
+    /**
+     * Reads records until the batch capacity is reached, the batch threshold is elapsed or there is no more record
+     * available.
+     *
+     * @since 11.3
+     */
+    protected List<LogRecord<Record>> readRecords() throws InterruptedException {
+        int capacity = Math.max(1, policy.getBatchCapacity());
+        long deadline = System.currentTimeMillis() + policy.getBatchThreshold().toMillis();
+        List<LogRecord<Record>> ret = new ArrayList<>(Math.min(capacity, 1024));
+        Duration timeoutRead = getTimeoutDuration();
+        while (ret.size() < capacity) {
+            LogRecord<Record> logRecord;
+            try {
+                logRecord = tailer.read(timeoutRead);
+            } catch (RebalanceException e) {
+                // records read before the rebalance are read again from the last committed offsets
+                ret.clear();
+                break;
+            }
+            if (logRecord == null) {
+                break;
+            }
+            logRecord = filterRecord(logRecord);
+            if (logRecord != null) {
+                ret.add(logRecord);
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                break;
+            }
+            timeoutRead = Duration.ofMillis(Math.min(READ_TIMEOUT.toMillis(), remaining));
+        }
+        return ret;
+    }
+
+    /**
+     * Moves the tailer back to the first of the given records on each partition, so they are read again.
+     *
+     * @since 11.3
+     */
+    protected void rewind(List<LogRecord<Record>> unprocessed) {
+        Set<LogPartition> partitions = new HashSet<>();
+        for (LogRecord<Record> logRecord : unprocessed) {
+            if (partitions.add(logRecord.offset().partition())) {
+                tailer.seek(logRecord.offset());
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(metadata.name() + ": rewind " + unprocessed.size() + " unprocessed records on terminate");
+        }
+    }
+
+    protected String getInputStream(LogRecord<Record> logRecord) {
+        return metadata.reverseMap(logRecord.offset().partition().name().getUrn());
+    }
+
     protected void processRecordWithTracing(String from, Record record) {
         Span span = getSpanFromRecord(record);
         try (Scope scope = Tracing.getTracer().withSpan(span)) {
@@ -466,6 +758,24 @@ public class ComputationRunner implements Runnable, RebalanceListener {
         }
     }
 
+    // @since 11.3
+    protected void processRecordsWithRetry(String from, List<Record> records) {
+        runningCount.inc();
+        long start = System.nanoTime();
+        try (Timer.Context ignored = processBatchTimer.time()) {
+            Failsafe.with(policy.getRetryPolicy())
+                    .onRetry(failure -> computation.processRetry(context, failure))
+                    .onFailure(failure -> computation.processFailure(context, failure))
+                    .withFallback(() -> processFallback(context))
+                    .run(() -> computation.processRecords(context, from, records));
+        } finally {
+            runningCount.dec();
+            // keep the per record rate and latency meaningful
+            long perRecord = (System.nanoTime() - start) / records.size();
+            records.forEach(record -> processRecordTimer.update(perRecord, TimeUnit.NANOSECONDS));
+        }
+    }
+
     protected void processFallback(ComputationContextImpl context) {
         if (policy.continueOnFailure()) {
             log.error(String.format("Skip record after failure: %s", context.getLastOffset()));
@@ -495,6 +805,22 @@ public class ComputationRunner implements Runnable, RebalanceListener {
     }
 
     protected Duration getTimeoutDuration() {
+        if (cooperative) {
+            // don't hold a shared thread, the wait is done by the scheduler
+            return Duration.ZERO;
+        }
+        switch (getWaitStrategy()) {
+        case BUSY_SPIN:
+        case YIELD:
+        case BACKOFF:
+            // the wait is done outside of the read
+            return Duration.ZERO;
+        case BLOCKING:
+            // block until a record is available, a timer is due or a stop is requested
+            return Duration.ofMillis(Math.max(0, Math.min(INACTIVITY_BREAK_MS, getTimeToNextTimer())));
+        default:
+            break;
+        }
         // lastReadTime could have been updated by another thread calling onPartitionsAssigned when doing minus
         // no need to synchronize it, we don't want an accurate value there
         long adaptedReadTimeout = Math.max(0, System.currentTimeMillis() - lastReadTime);
@@ -588,6 +914,10 @@ public class ComputationRunner implements Runnable, RebalanceListener {
     }
 
     protected void setThreadName(String message) {
+        if (cooperative) {
+            // the thread is shared with other runners
+            return;
+        }
         String name = threadName + ",in:" + inRecords + ",inCheckpoint:" + inCheckpointRecords + ",out:" + outRecords
                 + ",lastRead:" + lastReadTime + ",lastTimer:" + lastTimerExecution + ",wm:"
                 + lowWatermark.getLow().getValue() + ",loop:" + counter;
@@ -0,0 +1,150 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.computation.log;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.dropwizard.metrics5.Gauge;
+import io.dropwizard.metrics5.MetricName;
+import io.dropwizard.metrics5.MetricRegistry;
+import io.dropwizard.metrics5.SharedMetricRegistries;
+
+/**
+ * A bounded pool shared by the computation runners of the processors using the shared scheduling mode.
+ * <p>
+ * Runners are cooperative tasks: they process records during a quantum and are resubmitted at the end of the queue,
+ * an idle runner is rescheduled after a back-off delay instead of holding a thread.
+ * <p>
+ * Workers take tasks from a single FIFO queue, a work-stealing pool is not used because it executes first the tasks
+ * resubmitted by a worker, a busy runner would starve the others.
+ *
+ * @since 11.3
+ */
+public class ComputationScheduler {
+    private static final Log log = LogFactory.getLog(ComputationScheduler.class);
+
+    public static final String PARALLELISM_PROPERTY = "nuxeo.stream.scheduler.parallelism";
+
+    public static final Duration DEFAULT_QUANTUM = Duration.ofMillis(10);
+
+    protected static volatile ComputationScheduler instance;
+
+    protected final ThreadPoolExecutor pool;
+
+    protected final ScheduledExecutorService timer;
+
+    protected final long quantumNanos;
+
+    /**
+     * Returns the scheduler shared by all the processors, sized to the number of cores unless the
+     * {@value #PARALLELISM_PROPERTY} system property is set.
+     */
+    public static ComputationScheduler getInstance() {
+        if (instance == null) {
+            synchronized (ComputationScheduler.class) {
+                if (instance == null) {
+                    int parallelism = Integer.getInteger(PARALLELISM_PROPERTY,
+                            Runtime.getRuntime().availableProcessors());
+                    ComputationScheduler scheduler = new ComputationScheduler(parallelism, DEFAULT_QUANTUM);
+                    scheduler.registerMetrics();
+                    instance = scheduler;
+                }
+            }
+        }
+        return instance;
+    }
+
+    public ComputationScheduler(int parallelism, Duration quantum) {
+        log.info("Creating computation scheduler with parallelism: " + parallelism);
+        this.quantumNanos = quantum.toNanos();
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable,
+                            String.format("ComputationScheduler-%02d", count.getAndIncrement()));
+                    thread.setDaemon(true);
+                    thread.setUncaughtExceptionHandler(
+                            (t, e) -> log.error("Uncaught exception: " + e.getMessage(), e));
+                    return thread;
+                });
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ComputationScheduler-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    protected void registerMetrics() {
+        MetricRegistry registry = SharedMetricRegistries.getOrCreate(ComputationRunner.NUXEO_METRICS_REGISTRY_NAME);
+        registry.register(MetricName.build("nuxeo.streams.scheduler.queued"), (Gauge<Integer>) this::getQueuedCount);
+        registry.register(MetricName.build("nuxeo.streams.scheduler.running"),
+                (Gauge<Integer>) this::getRunningCount);
+    }
+
+    public int getParallelism() {
+        return pool.getMaximumPoolSize();
+    }
+
+    public long getQuantumNanos() {
+        return quantumNanos;
+    }
+
+    /**
+     * Submits a task for execution, tasks are executed in FIFO order.
+     */
+    public void execute(Runnable task) {
+        pool.execute(task);
+    }
+
+    /**
+     * Runs a task after a delay, the task is executed by the timer thread and must not block.
+     */
+    @SuppressWarnings("FutureReturnValueIgnored")
+    public void schedule(Runnable task, long delayNanos) {
+        timer.schedule(task, delayNanos, NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of tasks waiting for a thread.
+     */
+    public int getQueuedCount() {
+        return pool.getQueue().size();
+    }
+
+    /**
+     * Returns the number of threads executing a task.
+     */
+    public int getRunningCount() {
+        return pool.getActiveCount();
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+        pool.shutdownNow();
+    }
+
+}
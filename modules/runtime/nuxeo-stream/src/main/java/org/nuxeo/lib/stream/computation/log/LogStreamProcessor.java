@@ -206,12 +206,18 @@ public class LogStreamProcessor implements StreamProcessor {
 
     protected List<ComputationPool> initPools() {
         log.debug("Initializing pools");
-        return topology.metadataList()
-                       .stream()
-                       .map(meta -> new ComputationPool(topology.getSupplier(meta.name()), meta,
-                               getDefaultAssignments(meta), streamManager,
-                               settings.getPolicy(meta.name())))
-                       .collect(Collectors.toList());
+        return topology.metadataList().stream().map(this::initPool).collect(Collectors.toList());
+    }
+
+    // @since 11.3
+    protected ComputationPool initPool(ComputationMetadataMapping meta) {
+        if (settings.isSharedScheduling()) {
+            return new SharedComputationPool(topology.getSupplier(meta.name()), meta, getDefaultAssignments(meta),
+                    streamManager, settings.getPolicy(meta.name()), ComputationScheduler.getInstance(),
+                    settings.getMaxRunning(meta.name()));
+        }
+        return new ComputationPool(topology.getSupplier(meta.name()), meta, getDefaultAssignments(meta),
+                streamManager, settings.getPolicy(meta.name()));
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,189 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.computation.log;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.nuxeo.lib.stream.computation.Computation;
+import org.nuxeo.lib.stream.computation.ComputationMetadataMapping;
+import org.nuxeo.lib.stream.computation.ComputationPolicy;
+import org.nuxeo.lib.stream.log.LogPartition;
+import org.nuxeo.lib.stream.log.Name;
+
+import io.dropwizard.metrics5.Gauge;
+import io.dropwizard.metrics5.MetricName;
+import io.dropwizard.metrics5.MetricRegistry;
+import io.dropwizard.metrics5.SharedMetricRegistries;
+
+/**
+ * Pool of ComputationRunner executed as cooperative tasks on a shared {@link ComputationScheduler}.
+ * <p>
+ * At most {@code maxRunning} runners of the computation are executed at the same time, the other ready runners wait in
+ * a FIFO queue so each runner gets its turn.
+ *
+ * @since 11.3
+ */
+public class SharedComputationPool extends ComputationPool {
+    private static final Log log = LogFactory.getLog(SharedComputationPool.class);
+
+    protected final ComputationScheduler scheduler;
+
+    protected final int maxRunning;
+
+    protected final Queue<ComputationRunner> ready = new ConcurrentLinkedQueue<>();
+
+    protected final AtomicInteger queued = new AtomicInteger();
+
+    protected final AtomicInteger running = new AtomicInteger();
+
+    protected final MetricRegistry registry = SharedMetricRegistries.getOrCreate(
+            ComputationRunner.NUXEO_METRICS_REGISTRY_NAME);
+
+    protected CountDownLatch terminated;
+
+    public SharedComputationPool(Supplier<Computation> supplier, ComputationMetadataMapping metadata,
+            List<List<LogPartition>> defaultAssignments, LogStreamManager streamManager, ComputationPolicy policy,
+            ComputationScheduler scheduler, int maxRunning) {
+        super(supplier, metadata, defaultAssignments, streamManager, policy);
+        this.scheduler = scheduler;
+        int limit = Math.min(threads, scheduler.getParallelism());
+        this.maxRunning = maxRunning > 0 ? Math.min(maxRunning, limit) : limit;
+    }
+
+    @Override
+    public void start() {
+        if (threads == 0) {
+            log.info(metadata.name() + ": Empty pool");
+            return;
+        }
+        log.info(metadata.name() + ": Starting shared pool");
+        terminated = new CountDownLatch(threads);
+        registerMetrics();
+        defaultAssignments.forEach(assignments -> runners.add(
+                new ComputationRunner(supplier, metadata, assignments, streamManager, policy)));
+        runners.forEach(this::submit);
+        log.debug(metadata.name() + ": Shared pool started, runners: " + threads + ", maxRunning: " + maxRunning);
+    }
+
+    protected void registerMetrics() {
+        String name = Name.ofUrn(metadata.name()).getId();
+        MetricName queuedName = MetricName.build("nuxeo.streams.computation.runner.queued")
+                                          .tagged("computation", name);
+        MetricName runningName = MetricName.build("nuxeo.streams.computation.runner.running")
+                                           .tagged("computation", name);
+        registry.remove(queuedName);
+        registry.register(queuedName, (Gauge<Integer>) queued::get);
+        registry.remove(runningName);
+        registry.register(runningName, (Gauge<Integer>) running::get);
+    }
+
+    /**
+     * Queues a ready runner and executes it as soon as the computation is under its limit.
+     */
+    protected void submit(ComputationRunner runner) {
+        queued.incrementAndGet();
+        ready.add(runner);
+        dispatch();
+    }
+
+    protected void dispatch() {
+        while (true) {
+            int current = running.get();
+            if (current >= maxRunning) {
+                return;
+            }
+            if (!running.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            ComputationRunner runner = ready.poll();
+            if (runner == null) {
+                running.decrementAndGet();
+                if (ready.isEmpty()) {
+                    return;
+                }
+                // a runner has been queued concurrently
+                continue;
+            }
+            queued.decrementAndGet();
+            scheduler.execute(() -> runSlice(runner));
+        }
+    }
+
+    protected void runSlice(ComputationRunner runner) {
+        long delay = -1;
+        try {
+            delay = runner.runSlice(scheduler.getQuantumNanos());
+        } finally {
+            running.decrementAndGet();
+            if (delay < 0) {
+                terminated.countDown();
+            } else if (delay == 0) {
+                submit(runner);
+            } else {
+                scheduler.schedule(() -> submit(runner), delay);
+            }
+            dispatch();
+        }
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated == null || terminated.getCount() == 0;
+    }
+
+    @Override
+    public void shutdown() {
+        if (!isTerminated()) {
+            log.info(metadata.name() + ": Shutting down");
+            // the shared threads can not be interrupted, ask the runners to stop at the end of their slice
+            runners.forEach(ComputationRunner::stop);
+            try {
+                if (!terminated.await(1, TimeUnit.SECONDS)) {
+                    log.warn(metadata.name() + ": Timeout on shutdown, runners still active: " + terminated.getCount());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn(metadata.name() + ": Interrupted in shutdown");
+            }
+        }
+        runners.clear();
+    }
+
+    @Override
+    protected boolean awaitPoolTermination(Duration timeout) {
+        try {
+            if (!terminated.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn(metadata.name() + ": Timeout on wait for pool termination");
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn(metadata.name() + ": Interrupted while waiting for pool termination");
+            return false;
+        }
+        return true;
+    }
+
+}
@@ -51,6 +51,9 @@ public class ChronicleCompoundLogTailer<M extends Externalizable> implements Log
 
     protected long counter;
 
+    // @since 11.3
+    protected volatile boolean pollBackOff;
+
     public ChronicleCompoundLogTailer(Collection<ChronicleLogTailer<M>> tailers, Name group) {
         // empty tailers is an accepted input
         this.tailers.addAll(tailers);
@@ -72,14 +75,27 @@ public class ChronicleCompoundLogTailer<M extends Externalizable> implements Log
         }
         final long timeoutMs = timeout.toMillis();
         final long deadline = System.currentTimeMillis() + timeoutMs;
-        final long delay = Math.min(ChronicleLogTailer.POLL_INTERVAL_MS, timeoutMs);
+        long delay = pollBackOff ? ChronicleLogTailer.POLL_MIN_INTERVAL_MS
+                : Math.min(ChronicleLogTailer.POLL_INTERVAL_MS, timeoutMs);
         while (ret == null && System.currentTimeMillis() < deadline) {
             Thread.sleep(delay);
+            if (pollBackOff) {
+                delay = Math.min(delay * 2, ChronicleLogTailer.POLL_INTERVAL_MS);
+            }
             ret = read();
         }
         return ret;
     }
 
+    /**
+     * @see ChronicleLogTailer#setPollBackOff(boolean)
+     * @since 11.3
+     */
+    public void setPollBackOff(boolean pollBackOff) {
+        this.pollBackOff = pollBackOff;
+        tailers.forEach(tailer -> tailer.setPollBackOff(pollBackOff));
+    }
+
     protected LogRecord<M> read() {
         if (size <= 0) {
             return null;
@@ -24,6 +24,8 @@ import java.io.Externalizable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -48,6 +50,7 @@ import org.nuxeo.lib.stream.log.Name;
 import org.nuxeo.lib.stream.log.internals.CloseableLogAppender;
 import org.nuxeo.lib.stream.log.internals.LogOffsetImpl;
 
+import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.bytes.util.DecoratedBufferOverflowException;
 import net.openhft.chronicle.queue.ChronicleQueue;
 import net.openhft.chronicle.queue.ExcerptAppender;
@@ -82,6 +85,17 @@ public class ChronicleLogAppender<M extends Externalizable> implements Closeable
 
     public static final String BLOCK_SIZE_KEY = "blockSize";
 
+    // @since 11.3
+    protected static final int ENCODE_BUFFER_SIZE = 1024;
+
+    // a larger encode buffer is released after use
+    // @since 11.3
+    protected static final int ENCODE_BUFFER_MAX_SIZE = 64 * 1024;
+
+    // @since 11.3
+    protected static final ThreadLocal<Bytes<ByteBuffer>> ENCODE_BUFFER = ThreadLocal.withInitial(
+            () -> Bytes.elasticHeapByteBuffer(ENCODE_BUFFER_SIZE));
+
     protected final List<ChronicleQueue> partitions;
 
     protected final int nbPartitions;
@@ -282,7 +296,14 @@ public class ChronicleLogAppender<M extends Externalizable> implements Closeable
                 // default format for backward compatibility
                 appender.writeDocument(w -> w.write(MSG_KEY).object(message));
             } else {
-                appender.writeDocument(w -> w.write().bytes(codec.encode(message)));
+                Bytes<ByteBuffer> bytes = encode(message);
+                try {
+                    appender.writeDocument(w -> w.write().bytes(bytes));
+                } finally {
+                    if (bytes.realCapacity() > ENCODE_BUFFER_MAX_SIZE) {
+                        ENCODE_BUFFER.remove();
+                    }
+                }
             }
         } catch (DecoratedBufferOverflowException e) {
             throw new StreamRuntimeException(e);
@@ -295,6 +316,27 @@ public class ChronicleLogAppender<M extends Externalizable> implements Closeable
         return ret;
     }
 
+    /**
+     * Encodes the message into the buffer of the current thread, the buffer grows until the message fits.
+     *
+     * @since 11.3
+     */
+    protected Bytes<ByteBuffer> encode(M message) {
+        Bytes<ByteBuffer> bytes = ENCODE_BUFFER.get();
+        while (true) {
+            ByteBuffer buffer = bytes.underlyingObject();
+            buffer.clear();
+            try {
+                codec.encode(message, buffer);
+                bytes.clear();
+                bytes.writeSkip(buffer.position());
+                return bytes;
+            } catch (BufferOverflowException e) {
+                bytes.ensureCapacity(2 * bytes.realCapacity());
+            }
+        }
+    }
+
     public LogTailer<M> createTailer(LogPartition partition, Name group, Codec<M> codec) {
         return addTailer(new ChronicleLogTailer<>(codec, basePath.toString(),
                 partitions.get(partition.partition()).createTailer(), partition, group, retention));
@@ -22,6 +22,7 @@ import static org.nuxeo.lib.stream.codec.NoCodec.NO_CODEC;
 import static org.nuxeo.lib.stream.log.chronicle.ChronicleLogAppender.MSG_KEY;
 
 import java.io.Externalizable;
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -43,6 +44,7 @@ import org.nuxeo.lib.stream.log.Name;
 import org.nuxeo.lib.stream.log.internals.LogOffsetImpl;
 import org.nuxeo.lib.stream.log.internals.LogPartitionGroup;
 
+import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.queue.ExcerptTailer;
 import net.openhft.chronicle.queue.TailerState;
 
@@ -52,6 +54,9 @@ import net.openhft.chronicle.queue.TailerState;
 public class ChronicleLogTailer<M extends Externalizable> implements LogTailer<M> {
     protected static final long POLL_INTERVAL_MS = 100L;
 
+    // @since 11.3
+    protected static final long POLL_MIN_INTERVAL_MS = 1L;
+
     // keep track of all tailers on the same namespace index even from different log
     protected static final Set<LogPartitionGroup> tailersId = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
@@ -69,8 +74,15 @@ public class ChronicleLogTailer<M extends Externalizable> implements LogTailer<M
 
     protected final Codec<M> codec;
 
+    // reused to decode without copying each record into a new array
+    // @since 11.3
+    protected final Bytes<ByteBuffer> decodeBuffer = Bytes.elasticHeapByteBuffer(1024);
+
     protected volatile boolean closed = false;
 
+    // @since 11.3
+    protected volatile boolean pollBackOff;
+
     public ChronicleLogTailer(Codec<M> codec, String basePath, ExcerptTailer cqTailer, LogPartition partition,
                               Name group, ChronicleRetentionDuration retention) {
         Objects.requireNonNull(group);
@@ -102,14 +114,27 @@ public class ChronicleLogTailer<M extends Externalizable> implements LogTailer<M
         }
         long timeoutMs = timeout.toMillis();
         long deadline = System.currentTimeMillis() + timeoutMs;
-        long delay = Math.min(POLL_INTERVAL_MS, timeoutMs);
+        long delay = pollBackOff ? POLL_MIN_INTERVAL_MS : Math.min(POLL_INTERVAL_MS, timeoutMs);
         while (ret == null && System.currentTimeMillis() < deadline) {
             Thread.sleep(delay);
+            if (pollBackOff) {
+                delay = Math.min(delay * 2, POLL_INTERVAL_MS);
+            }
             ret = read();
         }
         return ret;
     }
 
+    /**
+     * When enabled, a read waiting for a record polls with an exponential back-off from 1ms up to the poll interval
+     * instead of sleeping for the poll interval. This is for low latency consumers blocking on the read.
+     *
+     * @since 11.3
+     */
+    public void setPollBackOff(boolean pollBackOff) {
+        this.pollBackOff = pollBackOff;
+    }
+
     @SuppressWarnings("unchecked")
     protected LogRecord<M> read() {
         if (closed) {
@@ -132,7 +157,10 @@ public class ChronicleLogTailer<M extends Externalizable> implements LogTailer<M
         } else {
             if (!cqTailer.readDocument(w -> {
                 offset.set(cqTailer.index());
-                value.add(codec.decode(w.read().bytes()));
+                w.read().bytes(decodeBuffer);
+                ByteBuffer buffer = decodeBuffer.underlyingObject();
+                buffer.limit((int) decodeBuffer.readLimit()).position((int) decodeBuffer.readPosition());
+                value.add(codec.decode(buffer));
             })) {
                 return null;
             }
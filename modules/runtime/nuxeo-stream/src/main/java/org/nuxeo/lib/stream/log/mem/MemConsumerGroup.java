@@ -0,0 +1,85 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.log.mem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.nuxeo.lib.stream.log.LogPartition;
+import org.nuxeo.lib.stream.log.Name;
+
+/**
+ * Coordinates the tailers that subscribe to the same Logs with the same consumer group.
+ * <p>
+ * Each join or leave starts a new generation, tailers detect the generation change on their next read and take their
+ * new assignments. Partitions are assigned round robin in the order members have joined.
+ *
+ * @since 11.3
+ */
+public class MemConsumerGroup {
+
+    protected final Name group;
+
+    protected final List<LogPartition> partitions;
+
+    protected final List<Object> members = new ArrayList<>();
+
+    protected volatile int generation;
+
+    public MemConsumerGroup(Name group, List<LogPartition> partitions) {
+        this.group = group;
+        this.partitions = Collections.unmodifiableList(new ArrayList<>(partitions));
+    }
+
+    public Name group() {
+        return group;
+    }
+
+    public int generation() {
+        return generation;
+    }
+
+    public synchronized void join(Object member) {
+        members.add(member);
+        generation++;
+    }
+
+    public synchronized void leave(Object member) {
+        if (members.remove(member)) {
+            generation++;
+        }
+    }
+
+    public synchronized List<LogPartition> assignments(Object member) {
+        int index = members.indexOf(member);
+        if (index < 0) {
+            return Collections.emptyList();
+        }
+        int size = members.size();
+        List<LogPartition> ret = new ArrayList<>();
+        for (int i = index; i < partitions.size(); i += size) {
+            ret.add(partitions.get(i));
+        }
+        return ret;
+    }
+
+    @Override
+    public String toString() {
+        return "MemConsumerGroup{" + "group=" + group + ", generation=" + generation + ", members=" + members.size()
+                + '}';
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.log.mem;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.nuxeo.lib.stream.log.LogLag;
+import org.nuxeo.lib.stream.log.Name;
+
+/**
+ * An in-memory Log: a fixed number of partitions and the committed offsets of its consumer groups.
+ * <p>
+ * Offsets follow the Kafka semantic, a committed offset is the offset of the next record to read.
+ * <p>
+ * A record is never overwritten before all the registered consumer groups have committed it: when a partition is full
+ * the append waits for the slowest group. Without consumer group the oldest records are overwritten.
+ *
+ * @since 11.3
+ */
+public class MemLog {
+
+    protected final Name name;
+
+    protected final MemLogPartition[] partitions;
+
+    protected final Map<Name, AtomicLongArray> committedOffsets = new ConcurrentHashMap<>();
+
+    public MemLog(Name name, int size, int capacity) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Invalid number of partitions: " + size + " for Log: " + name);
+        }
+        this.name = name;
+        this.partitions = new MemLogPartition[size];
+        for (int i = 0; i < size; i++) {
+            partitions[i] = new MemLogPartition(capacity);
+        }
+    }
+
+    public Name name() {
+        return name;
+    }
+
+    public int size() {
+        return partitions.length;
+    }
+
+    public MemLogPartition partition(int partition) {
+        if (partition < 0 || partition >= partitions.length) {
+            throw new IllegalArgumentException("Invalid partition: " + partition + " for Log: " + name);
+        }
+        return partitions[partition];
+    }
+
+    /**
+     * Appends a value to a partition and returns its offset. When the partition is full, waits until the slowest
+     * consumer group commits the record that would be overwritten.
+     *
+     * @throws TimeoutException if the partition is still full after the timeout
+     */
+    public long append(int partition, Object value, Duration timeout) throws InterruptedException, TimeoutException {
+        return append(partition(partition), partition, value, timeout);
+    }
+
+    protected long append(MemLogPartition data, int partition, Object value, Duration timeout)
+            throws InterruptedException, TimeoutException {
+        long offset = data.append(value, getAppendLimit(partition));
+        if (offset >= 0) {
+            return offset;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Thread current = Thread.currentThread();
+        // commits signal the partition
+        data.addWaiter(current);
+        try {
+            while ((offset = data.append(value, getAppendLimit(partition))) < 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new TimeoutException("Partition: " + partition + " of Log: " + name + " is full, capacity: "
+                            + data.capacity() + ", the slowest consumer group has not committed offset: "
+                            + (data.endOffset() - data.capacity()));
+                }
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            return offset;
+        } finally {
+            data.removeWaiter(current);
+        }
+    }
+
+    /**
+     * The first offset that cannot be appended without overwriting a record not yet committed by a consumer group.
+     */
+    protected long getAppendLimit(int partition) {
+        if (committedOffsets.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        long slowest = Long.MAX_VALUE;
+        for (AtomicLongArray offsets : committedOffsets.values()) {
+            slowest = Math.min(slowest, offsets.get(partition));
+        }
+        return slowest + partition(partition).capacity();
+    }
+
+    /**
+     * Declares a consumer group so it is listed even before its first commit.
+     */
+    public void registerGroup(Name group) {
+        getOffsets(group);
+    }
+
+    public List<Name> groups() {
+        return new ArrayList<>(committedOffsets.keySet());
+    }
+
+    public void commit(Name group, int partition, long offset) {
+        getOffsets(group).set(partition, offset);
+        // wake up appenders waiting for this offset to be processed
+        partition(partition).signal();
+    }
+
+    /**
+     * Returns the committed offset of the group or 0 if the group has never committed.
+     */
+    public long committed(Name group, int partition) {
+        AtomicLongArray offsets = committedOffsets.get(group);
+        return offsets == null ? 0 : offsets.get(partition);
+    }
+
+    public LogLag getLag(Name group, int partition) {
+        MemLogPartition data = partition(partition);
+        long end = data.endOffset();
+        long committed = committed(group, partition);
+        long lag = end - Math.max(committed, data.firstOffset());
+        return new LogLag(committed, end, lag, end);
+    }
+
+    protected AtomicLongArray getOffsets(Name group) {
+        return committedOffsets.computeIfAbsent(group, g -> new AtomicLongArray(partitions.length));
+    }
+
+    @Override
+    public String toString() {
+        return "MemLog{" + "name=" + name + ", size=" + partitions.length + '}';
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.log.mem;
+
+import static org.nuxeo.lib.stream.codec.NoCodec.NO_CODEC;
+
+import java.io.Externalizable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.nuxeo.lib.stream.StreamRuntimeException;
+import org.nuxeo.lib.stream.codec.Codec;
+import org.nuxeo.lib.stream.log.LogOffset;
+import org.nuxeo.lib.stream.log.Name;
+import org.nuxeo.lib.stream.log.internals.CloseableLogAppender;
+import org.nuxeo.lib.stream.log.internals.LogOffsetImpl;
+
+/**
+ * Appends records to an in-memory Log. When using the legacy {@link org.nuxeo.lib.stream.codec.NoCodec} the message
+ * instance is stored as is, it must not be modified once appended.
+ *
+ * @since 11.3
+ */
+public class MemLogAppender<M extends Externalizable> implements CloseableLogAppender<M> {
+    private static final Log log = LogFactory.getLog(MemLogAppender.class);
+
+    /**
+     * How long an append waits for consumers when the partition is full.
+     */
+    public static final Duration APPEND_TIMEOUT = Duration.ofMinutes(1);
+
+    protected final MemLog memLog;
+
+    protected final List<MemLogPartition> partitions;
+
+    protected final Codec<M> codec;
+
+    protected volatile boolean closed;
+
+    public MemLogAppender(MemLog memLog, Codec<M> codec) {
+        this.memLog = memLog;
+        this.codec = codec;
+        this.partitions = new ArrayList<>(memLog.size());
+        for (int i = 0; i < memLog.size(); i++) {
+            partitions.add(memLog.partition(i));
+        }
+    }
+
+    @Override
+    public Name name() {
+        return memLog.name();
+    }
+
+    @Override
+    public int size() {
+        return memLog.size();
+    }
+
+    @Override
+    public LogOffset append(int partition, M message) {
+        Object value = NO_CODEC.equals(codec) ? message : codec.encode(message);
+        long offset;
+        try {
+            offset = memLog.append(partitions.get(partition), partition, value, APPEND_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StreamRuntimeException(e);
+        } catch (TimeoutException e) {
+            throw new StreamRuntimeException(e.getMessage(), e);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("append to %s-%02d:+%d, value: %s", name(), partition, offset, message));
+        }
+        return new LogOffsetImpl(name(), partition, offset);
+    }
+
+    @Override
+    public boolean waitFor(LogOffset offset, Name group, Duration timeout) throws InterruptedException {
+        if (!name().equals(offset.partition().name())) {
+            throw new IllegalArgumentException(name() + " can not wait for an offset with a different Log: " + offset);
+        }
+        int partition = offset.partition().partition();
+        if (isProcessed(group, partition, offset.offset())) {
+            return true;
+        }
+        MemLogPartition data = memLog.partition(partition);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Thread current = Thread.currentThread();
+        data.addWaiter(current);
+        try {
+            while (!isProcessed(group, partition, offset.offset())) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            return true;
+        } finally {
+            data.removeWaiter(current);
+        }
+    }
+
+    protected boolean isProcessed(Name group, int partition, long offset) {
+        return memLog.committed(group, partition) > offset;
+    }
+
+    @Override
+    public boolean closed() {
+        return closed;
+    }
+
+    @Override
+    public Codec<M> getCodec() {
+        return codec;
+    }
+
+    @Override
+    public void close() {
+        log.debug("Closing: " + toString());
+        partitions.clear();
+        closed = true;
+    }
+
+    @Override
+    public String toString() {
+        return "MemLogAppender{" + "name=" + name() + ", size=" + size() + ", closed=" + closed + ", codec=" + codec
+                + '}';
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.log.mem;
+
+import java.util.List;
+
+import org.nuxeo.lib.stream.log.AbstractLogConfig;
+
+/**
+ * @since 11.3
+ */
+public class MemLogConfig extends AbstractLogConfig {
+
+    /**
+     * Default number of records kept per partition.
+     * <p>
+     * The capacity bounds the lag of the consumer groups: once a partition holds {@code capacity} records not yet
+     * committed by the slowest group, appends wait for it to commit, and fail after
+     * {@link MemLogAppender#APPEND_TIMEOUT}. Records of a partition without consumer group are overwritten.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 17;
+
+    protected final String name;
+
+    protected final int capacity;
+
+    public MemLogConfig(String name, boolean defaultConfig, List<String> patterns) {
+        this(name, defaultConfig, patterns, DEFAULT_CAPACITY);
+    }
+
+    public MemLogConfig(String name, boolean defaultConfig, List<String> patterns, int capacity) {
+        super(defaultConfig, patterns);
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity + " for config: " + name);
+        }
+        this.name = name;
+        this.capacity = capacity;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public String toString() {
+        return "MemLogConfig{" + "name='" + name + '\'' + ", capacity=" + capacity + '}';
+    }
+}
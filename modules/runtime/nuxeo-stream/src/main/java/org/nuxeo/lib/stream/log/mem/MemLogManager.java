@@ -0,0 +1,173 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.log.mem;
+
+import java.io.Externalizable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.nuxeo.lib.stream.codec.Codec;
+import org.nuxeo.lib.stream.log.LogConfig;
+import org.nuxeo.lib.stream.log.LogLag;
+import org.nuxeo.lib.stream.log.LogPartition;
+import org.nuxeo.lib.stream.log.LogTailer;
+import org.nuxeo.lib.stream.log.Name;
+import org.nuxeo.lib.stream.log.RebalanceListener;
+import org.nuxeo.lib.stream.log.internals.AbstractLogManager;
+import org.nuxeo.lib.stream.log.internals.CloseableLogAppender;
+
+/**
+ * A LogManager that keeps Logs in memory, records are stored in bounded ring buffers and consumer group offsets are
+ * kept in memory. Nothing survives a JVM restart.
+ *
+ * @since 11.3
+ */
+public class MemLogManager extends AbstractLogManager {
+
+    protected final List<MemLogConfig> configs;
+
+    protected final MemLogConfig defaultConfig;
+
+    public MemLogManager(String name) {
+        this(Collections.singletonList(new MemLogConfig(name, true, Collections.emptyList())));
+    }
+
+    public MemLogManager(List<MemLogConfig> configs) {
+        if (configs == null || configs.isEmpty()) {
+            throw new IllegalArgumentException("At least one MemLogConfig is required");
+        }
+        this.configs = configs;
+        this.defaultConfig = findDefaultConfig();
+    }
+
+    protected MemLogConfig findDefaultConfig() {
+        List<MemLogConfig> defaultConfigs = configs.stream()
+                                                   .filter(LogConfig::isDefault)
+                                                   .collect(Collectors.toList());
+        // use the last default config
+        if (defaultConfigs.isEmpty()) {
+            return configs.get(configs.size() - 1);
+        }
+        return defaultConfigs.get(defaultConfigs.size() - 1);
+    }
+
+    protected MemLogConfig getConfig(Name name) {
+        return configs.stream().filter(config -> config.match(name)).findFirst().orElse(defaultConfig);
+    }
+
+    protected MemLogs getStore(Name name) {
+        return MemLogs.of(getConfig(name).getName());
+    }
+
+    protected MemLog getLog(Name name) {
+        MemLog ret = getStore(name).get(name);
+        if (ret == null) {
+            throw new IllegalArgumentException("Unknown Log: " + name);
+        }
+        return ret;
+    }
+
+    @Override
+    public boolean exists(Name name) {
+        return getStore(name).get(name) != null;
+    }
+
+    @Override
+    protected void create(Name name, int size) {
+        getStore(name).create(name, size, getConfig(name).getCapacity());
+    }
+
+    @Override
+    protected int getSize(Name name) {
+        return getLog(name).size();
+    }
+
+    @Override
+    public boolean delete(Name name) {
+        CloseableLogAppender<?> appender = appenders.remove(name);
+        if (appender != null) {
+            appender.close();
+        }
+        return getStore(name).delete(name);
+    }
+
+    @Override
+    public List<LogLag> getLagPerPartition(Name name, Name group) {
+        MemLog memLog = getLog(name);
+        return IntStream.range(0, memLog.size())
+                        .mapToObj(partition -> memLog.getLag(group, partition))
+                        .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Name> listAllNames() {
+        Set<Name> names = new LinkedHashSet<>();
+        configs.stream()
+               .map(MemLogConfig::getName)
+               .distinct()
+               .forEach(store -> names.addAll(MemLogs.of(store).names()));
+        return new ArrayList<>(names);
+    }
+
+    @Override
+    public List<Name> listConsumerGroups(Name name) {
+        return getLog(name).groups();
+    }
+
+    @Override
+    protected <M extends Externalizable> CloseableLogAppender<M> createAppender(Name name, Codec<M> codec) {
+        return new MemLogAppender<>(getLog(name), codec);
+    }
+
+    @Override
+    protected <M extends Externalizable> LogTailer<M> doCreateTailer(Collection<LogPartition> partitions, Name group,
+            Codec<M> codec) {
+        return MemLogTailer.createAndAssign(codec, group, this::getLog, partitions);
+    }
+
+    @Override
+    public boolean supportSubscribe() {
+        return true;
+    }
+
+    @Override
+    protected <M extends Externalizable> LogTailer<M> doSubscribe(Name group, Collection<Name> names,
+            RebalanceListener listener, Codec<M> codec) {
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("Cannot subscribe without Log name, group: " + group);
+        }
+        List<LogPartition> partitions = new ArrayList<>();
+        for (Name name : names) {
+            MemLog memLog = getLog(name);
+            memLog.registerGroup(group);
+            IntStream.range(0, memLog.size()).forEach(partition -> partitions.add(LogPartition.of(name, partition)));
+        }
+        MemConsumerGroup consumerGroup = getStore(names.iterator().next()).getConsumerGroup(group, names,
+                partitions);
+        return MemLogTailer.createAndSubscribe(codec, group, this::getLog, consumerGroup, listener);
+    }
+
+    @Override
+    public String toString() {
+        return "MemLogManager{" + "configs=" + configs + ", defaultConfig=" + defaultConfig + '}';
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.log.mem;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A partition of an in-memory Log, a bounded ring buffer of records.
+ * <p>
+ * Appenders claim an offset atomically and publish the record in its slot, there is no lock. An append can be limited
+ * to an offset so that records not yet processed are not overwritten, see {@link MemLog#append}. Offsets start at 0 and
+ * are never reused, a slot is tagged with the offset of its record so a reader can detect that a record is not yet
+ * published or has been overwritten.
+ * <p>
+ * Threads waiting for a change (new record or commit) are unparked on each change, there is no polling.
+ *
+ * @since 11.3
+ */
+public class MemLogPartition {
+
+    protected static final int SEGMENT_SHIFT = 10;
+
+    protected static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+
+    protected static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    protected final int capacity;
+
+    protected final long mask;
+
+    // slots are allocated by segment on first use so a large capacity costs nothing until used
+    protected final AtomicReferenceArray<AtomicReferenceArray<Entry>> segments;
+
+    protected final AtomicLong end = new AtomicLong();
+
+    protected final Set<Thread> waiters = ConcurrentHashMap.newKeySet();
+
+    public MemLogPartition(int capacity) {
+        int size = Math.max(SEGMENT_SIZE, Integer.highestOneBit(capacity));
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.segments = new AtomicReferenceArray<>(size >>> SEGMENT_SHIFT);
+    }
+
+    /**
+     * Appends a value and returns its offset.
+     */
+    public long append(Object value) {
+        return append(value, Long.MAX_VALUE);
+    }
+
+    /**
+     * Appends a value if its offset is lower than the limit, returns its offset or {@code -1} when the limit is
+     * reached.
+     */
+    public long append(Object value, long limit) {
+        long offset;
+        do {
+            offset = end.get();
+            if (offset >= limit) {
+                return -1;
+            }
+        } while (!end.compareAndSet(offset, offset + 1));
+        int index = (int) (offset & mask);
+        getOrCreateSegment(index).set(index & SEGMENT_MASK, new Entry(offset, value));
+        signal();
+        return offset;
+    }
+
+    /**
+     * Returns the entry stored in the slot of this offset, the entry offset can be different from the requested one:
+     * lower when the record is not yet published, greater when it has been overwritten. Returns {@code null} when
+     * nothing has been written in the slot.
+     */
+    public Entry get(long offset) {
+        if (offset < 0 || offset >= end.get()) {
+            return null;
+        }
+        int index = (int) (offset & mask);
+        AtomicReferenceArray<Entry> segment = segments.get(index >>> SEGMENT_SHIFT);
+        if (segment == null) {
+            return null;
+        }
+        return segment.get(index & SEGMENT_MASK);
+    }
+
+    /**
+     * The offset of the first available record.
+     */
+    public long firstOffset() {
+        return Math.max(0, end.get() - capacity);
+    }
+
+    /**
+     * The offset of the next record to be appended.
+     */
+    public long endOffset() {
+        return end.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void addWaiter(Thread thread) {
+        waiters.add(thread);
+    }
+
+    public void removeWaiter(Thread thread) {
+        waiters.remove(thread);
+    }
+
+    /**
+     * Wakes up all the threads waiting for a change on this partition.
+     */
+    public void signal() {
+        if (!waiters.isEmpty()) {
+            waiters.forEach(LockSupport::unpark);
+        }
+    }
+
+    protected AtomicReferenceArray<Entry> getOrCreateSegment(int index) {
+        int segmentIndex = index >>> SEGMENT_SHIFT;
+        AtomicReferenceArray<Entry> segment = segments.get(segmentIndex);
+        if (segment == null) {
+            segments.compareAndSet(segmentIndex, null, new AtomicReferenceArray<>(SEGMENT_SIZE));
+            segment = segments.get(segmentIndex);
+        }
+        return segment;
+    }
+
+    @Override
+    public String toString() {
+        return "MemLogPartition{" + "capacity=" + capacity + ", end=" + end + '}';
+    }
+
+    public static final class Entry {
+
+        public final long offset;
+
+        public final Object value;
+
+        public Entry(long offset, Object value) {
+            this.offset = offset;
+            this.value = value;
+        }
+    }
+}
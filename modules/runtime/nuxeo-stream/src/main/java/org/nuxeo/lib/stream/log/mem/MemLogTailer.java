@@ -0,0 +1,345 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.log.mem;
+
+import static org.nuxeo.lib.stream.codec.NoCodec.NO_CODEC;
+
+import java.io.Externalizable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.nuxeo.lib.stream.codec.Codec;
+import org.nuxeo.lib.stream.log.LogOffset;
+import org.nuxeo.lib.stream.log.LogPartition;
+import org.nuxeo.lib.stream.log.LogRecord;
+import org.nuxeo.lib.stream.log.LogTailer;
+import org.nuxeo.lib.stream.log.Name;
+import org.nuxeo.lib.stream.log.RebalanceException;
+import org.nuxeo.lib.stream.log.RebalanceListener;
+import org.nuxeo.lib.stream.log.internals.LogOffsetImpl;
+import org.nuxeo.lib.stream.log.mem.MemLogPartition.Entry;
+
+/**
+ * Reads records from in-memory Logs, the tailer is either assigned to partitions or subscribed to Logs through a
+ * {@link MemConsumerGroup}.
+ * <p>
+ * A read without record parks the thread until a record is appended on an assigned partition or the timeout expires.
+ *
+ * @since 11.3
+ */
+public class MemLogTailer<M extends Externalizable> implements LogTailer<M> {
+    private static final Log log = LogFactory.getLog(MemLogTailer.class);
+
+    protected final Codec<M> codec;
+
+    protected final Name group;
+
+    protected final Function<Name, MemLog> resolver;
+
+    protected final List<Assignment> assignments = new ArrayList<>();
+
+    protected MemConsumerGroup consumerGroup;
+
+    protected RebalanceListener listener;
+
+    protected int generation = -1;
+
+    protected int next;
+
+    protected volatile boolean closed;
+
+    protected MemLogTailer(Codec<M> codec, Name group, Function<Name, MemLog> resolver) {
+        Objects.requireNonNull(group);
+        this.codec = codec;
+        this.group = group;
+        this.resolver = resolver;
+    }
+
+    public static <M extends Externalizable> MemLogTailer<M> createAndAssign(Codec<M> codec, Name group,
+            Function<Name, MemLog> resolver, Collection<LogPartition> partitions) {
+        MemLogTailer<M> ret = new MemLogTailer<>(codec, group, resolver);
+        ret.assign(partitions);
+        ret.toLastCommitted();
+        return ret;
+    }
+
+    public static <M extends Externalizable> MemLogTailer<M> createAndSubscribe(Codec<M> codec, Name group,
+            Function<Name, MemLog> resolver, MemConsumerGroup consumerGroup, RebalanceListener listener) {
+        MemLogTailer<M> ret = new MemLogTailer<>(codec, group, resolver);
+        ret.consumerGroup = consumerGroup;
+        ret.listener = listener;
+        consumerGroup.join(ret);
+        return ret;
+    }
+
+    protected void assign(Collection<LogPartition> partitions) {
+        assignments.clear();
+        next = 0;
+        for (LogPartition partition : partitions) {
+            MemLog memLog = resolver.apply(partition.name());
+            memLog.registerGroup(group);
+            assignments.add(new Assignment(partition, memLog, memLog.partition(partition.partition())));
+        }
+    }
+
+    @Override
+    public LogRecord<M> read(Duration timeout) throws InterruptedException {
+        LogRecord<M> ret = read();
+        if (ret != null) {
+            return ret;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Thread current = Thread.currentThread();
+        List<Assignment> waitingOn = new ArrayList<>(assignments);
+        waitingOn.forEach(assignment -> assignment.data.addWaiter(current));
+        try {
+            // registered before reading again so an append in between is not missed
+            while ((ret = read()) == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            return ret;
+        } finally {
+            waitingOn.forEach(assignment -> assignment.data.removeWaiter(current));
+        }
+    }
+
+    protected LogRecord<M> read() {
+        if (closed) {
+            throw new IllegalStateException("The tailer has been closed.");
+        }
+        checkRebalance();
+        int size = assignments.size();
+        for (int i = 0; i < size; i++) {
+            int index = (next + i) % size;
+            LogRecord<M> ret = read(assignments.get(index));
+            if (ret != null) {
+                // round robin between partitions
+                next = (index + 1) % size;
+                return ret;
+            }
+        }
+        return null;
+    }
+
+    protected LogRecord<M> read(Assignment assignment) {
+        Entry entry = assignment.data.get(assignment.position);
+        while (entry != null && entry.offset > assignment.position) {
+            long firstOffset = assignment.data.firstOffset();
+            // only records appended before the group was registered can be overwritten without being committed
+            log.warn("The record at offset: " + assignment.position + " for tailer: " + this
+                    + " has been overwritten before the consumer group was registered,"
+                    + " continuing from the beginning of the partition offset: " + firstOffset);
+            assignment.position = Math.max(firstOffset, assignment.position + 1);
+            entry = assignment.data.get(assignment.position);
+        }
+        if (entry == null || entry.offset < assignment.position) {
+            // nothing appended or not yet published
+            return null;
+        }
+        LogOffset offset = new LogOffsetImpl(assignment.partition, assignment.position);
+        assignment.position++;
+        return new LogRecord<>(decode(entry.value), offset);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected M decode(Object value) {
+        if (value instanceof byte[]) {
+            if (NO_CODEC.equals(codec)) {
+                throw new IllegalArgumentException("Cannot read an encoded record without codec, tailer: " + this);
+            }
+            return codec.decode((byte[]) value);
+        }
+        return (M) value;
+    }
+
+    protected void checkRebalance() {
+        if (consumerGroup == null) {
+            return;
+        }
+        int current = consumerGroup.generation();
+        if (current == generation) {
+            return;
+        }
+        if (generation >= 0 && listener != null) {
+            listener.onPartitionsRevoked(assignments());
+        }
+        generation = current;
+        assign(consumerGroup.assignments(this));
+        toLastCommitted();
+        if (listener != null) {
+            listener.onPartitionsAssigned(assignments());
+        }
+        log.debug("Rebalance generation: " + generation + " for tailer: " + this);
+        throw new RebalanceException("Partitions has been rebalanced");
+    }
+
+    @Override
+    public void commit() {
+        assignments.forEach(this::commit);
+    }
+
+    @Override
+    public LogOffset commit(LogPartition partition) {
+        return commit(getAssignment(partition));
+    }
+
+    protected LogOffset commit(Assignment assignment) {
+        assignment.memLog.commit(group, assignment.partition.partition(), assignment.position);
+        if (log.isTraceEnabled()) {
+            log.trace(String.format("Commit %s %s:+%d", group, assignment.partition, assignment.position));
+        }
+        return new LogOffsetImpl(assignment.partition, assignment.position);
+    }
+
+    @Override
+    public void toEnd() {
+        log.debug(String.format("toEnd: %s", this));
+        assignments.forEach(assignment -> assignment.position = assignment.data.endOffset());
+    }
+
+    @Override
+    public void toStart() {
+        log.debug(String.format("toStart: %s", this));
+        assignments.forEach(assignment -> assignment.position = assignment.data.firstOffset());
+    }
+
+    @Override
+    public void toLastCommitted() {
+        assignments.forEach(this::toLastCommitted);
+    }
+
+    protected void toLastCommitted(Assignment assignment) {
+        long committed = assignment.memLog.committed(group, assignment.partition.partition());
+        long firstOffset = assignment.data.firstOffset();
+        if (committed < firstOffset) {
+            if (committed > 0) {
+                log.error("The last committed offset: " + committed + " for tailer: " + this
+                        + " points to a record that has been overwritten."
+                        + " Records have been lost, continuing from the beginning of the partition offset: "
+                        + firstOffset);
+            }
+            committed = firstOffset;
+        }
+        log.debug(String.format("toLastCommitted: %s %s:+%d", group, assignment.partition, committed));
+        assignment.position = committed;
+    }
+
+    @Override
+    public void seek(LogOffset offset) {
+        Assignment assignment = assignments.stream()
+                                           .filter(a -> a.partition.equals(offset.partition()))
+                                           .findFirst()
+                                           .orElseThrow(() -> new IllegalStateException("Cannot seek, tailer " + this
+                                                   + " has no assignment for partition: " + offset));
+        log.debug("Seek to " + offset + " from tailer: " + this);
+        assignment.position = offset.offset();
+    }
+
+    @Override
+    public void reset() {
+        assignments.forEach(assignment -> reset(assignment.partition));
+    }
+
+    @Override
+    public void reset(LogPartition partition) {
+        Assignment assignment = getAssignment(partition);
+        log.info("Reset offset for partition: " + partition + " from tailer: " + this);
+        assignment.position = assignment.data.firstOffset();
+        commit(assignment);
+    }
+
+    @Override
+    public LogOffset offsetForTimestamp(LogPartition partition, long timestamp) {
+        throw new UnsupportedOperationException("MemLog does not support seek by timestamp");
+    }
+
+    @Override
+    public Collection<LogPartition> assignments() {
+        return assignments.stream().map(assignment -> assignment.partition).collect(Collectors.toList());
+    }
+
+    @Override
+    public Name group() {
+        return group;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            log.debug("Closing: " + this);
+            if (consumerGroup != null) {
+                consumerGroup.leave(this);
+            }
+            closed = true;
+        }
+    }
+
+    @Override
+    public boolean closed() {
+        return closed;
+    }
+
+    @Override
+    public Codec<M> getCodec() {
+        return codec;
+    }
+
+    protected Assignment getAssignment(LogPartition partition) {
+        return assignments.stream()
+                          .filter(assignment -> assignment.partition.equals(partition))
+                          .findFirst()
+                          .orElseThrow(() -> new IllegalArgumentException(
+                                  "Cannot use partition: " + partition + " not assigned to tailer: " + this));
+    }
+
+    @Override
+    public String toString() {
+        return "MemLogTailer{" + "group=" + group + ", assignments=" + assignments() + ", closed=" + closed
+                + ", codec=" + codec + '}';
+    }
+
+    protected static class Assignment {
+
+        protected final LogPartition partition;
+
+        protected final MemLog memLog;
+
+        protected final MemLogPartition data;
+
+        protected long position;
+
+        protected Assignment(LogPartition partition, MemLog memLog, MemLogPartition data) {
+            this.partition = partition;
+            this.memLog = memLog;
+            this.data = data;
+        }
+    }
+}
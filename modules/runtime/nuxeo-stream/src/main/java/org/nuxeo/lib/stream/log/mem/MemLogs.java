@@ -0,0 +1,86 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.log.mem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.nuxeo.lib.stream.log.LogPartition;
+import org.nuxeo.lib.stream.log.Name;
+
+/**
+ * A named store of in-memory Logs.
+ * <p>
+ * Stores are shared in the JVM so Logs and committed offsets survive a {@link MemLogManager} close, the same way a
+ * Chronicle Log survives on disk. Use {@link #clear(String)} to drop a store.
+ *
+ * @since 11.3
+ */
+public class MemLogs {
+
+    protected static final Map<String, MemLogs> STORES = new ConcurrentHashMap<>();
+
+    protected final String name;
+
+    protected final Map<Name, MemLog> logs = new ConcurrentHashMap<>();
+
+    protected final Map<String, MemConsumerGroup> consumerGroups = new ConcurrentHashMap<>();
+
+    protected MemLogs(String name) {
+        this.name = name;
+    }
+
+    public static MemLogs of(String name) {
+        return STORES.computeIfAbsent(name, MemLogs::new);
+    }
+
+    /**
+     * Removes the store and all its Logs.
+     */
+    public static void clear(String name) {
+        STORES.remove(name);
+    }
+
+    public MemLog get(Name name) {
+        return logs.get(name);
+    }
+
+    public boolean create(Name name, int size, int capacity) {
+        return logs.putIfAbsent(name, new MemLog(name, size, capacity)) == null;
+    }
+
+    public boolean delete(Name name) {
+        return logs.remove(name) != null;
+    }
+
+    public List<Name> names() {
+        return new ArrayList<>(logs.keySet());
+    }
+
+    public MemConsumerGroup getConsumerGroup(Name group, Collection<Name> names, List<LogPartition> partitions) {
+        String id = group.getId() + ":" + names.stream().map(Name::getId).sorted().collect(Collectors.joining("|"));
+        return consumerGroups.computeIfAbsent(id, k -> new MemConsumerGroup(group, partitions));
+    }
+
+    @Override
+    public String toString() {
+        return "MemLogs{" + "name='" + name + '\'' + ", logs=" + logs.keySet() + '}';
+    }
+}
@@ -26,10 +26,13 @@ import static org.junit.Assert.fail;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.EnumSet;
 
 import org.apache.avro.message.MissingSchemaException;
@@ -199,6 +202,21 @@ public class TestCodec {
         }
     }
 
+    @Test
+    public void testEncodeBufferOverflow() {
+        Record src = getRecord();
+        for (Codec<Record> codec : Arrays.asList(new AvroMessageCodec<>(Record.class),
+                new AvroBinaryCodec<>(Record.class), new AvroJsonCodec<>(Record.class))) {
+            ByteBuffer buffer = ByteBuffer.allocate(codec.encode(src).length - 1);
+            try {
+                codec.encode(src, buffer);
+                fail("failure expected on encode with " + codec.getName());
+            } catch (BufferOverflowException e) {
+                // expected
+            }
+        }
+    }
+
     protected void testCodecFromFile(String path, Codec<Record> codec) throws IOException {
         byte[] data = readFile(path);
         Record record = codec.decode(data);
@@ -222,6 +240,13 @@ public class TestCodec {
         T dest2 = codec.decode(data2);
         assertEquals(src, dest2);
         assertEquals(String.format("%s\n%s", overview(data), overview(data2)), data.length, data2.length);
+        // encode and decode using a buffer
+        ByteBuffer buffer = ByteBuffer.allocate(data.length);
+        codec.encode(src, buffer);
+        assertEquals(data.length, buffer.position());
+        buffer.flip();
+        assertEquals(ByteBuffer.wrap(data), buffer);
+        assertEquals(src, codec.decode(buffer));
         // System.out.println(String.format("Codec: %s, size: %d", codec.getClass().getSimpleName(), data.length));
         return dest2;
     }
@@ -0,0 +1,57 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.tests.computation;
+
+import java.util.List;
+
+import org.nuxeo.lib.stream.computation.ComputationContext;
+import org.nuxeo.lib.stream.computation.Record;
+
+/**
+ * Computation that forwards records delivered by batch, request a checkpoint once per batch.
+ *
+ * @since 11.3
+ */
+public class ComputationRecordsForward extends ComputationForward {
+
+    protected static volatile int maxBatchSize;
+
+    protected static volatile int batchCounter;
+
+    protected static volatile int terminateAfterBatches;
+
+    public ComputationRecordsForward(String name, int inputs, int outputs) {
+        super(name, inputs, outputs);
+    }
+
+    @Override
+    public void processRecords(ComputationContext context, String inputStreamName, List<Record> records) {
+        batchCounter++;
+        maxBatchSize = Math.max(maxBatchSize, records.size());
+        records.forEach(record -> context.produceRecord(OUTPUT_1, record));
+        context.askForCheckpoint();
+        if (batchCounter == terminateAfterBatches) {
+            context.askForTermination();
+        }
+    }
+
+    public static void reset() {
+        maxBatchSize = 0;
+        batchCounter = 0;
+        terminateAfterBatches = 0;
+    }
+
+}
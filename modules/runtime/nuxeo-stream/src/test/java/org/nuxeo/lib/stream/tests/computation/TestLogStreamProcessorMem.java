@@ -0,0 +1,52 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.tests.computation;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.nuxeo.lib.stream.log.LogManager;
+import org.nuxeo.lib.stream.log.mem.MemLogConfig;
+import org.nuxeo.lib.stream.log.mem.MemLogManager;
+import org.nuxeo.lib.stream.log.mem.MemLogs;
+
+/**
+ * @since 11.3
+ */
+public class TestLogStreamProcessorMem extends TestStreamProcessor {
+
+    protected String storeName;
+
+    @After
+    public void clearStore() {
+        if (storeName != null) {
+            MemLogs.clear(storeName);
+        }
+    }
+
+    @Override
+    public LogManager getLogManager() throws Exception {
+        storeName = "test-" + System.nanoTime();
+        return getSameLogManager();
+    }
+
+    @Override
+    public LogManager getSameLogManager() {
+        return new MemLogManager(
+                Collections.singletonList(new MemLogConfig(storeName, true, Collections.emptyList())));
+    }
+
+}
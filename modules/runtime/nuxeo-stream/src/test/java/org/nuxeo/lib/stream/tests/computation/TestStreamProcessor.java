@@ -45,6 +45,7 @@ import org.nuxeo.lib.stream.computation.Settings;
 import org.nuxeo.lib.stream.computation.StreamManager;
 import org.nuxeo.lib.stream.computation.StreamProcessor;
 import org.nuxeo.lib.stream.computation.Topology;
+import org.nuxeo.lib.stream.computation.WaitStrategy;
 import org.nuxeo.lib.stream.computation.Watermark;
 import org.nuxeo.lib.stream.computation.log.LogStreamManager;
 import org.nuxeo.lib.stream.log.Latency;
@@ -209,6 +210,11 @@ public abstract class TestStreamProcessor {
     }
 
     public void testComplexTopo(int nbRecords, int concurrency, int partitions) throws Exception {
+        testComplexTopo(nbRecords, concurrency, partitions, false);
+    }
+
+    public void testComplexTopo(int nbRecords, int concurrency, int partitions, boolean sharedScheduling)
+            throws Exception {
         final long targetTimestamp = System.currentTimeMillis();
         Topology topology = Topology.builder()
                                     .addComputation(
@@ -231,6 +237,7 @@ public abstract class TestStreamProcessor {
 
         Settings settings = new Settings(concurrency, partitions, codec).setPartitions("output", 1);
         settings.setConcurrency("C4", 4).setPartitions("s3", 4).setConcurrency("COUNTER", 4).setPartitions("s5", 4);
+        settings.setSharedScheduling(sharedScheduling).setMaxRunning("C4", 1);
         // uncomment to get the plantuml diagram
         // System.out.println(topology.toPlantuml(settings));
         try (LogManager manager = getLogManager()) {
@@ -246,8 +253,8 @@ public abstract class TestStreamProcessor {
             // read the results
             int result = readOutputCounter(manager);
             log.info(String.format(
-                    "topo: complex, concurrency: %d, records: %s, took: %.2fs, throughput: %.2f records/s", concurrency,
-                    result, elapsed, result / elapsed));
+                    "topo: complex, concurrency: %d, shared: %s, records: %s, took: %.2fs, throughput: %.2f records/s",
+                    concurrency, sharedScheduling, result, elapsed, result / elapsed));
             assertEquals(2 * settings.getConcurrency("GENERATOR") * nbRecords, result);
         }
     }
@@ -297,6 +304,11 @@ public abstract class TestStreamProcessor {
         testComplexTopo(100, 6, 8);
     }
 
+    @Test
+    public void testComplexTopoManyRecordsSharedScheduling() throws Exception {
+        testComplexTopo(1003, 4, 8, true);
+    }
+
     @Test
     public void testStopAndResume() throws Exception {
         final long targetTimestamp = System.currentTimeMillis();
@@ -656,6 +668,100 @@ public abstract class TestStreamProcessor {
 
     }
 
+    @Test
+    public void testPolicyBatchDelivery() throws Exception {
+        final int NB_RECORDS = 100;
+        final int BATCH_CAPACITY = 10;
+        Topology topology = Topology.builder()
+                                    .addComputation(() -> new ComputationRecordsForward("C1", 1, 1),
+                                            Arrays.asList("i1:input", "o1:output"))
+                                    .build();
+        ComputationPolicy policy = new ComputationPolicyBuilder().batchPolicy(BATCH_CAPACITY, Duration.ofSeconds(1))
+                                                                 .batchDelivery(true)
+                                                                 .build();
+        ComputationRecordsForward.reset();
+        try (LogManager manager = getLogManager()) {
+            StreamManager streamManager = new LogStreamManager(manager);
+            Settings settings = new Settings(1, 1, policy);
+            StreamProcessor processor = streamManager.registerAndCreateProcessor("processor", topology, settings);
+            for (int i = 0; i < NB_RECORDS; i++) {
+                streamManager.append("input", Record.of("key" + i, null));
+            }
+            processor.start();
+            processor.waitForAssignments(Duration.ofSeconds(10));
+            assertTrue(processor.drainAndStop(Duration.ofSeconds(20)));
+            assertEquals(0, manager.getLag(Name.ofUrn("input"), Name.ofUrn("C1")).lag());
+            assertEquals(NB_RECORDS, manager.getLag(Name.ofUrn("output"), Name.ofUrn("test/results")).lag());
+            // records are delivered by batch without exceeding the capacity
+            assertTrue(ComputationRecordsForward.batchCounter < NB_RECORDS);
+            assertTrue(ComputationRecordsForward.maxBatchSize > 1);
+            assertTrue(ComputationRecordsForward.maxBatchSize <= BATCH_CAPACITY);
+        }
+    }
+
+    @Test
+    public void testPolicyWaitStrategy() throws Exception {
+        final int NB_RECORDS = 10;
+        Topology topology = Topology.builder()
+                                    .addComputation(() -> new ComputationForward("C1", 1, 1),
+                                            Arrays.asList("i1:input", "o1:output"))
+                                    .build();
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            ComputationPolicy policy = new ComputationPolicyBuilder().waitStrategy(strategy).build();
+            try (LogManager manager = getLogManager()) {
+                StreamManager streamManager = new LogStreamManager(manager);
+                Settings settings = new Settings(1, 1, policy);
+                StreamProcessor processor = streamManager.registerAndCreateProcessor("processor", topology, settings);
+                processor.start();
+                processor.waitForAssignments(Duration.ofSeconds(10));
+                for (int i = 0; i < NB_RECORDS; i++) {
+                    streamManager.append("input", Record.of("key" + i, null));
+                }
+                assertTrue(strategy.name(), processor.drainAndStop(Duration.ofSeconds(20)));
+                assertEquals(strategy.name(), 0, manager.getLag(Name.ofUrn("input"), Name.ofUrn("C1")).lag());
+            }
+        }
+    }
+
+    @Test
+    public void testPolicyBatchDeliveryTerminate() throws Exception {
+        final int NB_RECORDS = 20;
+        Topology topology = Topology.builder()
+                                    .addComputation(() -> new ComputationRecordsForward("C1", 2, 1),
+                                            Arrays.asList("i1:input1", "i2:input2", "o1:output"))
+                                    .build();
+        ComputationPolicy policy = new ComputationPolicyBuilder().batchPolicy(2 * NB_RECORDS, Duration.ofSeconds(1))
+                                                                 .batchDelivery(true)
+                                                                 .build();
+        ComputationRecordsForward.reset();
+        // terminate after the first sub batch, the rest of the batch read from the other stream is not processed
+        ComputationRecordsForward.terminateAfterBatches = 1;
+        try (LogManager manager = getLogManager()) {
+            StreamManager streamManager = new LogStreamManager(manager);
+            Settings settings = new Settings(1, 1, policy);
+            StreamProcessor processor = streamManager.registerAndCreateProcessor("processor", topology, settings);
+            for (int i = 0; i < NB_RECORDS; i++) {
+                streamManager.append("input1", Record.of("key" + i, null));
+                streamManager.append("input2", Record.of("key" + i, null));
+            }
+            processor.start();
+            processor.waitForAssignments(Duration.ofSeconds(10));
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (ComputationRecordsForward.batchCounter == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(processor.stop(Duration.ofSeconds(20)));
+            assertEquals(1, ComputationRecordsForward.batchCounter);
+            long processed = manager.getLag(Name.ofUrn("output"), Name.ofUrn("test/results")).lag();
+            assertTrue(processed > 0);
+            assertTrue(processed < 2 * NB_RECORDS);
+            // unprocessed records of the batch have not been committed
+            long lag = manager.getLag(Name.ofUrn("input1"), Name.ofUrn("C1")).lag()
+                    + manager.getLag(Name.ofUrn("input2"), Name.ofUrn("C1")).lag();
+            assertEquals(2 * NB_RECORDS - processed, lag);
+        }
+    }
+
     @Test
     public void testRegisterWithoutExecution() throws Exception {
         Topology topology = Topology.builder()
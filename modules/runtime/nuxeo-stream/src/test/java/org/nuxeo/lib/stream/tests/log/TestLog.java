@@ -860,15 +860,19 @@ public abstract class TestLog {
         KeyValueMessage msg1 = KeyValueMessage.ofForceBatch("key", "value".getBytes(UTF_8));
         KeyValueMessage msg2 = KeyValueMessage.of("id2", "foo".getBytes(UTF_8));
         KeyValueMessage msg3 = KeyValueMessage.of("1234567890", "0987654321".getBytes(UTF_8));
+        // larger than the initial encoding buffers
+        KeyValueMessage msg4 = KeyValueMessage.of("large", new byte[100_000]);
         appender.append(0, msg1);
         appender.append(0, msg2);
         appender.append(0, msg3);
+        appender.append(0, msg4);
         appender.append(0, msg1);
 
         try (LogTailer<KeyValueMessage> tailer1 = manager.createTailer(GROUP, LogPartition.of(logName, 0), codec)) {
             assertEquals(msg1, tailer1.read(DEF_TIMEOUT).message());
             assertEquals(msg2, tailer1.read(DEF_TIMEOUT).message());
             assertEquals(msg3, tailer1.read(DEF_TIMEOUT).message());
+            assertEquals(msg4, tailer1.read(DEF_TIMEOUT).message());
             assertEquals(msg1, tailer1.read(DEF_TIMEOUT).message());
             assertNull(tailer1.read(SMALL_TIMEOUT));
         }
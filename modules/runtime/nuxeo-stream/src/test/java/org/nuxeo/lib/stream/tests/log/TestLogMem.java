@@ -0,0 +1,224 @@
+/*
+ * (C) Copyright 2020 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nuxeo.lib.stream.tests.log;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Test;
+import org.nuxeo.lib.stream.log.LogAppender;
+import org.nuxeo.lib.stream.log.LogLag;
+import org.nuxeo.lib.stream.log.LogManager;
+import org.nuxeo.lib.stream.log.LogOffset;
+import org.nuxeo.lib.stream.log.LogRecord;
+import org.nuxeo.lib.stream.log.LogTailer;
+import org.nuxeo.lib.stream.log.Name;
+import org.nuxeo.lib.stream.log.RebalanceException;
+import org.nuxeo.lib.stream.log.mem.MemLog;
+import org.nuxeo.lib.stream.log.mem.MemLogConfig;
+import org.nuxeo.lib.stream.log.mem.MemLogManager;
+import org.nuxeo.lib.stream.log.mem.MemLogs;
+import org.nuxeo.lib.stream.tests.KeyValueMessage;
+
+/**
+ * @since 11.3
+ */
+public class TestLogMem extends TestLog {
+
+    protected static final int CAPACITY = 1024;
+
+    protected String storeName;
+
+    @After
+    public void clearStore() {
+        MemLogs.clear(storeName);
+        storeName = null;
+    }
+
+    @Override
+    public LogManager createManager() throws Exception {
+        if (storeName == null) {
+            storeName = "test-" + name.getMethodName();
+        }
+        return new MemLogManager(
+                Collections.singletonList(new MemLogConfig(storeName, true, Collections.emptyList(), CAPACITY)));
+    }
+
+    @Test
+    public void testOverwrittenRecords() throws Exception {
+        final Name GROUP = Name.ofUrn("test/group");
+        manager.createIfNotExists(logName, 1);
+        LogAppender<KeyValueMessage> appender = manager.getAppender(logName);
+        for (int i = 0; i < 3 * CAPACITY; i++) {
+            appender.append(0, KeyValueMessage.of("id" + i));
+        }
+        // the oldest records have been overwritten, only the capacity is readable
+        assertEquals(LogLag.of(CAPACITY), manager.getLag(logName, GROUP));
+        try (LogTailer<KeyValueMessage> tailer = manager.createTailer(GROUP, logName)) {
+            LogRecord<KeyValueMessage> record = tailer.read(DEF_TIMEOUT);
+            assertEquals("id" + 2 * CAPACITY, record.message().key());
+            assertEquals(2 * CAPACITY, record.offset().offset());
+            tailer.toEnd();
+            assertNull(tailer.read(SMALL_TIMEOUT));
+            tailer.commit();
+        }
+        assertEquals(0, manager.getLag(logName, GROUP).lag());
+    }
+
+    @Test
+    public void testBackPressure() throws Exception {
+        final Name GROUP = Name.ofUrn("test/group");
+        final int NB_RECORDS = 3 * CAPACITY;
+        manager.createIfNotExists(logName, 1);
+        LogAppender<KeyValueMessage> appender = manager.getAppender(logName);
+        try (LogTailer<KeyValueMessage> tailer = manager.createTailer(GROUP, logName)) {
+            // the producer runs past the capacity, it waits for the consumer instead of overwriting records
+            CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < NB_RECORDS; i++) {
+                    appender.append(0, KeyValueMessage.of("id" + i));
+                }
+            });
+            for (int i = 0; i < NB_RECORDS; i++) {
+                LogRecord<KeyValueMessage> record = tailer.read(DEF_TIMEOUT);
+                assertNotNull("Missing record: " + i, record);
+                assertEquals("id" + i, record.message().key());
+                assertEquals(i, record.offset().offset());
+                tailer.commit();
+            }
+            producer.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(0, manager.getLag(logName, GROUP).lag());
+    }
+
+    @Test
+    public void testAppendTimeoutWhenFull() throws Exception {
+        final Name GROUP = Name.ofUrn("test/group");
+        MemLog memLog = new MemLog(logName, 1, CAPACITY);
+        memLog.registerGroup(GROUP);
+        for (int i = 0; i < CAPACITY; i++) {
+            memLog.append(0, "id" + i, SMALL_TIMEOUT);
+        }
+        try {
+            memLog.append(0, "full", SMALL_TIMEOUT);
+            fail("The partition should be full");
+        } catch (TimeoutException e) {
+            // expected
+        }
+        memLog.commit(GROUP, 0, 1);
+        assertEquals(CAPACITY, memLog.append(0, "id" + CAPACITY, SMALL_TIMEOUT));
+    }
+
+    @Test
+    public void testReadWakeUpOnAppend() throws Exception {
+        manager.createIfNotExists(logName, 1);
+        LogAppender<KeyValueMessage> appender = manager.getAppender(logName);
+        try (LogTailer<KeyValueMessage> tailer = manager.createTailer(Name.ofUrn("test/group"), logName)) {
+            CompletableFuture<LogRecord<KeyValueMessage>> future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return tailer.read(Duration.ofSeconds(30));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(50);
+            long start = System.nanoTime();
+            appender.append(0, KeyValueMessage.of("id1"));
+            LogRecord<KeyValueMessage> record = future.get(10, TimeUnit.SECONDS);
+            assertNotNull(record);
+            assertEquals("id1", record.message().key());
+            // no polling interval involved
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue("Read took: " + elapsedMs, elapsedMs < 1000);
+        }
+    }
+
+    @Test
+    public void testWaitForCommit() throws Exception {
+        final Name GROUP = Name.ofUrn("test/group");
+        manager.createIfNotExists(logName, 1);
+        LogAppender<KeyValueMessage> appender = manager.getAppender(logName);
+        LogOffset offset = appender.append(0, KeyValueMessage.of("id1"));
+        assertEquals(0, offset.offset());
+        assertFalse(appender.waitFor(offset, GROUP, SMALL_TIMEOUT));
+        try (LogTailer<KeyValueMessage> tailer = manager.createTailer(GROUP, logName)) {
+            CompletableFuture<Boolean> future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return appender.waitFor(offset, GROUP, Duration.ofSeconds(30));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertEquals("id1", tailer.read(DEF_TIMEOUT).message().key());
+            tailer.commit();
+            assertTrue(future.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testSubscribeRebalance() throws Exception {
+        final Name GROUP = Name.ofUrn("test/group");
+        final int LOG_SIZE = 4;
+        manager.createIfNotExists(logName, LOG_SIZE);
+        try (LogTailer<KeyValueMessage> tailer1 = manager.subscribe(GROUP, Collections.singleton(logName), null)) {
+            try {
+                tailer1.read(SMALL_TIMEOUT);
+                fail("First read must raise a rebalance");
+            } catch (RebalanceException e) {
+                // expected
+            }
+            assertEquals(LOG_SIZE, tailer1.assignments().size());
+            try (LogTailer<KeyValueMessage> tailer2 = manager.subscribe(GROUP, Collections.singleton(logName),
+                    null)) {
+                try {
+                    tailer2.read(SMALL_TIMEOUT);
+                    fail("First read must raise a rebalance");
+                } catch (RebalanceException e) {
+                    // expected
+                }
+                try {
+                    tailer1.read(SMALL_TIMEOUT);
+                    fail("A new member must raise a rebalance");
+                } catch (RebalanceException e) {
+                    // expected
+                }
+                assertEquals(LOG_SIZE / 2, tailer1.assignments().size());
+                assertEquals(LOG_SIZE / 2, tailer2.assignments().size());
+                assertTrue(Collections.disjoint(tailer1.assignments(), tailer2.assignments()));
+            }
+            try {
+                tailer1.read(SMALL_TIMEOUT);
+                fail("A member leaving must raise a rebalance");
+            } catch (RebalanceException e) {
+                // expected
+            }
+            assertEquals(LOG_SIZE, tailer1.assignments().size());
+        }
+    }
+
+}